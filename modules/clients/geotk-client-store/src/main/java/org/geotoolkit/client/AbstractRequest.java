@@ -273,6 +273,28 @@ public abstract class AbstractRequest implements Request {
         return cnx;
     }
 
+    /**
+     * Open the connection of this request with additional request header fields,
+     * following redirections. The response status and header fields can be read on
+     * the returned connection, its stream should be opened with
+     * {@link #openRichException(URLConnection, ClientSecurity, int)}.
+     *
+     * @param properties additional request header fields, for example conditional request fields
+     * @return connection of the final response
+     */
+    public URLConnection openConnection(final Map<String,String> properties) throws IOException {
+        final Map<String,String> fields = new HashMap<>(headerMap);
+        fields.putAll(properties);
+
+        URLConnection cnx = getURL().openConnection();
+        for(final Entry<String,String> entry : fields.entrySet()){
+            cnx.setRequestProperty(entry.getKey(),entry.getValue());
+        }
+        //security
+        cnx = security.secure(cnx);
+        return followRedirections(cnx, fields);
+    }
+
     /**
      * Java do not follow urls if there is a change in protocol.
      * See : http://bugs.java.com/bugdatabase/view_bug.do?bug_id=4620571
@@ -281,11 +303,23 @@ public abstract class AbstractRequest implements Request {
      * @return 
      */
     protected InputStream followLink(URLConnection cnx) throws IOException {
+        return openRichException(followRedirections(cnx, headerMap));
+    }
+
+    /**
+     * Follow redirections, including those changing protocol.
+     *
+     * @param cnx connection to follow
+     * @param properties request header fields to set on redirected connections
+     * @return connection of the final response
+     */
+    private URLConnection followRedirections(URLConnection cnx, final Map<String,String> properties) throws IOException {
 
         while(cnx instanceof HttpURLConnection) {
             HttpURLConnection httpCnx = (HttpURLConnection) cnx;
 
-            final InputStream is = openRichException(httpCnx);
+            httpCnx.setConnectTimeout(timeout);
+            httpCnx.setReadTimeout(timeout*2);
             final int status = httpCnx.getResponseCode();
             final boolean redirect = status == HttpURLConnection.HTTP_MOVED_TEMP
                                   || status == HttpURLConnection.HTTP_MOVED_PERM
@@ -296,25 +330,25 @@ public abstract class AbstractRequest implements Request {
                 final String newUrl = httpCnx.getHeaderField("Location");
                 // get new cookies
                 final String cookies = httpCnx.getHeaderField("Set-Cookie");
-                is.close();
+                httpCnx.disconnect();
                 
                 // open redirection
                 httpCnx = (HttpURLConnection) new URL(newUrl).openConnection();
-                cnx = httpCnx;
                 httpCnx.setRequestProperty("Cookie", cookies);
 
                 //Set all fields from the headerMap to the properties of this URLConnection.
-                for(final Entry<String,String> entry : headerMap.entrySet()){
+                for(final Entry<String,String> entry : properties.entrySet()){
                     httpCnx.setRequestProperty(entry.getKey(),entry.getValue());
                 }
                 //security
                 httpCnx = (HttpURLConnection)security.secure(httpCnx);
+                cnx = httpCnx;
             }else{
-                return is;
+                return cnx;
             }
         }
 
-        return openRichException(cnx);
+        return cnx;
     }
 
     protected InputStream openRichException(final URLConnection cnx) throws IOException {
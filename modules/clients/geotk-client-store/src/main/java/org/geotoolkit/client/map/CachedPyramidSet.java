@@ -31,12 +31,18 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.imageio.ImageIO;
@@ -51,6 +57,7 @@ import org.apache.sis.storage.DataStoreException;
 import org.geotoolkit.storage.coverage.*;
 import org.apache.sis.util.collection.Cache;
 import org.geotoolkit.image.io.XImageIO;
+import org.geotoolkit.internal.Threads;
 import org.apache.sis.util.logging.Logging;
 import org.jboss.netty.bootstrap.ClientBootstrap;
 import org.jboss.netty.buffer.ChannelBuffer;
@@ -74,6 +81,21 @@ public abstract class CachedPyramidSet extends DefaultPyramidSet {
      */
     public static final String PROPERTY_NIO = "nio_query";
 
+    /**
+     * {@link TileCache} property used on tiled servers to store downloaded tiles
+     * in memory and on disk. Tiles are revalidated against the server when they
+     * are older than the cache maximum age.
+     * default value is null, no persistent cache.
+     */
+    public static final String PROPERTY_TILE_CACHE = "tile_cache";
+
+    /**
+     * {@link TileDownloadScheduler} property used on tiled servers to run tile downloads.
+     * The scheduler is shared by all pyramid sets of the server, a default one is created
+     * on first use.
+     */
+    public static final String PROPERTY_DOWNLOAD_SCHEDULER = "download_scheduler";
+
     protected static final Logger LOGGER = Logging.getLogger("org.geotoolkit.client.map");
 
     //NIO netty bootstrap.
@@ -119,6 +141,47 @@ public abstract class CachedPyramidSet extends DefaultPyramidSet {
 
     public abstract Request getTileRequest(GridMosaic mosaic, int col, int row, Map hints) throws DataStoreException;
 
+    /**
+     * @return tile cache configured on the server, or null
+     */
+    protected TileCache getTileCache() {
+        final Client server = getServer();
+        if (server == null) return null;
+        final Object cache = server.getUserProperty(PROPERTY_TILE_CACHE);
+        return (cache instanceof TileCache) ? (TileCache) cache : null;
+    }
+
+    /**
+     * @return download scheduler of the server, created if needed
+     */
+    protected TileDownloadScheduler getDownloadScheduler() {
+        final Client server = getServer();
+        if (server == null) {
+            return TileDownloadScheduler.getDefault();
+        }
+        synchronized (server) {
+            Object scheduler = server.getUserProperty(PROPERTY_DOWNLOAD_SCHEDULER);
+            if (!(scheduler instanceof TileDownloadScheduler)) {
+                scheduler = new TileDownloadScheduler(Runtime.getRuntime().availableProcessors()*2,
+                        TileDownloadScheduler.DEFAULT_MAX_PER_HOST);
+                server.setUserProperty(PROPERTY_DOWNLOAD_SCHEDULER, scheduler);
+            }
+            return (TileDownloadScheduler) scheduler;
+        }
+    }
+
+    /**
+     * Returns the tile request, going through the server tile cache if there is one.
+     */
+    private Request getCachedTileRequest(GridMosaic mosaic, int col, int row, Map hints) throws DataStoreException {
+        final Request request = getTileRequest(mosaic, col, row, hints);
+        final TileCache cache = getTileCache();
+        if (cache == null) {
+            return request;
+        }
+        return new CachedRequest(request, cache, server);
+    }
+
     public TileReference getTile(GridMosaic mosaic, int col, int row, Map hints) throws DataStoreException {
         final String formatmime = (hints==null) ? null : (String) hints.get(PyramidSet.HINT_FORMAT);
         ImageReaderSpi spi = null;
@@ -133,7 +196,7 @@ public abstract class CachedPyramidSet extends DefaultPyramidSet {
         if (cacheImages) {
             return new DefaultTileReference(spi, getTileImage(mosaic, col, row, hints), 0, new Point(col, row));
         } else {
-            return new RequestTileReference(spi, getTileRequest(mosaic, col, row, hints), 0, new Point(col, row));
+            return new RequestTileReference(spi, getCachedTileRequest(mosaic, col, row, hints), 0, new Point(col, row));
         }
     }
 
@@ -157,7 +220,7 @@ public abstract class CachedPyramidSet extends DefaultPyramidSet {
             try {
                 value = handler.peek();
                 if (value == null) {
-                    final Request request = getTileRequest(mosaic, col, row, hints);
+                    final Request request = getCachedTileRequest(mosaic, col, row, hints);
                     InputStream stream = null;
                     ImageInputStream iis = null;
                     try {
@@ -209,7 +272,8 @@ public abstract class CachedPyramidSet extends DefaultPyramidSet {
         }
 
         final boolean useNIO = Boolean.TRUE.equals(server.getUserProperty(PROPERTY_NIO));
-        if(!useNIO){
+        if(!useNIO || getTileCache() != null){
+            //NIO queries do not go through the tile cache
             return queryUnoptimizedIO(mosaic, locations, hints);
         }
 
@@ -329,66 +393,129 @@ public abstract class CachedPyramidSet extends DefaultPyramidSet {
     }
 
     /**
-     * Use standard java IO with a thread pool.
+     * Use standard java IO with the client download scheduler.
      */
     private void queryUsingIO(final CancellableQueue queue,
             final List<ImagePack> downloadList){
 
-        final int processors = Runtime.getRuntime().availableProcessors();
-        final ExecutorService es = Executors.newFixedThreadPool(processors*2);
+        final TileDownloadScheduler scheduler = getDownloadScheduler();
+        final List<Future<TileReference>> downloads = new ArrayList<>(downloadList.size());
 
         queue.addPropertyChangeListener(new PropertyChangeListener() {
                     @Override
                     public void propertyChange(PropertyChangeEvent evt) {
-                        es.shutdownNow();
+                        synchronized (downloads) {
+                            for (Future<TileReference> download : downloads) {
+                                download.cancel(false);
+                            }
+                        }
                     }
                 });
 
-        final CountDownLatch latch = new CountDownLatch(downloadList.size()) {
-            @Override
-            public void countDown() {
-                super.countDown();
-                if (getCount() <= 0 && !queue.isCancelled()) {
-                    try {
-                        //put a custom object, this is used in the iterator
-                        //to detect the end.
-                        queue.put(GridMosaic.END_OF_QUEUE);
-                    } catch (InterruptedException ex) {
-                        LOGGER.log(Level.INFO, ex.getMessage(), ex);
+        final TileDelivery delivery = new TileDelivery(queue, downloadList.size());
+
+        for(final ImagePack pack : downloadList){
+            if (queue.isCancelled()) break;
+
+            //tiles are shared by their url, several pyramid sets may use the same pyramid id
+            String host = null;
+            String key = null;
+            try {
+                final URL url = getTileRequest(pack.mosaic, pack.pt.x, pack.pt.y, pack.hints).getURL();
+                host = url.getHost();
+                key = url.toString();
+            } catch (DataStoreException | MalformedURLException ex) {
+                LOGGER.log(Level.FINE, ex.getMessage(), ex);
+            }
+
+            final CompletableFuture<TileReference> download = scheduler.submit(host, key, pack::readNow);
+            synchronized (downloads) {
+                downloads.add(download);
+            }
+            if (queue.isCancelled()) download.cancel(false);
+
+            download.whenComplete((TileReference tr, Throwable error) -> {
+                if (error != null) {
+                    if (!(error instanceof CancellationException)) {
+                        LOGGER.log(Level.WARNING, error.getMessage(), error);
                     }
-                    es.shutdown();
+                    delivery.skip();
+                } else {
+                    delivery.deliver(tr);
                 }
+            });
+        }
+
+    }
+
+    /**
+     * Hand downloaded tiles to the result queue without blocking download threads.
+     * Tiles which do not fit in the queue are kept aside and delivered by a single
+     * worker task, which waits for the consumer. The end of queue marker is delivered
+     * after all tiles.
+     */
+    private static final class TileDelivery implements Runnable {
+
+        private final CancellableQueue queue;
+        private final AtomicInteger remaining;
+        private final Queue<Object> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean delivering = new AtomicBoolean();
+
+        private TileDelivery(CancellableQueue queue, int count) {
+            this.queue = queue;
+            this.remaining = new AtomicInteger(count);
+        }
+
+        /**
+         * A tile download failed or has been cancelled.
+         */
+        void skip() {
+            if (remaining.decrementAndGet() == 0) {
+                //put a custom object, this is used in the iterator
+                //to detect the end.
+                offer(GridMosaic.END_OF_QUEUE);
             }
-        };
+        }
 
-        for(final ImagePack pack : downloadList){
-            es.submit(new Runnable() {
-                @Override
-                public void run() {
-                    try{
-                        final TileReference tr;
-                        try {
-                            tr = pack.readNow();
-                        } catch (Exception ex) {
-                            LOGGER.log(Level.WARNING, ex.getMessage(),ex);
-                            return;
-                        }
+        /**
+         * A tile has been downloaded.
+         */
+        void deliver(TileReference tile) {
+            offer(tile);
+            skip();
+        }
 
-                        boolean added = false;
-                        while(!added && !queue.isCancelled()){
-                            try {
-                                added = queue.offer(tr,200, TimeUnit.MILLISECONDS);
-                            } catch (InterruptedException ex) {
-                                LOGGER.log(Level.FINE, ex.getMessage());
-                            }
+        private void offer(Object element) {
+            if (queue.isCancelled()) return;
+            if (pending.isEmpty() && queue.offer(element)) return;
+            pending.add(element);
+            if (delivering.compareAndSet(false, true)) {
+                Threads.executeWork(this);
+            }
+        }
+
+        /**
+         * Wait for room in the queue and deliver pending elements.
+         */
+        @Override
+        public void run() {
+            do {
+                for (Object element; (element = pending.peek()) != null;) {
+                    if (queue.isCancelled()) {
+                        pending.clear();
+                        break;
+                    }
+                    try {
+                        if (queue.offer(element, 200, TimeUnit.MILLISECONDS)) {
+                            pending.poll();
                         }
-                    }finally{
-                        latch.countDown();
+                    } catch (InterruptedException ex) {
+                        LOGGER.log(Level.FINE, ex.getMessage());
                     }
                 }
-            });
+                delivering.set(false);
+            } while (!pending.isEmpty() && delivering.compareAndSet(false, true));
         }
-
     }
 
     /**
@@ -434,6 +561,37 @@ public abstract class CachedPyramidSet extends DefaultPyramidSet {
         return queue;
     }
 
+    /**
+     * Request delegating to a tile request, response is obtained from the tile cache.
+     */
+    private static final class CachedRequest implements Request {
+
+        private final Request request;
+        private final TileCache cache;
+        private final Client server;
+
+        private CachedRequest(Request request, TileCache cache, Client server) {
+            this.request = request;
+            this.cache = cache;
+            this.server = server;
+        }
+
+        @Override
+        public Map<String, String> getHeaderMap() {
+            return request.getHeaderMap();
+        }
+
+        @Override
+        public URL getURL() throws MalformedURLException {
+            return request.getURL();
+        }
+
+        @Override
+        public InputStream getResponseStream() throws IOException {
+            return new ByteArrayInputStream(cache.fetch(request, server.getClientSecurity(), server.getTimeOutValue()));
+        }
+    }
+
     /**
      * Used is NIO queries, act as an information container for each query.
      */
@@ -0,0 +1,498 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.client.map;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import org.apache.sis.util.ArgumentChecks;
+import org.geotoolkit.client.AbstractRequest;
+import org.geotoolkit.client.Request;
+import org.geotoolkit.internal.Threads;
+import org.geotoolkit.security.ClientSecurity;
+import org.geotoolkit.security.DefaultClientSecurity;
+
+import static org.geotoolkit.client.map.CachedPyramidSet.LOGGER;
+
+/**
+ * Two level cache of encoded tile bytes, shared by tiled clients.
+ * <p>
+ * The first level keeps the most recently used tiles in memory, within a byte budget.
+ * The second level stores tiles in a local directory, within a byte budget, evicting
+ * least recently used files. Entries older than {@link #getMaxAge() maximum age} are
+ * revalidated against the server using the ETag and Last-Modified values received
+ * with the tile.
+ * </p>
+ * Instances are obtained with {@link #getInstance(Path, long, long)}, which returns the
+ * same cache for the same directory. The cache is enabled on a client by setting it as
+ * the {@link CachedPyramidSet#PROPERTY_TILE_CACHE} user property.
+ *
+ * @author agent
+ * @module
+ */
+public final class TileCache {
+
+    /**
+     * Default duration in milliseconds during which a tile is used without revalidation.
+     */
+    public static final long DEFAULT_MAX_AGE = TimeUnit.HOURS.toMillis(24);
+
+    private static final int MAGIC = 0x54494C45; // "TILE"
+    private static final String EXTENSION = ".tile";
+    private static final String TEMP_EXTENSION = ".tmp";
+    /**
+     * Minimum delay in milliseconds between two updates of a tile file modification time
+     * when the tile is read from memory.
+     */
+    private static final long TOUCH_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
+    private static final Map<Path,TileCache> INSTANCES = new HashMap<>();
+
+    /**
+     * Returns the tile cache stored in given directory, creating it if needed.
+     * Callers asking for a directory already opened receive the same instance,
+     * the budgets of the first call are kept.
+     *
+     * @param directory folder where tiles are stored, created if it does not exist
+     * @param maxDiskSize maximum number of bytes stored in the directory
+     * @param maxMemorySize maximum number of bytes kept in memory
+     * @return shared tile cache, never null
+     * @throws IOException if the directory can not be created or scanned
+     */
+    public static synchronized TileCache getInstance(Path directory, long maxDiskSize, long maxMemorySize) throws IOException {
+        ArgumentChecks.ensureNonNull("directory", directory);
+        ArgumentChecks.ensurePositive("maxDiskSize", maxDiskSize);
+        ArgumentChecks.ensurePositive("maxMemorySize", maxMemorySize);
+        directory = directory.toAbsolutePath().normalize();
+        TileCache cache = INSTANCES.get(directory);
+        if (cache == null) {
+            cache = new TileCache(directory, maxDiskSize, maxMemorySize);
+            INSTANCES.put(directory, cache);
+        }
+        return cache;
+    }
+
+    /**
+     * A cached tile : encoded bytes and validation informations.
+     */
+    static final class Entry {
+        final byte[] data;
+        final String etag;
+        final String lastModified;
+        volatile long fetchTime;
+        /** Last time the file modification time has been updated. */
+        volatile long touchTime = System.currentTimeMillis();
+
+        Entry(byte[] data, String etag, String lastModified, long fetchTime) {
+            this.data = data;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.fetchTime = fetchTime;
+        }
+    }
+
+    private final Path directory;
+    private final long maxDiskSize;
+    private final long maxMemorySize;
+    private volatile long maxAge = DEFAULT_MAX_AGE;
+
+    /** Memory tier, in access order. Guarded by itself. */
+    private final LinkedHashMap<String,Entry> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memorySize;
+
+    /** Disk tier index : file name to file size, in access order. Guarded by itself. */
+    private final LinkedHashMap<String,Long> disk = new LinkedHashMap<>(256, 0.75f, true);
+    private long diskSize;
+
+    private TileCache(Path directory, long maxDiskSize, long maxMemorySize) throws IOException {
+        this.directory = directory;
+        this.maxDiskSize = maxDiskSize;
+        this.maxMemorySize = maxMemorySize;
+        Files.createDirectories(directory);
+        loadIndex();
+    }
+
+    /**
+     * @return folder where tiles are stored
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return duration in milliseconds during which a tile is used without revalidation
+     */
+    public long getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * Set the duration in milliseconds during which a tile is used without asking
+     * the server. Zero causes every use of a tile to be revalidated.
+     *
+     * @param maxAge duration in milliseconds, positive or zero
+     */
+    public void setMaxAge(long maxAge) {
+        ArgumentChecks.ensurePositive("maxAge", maxAge);
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Returns the encoded tile for given request, from the cache when possible.
+     * Stale tiles are revalidated with a conditional query, if the server can not
+     * be reached the stale tile is returned. Only successful responses are cached.
+     * <p>
+     * Requests which are not {@link AbstractRequest} instances are read with
+     * {@link Request#getResponseStream()}, without revalidation information.
+     * </p>
+     *
+     * @param request tile request
+     * @param security client security, may be null
+     * @param timeout connection timeout in milliseconds
+     * @return encoded tile bytes, never null
+     * @throws IOException if the tile is not cached and downloading it failed
+     */
+    public byte[] fetch(Request request, ClientSecurity security, int timeout) throws IOException {
+        if (security == null) security = DefaultClientSecurity.NO_SECURITY;
+        final String key = request.getURL().toString();
+
+        final Entry cached = get(key);
+        if (cached != null && System.currentTimeMillis() - cached.fetchTime < maxAge) {
+            return cached.data;
+        }
+
+        try {
+            if (!(request instanceof AbstractRequest)) {
+                final byte[] data;
+                try (InputStream in = request.getResponseStream()) {
+                    data = readAll(in);
+                }
+                put(key, new Entry(data, null, null, System.currentTimeMillis()));
+                return data;
+            }
+
+            final Map<String,String> conditions = new HashMap<>();
+            if (cached != null) {
+                if (cached.etag != null) conditions.put("If-None-Match", cached.etag);
+                if (cached.lastModified != null) conditions.put("If-Modified-Since", cached.lastModified);
+            }
+            final URLConnection cnx = ((AbstractRequest) request).openConnection(conditions);
+
+            int status = HttpURLConnection.HTTP_OK;
+            if (cnx instanceof HttpURLConnection) {
+                status = ((HttpURLConnection) cnx).getResponseCode();
+                if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+                    ((HttpURLConnection) cnx).disconnect();
+                    cached.fetchTime = System.currentTimeMillis();
+                    put(key, cached);
+                    return cached.data;
+                }
+            }
+
+            final byte[] data;
+            try (InputStream in = AbstractRequest.openRichException(cnx, security, timeout)) {
+                data = readAll(in);
+            }
+
+            final String cacheControl = cnx.getHeaderField("Cache-Control");
+            if (status >= 200 && status < 300
+                    && (cacheControl == null || !cacheControl.toLowerCase().contains("no-store"))) {
+                put(key, new Entry(data, cnx.getHeaderField("ETag"),
+                        cnx.getHeaderField("Last-Modified"), System.currentTimeMillis()));
+            }
+            return data;
+        } catch (IOException ex) {
+            if (cached != null) {
+                LOGGER.log(Level.FINE, "Tile revalidation failed, using cached tile : {0}", ex.getMessage());
+                return cached.data;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Search the tile in memory, then on disk.
+     *
+     * @param key tile url
+     * @return cached entry or null
+     */
+    Entry get(String key) {
+        final String name = toFileName(key);
+        Entry entry;
+        synchronized (memory) {
+            entry = memory.get(key);
+        }
+        if (entry != null) {
+            final boolean onDisk;
+            synchronized (disk) {
+                //refresh disk access order
+                onDisk = disk.get(name) != null;
+            }
+            //file access time is only used after a restart, a coarse value is enough
+            final long now = System.currentTimeMillis();
+            if (onDisk && now - entry.touchTime > TOUCH_INTERVAL) {
+                entry.touchTime = now;
+                final Path file = toPath(name);
+                Threads.executeWork(() -> touch(file));
+            }
+            return entry;
+        }
+
+        synchronized (disk) {
+            if (disk.get(name) == null) return null;
+        }
+
+        final Path file = toPath(name);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || !key.equals(in.readUTF())) {
+                return null;
+            }
+            final long fetchTime = in.readLong();
+            final String etag = in.readUTF();
+            final String lastModified = in.readUTF();
+            final byte[] data = new byte[in.readInt()];
+            in.readFully(data);
+            entry = new Entry(data, etag.isEmpty() ? null : etag,
+                    lastModified.isEmpty() ? null : lastModified, fetchTime);
+        } catch (NoSuchFileException ex) {
+            //evicted concurrently
+            return null;
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Failed to read cached tile "+file, ex);
+            return null;
+        }
+
+        touch(file);
+        putInMemory(key, entry);
+        return entry;
+    }
+
+    /**
+     * Update the file modification time, to keep disk access order across restarts.
+     *
+     * @param file cached tile file
+     */
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ex) {
+            //evicted concurrently
+            LOGGER.log(Level.FINE, ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Store the tile in memory and on disk.
+     *
+     * @param key tile url
+     * @param entry tile to store
+     */
+    void put(String key, Entry entry) {
+        putInMemory(key, entry);
+
+        final String name = toFileName(key);
+        final Path file = toPath(name);
+        final long size;
+        try {
+            Files.createDirectories(file.getParent());
+            final Path temp = Files.createTempFile(file.getParent(), name, TEMP_EXTENSION);
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeUTF(key);
+                    out.writeLong(entry.fetchTime);
+                    out.writeUTF(entry.etag == null ? "" : entry.etag);
+                    out.writeUTF(entry.lastModified == null ? "" : entry.lastModified);
+                    out.writeInt(entry.data.length);
+                    out.write(entry.data);
+                }
+                size = Files.size(temp);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Failed to store tile in cache "+file, ex);
+            return;
+        }
+
+        final List<String> evicted = new ArrayList<>();
+        synchronized (disk) {
+            final Long previous = disk.put(name, size);
+            if (previous != null) diskSize -= previous;
+            diskSize += size;
+            final Iterator<Map.Entry<String,Long>> ite = disk.entrySet().iterator();
+            while (diskSize > maxDiskSize && ite.hasNext()) {
+                final Map.Entry<String,Long> eldest = ite.next();
+                if (eldest.getKey().equals(name)) continue;
+                diskSize -= eldest.getValue();
+                evicted.add(eldest.getKey());
+                ite.remove();
+            }
+        }
+        for (String candidate : evicted) {
+            try {
+                Files.deleteIfExists(toPath(candidate));
+            } catch (IOException ex) {
+                LOGGER.log(Level.FINE, ex.getMessage(), ex);
+            }
+        }
+    }
+
+    /**
+     * Remove all tiles from memory and disk.
+     */
+    public void clear() {
+        synchronized (memory) {
+            memory.clear();
+            memorySize = 0;
+        }
+        final List<String> names;
+        synchronized (disk) {
+            names = new ArrayList<>(disk.keySet());
+            disk.clear();
+            diskSize = 0;
+        }
+        for (String name : names) {
+            try {
+                Files.deleteIfExists(toPath(name));
+            } catch (IOException ex) {
+                LOGGER.log(Level.FINE, ex.getMessage(), ex);
+            }
+        }
+    }
+
+    private void putInMemory(String key, Entry entry) {
+        final int size = entry.data.length;
+        if (size > maxMemorySize) return;
+        synchronized (memory) {
+            final Entry previous = memory.put(key, entry);
+            if (previous != null) memorySize -= previous.data.length;
+            memorySize += size;
+            final Iterator<Entry> ite = memory.values().iterator();
+            while (memorySize > maxMemorySize && ite.hasNext()) {
+                final Entry eldest = ite.next();
+                if (eldest == entry) continue;
+                memorySize -= eldest.data.length;
+                ite.remove();
+            }
+        }
+    }
+
+    /**
+     * Rebuild the disk index from the files in the cache directory,
+     * using file modification time as last access time.
+     */
+    private void loadIndex() throws IOException {
+        final List<Object[]> files = new ArrayList<>();
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(directory)) {
+            for (Path dir : dirs) {
+                if (!Files.isDirectory(dir)) continue;
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                    for (Path file : stream) {
+                        final String name = file.getFileName().toString();
+                        if (name.endsWith(TEMP_EXTENSION)) {
+                            //interrupted write
+                            Files.deleteIfExists(file);
+                        } else if (name.endsWith(EXTENSION)) {
+                            files.add(new Object[]{
+                                name.substring(0, name.length()-EXTENSION.length()),
+                                Files.size(file),
+                                Files.getLastModifiedTime(file).toMillis()});
+                        }
+                    }
+                }
+            }
+        }
+        Collections.sort(files, (Object[] o1, Object[] o2) -> Long.compare((Long) o1[2], (Long) o2[2]));
+        synchronized (disk) {
+            for (Object[] file : files) {
+                disk.put((String) file[0], (Long) file[1]);
+                diskSize += (Long) file[1];
+            }
+        }
+        if (diskSize > maxDiskSize) {
+            //budget has been reduced since last use
+            final List<String> evicted = new ArrayList<>();
+            synchronized (disk) {
+                final Iterator<Map.Entry<String,Long>> ite = disk.entrySet().iterator();
+                while (diskSize > maxDiskSize && ite.hasNext()) {
+                    final Map.Entry<String,Long> eldest = ite.next();
+                    diskSize -= eldest.getValue();
+                    evicted.add(eldest.getKey());
+                    ite.remove();
+                }
+            }
+            for (String name : evicted) {
+                Files.deleteIfExists(toPath(name));
+            }
+        }
+    }
+
+    private Path toPath(String name) {
+        return directory.resolve(name.substring(0, 2)).resolve(name + EXTENSION);
+    }
+
+    private static String toFileName(String key) {
+        final byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException ex) {
+            //SHA-1 is mandatory on all java platforms
+            throw new IllegalStateException(ex);
+        }
+        final StringBuilder sb = new StringBuilder(digest.length*2);
+        for (byte b : digest) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(16384);
+        final byte[] buffer = new byte[8192];
+        for (int n; (n = in.read(buffer)) >= 0;) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+}
@@ -0,0 +1,257 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.client.map;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.sis.util.ArgumentChecks;
+import org.geotoolkit.internal.Threads;
+
+/**
+ * Bounded scheduler for tile downloads, shared by all pyramid sets of a client.
+ * <p>
+ * Downloads run on a fixed number of threads and at most {@link #getMaxPerHost()}
+ * downloads run at the same time for a given host, others wait in a queue for this host.
+ * Downloads submitted with the same key while a previous one is still pending or running
+ * share the same result.
+ * </p>
+ * Futures returned by {@link #submit(String, String, Callable) } can be cancelled
+ * independently, a shared download is cancelled only when all interested callers
+ * cancelled their future before it started.
+ *
+ * @author agent
+ * @module
+ */
+public final class TileDownloadScheduler {
+
+    /**
+     * Default number of simultaneous downloads for a host.
+     */
+    public static final int DEFAULT_MAX_PER_HOST = 6;
+
+    private static TileDownloadScheduler DEFAULT;
+
+    /**
+     * Returns a scheduler shared by pyramid sets without client.
+     *
+     * @return default scheduler, never null
+     */
+    static synchronized TileDownloadScheduler getDefault() {
+        if (DEFAULT == null) {
+            DEFAULT = new TileDownloadScheduler(Runtime.getRuntime().availableProcessors()*2, DEFAULT_MAX_PER_HOST);
+        }
+        return DEFAULT;
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final int maxPerHost;
+    private final ConcurrentMap<String,HostQueue> hosts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String,Download<?>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxThreads maximum number of simultaneous downloads
+     * @param maxPerHost maximum number of simultaneous downloads for a host
+     */
+    public TileDownloadScheduler(int maxThreads, int maxPerHost) {
+        ArgumentChecks.ensureStrictlyPositive("maxThreads", maxThreads);
+        ArgumentChecks.ensureStrictlyPositive("maxPerHost", maxPerHost);
+        this.maxPerHost = maxPerHost;
+        executor = new ThreadPoolExecutor(maxThreads, maxThreads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), Threads.createThreadFactory("TileDownloader #"));
+        //release threads when the client is not used
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * @return maximum number of simultaneous downloads
+     */
+    public int getMaxThreads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * @return maximum number of simultaneous downloads for a host
+     */
+    public int getMaxPerHost() {
+        return maxPerHost;
+    }
+
+    /**
+     * Schedule a download.
+     *
+     * @param <T> download result type
+     * @param host host name used to limit concurrent queries, may be null
+     * @param key identifier of the download, a pending download with the same key is reused,
+     *        null to never share the download
+     * @param task download task
+     * @return future result of the download, cancelling it releases the caller interest
+     */
+    public <T> CompletableFuture<T> submit(String host, String key, Callable<T> task) {
+        ArgumentChecks.ensureNonNull("task", task);
+        for (;;) {
+            @SuppressWarnings("unchecked")
+            final Download<T> existing = (key == null) ? null : (Download<T>) inFlight.get(key);
+            if (existing == null) {
+                final HostQueue queue = hosts.computeIfAbsent(host == null ? "" : host, (String t) -> new HostQueue());
+                final Download<T> download = new Download<>(key, queue, task);
+                if (key != null && inFlight.putIfAbsent(key, download) != null) {
+                    //another caller registered the same download
+                    continue;
+                }
+                queue.schedule(download);
+                return download.newView();
+            }
+            synchronized (existing) {
+                if (existing.cancelled) {
+                    inFlight.remove(key, existing);
+                    continue;
+                }
+                existing.waiters++;
+            }
+            return existing.newView();
+        }
+    }
+
+    /**
+     * Stop accepting downloads, downloads already running will complete.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Download shared by one or more callers.
+     */
+    private final class Download<T> implements Runnable {
+
+        private final String key;
+        private final HostQueue queue;
+        private final Callable<T> task;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        /** Guarded by this. */
+        private int waiters = 1;
+        private boolean started;
+        private boolean cancelled;
+
+        private Download(String key, HostQueue queue, Callable<T> task) {
+            this.key = key;
+            this.queue = queue;
+            this.task = task;
+        }
+
+        /**
+         * Create a future for a caller, cancelling it only releases this caller.
+         */
+        private CompletableFuture<T> newView() {
+            final CompletableFuture<T> view = new CompletableFuture<>();
+            view.whenComplete((T r, Throwable ex) -> {
+                if (view.isCancelled()) release();
+            });
+            result.whenComplete((T r, Throwable ex) -> {
+                if (ex != null) view.completeExceptionally(ex);
+                else view.complete(r);
+            });
+            return view;
+        }
+
+        private void release() {
+            synchronized (this) {
+                if (--waiters > 0 || started) return;
+                cancelled = true;
+            }
+            if (key != null) inFlight.remove(key, this);
+            result.cancel(false);
+        }
+
+        private void fail(Throwable ex) {
+            if (key != null) inFlight.remove(key, this);
+            result.completeExceptionally(ex);
+        }
+
+        @Override
+        public void run() {
+            try {
+                synchronized (this) {
+                    if (cancelled) return;
+                    started = true;
+                }
+                try {
+                    final T value = task.call();
+                    if (key != null) inFlight.remove(key, this);
+                    result.complete(value);
+                } catch (Throwable ex) {
+                    fail(ex);
+                }
+            } finally {
+                queue.done();
+            }
+        }
+    }
+
+    /**
+     * Limits the number of running downloads of a host.
+     */
+    private final class HostQueue {
+
+        private final Deque<Download<?>> pending = new ArrayDeque<>();
+        /** Guarded by this. */
+        private int running;
+
+        private void schedule(Download<?> download) {
+            synchronized (this) {
+                if (running >= maxPerHost) {
+                    pending.add(download);
+                    return;
+                }
+                running++;
+            }
+            execute(download);
+        }
+
+        private void done() {
+            Download<?> next;
+            synchronized (this) {
+                do {
+                    next = pending.poll();
+                } while (next != null && next.result.isCancelled());
+                if (next == null) {
+                    running--;
+                    return;
+                }
+            }
+            execute(next);
+        }
+
+        private void execute(Download<?> download) {
+            try {
+                executor.execute(download);
+            } catch (RejectedExecutionException ex) {
+                download.fail(ex);
+                done();
+            }
+        }
+    }
+
+}
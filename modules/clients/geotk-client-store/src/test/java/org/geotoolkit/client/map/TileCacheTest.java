@@ -0,0 +1,217 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.client.map;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import org.geotoolkit.client.AbstractRequest;
+import org.geotoolkit.client.Request;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test tile cache storage and eviction.
+ *
+ * @author agent
+ */
+public class TileCacheTest extends org.geotoolkit.test.TestBase {
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("tilecache");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> stream = Files.walk(directory)) {
+            stream.sorted(Collections.reverseOrder()).forEach((Path t) -> t.toFile().delete());
+        }
+    }
+
+    /**
+     * Tiles must be served from the cache while they are not older than the maximum age.
+     */
+    @Test
+    public void fetchTest() throws IOException {
+        final TileCache cache = TileCache.getInstance(directory.resolve("cache"), 1000000, 1000000);
+        assertSame(cache, TileCache.getInstance(directory.resolve("cache"), 10, 10));
+
+        final Path tile = directory.resolve("tile.png");
+        Files.write(tile, new byte[]{1,2,3});
+        final Request request = new FileRequest(tile.toUri().toURL());
+
+        assertArrayEquals(new byte[]{1,2,3}, cache.fetch(request, null, 1000));
+
+        //source changed, cached value is still fresh
+        Files.write(tile, new byte[]{4,5,6});
+        assertArrayEquals(new byte[]{1,2,3}, cache.fetch(request, null, 1000));
+
+        //force revalidation
+        cache.setMaxAge(0);
+        assertArrayEquals(new byte[]{4,5,6}, cache.fetch(request, null, 1000));
+    }
+
+    /**
+     * Stale tiles must be revalidated with their ETag, a not modified response
+     * must keep the cached tile and error responses must not be cached.
+     */
+    @Test
+    public void revalidationTest() throws IOException {
+        final AtomicInteger requests = new AtomicInteger();
+        final AtomicInteger notModified = new AtomicInteger();
+        final AtomicReference<byte[]> content = new AtomicReference<>(new byte[]{1,2,3});
+        final AtomicReference<String> etag = new AtomicReference<>("\"v1\"");
+
+        final HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/tile", (HttpExchange exchange) -> {
+            requests.incrementAndGet();
+            final String tag = etag.get();
+            exchange.getResponseHeaders().set("ETag", tag);
+            if (tag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(HttpURLConnection.HTTP_NOT_MODIFIED, -1);
+            } else {
+                final byte[] data = content.get();
+                exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, data.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(data);
+                }
+            }
+            exchange.close();
+        });
+        server.createContext("/missing", (HttpExchange exchange) -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_NOT_FOUND, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            final String url = "http://" + server.getAddress().getHostString() + ':' + server.getAddress().getPort();
+            final TileCache cache = TileCache.getInstance(directory.resolve("http"), 1000000, 1000000);
+            final Request request = new TileRequest(url, "tile");
+
+            assertArrayEquals(new byte[]{1,2,3}, cache.fetch(request, null, 5000));
+            assertEquals(1, requests.get());
+
+            //fresh tile, server is not queried
+            assertArrayEquals(new byte[]{1,2,3}, cache.fetch(request, null, 5000));
+            assertEquals(1, requests.get());
+
+            //stale tile, server answers not modified
+            cache.setMaxAge(0);
+            assertArrayEquals(new byte[]{1,2,3}, cache.fetch(request, null, 5000));
+            assertEquals(2, requests.get());
+            assertEquals(1, notModified.get());
+
+            //tile changed on server
+            content.set(new byte[]{4,5,6});
+            etag.set("\"v2\"");
+            assertArrayEquals(new byte[]{4,5,6}, cache.fetch(request, null, 5000));
+            assertEquals(3, requests.get());
+            assertEquals(1, notModified.get());
+            assertEquals("\"v2\"", cache.get(request.getURL().toString()).etag);
+
+            //error responses are not cached
+            final Request missing = new TileRequest(url, "missing");
+            try {
+                cache.fetch(missing, null, 5000);
+                fail("Missing tile should not be returned");
+            } catch (IOException ex) {
+                //ok
+            }
+            assertNull(cache.get(missing.getURL().toString()));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * Least recently used tiles must be removed from disk when the budget is exceeded.
+     */
+    @Test
+    public void evictionTest() throws IOException {
+        final TileCache cache = TileCache.getInstance(directory.resolve("eviction"), 3000, 1000);
+
+        for (int i=0; i<10; i++) {
+            cache.put("tile"+i, new TileCache.Entry(new byte[500], null, null, System.currentTimeMillis()));
+            //keep the first tile in use
+            assertNotNull(cache.get("tile0"));
+        }
+
+        long size = 0;
+        try (Stream<Path> stream = Files.walk(cache.getDirectory())) {
+            for (Path p : (Iterable<Path>) stream::iterator) {
+                if (Files.isRegularFile(p)) size += Files.size(p);
+            }
+        }
+        assertTrue(size <= 3000);
+        assertNotNull(cache.get("tile0"));
+        assertNotNull(cache.get("tile9"));
+        assertNull(cache.get("tile1"));
+    }
+
+    private static final class TileRequest extends AbstractRequest {
+
+        private TileRequest(String serverURL, String subPath) {
+            super(serverURL, subPath);
+        }
+    }
+
+    private static final class FileRequest implements Request {
+
+        private final URL url;
+
+        private FileRequest(URL url) {
+            this.url = url;
+        }
+
+        @Override
+        public Map<String, String> getHeaderMap() {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public URL getURL() throws MalformedURLException {
+            return url;
+        }
+
+        @Override
+        public InputStream getResponseStream() throws IOException {
+            return url.openStream();
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.client.map;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test download sharing and host limits.
+ *
+ * @author agent
+ */
+public class TileDownloadSchedulerTest extends org.geotoolkit.test.TestBase {
+
+    private TileDownloadScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = new TileDownloadScheduler(8, 2);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    /**
+     * Simultaneous requests for the same key must share one download.
+     */
+    @Test
+    public void coalescingTest() throws Exception {
+        final CountDownLatch block = new CountDownLatch(1);
+        final AtomicInteger calls = new AtomicInteger();
+
+        final List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i=0; i<10; i++) {
+            futures.add(scheduler.submit("host", "tile", () -> {
+                calls.incrementAndGet();
+                block.await();
+                return 42;
+            }));
+        }
+        //cancelling one caller must not cancel the shared download
+        futures.get(0).cancel(false);
+        block.countDown();
+
+        for (int i=1; i<10; i++) {
+            assertEquals(42, futures.get(i).get(10, TimeUnit.SECONDS).intValue());
+        }
+        assertEquals(1, calls.get());
+    }
+
+    /**
+     * No more than the host limit downloads must run at the same time.
+     */
+    @Test
+    public void hostLimitTest() throws Exception {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+
+        final List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i=0; i<20; i++) {
+            final int index = i;
+            futures.add(scheduler.submit("host", "tile"+i, () -> {
+                max.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(5);
+                running.decrementAndGet();
+                return index;
+            }));
+        }
+        for (int i=0; i<20; i++) {
+            assertEquals(i, futures.get(i).get(10, TimeUnit.SECONDS).intValue());
+        }
+        assertTrue(max.get() <= 2);
+    }
+
+}
@@ -18,6 +18,7 @@ package org.geotoolkit.display2d;
 
 import java.awt.RenderingHints.Key;
 import java.awt.image.ColorModel;
+import java.util.concurrent.ExecutorService;
 import org.geotoolkit.display.HintKey;
 import org.geotoolkit.display2d.container.stateless.StatelessMapItemJ2D;
 import org.geotoolkit.factory.Hints;
@@ -64,11 +65,55 @@ public final class GO2Hints extends Static {
      * Configure the multithreading support. This usually makes the canvas
      * build several buffered images to render each layer separately.
      * This raises memory concumption.
+     * Labels are collected in the order layers finish rendering, renderers
+     * placing labels by layer order may place them differently than a single
+     * threaded rendering.
      *
      * WARNING : experimental
      */
     public static final Key KEY_MULTI_THREAD = new NamedKey(Boolean.class, "GO2 - MultiThread");
 
+    /**
+     * Configure the executor used by the multithreading support to render layers.
+     * This can be used to give each portrayal its own thread pool.
+     * Default is a fork join pool shared by all canvas, sized on the number of processors.
+     */
+    public static final Key KEY_MULTI_THREAD_EXECUTOR = new NamedKey(ExecutorService.class, "GO2 - MultiThread executor");
+
+    /**
+     * Configure the maximum number of layer buffers rendered at the same time
+     * by the multithreading support. This limits the memory consumption,
+     * each buffer being an ARGB image of the canvas size.
+     * Default value is the number of processors.
+     */
+    public static final Key KEY_MULTI_THREAD_MAX_BUFFERS = new NamedKey(Integer.class, "GO2 - MultiThread max buffers");
+
+    /**
+     * Configure the portrayal service to split large images in tiles of the given size.
+     * Tiles are rendered in parallel, each one on its own canvas, then assembled.
+     * The executor is the one defined by {@link #KEY_PORTRAYAL_TILE_EXECUTOR},
+     * layers of a tile are rendered in the tile thread.
+     * Labels are placed independently by each tile, renderers resolving label collisions
+     * may place a label crossing a tile border differently on each side.
+     * Default value is null : the image is rendered in a single canvas.
+     */
+    public static final Key KEY_PORTRAYAL_TILE_SIZE = new NamedKey(Integer.class, "GO2 - Portrayal tile size");
+
+    /**
+     * Configure the executor used to render tiles when {@link #KEY_PORTRAYAL_TILE_SIZE} is used.
+     * It should not be the {@link #KEY_MULTI_THREAD_EXECUTOR} executor.
+     * Default is a fork join pool shared by all portrayals, sized on the number of processors.
+     */
+    public static final Key KEY_PORTRAYAL_TILE_EXECUTOR = new NamedKey(ExecutorService.class, "GO2 - Portrayal tile executor");
+
+    /**
+     * Margin in pixels rendered around each tile when {@link #KEY_PORTRAYAL_TILE_SIZE} is used.
+     * Features and labels crossing tile borders are rendered by each tile they touch,
+     * the margin must be larger than the biggest symbol or label.
+     * Default value is 64.
+     */
+    public static final Key KEY_PORTRAYAL_TILE_MARGIN = new NamedKey(Integer.class, "GO2 - Portrayal tile margin");
+
     /**
      * Configure the generalization, false by default in stateless mode, true
      * in statefull mode.
@@ -30,6 +30,8 @@ import org.geotoolkit.display.VisitFilter;
 import org.geotoolkit.display2d.GO2Hints;
 import org.geotoolkit.display2d.GO2Utilities;
 import org.geotoolkit.display2d.canvas.painter.BackgroundPainter;
+import org.geotoolkit.display2d.container.MultiThreadedRendering;
+import org.geotoolkit.display2d.container.stateless.StatelessMapItemJ2D;
 import org.geotoolkit.display2d.primitive.DefaultSearchAreaJ2D;
 import org.geotoolkit.display2d.primitive.GraphicJ2D;
 import org.geotoolkit.display2d.primitive.SearchAreaJ2D;
@@ -151,36 +153,29 @@ public abstract class J2DCanvas extends AbstractCanvas2D{
 
     protected void render(final RenderingContext2D context2D, final List<SceneNode> graphics){
 
-        //TODO update multithreading rendering for scene tree model
-//        final Boolean mt = (Boolean) context2D.getRenderingHints().get(GO2Hints.KEY_MULTI_THREAD);
-//
-//        if(Boolean.TRUE.equals(mt)){
-//            final MultiThreadedRendering rendering = new MultiThreadedRendering(this.item, this.itemGraphics, renderingContext);
-//            rendering.render();
-//        }else{
-//            for(final MapItem child : item.items()){
-//                if(renderingContext.getMonitor().stopRequested()) break;
-//                final GraphicJ2D gra = itemGraphics.get(child);
-//                if(gra != null){
-//                    gra.paint(renderingContext);
-//                }else{
-//                    getLogger().log(Level.WARNING, "GrahicContextJ2D, paint method : strange, no graphic object affected to layer :{0}", child.getName());
-//                }
-//            }
-//        }
-
         /*
          * Draw all graphics, starting with the one with the lowest <var>z</var> value. Before
          * to start the actual drawing,  we will notify all graphics that they are about to be
          * drawn. Some graphics may spend one or two threads for pre-computing data.
          */
-        for(final Graphic graphic : graphics){
-            if(monitor.stopRequested()){
-                return;
+        if(Boolean.TRUE.equals(context2D.getRenderingHints().get(GO2Hints.KEY_MULTI_THREAD))){
+            final List<GraphicJ2D> painted = new ArrayList<>(graphics.size());
+            for(final Graphic graphic : graphics){
+                //map items do not paint their children, no need to give them a buffer
+                if(graphic instanceof GraphicJ2D && !(graphic instanceof StatelessMapItemJ2D)){
+                    painted.add((GraphicJ2D) graphic);
+                }
             }
+            new MultiThreadedRendering(painted, context2D).render();
+        }else{
+            for(final Graphic graphic : graphics){
+                if(monitor.stopRequested()){
+                    return;
+                }
 
-            if(graphic instanceof GraphicJ2D){
-                ((GraphicJ2D) graphic).paint(context2D);
+                if(graphic instanceof GraphicJ2D){
+                    ((GraphicJ2D) graphic).paint(context2D);
+                }
             }
         }
 
@@ -16,209 +16,214 @@
  */
 package org.geotoolkit.display2d.container;
 
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.sis.util.logging.Logging;
+import org.geotoolkit.display2d.GO2Hints;
 import org.geotoolkit.display2d.canvas.RenderingContext2D;
 import org.geotoolkit.display2d.primitive.GraphicJ2D;
 import org.geotoolkit.map.MapItem;
 
 
 /**
- * Multithread rendering process used by GraphicContextJ2D.
+ * Multithread rendering process used by {@link org.geotoolkit.display2d.canvas.J2DCanvas}
+ * when {@link GO2Hints#KEY_MULTI_THREAD} is set.
  * this class handle several threads and buffer to speed up
  * rendering when distant layers exist in the mapcontext.
+ * <p>
+ * Layers are rendered in separate buffers by the executor defined with
+ * {@link GO2Hints#KEY_MULTI_THREAD_EXECUTOR}, at most {@link GO2Hints#KEY_MULTI_THREAD_MAX_BUFFERS}
+ * layers are rendered at the same time. Buffers are painted on the rendering context in
+ * layer order and reused for the next layers.
+ * </p>
  *
  * @author Johann Sorel (Geomatys)
  * @module
  */
 public class MultiThreadedRendering{
 
-    private static final ExecutorService executor = Executors.newFixedThreadPool(20);
-
-    private final MapItem context;
-    private final Map<MapItem, GraphicJ2D> layerGraphics;
-    private final RenderingContext2D renderingContext;
-    private final SortedMap<Integer, BufferedImage> buffers = new TreeMap<>();
+    private static final Logger LOGGER = Logging.getLogger("org.geotoolkit.display2d.container");
 
-
-    public MultiThreadedRendering(final MapItem context,
-            final Map<MapItem, GraphicJ2D> layerGraphics,
-            final RenderingContext2D renderingContext){
-        this.context = context;
-        this.layerGraphics = layerGraphics;
-        this.renderingContext = renderingContext;
-    }
+    private static final int NB_PROCESSORS = Runtime.getRuntime().availableProcessors();
 
     /**
-     * Clear the buffer cache.
+     * Executor shared by all canvas when no executor is given in the hints.
      */
-    public void dispose() {
-        buffers.clear();
-    }
+    private static final ExecutorService SHARED_EXECUTOR = new ForkJoinPool(NB_PROCESSORS);
+
+    private final List<GraphicJ2D> graphics;
+    private final RenderingContext2D renderingContext;
 
     /**
-     * Pack the buffers, merge the different buffer when possible.
-     * @return true if there is no more buffer to pack. false
-     * if some buffers are not ready yet.
+     * Layer buffers which can be reused.
      */
-    private boolean pack() {
+    private final Deque<BufferedImage> pool = new ArrayDeque<>();
 
-        synchronized(buffers){
-            final Set<Integer> keySet = buffers.keySet();
-            final Integer[] keys = keySet.toArray(new Integer[keySet.size()]);
 
-            boolean valid = true;
-
-            //we go throw the buffer and merge (with the renderingContext or between them)
-            //when possible to reduce used memory as much as possible
-            BufferedImage buffer = null;
-            BufferedImage previousBuffer = null;
-            Integer index = null;
-            Integer previousIndex = null;
-            for(int i=keys.length-1 ; i>=0 ; i--){
-                index = keys[i];
-                buffer = buffers.get(index);
-
-                if(buffer == null){
-                    //a buffer is not ready
-                    valid = false;
-                }else{
-                    if(previousBuffer != null){
-                        //check if the buffer has a valid ARGB type
-                        buffer = validateBuffer(buffer);
-                        buffers.put(index, buffer);
-                        //we merge with previous buffer to reduce memory use
-                        buffer.getGraphics().drawImage(previousBuffer, 0, 0, null);
-                        //remove previous buffer from cache
-                        buffers.remove(previousIndex);
-                    }
-
-                    if(i==0){
-                        renderingContext.switchToDisplayCRS();
-                        renderingContext.getGraphics().drawImage(buffer, 0,0,null);
-                        //remove buffer from cache
-                        buffers.remove(index);
-                    }
-                }
-
-                previousIndex = index;
-                previousBuffer = buffer;
+    /**
+     * @param context map item, its visible layers are rendered
+     * @param layerGraphics graphic of each layer
+     * @param renderingContext rendering context to paint on
+     */
+    public MultiThreadedRendering(final MapItem context,
+            final Map<MapItem, GraphicJ2D> layerGraphics,
+            final RenderingContext2D renderingContext){
+        this.graphics = new ArrayList<>();
+        for (final MapItem child : context.items()) {
+            //we ignore invisible layers
+            if (!child.isVisible()) {
+                continue;
+            }
+            final GraphicJ2D gra = layerGraphics.get(child);
+            if (gra != null) {
+                graphics.add(gra);
             }
-            return valid;
         }
+        this.renderingContext = renderingContext;
     }
 
     /**
-     * Wake the dispatching thread.
+     * @param graphics graphics to render, in z order
+     * @param renderingContext rendering context to paint on
      */
-    private synchronized void wake() {
-        notifyAll();
+    public MultiThreadedRendering(final List<GraphicJ2D> graphics, final RenderingContext2D renderingContext){
+        this.graphics = graphics;
+        this.renderingContext = renderingContext;
     }
 
     /**
-     * Make sleep the dispatch thread.
+     * Clear the buffer cache.
      */
-    private synchronized void block() {
-        try {
-            wait();
-        } catch (InterruptedException ex) {
-            ex.printStackTrace();
+    public void dispose() {
+        synchronized(pool){
+            pool.clear();
         }
     }
 
     /**
-     * Build a temporary bufferImage of the canvas size.
+     * Get a cleared buffer from the pool or build a temporary bufferImage of the canvas size.
      */
-    private BufferedImage buildBuffer(){
+    private BufferedImage acquireBuffer(){
         final Rectangle rect = renderingContext.getCanvasDisplayBounds();
-        return new BufferedImage( rect.width, rect.height, BufferedImage.TYPE_INT_ARGB );
+        BufferedImage buffer;
+        synchronized(pool){
+            buffer = pool.poll();
+        }
+        if(buffer == null || buffer.getWidth() != rect.width || buffer.getHeight() != rect.height){
+            return new BufferedImage( rect.width, rect.height, BufferedImage.TYPE_INT_ARGB );
+        }
+        final Graphics2D g = buffer.createGraphics();
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, rect.width, rect.height);
+        g.dispose();
+        return buffer;
     }
 
     /**
-     * Check the type of the buffer,
-     * @return if the type is correct the original buffer is returned otherwise
-     * a new buffer is created and the content of the old buffer is painted on the
-     * new one.
+     * Give back a buffer to the pool.
      */
-    private BufferedImage validateBuffer(final BufferedImage buffer){
-
-        if(buffer.getType() != BufferedImage.TYPE_INT_ARGB){
-            final BufferedImage newBuffer = buildBuffer();
-            newBuffer.getGraphics().drawImage(buffer, 0, 0, null);
-            return newBuffer;
+    private void releaseBuffer(final BufferedImage buffer){
+        synchronized(pool){
+            pool.push(buffer);
         }
+    }
 
-        return buffer;
+    private ExecutorService getExecutor(){
+        final Object candidate = renderingContext.getRenderingHints().get(GO2Hints.KEY_MULTI_THREAD_EXECUTOR);
+        return (candidate instanceof ExecutorService) ? (ExecutorService) candidate : SHARED_EXECUTOR;
     }
 
-    public void render(){
-        final List<MapItem> layers = context.items();
+    private int getMaxBuffers(){
+        final Object candidate = renderingContext.getRenderingHints().get(GO2Hints.KEY_MULTI_THREAD_MAX_BUFFERS);
+        return (candidate instanceof Number) ? Math.max(1, ((Number) candidate).intValue()) : NB_PROCESSORS;
+    }
 
-        final int size = layers.size();
+    public void render(){
+        final int size = graphics.size();
         if(size == 0){
             return;
         }else if(size == 1){
             //bypass threading
-            final MapItem child = layers.get(0);
-            if (!child.isVisible()) {
-                return;
-            }
-            final GraphicJ2D gra = layerGraphics.get(child);
-            gra.paint(renderingContext);
+            graphics.get(0).paint(renderingContext);
             return;
         }
 
-        for (final MapItem child : layers) {
+        final ExecutorService executor = getExecutor();
+        final int maxBuffers = getMaxBuffers();
 
-            //we ignore invisible layers
-            if (!child.isVisible()) {
-                continue;
-            }
+        //layers being rendered, in z order
+        final Deque<Future<BufferedImage>> running = new ArrayDeque<>();
 
-            final int zOrder = layers.indexOf(child);
+        for (final GraphicJ2D gra : graphics) {
 
-            synchronized(buffers){
-                buffers.put(zOrder, null);
+            if (renderingContext.getMonitor().stopRequested()) {
+                break;
             }
 
-            final Runnable call = new Runnable() {
-                @Override
-                public void run() {
-                    final BufferedImage img = buildBuffer();
-                    final RenderingContext2D tc = renderingContext.create(img.createGraphics());
-                    final GraphicJ2D gra = layerGraphics.get(child);
+            //back pressure, wait for the lowest layer and paint it
+            //before starting a new one
+            while (running.size() >= maxBuffers) {
+                merge(running.poll());
+            }
 
+            running.add(executor.submit(() -> {
+                final BufferedImage img = acquireBuffer();
+                final RenderingContext2D tc = renderingContext.create(img.createGraphics());
+                try {
                     gra.paint(tc);
-
-                    synchronized(buffers){
-                        buffers.put(zOrder, img);
-                    }
-
-                    //we wake the dispatch thread that may be waiting for it
-                    wake();
+                } finally {
+                    tc.dispose();
                 }
-            };
-
-            executor.execute(call);
+                return img;
+            }));
         }
 
-
         //we now wait for every rendering to finish
-        synchronized(this){
-            while (!pack()) {
-                block();
+        while (!running.isEmpty()) {
+            if (renderingContext.getMonitor().stopRequested()) {
+                for (Future<BufferedImage> future : running) {
+                    future.cancel(true);
+                }
+                break;
             }
+            merge(running.poll());
         }
 
     }
 
+    /**
+     * Wait for the layer buffer and paint it on the rendering context.
+     */
+    private void merge(final Future<BufferedImage> future){
+        final BufferedImage buffer;
+        try {
+            buffer = future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException ex) {
+            LOGGER.log(Level.WARNING, ex.getMessage(), ex.getCause());
+            return;
+        }
+        renderingContext.switchToDisplayCRS();
+        renderingContext.getGraphics().drawImage(buffer, 0, 0, null);
+        releaseBuffer(buffer);
+    }
+
 
 //    /**
 //     * {@inheritDoc }
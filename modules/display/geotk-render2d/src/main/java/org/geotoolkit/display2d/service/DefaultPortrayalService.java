@@ -22,13 +22,18 @@ import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.Image;
+import java.awt.Rectangle;
 import java.awt.RenderingHints.Key;
 import java.awt.Shape;
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.NoninvertibleTransformException;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
 import java.awt.image.DirectColorModel;
 import java.awt.image.IndexColorModel;
 import java.awt.image.RenderedImage;
@@ -37,10 +42,17 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import javax.imageio.IIOException;
@@ -114,6 +126,12 @@ public final class DefaultPortrayalService implements PortrayalService{
      */
     static final Map<String,String> MIME_CACHE = new ConcurrentHashMap<>();
 
+    /**
+     * Executor used to render tiles when none is given with {@link GO2Hints#KEY_PORTRAYAL_TILE_EXECUTOR}.
+     * Distinct from the layers rendering executor, tile tasks wait for their layers.
+     */
+    static final ExecutorService TILE_EXECUTOR = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
     private DefaultPortrayalService(){}
 
 
@@ -230,6 +248,12 @@ public final class DefaultPortrayalService implements PortrayalService{
 
     public static BufferedImage portray(final CanvasDef canvasDef, final SceneDef sceneDef, final ViewDef viewDef) throws PortrayalException{
 
+        final int tileSize = getTileSize(sceneDef);
+        final Dimension dim = canvasDef.getDimension();
+        if(tileSize > 0 && (dim.width > tileSize || dim.height > tileSize)){
+            return portrayTiled(canvasDef, sceneDef, viewDef, tileSize);
+        }
+
         final Envelope contextEnv = viewDef.getEnvelope();
         final CoordinateReferenceSystem crs = contextEnv.getCoordinateReferenceSystem();
 
@@ -247,6 +271,163 @@ public final class DefaultPortrayalService implements PortrayalService{
         return buffer;
     }
 
+    /**
+     * Get the tile size to use for the given scene.
+     *
+     * @return tile size defined by hint {@link GO2Hints#KEY_PORTRAYAL_TILE_SIZE} or 0
+     *         if image must not be tiled.
+     */
+    private static int getTileSize(final SceneDef sceneDef){
+        final Hints hints = sceneDef.getHints();
+        final Object val = (hints!=null) ? hints.get(GO2Hints.KEY_PORTRAYAL_TILE_SIZE) : null;
+        if(!(val instanceof Number)) return 0;
+
+        //extensions may paint decorations relative to the canvas bounds
+        final List<PortrayalExtension> extensions = sceneDef.extensions();
+        if(extensions != null){
+            for(PortrayalExtension ext : extensions){
+                if(ext != null) return 0;
+            }
+        }
+        return Math.max(0, ((Number)val).intValue());
+    }
+
+    /**
+     * Get the executor used to render tiles.
+     *
+     * @return executor defined by hint {@link GO2Hints#KEY_PORTRAYAL_TILE_EXECUTOR} or the shared tile executor
+     */
+    static ExecutorService getTileExecutor(final Hints hints){
+        final Object val = (hints!=null) ? hints.get(GO2Hints.KEY_PORTRAYAL_TILE_EXECUTOR) : null;
+        return (val instanceof ExecutorService) ? (ExecutorService) val : TILE_EXECUTOR;
+    }
+
+    /**
+     * Create and configure a canvas to render tiles.
+     * Layers are rendered in the tile thread, tile tasks must not wait for
+     * layer tasks submitted to another, possibly saturated, executor.
+     */
+    static J2DCanvasBuffered createTileCanvas(final CoordinateReferenceSystem crs, final Dimension dim,
+            final ColorModel cm, final CanvasDef canvasDef, final SceneDef sceneDef, final ViewDef viewDef) throws PortrayalException{
+        final J2DCanvasBuffered cvs = new J2DCanvasBuffered(crs, dim, sceneDef.getHints());
+        cvs.setRenderingHint(GO2Hints.KEY_COLOR_MODEL, cm);
+        try{
+            prepareCanvas(cvs, canvasDef, sceneDef, viewDef);
+        }catch(PortrayalException | RuntimeException ex){
+            cvs.dispose();
+            throw ex;
+        }
+        cvs.setRenderingHint(GO2Hints.KEY_MULTI_THREAD, Boolean.FALSE);
+        return cvs;
+    }
+
+    /**
+     * Render the image by tiles, each tile is rendered on it's own canvas, with a margin
+     * to include features and labels crossing the tile borders.
+     * Tiles are rendered with the executor given by {@link #getTileExecutor(org.geotoolkit.factory.Hints) }.
+     */
+    private static BufferedImage portrayTiled(final CanvasDef canvasDef, final SceneDef sceneDef,
+            final ViewDef viewDef, final int tileSize) throws PortrayalException{
+
+        final Hints hints = sceneDef.getHints();
+        final Object marginVal = hints.get(GO2Hints.KEY_PORTRAYAL_TILE_MARGIN);
+        final int margin = (marginVal instanceof Number) ? Math.max(0, ((Number)marginVal).intValue()) : 64;
+        final ExecutorService executor = getTileExecutor(hints);
+        final Object cmVal = hints.get(GO2Hints.KEY_COLOR_MODEL);
+        final ColorModel cm = (cmVal instanceof ColorModel) ? (ColorModel) cmVal : ColorModel.getRGBdefault();
+
+        final Dimension dim = canvasDef.getDimension();
+        final CoordinateReferenceSystem crs = viewDef.getEnvelope().getCoordinateReferenceSystem();
+        final CanvasMonitor monitor = viewDef.getMonitor();
+        //tile canvas can not share the monitor, a repaint stops any other rendering using it
+        final ViewDef tileViewDef = new ViewDef(viewDef.getEnvelope(), viewDef.getAzimuth());
+
+        //compute the transform of the complete image, without painting it
+        final J2DCanvasBuffered fullCanvas = new J2DCanvasBuffered(crs, dim, hints);
+        final AffineTransform objToDisp;
+        try{
+            prepareCanvas(fullCanvas, canvasDef, sceneDef, tileViewDef);
+            objToDisp = fullCanvas.getObjectiveToDisplay();
+        }finally{
+            fullCanvas.dispose();
+        }
+
+        final BufferedImage image = new BufferedImage(cm,
+                cm.createCompatibleWritableRaster(dim.width, dim.height), cm.isAlphaPremultiplied(), null);
+        final WritableRaster imageRaster = image.getRaster();
+        final Dimension canvasDim = new Dimension(tileSize + 2*margin, tileSize + 2*margin);
+        final Deque<J2DCanvasBuffered> canvas = new ConcurrentLinkedDeque<>();
+
+        final List<Future<?>> futures = new ArrayList<>();
+        for(int y=0; y<dim.height; y+=tileSize){
+            for(int x=0; x<dim.width; x+=tileSize){
+                final Rectangle tile = new Rectangle(x, y,
+                        Math.min(tileSize, dim.width-x), Math.min(tileSize, dim.height-y));
+                futures.add(executor.submit(() -> {
+                    J2DCanvasBuffered cvs = canvas.poll();
+                    if(cvs == null){
+                        cvs = createTileCanvas(crs, canvasDim, cm, canvasDef, sceneDef, tileViewDef);
+                    }
+                    try{
+                        //move the tile area at the margin offset
+                        final AffineTransform trs = AffineTransform.getTranslateInstance(
+                                margin - tile.x - canvasDim.width/2.0,
+                                margin - tile.y - canvasDim.height/2.0);
+                        trs.concatenate(objToDisp);
+                        cvs.setCenterTransform(trs);
+                        cvs.repaint();
+                        imageRaster.setDataElements(tile.x, tile.y,
+                                cvs.getSnapShot().getRaster().createChild(margin, margin, tile.width, tile.height, 0, 0, null));
+                    }catch(Throwable ex){
+                        //canvas state is unknown, do not reuse it
+                        cvs.dispose();
+                        throw ex;
+                    }
+                    canvas.push(cvs);
+                    return null;
+                }));
+            }
+        }
+
+        try{
+            for(Future<?> future : futures){
+                if(monitor != null && monitor.stopRequested()) break;
+                future.get();
+            }
+        }catch(InterruptedException ex){
+            Thread.currentThread().interrupt();
+            throw new PortrayalException(ex);
+        }catch(ExecutionException ex){
+            final Throwable cause = ex.getCause();
+            if(cause instanceof PortrayalException) throw (PortrayalException) cause;
+            throw new PortrayalException(cause.getMessage(), cause);
+        }finally{
+            //cancel remaining tiles if rendering was stopped or failed
+            for(Future<?> future : futures){
+                future.cancel(false);
+            }
+            //wait for the running tiles before disposing their canvas
+            if(!Thread.currentThread().isInterrupted()){
+                for(Future<?> future : futures){
+                    if(future.isCancelled()) continue;
+                    try{
+                        future.get();
+                    }catch(ExecutionException ex){
+                        //already reported or rendering stopped
+                    }catch(InterruptedException ex){
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+            for(J2DCanvasBuffered cvs : canvas){
+                cvs.dispose();
+            }
+        }
+
+        return image;
+    }
+
     public static void prepareCanvas(final J2DCanvas canvas, final CanvasDef canvasDef, final SceneDef sceneDef, final ViewDef viewDef) throws PortrayalException{
 
         final Envelope contextEnv = viewDef.getEnvelope();
@@ -467,6 +648,23 @@ public final class DefaultPortrayalService implements PortrayalService{
                 }
             }
 
+        }else if(!useCoverageWriter && isTiffMime(mime) && getTileSize(sceneDef) > 0){
+            //stream tiles directly in a tiled tiff, tiles are rendered when the writer needs them
+            //tiff specification requires tile size to be a multiple of 16
+            final int tileSize = (getTileSize(sceneDef) + 15) / 16 * 16;
+            final PortrayalRenderedImage image = new PortrayalRenderedImage(canvasDef, sceneDef, viewDef,
+                    new Dimension(tileSize, tileSize), TIFF_COLOR_MODEL);
+            //tiles computed in advance are useless once writing failed
+            try {
+                writeImage(image, outputDef, true);
+            } catch (IOException ex) {
+                image.cancelPrefetch();
+                throw new PortrayalException(ex);
+            } catch (RuntimeException ex) {
+                image.cancelPrefetch();
+                throw ex;
+            }
+
         }else{
             //use the rendering engine to generate an image
             BufferedImage image = portray(canvasDef,sceneDef,viewDef);
@@ -815,12 +1013,28 @@ public final class DefaultPortrayalService implements PortrayalService{
      * @throws IOException
      */
     public static void writeImage(RenderedImage image, final OutputDef outputDef) throws IOException{
+        writeImage(image, outputDef, false);
+    }
+
+    /**
+     * Write an image in a stream using the appropriate output configuration
+     *
+     * @param image : image to write in stream
+     * @param outputDef : output configuration
+     * @param tiled : write the image with the same tiling if the writer supports it,
+     *        tiles are then requested one by one by the writer.
+     * @throws IOException
+     */
+    private static void writeImage(RenderedImage image, final OutputDef outputDef, final boolean tiled) throws IOException{
         final String mime = outputDef.getMime();
         image = rectifyImageColorModel(image, mime);
 
         final ImageWriter writer;
         if(outputDef.getSpi() != null){
             writer = outputDef.getSpi().createWriterInstance();
+        }else if(tiled && isTiffMime(mime)){
+            //geotoolkit tiff writer writes tiles one by one
+            writer = XImageIO.getWriterByFormatName("geotiff", outputDef.getOutput(), image);
         }else{
             writer = XImageIO.getWriterByMIMEType(mime, outputDef.getOutput(), image);
         }
@@ -849,6 +1063,11 @@ public final class DefaultPortrayalService implements PortrayalService{
                 }
             }
 
+            if(tiled && param.canWriteTiles()){
+                param.setTilingMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setTiling(image.getTileWidth(), image.getTileHeight(), 0, 0);
+            }
+
             //TODO is this useless ?
             param.setDestinationType(new ImageTypeSpecifier(image.getColorModel(), image.getSampleModel()));
 
@@ -884,6 +1103,16 @@ public final class DefaultPortrayalService implements PortrayalService{
     // COLOR MODEL VERIFICATION ////////////////////////////////////////////////
     ////////////////////////////////////////////////////////////////////////////
 
+    /**
+     * Color model used when streaming tiles to a tiff, interleaved RGBA bytes.
+     */
+    private static final ColorModel TIFF_COLOR_MODEL = new ComponentColorModel(
+            ColorSpace.getInstance(ColorSpace.CS_sRGB), true, false, Transparency.TRANSLUCENT, DataBuffer.TYPE_BYTE);
+
+    private static boolean isTiffMime(final String mime){
+        return mime != null && (mime.startsWith("image/tiff") || mime.contains("geotiff"));
+    }
+
     //mime types which writer does not support indexed color model
     //even if the canEncode method says "true"
     private static final List<String> INDEXED_CM_UNSUPPORTED =
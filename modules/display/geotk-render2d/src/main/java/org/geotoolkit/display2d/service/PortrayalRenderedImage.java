@@ -20,13 +20,20 @@ import java.awt.Dimension;
 import java.awt.Image;
 import java.awt.Point;
 import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.NoninvertibleTransformException;
 import java.awt.geom.Point2D;
 import java.awt.image.*;
 import java.util.Deque;
 import java.util.EventListener;
+import java.util.Iterator;
+import java.util.Map.Entry;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import javax.media.jai.RasterFactory;
 import javax.swing.event.EventListenerList;
@@ -35,6 +42,7 @@ import org.geotoolkit.storage.coverage.CoverageUtilities;
 import org.geotoolkit.display.PortrayalException;
 import org.geotoolkit.display2d.GO2Hints;
 import org.geotoolkit.display2d.canvas.J2DCanvasBuffered;
+import org.geotoolkit.factory.Hints;
 import org.apache.sis.geometry.GeneralEnvelope;
 import org.opengis.geometry.Envelope;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
@@ -107,6 +115,37 @@ public class PortrayalRenderedImage implements RenderedImage{
 
     private final Deque<J2DCanvasBuffered> canvas = new ConcurrentLinkedDeque<J2DCanvasBuffered>();
 
+    /**
+     * Image size, may be smaller then the tile grid.
+     */
+    private final Dimension imageSize;
+
+    /**
+     * Objective to display transform of the complete image, null if tiles
+     * are computed from the scale and view envelope upper left corner.
+     */
+    private final AffineTransform objToDisp;
+
+    /**
+     * Executor used to compute the next tiles in advance, null if disabled.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Maximum number of tiles computed in advance.
+     */
+    private final int prefetch;
+
+    /**
+     * Tiles computed in advance, by tile index.
+     */
+    private final ConcurrentHashMap<Integer,Future<Raster>> prefetched = new ConcurrentHashMap<>();
+
+    /**
+     * Last returned tile, writers often request the first tile twice.
+     */
+    private volatile RenderedTile lastTile;
+
     /**
      *
      * @param canvasDef : canvas size will be ignored.
@@ -117,11 +156,52 @@ public class PortrayalRenderedImage implements RenderedImage{
      */
     public PortrayalRenderedImage(final CanvasDef canvasDef, final SceneDef sceneDef, final ViewDef viewDef,
             final Dimension gridSize, final Dimension tileSize, final double scale) throws PortrayalException{
+        this(canvasDef, sceneDef, viewDef, gridSize, tileSize, scale, ColorModel.getRGBdefault(),
+                new Dimension(gridSize.width*tileSize.width, gridSize.height*tileSize.height), null, null, 0);
+    }
+
+    /**
+     * Image of the complete canvas definition, divided in tiles of the given size.
+     * Tiles are rendered with the same transform as a single canvas of the canvas definition
+     * size, they are computed only when requested, so the image can be written tile by tile.
+     * <p>
+     * The next tiles, in row major order, are computed in advance with the executor defined by
+     * {@link GO2Hints#KEY_PORTRAYAL_TILE_EXECUTOR}. At most {@link GO2Hints#KEY_MULTI_THREAD_MAX_BUFFERS}
+     * tiles are computed in advance, tiles computed in advance which are not requested are dropped
+     * when they leave the window following the requested tile.
+     * </p>
+     *
+     * @param canvasDef : canvas size is the image size.
+     * @param sceneDef
+     * @param viewDef
+     * @param tileSize
+     * @param colorModel : tiles color model
+     */
+    public PortrayalRenderedImage(final CanvasDef canvasDef, final SceneDef sceneDef, final ViewDef viewDef,
+            final Dimension tileSize, final ColorModel colorModel) throws PortrayalException{
+        //tile canvas can not share the monitor, a repaint stops any other rendering using it
+        this(canvasDef, sceneDef, new ViewDef(viewDef.getEnvelope(), viewDef.getAzimuth()),
+                new Dimension(
+                    (canvasDef.getDimension().width  + tileSize.width  - 1) / tileSize.width,
+                    (canvasDef.getDimension().height + tileSize.height - 1) / tileSize.height),
+                tileSize, Double.NaN, colorModel, canvasDef.getDimension(),
+                computeObjectiveToDisplay(canvasDef, sceneDef, new ViewDef(viewDef.getEnvelope(), viewDef.getAzimuth())),
+                DefaultPortrayalService.getTileExecutor(sceneDef.getHints()), getPrefetch(sceneDef.getHints()));
+    }
+
+    private PortrayalRenderedImage(final CanvasDef canvasDef, final SceneDef sceneDef, final ViewDef viewDef,
+            final Dimension gridSize, final Dimension tileSize, final double scale, final ColorModel colorModel,
+            final Dimension imageSize, final AffineTransform objToDisp, final ExecutorService executor,
+            final int prefetch) throws PortrayalException{
         this.gridSize = gridSize;
         this.tileSize = tileSize;
         this.scale = scale;
-        this.colorModel = ColorModel.getRGBdefault();
-        this.sampleModel = colorModel.createCompatibleSampleModel(1, 1);
+        this.colorModel = colorModel;
+        this.sampleModel = colorModel.createCompatibleSampleModel(tileSize.width, tileSize.height);
+        this.imageSize = imageSize;
+        this.objToDisp = objToDisp;
+        this.executor = executor;
+        this.prefetch = prefetch;
         this.canvasDef = canvasDef;
         this.sceneDef = sceneDef;
         this.viewDef = viewDef;
@@ -140,6 +220,24 @@ public class PortrayalRenderedImage implements RenderedImage{
         nbtileonwidth = 1;
     }
 
+    /**
+     * Compute the objective to display transform of a single canvas of the canvas definition size.
+     */
+    private static AffineTransform computeObjectiveToDisplay(final CanvasDef canvasDef,
+            final SceneDef sceneDef, final ViewDef viewDef) throws PortrayalException{
+        final J2DCanvasBuffered cvs = new J2DCanvasBuffered(
+                viewDef.getEnvelope().getCoordinateReferenceSystem(), canvasDef.getDimension(), sceneDef.getHints());
+        DefaultPortrayalService.prepareCanvas(cvs, canvasDef, sceneDef, viewDef);
+        final AffineTransform trs = cvs.getObjectiveToDisplay();
+        cvs.dispose();
+        return trs;
+    }
+
+    private static int getPrefetch(final Hints hints){
+        final Object val = (hints!=null) ? hints.get(GO2Hints.KEY_MULTI_THREAD_MAX_BUFFERS) : null;
+        return (val instanceof Number) ? Math.max(0, ((Number) val).intValue()) : Runtime.getRuntime().availableProcessors();
+    }
+
     /**
      * Tiles are generated on the fly, so we have information on their generation
      * process but we don't have the tiles themselves.
@@ -175,21 +273,21 @@ public class PortrayalRenderedImage implements RenderedImage{
     /**
      * Fallback on the mosaic definition.
      *
-     * @return mosaic grid size width * mosaic tile size width.
+     * @return mosaic grid size width * mosaic tile size width, or canvas width.
      */
     @Override
     public int getWidth() {
-        return gridSize.width * tileSize.height;
+        return imageSize.width;
     }
 
     /**
      * Fallback on the mosaic definition.
      *
-     * @return mosaic grid size width * mosaic tile size width.
+     * @return mosaic grid size height * mosaic tile size height, or canvas height.
      */
     @Override
     public int getHeight() {
-        return gridSize.height * tileSize.width;
+        return imageSize.height;
     }
 
     /**
@@ -318,6 +416,79 @@ public class PortrayalRenderedImage implements RenderedImage{
 
     @Override
     public Raster getTile(int col, int row) {
+        final int index = getTileIndex(col, row);
+        final RenderedTile last = lastTile;
+        if (last != null && last.index == index) {
+            return last.raster;
+        }
+
+        final Raster raster;
+        if (executor == null || prefetch <= 0) {
+            raster = renderTile(col, row);
+        } else {
+            final Future<Raster> future = prefetched.remove(index);
+
+            //drop tiles computed in advance which are out of the window, they will not be requested soon
+            final Iterator<Entry<Integer,Future<Raster>>> ite = prefetched.entrySet().iterator();
+            while (ite.hasNext()) {
+                final Entry<Integer,Future<Raster>> entry = ite.next();
+                final int k = entry.getKey();
+                if (k < index || k > index+prefetch) {
+                    ite.remove();
+                    entry.getValue().cancel(false);
+                }
+            }
+
+            //schedule the next tiles
+            final int nbTiles = getNumXTiles() * getNumYTiles();
+            for (int i = index+1, n = Math.min(nbTiles, index+1+prefetch); i < n && prefetched.size() < prefetch; i++) {
+                final int c = i % getNumXTiles();
+                final int r = i / getNumXTiles();
+                prefetched.computeIfAbsent(i, (Integer k) -> executor.submit(() -> renderTile(c, r)));
+            }
+
+            try {
+                if (future == null) {
+                    raster = renderTile(col, row);
+                } else {
+                    raster = future.get();
+                }
+            } catch (InterruptedException ex) {
+                cancelPrefetch();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex.getMessage(), ex);
+            } catch (ExecutionException ex) {
+                cancelPrefetch();
+                throw new IllegalStateException(ex.getCause().getMessage(), ex.getCause());
+            } catch (RuntimeException ex) {
+                cancelPrefetch();
+                throw ex;
+            }
+        }
+        lastTile = new RenderedTile(index, raster);
+        return raster;
+    }
+
+    /**
+     * Cancel the tiles computed in advance, they will not be requested.
+     * Used when reading the image has failed.
+     */
+    void cancelPrefetch() {
+        final Iterator<Future<Raster>> ite = prefetched.values().iterator();
+        while (ite.hasNext()) {
+            final Future<Raster> future = ite.next();
+            ite.remove();
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Render the tile on a canvas.
+     */
+    private Raster renderTile(int col, int row) {
+        if (objToDisp != null) {
+            return renderTileByTransform(col, row);
+        }
 
         final double tilespanX = scale*tileSize.width;
         final double tilespanY = scale*tileSize.height;
@@ -365,6 +536,39 @@ public class PortrayalRenderedImage implements RenderedImage{
         return data;
     }
 
+    /**
+     * Render the tile with a translation of the complete image transform.
+     */
+    private Raster renderTileByTransform(int col, int row) {
+        J2DCanvasBuffered cvs = canvas.poll();
+        if(cvs == null){
+            try {
+                cvs = DefaultPortrayalService.createTileCanvas(crs, tileSize, colorModel, canvasDef, sceneDef, viewDef);
+            } catch (PortrayalException ex) {
+                throw new IllegalStateException(ex.getMessage(), ex);
+            }
+        }
+
+        final Raster data;
+        try {
+            final AffineTransform trs = AffineTransform.getTranslateInstance(
+                    -col*tileSize.width  - tileSize.width/2.0,
+                    -row*tileSize.height - tileSize.height/2.0);
+            trs.concatenate(objToDisp);
+            cvs.setCenterTransform(trs);
+
+            cvs.repaint();
+            data = cvs.getSnapShot().getData(); // make a copy since we will reuse canvas
+        } catch (RuntimeException ex) {
+            //canvas state is unknown, do not reuse it
+            cvs.dispose();
+            throw ex;
+        }
+        fireTileCreated(col,row);
+        canvas.push(cvs);
+        return data;
+    }
+
     @Override
     public Raster getData() {
         return getData(null);
@@ -420,6 +624,19 @@ public class PortrayalRenderedImage implements RenderedImage{
         return dstRaster;
     }
 
+    /**
+     * Tile and its index.
+     */
+    private static final class RenderedTile {
+        private final int index;
+        private final Raster raster;
+
+        private RenderedTile(int index, Raster raster) {
+            this.index = index;
+            this.raster = raster;
+        }
+    }
+
     /**
      * @return unique index for this tile coordinate
      */
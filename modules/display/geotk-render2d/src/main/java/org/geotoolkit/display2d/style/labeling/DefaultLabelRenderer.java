@@ -27,6 +27,7 @@ import java.awt.Shape;
 import java.awt.geom.Rectangle2D;
 import java.awt.geom.RoundRectangle2D;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.logging.Level;
 import org.geotoolkit.display2d.canvas.RenderingContext2D;
@@ -44,7 +45,7 @@ import org.opengis.referencing.operation.TransformException;
  */
 public class DefaultLabelRenderer implements LabelRenderer{
 
-    private final List<LabelLayer> layers = new ArrayList<>();
+    private final List<LabelLayer> layers = Collections.synchronizedList(new ArrayList<LabelLayer>());
     protected RenderingContext2D context = null;
 
     public DefaultLabelRenderer() {
@@ -17,11 +17,12 @@
 package org.geotoolkit.display2d.style.labeling.decimate;
 
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
+import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.SortedSet;
-import java.util.TreeSet;
 import org.geotoolkit.display2d.canvas.RenderingContext2D;
 import org.geotoolkit.display2d.style.labeling.DefaultLabelRenderer;
 import org.geotoolkit.display2d.style.labeling.LabelDescriptor;
@@ -29,29 +30,68 @@ import org.geotoolkit.display2d.style.labeling.LabelLayer;
 import org.geotoolkit.display2d.style.labeling.LinearLabelDescriptor;
 import org.geotoolkit.display2d.style.labeling.PointLabelDescriptor;
 import org.geotoolkit.display2d.style.labeling.candidate.Candidate;
-import org.geotoolkit.display2d.style.labeling.candidate.LabelingUtilities;
 import org.geotoolkit.display2d.style.labeling.candidate.LinearCandidate;
 import org.geotoolkit.display2d.style.labeling.candidate.PointCandidate;
 
 /**
  * Label renderer that apply a simple decimation on labels to remove all
- * overlaping labels and labels partly visible on the map edges.
- * 
+ * overlaping labels.
+ * <p>
+ * Labels are placed by priority, labels of the first appended layers first.
+ * Point labels which overlap an already placed label are moved above, below,
+ * right or left of their original position, the first free position is used,
+ * if none is free the label is not painted. Collisions are tested with a grid
+ * index, only labels in the same grid cells are compared.
+ * </p>
+ * Obstacle layers are placed before all other layers, their labels are
+ * only painted if the layer is labelled.
+ *
  * @author Johann Sorel (Geomatys)
  * @module
  */
 public class DecimationLabelRenderer extends DefaultLabelRenderer{
-    
-    private final SortedSet<Candidate> candidates = new TreeSet<Candidate>(LabelingUtilities.XY_COMPARATOR);
 
-    private final List<LabelLayer> layers = new ArrayList<LabelLayer>();
+    /**
+     * Collision grid cell size, in pixels.
+     */
+    private static final int CELL_SIZE = 64;
+
+    private final List<LabelLayer> layers = Collections.synchronizedList(new ArrayList<LabelLayer>());
+
+    private final List<Rectangle2D> obstacles = new ArrayList<Rectangle2D>();
 
     private PointLabelCandidateRenderer pointRenderer;
     private LinearLabelCandidateRenderer LinearRenderer;
-    
+
+    private boolean displaceLabels = true;
+
     public DecimationLabelRenderer() {
     }
 
+    /**
+     * @param displace true to try alternative positions for overlapping point labels,
+     *        false to remove them. Default is true.
+     */
+    public void setDisplaceLabels(final boolean displace) {
+        this.displaceLabels = displace;
+    }
+
+    /**
+     * @return true if alternative positions are tried for overlapping point labels.
+     */
+    public boolean isDisplaceLabels() {
+        return displaceLabels;
+    }
+
+    /**
+     * Reserve an area where no label must be painted for the next {@link #portrayLabels()} call.
+     *
+     * @param area area in display coordinates
+     */
+    public void addObstacle(final Rectangle2D area) {
+        obstacles.add(area);
+    }
+
     @Override
     public LabelLayer createLabelLayer() {
         return new DecimateLabelLayer(false, true);
@@ -91,53 +131,118 @@ public class DecimationLabelRenderer extends DefaultLabelRenderer{
         final Graphics2D g2 = context.getGraphics();
         //enable antialiasing for labels
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        
+
+        //obstacle layers first, then layers in appended order
+        final List<LabelLayer> ordered = new ArrayList<LabelLayer>(layers.size());
+        for(LabelLayer layer : layers){
+            if(layer.isObstacle()) ordered.add(layer);
+        }
+        for(LabelLayer layer : layers){
+            if(!layer.isObstacle()) ordered.add(layer);
+        }
+
+        final Rectangle bounds = context.getCanvasDisplayBounds();
+        final LabelIndex index = new LabelIndex(bounds, CELL_SIZE);
+        for(Rectangle2D obstacle : obstacles){
+            index.addObstacle(obstacle);
+        }
+
+        final List<Candidate> placed = new ArrayList<Candidate>();
+        int priority = ordered.size();
+        for(LabelLayer layer : ordered){
+            final boolean paint = layer.isLabelled();
+            for(Candidate[] cs : getCandidates(layer)){
+                for(Candidate c : cs){
+                    c.setPriority(priority);
+                    if(c instanceof PointCandidate){
+                        if(place((PointCandidate) c, index) && paint){
+                            placed.add(c);
+                        }
+                    }else if(c instanceof LinearCandidate && paint){
+                        placed.add(c);
+                    }
+                }
+            }
+            priority--;
+        }
+
         //paint the remaining candidates
-        for(Candidate candidate : candidates){
+        for(Candidate candidate : placed){
             if(candidate instanceof PointCandidate){
                 pointRenderer.render(candidate);
             }else if(candidate instanceof LinearCandidate){
                 LinearRenderer.render(candidate);
             }
         }
-        
+
         layers.clear();
+        obstacles.clear();
+    }
+
+    /**
+     * Place point candidate at the first free position.
+     *
+     * @return true if candidate has been placed
+     */
+    private boolean place(final PointCandidate candidate, final LabelIndex index){
+        if(index.tryAdd(candidate)) return true;
+        if(!displaceLabels) return false;
+
+        final int height = candidate.upper + candidate.lower;
+        final int side = (candidate.width + height) / 2;
+        final int[][] moves = {{0,-height},{0,height},{side,0},{-side,0}};
+        final int corrX = candidate.correctionX;
+        final int corrY = candidate.correctionY;
+        for(int[] move : moves){
+            candidate.correctionX = corrX + move[0];
+            candidate.correctionY = corrY + move[1];
+            if(index.tryAdd(candidate)) return true;
+        }
+        candidate.correctionX = corrX;
+        candidate.correctionY = corrY;
+        return false;
     }
 
-    private List<Candidate> optimize(List<Candidate> candidates){
-        candidates = LabelingUtilities.clipOutofBounds(context,candidates);
-        candidates = LabelingUtilities.sortByXY(candidates);
+    /**
+     * @return candidates of each label in the layer
+     */
+    private List<Candidate[]> getCandidates(final LabelLayer layer){
+        if(layer instanceof DecimateLabelLayer){
+            return ((DecimateLabelLayer) layer).candidates;
+        }
+
+        //other layer implementations, generate candidates now
+        final List<Candidate[]> candidates = new ArrayList<Candidate[]>();
+        for(LabelDescriptor label : layer.labels()){
+            final Candidate[] cs = generateCandidates(label);
+            if(cs != null) candidates.add(cs);
+        }
         return candidates;
     }
 
+    private Candidate[] generateCandidates(final LabelDescriptor label){
+        if(label instanceof PointLabelDescriptor){
+            return pointRenderer.generateCandidat((PointLabelDescriptor) label);
+        }else if(label instanceof LinearLabelDescriptor){
+            return LinearRenderer.generateCandidat((LinearLabelDescriptor) label);
+        }
+        return null;
+    }
+
     private class DecimateLabelLayer implements LabelLayer{
 
+        /**
+         * Candidates are generated when labels are added, placement is made in portrayLabels.
+         */
+        private final List<Candidate[]> candidates = Collections.synchronizedList(new ArrayList<Candidate[]>());
+
         private final List<LabelDescriptor> labels = new ArrayList<LabelDescriptor>(){
 
             @Override
             public boolean add(LabelDescriptor label) {
-                if(label instanceof PointLabelDescriptor){
-                    final Candidate[] pcs = pointRenderer.generateCandidat((PointLabelDescriptor) label);
-                    if(pcs == null) return true;
-                    for(Candidate c : pcs){
-                        final PointCandidate pc = (PointCandidate) c;
-                        pc.setPriority(1);
-                        synchronized(candidates){
-                            if(!LabelingUtilities.intersects(pc,candidates)){
-                                candidates.add(pc);
-                            }else{
-                            }
-                        }
-                    }
-                }else if(label instanceof LinearLabelDescriptor){
-                    final Candidate[] lcs = LinearRenderer.generateCandidat((LinearLabelDescriptor) label);
-                    for(Candidate c : lcs){
-                        final LinearCandidate lc = (LinearCandidate) c;
-                        lc.setPriority(1);
-                        synchronized(candidates){
-                            candidates.add(lc);
-                        }
-                    }
+                final Candidate[] cs = generateCandidates(label);
+                if(cs != null && cs.length > 0){
+                    candidates.add(cs);
                 }
                 return true;
             }
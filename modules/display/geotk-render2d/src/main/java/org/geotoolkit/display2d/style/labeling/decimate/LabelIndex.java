@@ -0,0 +1,138 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.display2d.style.labeling.decimate;
+
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+import org.geotoolkit.display2d.style.labeling.candidate.LabelingUtilities;
+import org.geotoolkit.display2d.style.labeling.candidate.PointCandidate;
+
+/**
+ * Uniform grid index of placed point candidates and obstacles.
+ * <p>
+ * Each placed element is registered in all grid cells its bounds overlap,
+ * a new candidate is only compared with the elements of the cells it overlaps.
+ * Elements outside the indexed area are registered in the border cells.
+ * </p>
+ *
+ * @author agent
+ * @module
+ */
+final class LabelIndex {
+
+    private final int minX;
+    private final int minY;
+    private final int cellSize;
+    private final int nbCol;
+    private final int nbRow;
+    private final List<Object>[] cells;
+
+    /**
+     * @param area indexed area, usually the canvas display bounds
+     * @param cellSize grid cell size in pixels
+     */
+    @SuppressWarnings("unchecked")
+    LabelIndex(final Rectangle area, final int cellSize) {
+        this.minX = area.x;
+        this.minY = area.y;
+        this.cellSize = cellSize;
+        this.nbCol = Math.max(1, (area.width + cellSize - 1) / cellSize);
+        this.nbRow = Math.max(1, (area.height + cellSize - 1) / cellSize);
+        this.cells = new List[nbCol * nbRow];
+    }
+
+    /**
+     * Add the candidate if it does not overlap any placed candidate or obstacle.
+     *
+     * @param candidate candidate to place
+     * @return true if candidate has been added
+     */
+    boolean tryAdd(final PointCandidate candidate) {
+        final Shape shape = getShape(candidate);
+        final Rectangle2D bounds = shape.getBounds2D();
+        final int col0 = column(bounds.getMinX() - 1);
+        final int col1 = column(bounds.getMaxX() + 1);
+        final int row0 = row(bounds.getMinY() - 1);
+        final int row1 = row(bounds.getMaxY() + 1);
+
+        for (int r = row0; r <= row1; r++) {
+            for (int c = col0; c <= col1; c++) {
+                final List<Object> cell = cells[r * nbCol + c];
+                if (cell == null) continue;
+                for (int i = 0, n = cell.size(); i < n; i++) {
+                    final Object placed = cell.get(i);
+                    if (placed instanceof PointCandidate) {
+                        if (LabelingUtilities.intersects(candidate, (PointCandidate) placed)) return false;
+                    } else if (shape.intersects((Rectangle2D) placed)) {
+                        return false;
+                    }
+                }
+            }
+        }
+
+        register(candidate, col0, col1, row0, row1);
+        return true;
+    }
+
+    /**
+     * Reserve an area where no candidate can be placed.
+     *
+     * @param obstacle area in display coordinates
+     */
+    void addObstacle(final Rectangle2D obstacle) {
+        register(obstacle,
+                column(obstacle.getMinX()), column(obstacle.getMaxX()),
+                row(obstacle.getMinY()), row(obstacle.getMaxY()));
+    }
+
+    private void register(final Object element, final int col0, final int col1, final int row0, final int row1) {
+        for (int r = row0; r <= row1; r++) {
+            for (int c = col0; c <= col1; c++) {
+                final int idx = r * nbCol + c;
+                if (cells[idx] == null) cells[idx] = new ArrayList<>(4);
+                cells[idx].add(element);
+            }
+        }
+    }
+
+    private int column(final double x) {
+        final int c = (int) Math.floor((x - minX) / cellSize);
+        return Math.max(0, Math.min(nbCol - 1, c));
+    }
+
+    private int row(final double y) {
+        final int r = (int) Math.floor((y - minY) / cellSize);
+        return Math.max(0, Math.min(nbRow - 1, r));
+    }
+
+    /**
+     * @return candidate area in display coordinates, rotation included
+     */
+    static Shape getShape(final PointCandidate candidate) {
+        final Rectangle2D bounds = candidate.getBounds();
+        final float rotation = candidate.getDescriptor().getRotation();
+        if (rotation == 0) return bounds;
+        final AffineTransform trs = AffineTransform.getRotateInstance(
+                Math.toRadians(rotation), candidate.getCorrectedX(), candidate.getCorrectedY());
+        return trs.createTransformedShape(bounds);
+    }
+
+}
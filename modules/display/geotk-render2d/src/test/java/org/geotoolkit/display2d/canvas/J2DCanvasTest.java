@@ -17,11 +17,23 @@
 
 package org.geotoolkit.display2d.canvas;
 
+import java.awt.Color;
 import java.awt.Dimension;
+import java.awt.Graphics2D;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.NoninvertibleTransformException;
+import java.awt.image.BufferedImage;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import org.opengis.display.primitive.Graphic;
+import org.opengis.geometry.Envelope;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import org.opengis.referencing.operation.TransformException;
 import org.opengis.util.FactoryException;
@@ -32,9 +44,19 @@ import org.apache.sis.internal.referencing.j2d.AffineTransform2D;
 import org.apache.sis.referencing.CommonCRS;
 
 import org.geotoolkit.display.PortrayalException;
+import org.geotoolkit.display.SearchArea;
+import org.geotoolkit.display.VisitFilter;
+import org.geotoolkit.display.canvas.RenderingContext;
+import org.geotoolkit.display.container.DefaultGraphicContainer;
+import org.geotoolkit.display.primitive.SceneNode;
+import org.geotoolkit.display2d.GO2Hints;
+import org.geotoolkit.display2d.container.MultiThreadedRendering;
+import org.geotoolkit.display2d.primitive.GraphicJ2D;
 import org.geotoolkit.display2d.service.DefaultPortrayalService;
 import org.geotoolkit.map.MapBuilder;
 import org.geotoolkit.map.MapContext;
+import org.geotoolkit.map.MapItem;
+import org.geotoolkit.map.MapLayer;
 
 import org.junit.Test;
 
@@ -140,4 +162,119 @@ public class J2DCanvasTest extends org.geotoolkit.test.TestBase {
         final AffineTransform objToDisp2 = canvas.getObjectiveToDisplay();
         assertEquals(objtoDisp, objToDisp2);
     }
+
+    /**
+     * Layers rendered in parallel must be painted in layer order, using the executor
+     * given in the hints, even when a single buffer is allowed.
+     */
+    @Test
+    public void testMultiThreadedRendering() throws Exception {
+        final J2DCanvasBuffered canvas = new J2DCanvasBuffered(CommonCRS.WGS84.normalizedGeographic(), new Dimension(30,10));
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            canvas.setRenderingHint(GO2Hints.KEY_MULTI_THREAD_EXECUTOR, executor);
+            canvas.setRenderingHint(GO2Hints.KEY_MULTI_THREAD_MAX_BUFFERS, 1);
+
+            final Color[] colors = {Color.RED, Color.GREEN, Color.BLUE};
+            final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            final MapContext context = MapBuilder.createContext();
+            final Map<MapItem,GraphicJ2D> graphics = new HashMap<>();
+            for (int i=0; i<colors.length; i++) {
+                final MapLayer layer = MapBuilder.createEmptyMapLayer();
+                context.layers().add(layer);
+                graphics.put(layer, new FillGraphic(canvas, colors[i], i*10, threads));
+            }
+
+            final BufferedImage image = new BufferedImage(30, 10, BufferedImage.TYPE_INT_ARGB);
+            final Graphics2D g = image.createGraphics();
+            final RenderingContext2D ctx = new RenderingContext2D(canvas);
+            canvas.prepareContext(ctx, g, null);
+            new MultiThreadedRendering(context, graphics, ctx).render();
+            g.dispose();
+
+            //each layer covers the previous ones, except their first 10 pixels
+            assertEquals(Color.RED.getRGB(),   image.getRGB(5, 5));
+            assertEquals(Color.GREEN.getRGB(), image.getRGB(15, 5));
+            assertEquals(Color.BLUE.getRGB(),  image.getRGB(25, 5));
+            assertFalse(threads.isEmpty());
+            assertFalse(threads.contains(Thread.currentThread()));
+        } finally {
+            executor.shutdown();
+            canvas.dispose();
+        }
+    }
+
+    /**
+     * Canvas must render the scene graphics with the multithreading support
+     * when it is enabled in the hints.
+     */
+    @Test
+    public void testMultiThreadedCanvas() throws Exception {
+        final J2DCanvasBuffered canvas = new J2DCanvasBuffered(CommonCRS.WGS84.normalizedGeographic(), new Dimension(30,10));
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            canvas.setRenderingHint(GO2Hints.KEY_MULTI_THREAD, Boolean.TRUE);
+            canvas.setRenderingHint(GO2Hints.KEY_MULTI_THREAD_EXECUTOR, executor);
+
+            final Color[] colors = {Color.RED, Color.GREEN, Color.BLUE};
+            final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            final SceneNode root = new SceneNode(canvas);
+            for (int i=0; i<colors.length; i++) {
+                root.getChildren().add(new FillGraphic(canvas, colors[i], i*10, threads));
+            }
+            canvas.setContainer(new DefaultGraphicContainer(canvas, root));
+            canvas.repaint();
+
+            final BufferedImage image = canvas.getSnapShot();
+            assertEquals(Color.RED.getRGB(),   image.getRGB(5, 5));
+            assertEquals(Color.GREEN.getRGB(), image.getRGB(15, 5));
+            assertEquals(Color.BLUE.getRGB(),  image.getRGB(25, 5));
+            assertFalse(threads.isEmpty());
+            assertFalse(threads.contains(Thread.currentThread()));
+        } finally {
+            executor.shutdown();
+            canvas.dispose();
+        }
+    }
+
+    /**
+     * Graphic filling the canvas from the given x offset.
+     */
+    private static final class FillGraphic extends GraphicJ2D {
+
+        private final Color color;
+        private final int offset;
+        private final Set<Thread> threads;
+
+        private FillGraphic(J2DCanvas canvas, Color color, int offset, Set<Thread> threads) {
+            super(canvas);
+            this.color = color;
+            this.offset = offset;
+            this.threads = threads;
+        }
+
+        @Override
+        public void paint(RenderingContext2D context) {
+            threads.add(Thread.currentThread());
+            context.switchToDisplayCRS();
+            final Graphics2D g = context.getGraphics();
+            g.setColor(color);
+            g.fillRect(offset, 0, 1000, 1000);
+        }
+
+        @Override
+        public Object getUserObject() {
+            return null;
+        }
+
+        @Override
+        public Envelope getEnvelope() {
+            return null;
+        }
+
+        @Override
+        public List<Graphic> getGraphicAt(RenderingContext context, SearchArea mask, VisitFilter filter, List<Graphic> graphics) {
+            return graphics;
+        }
+    }
 }
@@ -38,7 +38,12 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
 
 import javax.measure.Unit;
 import org.apache.sis.feature.builder.AttributeRole;
@@ -79,6 +84,7 @@ import org.geotoolkit.display2d.GO2Hints;
 import org.geotoolkit.factory.Hints;
 import org.geotoolkit.factory.FactoryFinder;
 import org.geotoolkit.geometry.jts.JTS;
+import org.geotoolkit.image.io.XImageIO;
 import org.geotoolkit.map.FeatureMapLayer;
 import org.geotoolkit.map.MapBuilder;
 import org.geotoolkit.map.MapContext;
@@ -596,6 +602,229 @@ public class PortrayalServiceTest extends org.geotoolkit.test.TestBase {
     }
 
 
+    /**
+     * Tiled rendering must produce the same image as a single canvas rendering,
+     * including symbols crossing the tile borders.
+     */
+    @Test
+    public void testTiledRendering() throws Exception{
+        final MapContext context = createPointsContext();
+        final GeneralEnvelope env = new GeneralEnvelope(CommonCRS.WGS84.normalizedGeographic());
+        env.setRange(0, 0, 100);
+        env.setRange(1, 0, 70);
+        final CanvasDef cdef = new CanvasDef(new Dimension(100, 70), Color.WHITE);
+        final ViewDef vdef = new ViewDef(env);
+
+        final BufferedImage expected = DefaultPortrayalService.portray(cdef, new SceneDef(context), vdef);
+
+        final Hints hints = new Hints();
+        hints.put(GO2Hints.KEY_PORTRAYAL_TILE_SIZE, 32);
+        hints.put(GO2Hints.KEY_PORTRAYAL_TILE_MARGIN, 16);
+        final BufferedImage tiled = DefaultPortrayalService.portray(cdef, new SceneDef(context, hints), vdef);
+
+        assertEquals(expected.getWidth(), tiled.getWidth());
+        assertEquals(expected.getHeight(), tiled.getHeight());
+        for (int y=0; y<70; y++) {
+            for (int x=0; x<100; x++) {
+                assertEquals("pixel "+x+","+y, expected.getRGB(x, y), tiled.getRGB(x, y));
+            }
+        }
+    }
+
+    /**
+     * Tiled rendering with a single thread tile executor shared with the
+     * layers executor must not dead lock.
+     */
+    @Test(timeout = 60000)
+    public void testTiledRenderingSingleThread() throws Exception{
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final MapContext context = createPointsContext();
+            context.layers().add(MapBuilder.createEmptyMapLayer());
+            final GeneralEnvelope env = new GeneralEnvelope(CommonCRS.WGS84.normalizedGeographic());
+            env.setRange(0, 0, 100);
+            env.setRange(1, 0, 70);
+
+            final Hints hints = new Hints();
+            hints.put(GO2Hints.KEY_PORTRAYAL_TILE_SIZE, 32);
+            hints.put(GO2Hints.KEY_PORTRAYAL_TILE_EXECUTOR, executor);
+            hints.put(GO2Hints.KEY_MULTI_THREAD, Boolean.TRUE);
+            hints.put(GO2Hints.KEY_MULTI_THREAD_EXECUTOR, executor);
+            final BufferedImage img = DefaultPortrayalService.portray(
+                    new CanvasDef(new Dimension(100, 70), Color.WHITE), new SceneDef(context, hints), new ViewDef(env));
+            assertEquals(Color.BLACK.getRGB(), img.getRGB(32, 70-32));
+            assertEquals(Color.WHITE.getRGB(), img.getRGB(90, 5));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Each tile of a tiled image must be rendered once, even when requested twice
+     * and when the next tiles are computed in advance.
+     */
+    @Test(timeout = 60000)
+    public void testTiledImageRenderedOnce() throws Exception{
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final GeneralEnvelope env = new GeneralEnvelope(CommonCRS.WGS84.normalizedGeographic());
+            env.setRange(0, 0, 100);
+            env.setRange(1, 0, 70);
+            final CanvasDef cdef = new CanvasDef(new Dimension(100, 70), Color.WHITE);
+            final ViewDef vdef = new ViewDef(env);
+            final BufferedImage expected = DefaultPortrayalService.portray(cdef, new SceneDef(createPointsContext()), vdef);
+
+            final Hints hints = new Hints();
+            hints.put(GO2Hints.KEY_PORTRAYAL_TILE_EXECUTOR, executor);
+            hints.put(GO2Hints.KEY_MULTI_THREAD_MAX_BUFFERS, 2);
+            final PortrayalRenderedImage image = new PortrayalRenderedImage(cdef,
+                    new SceneDef(createPointsContext(), hints), vdef, new Dimension(32, 32), ColorModel.getRGBdefault());
+            final int[] created = new int[image.getNumXTiles()*image.getNumYTiles()];
+            image.addProgressListener((int x, int y) -> {
+                synchronized (created) {
+                    created[y*image.getNumXTiles()+x]++;
+                }
+            });
+
+            //writers request the first tile before iterating on all tiles
+            final Raster first = image.getTile(0, 0);
+            assertSame(first, image.getTile(0, 0));
+
+            for (int ty=0; ty<image.getNumYTiles(); ty++) {
+                for (int tx=0; tx<image.getNumXTiles(); tx++) {
+                    final Raster tile = image.getTile(tx, ty);
+                    final BufferedImage img = new BufferedImage(image.getColorModel(),
+                            (WritableRaster) tile.createTranslatedChild(0, 0), false, null);
+                    for (int y=0; y<32 && ty*32+y<70; y++) {
+                        for (int x=0; x<32 && tx*32+x<100; x++) {
+                            assertEquals(expected.getRGB(tx*32+x, ty*32+y), img.getRGB(x, y));
+                        }
+                    }
+                }
+            }
+
+            synchronized (created) {
+                for (int i=0; i<created.length; i++) {
+                    assertEquals("tile "+i, 1, created[i]);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Tiles computed in advance and never requested must be dropped.
+     */
+    @Test(timeout = 60000)
+    public void testTiledImagePrefetchDropped() throws Exception{
+        final CountDownLatch latch = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            //block the executor, prefetched tiles stay queued
+            executor.submit(() -> {
+                latch.await();
+                return null;
+            });
+
+            final GeneralEnvelope env = new GeneralEnvelope(CommonCRS.WGS84.normalizedGeographic());
+            env.setRange(0, 0, 100);
+            env.setRange(1, 0, 70);
+            final Hints hints = new Hints();
+            hints.put(GO2Hints.KEY_PORTRAYAL_TILE_EXECUTOR, executor);
+            hints.put(GO2Hints.KEY_MULTI_THREAD_MAX_BUFFERS, 2);
+            final PortrayalRenderedImage image = new PortrayalRenderedImage(
+                    new CanvasDef(new Dimension(100, 70), Color.WHITE),
+                    new SceneDef(createPointsContext(), hints), new ViewDef(env), new Dimension(32, 32), ColorModel.getRGBdefault());
+            final List<java.awt.Point> created = new java.util.concurrent.CopyOnWriteArrayList<>();
+            image.addProgressListener((int x, int y) -> created.add(new java.awt.Point(x, y)));
+
+            image.getTile(0, 0);
+            image.getTile(image.getNumXTiles()-1, image.getNumYTiles()-1);
+            latch.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+            assertEquals(2, created.size());
+            assertTrue(created.contains(new java.awt.Point(0, 0)));
+            assertTrue(created.contains(new java.awt.Point(image.getNumXTiles()-1, image.getNumYTiles()-1)));
+        } finally {
+            latch.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * A tiff output with a tile size must be written as a tiled tiff, tile by tile,
+     * and contain the same image as a single canvas rendering.
+     */
+    @Test(timeout = 60000)
+    public void testTiledTiffOutput() throws Exception{
+        final GeneralEnvelope env = new GeneralEnvelope(CommonCRS.WGS84.normalizedGeographic());
+        env.setRange(0, 0, 100);
+        env.setRange(1, 0, 70);
+        final CanvasDef cdef = new CanvasDef(new Dimension(100, 70), Color.WHITE);
+        final ViewDef vdef = new ViewDef(env);
+        final BufferedImage expected = DefaultPortrayalService.portray(cdef, new SceneDef(createPointsContext()), vdef);
+
+        final File file = File.createTempFile("portrayal", ".tiff");
+        file.deleteOnExit();
+        final Hints hints = new Hints();
+        hints.put(GO2Hints.KEY_PORTRAYAL_TILE_SIZE, 32);
+        DefaultPortrayalService.portray(cdef, new SceneDef(createPointsContext(), hints), vdef,
+                new OutputDef("image/tiff", file));
+
+        final ImageReader reader = XImageIO.getReaderByFormatName("geotiff", file, Boolean.TRUE, Boolean.TRUE);
+        try {
+            assertTrue(reader.isImageTiled(0));
+            assertEquals(32, reader.getTileWidth(0));
+            assertEquals(32, reader.getTileHeight(0));
+            final BufferedImage result = reader.read(0);
+            assertEquals(100, result.getWidth());
+            assertEquals(70, result.getHeight());
+            for (int y=0; y<70; y++) {
+                for (int x=0; x<100; x++) {
+                    assertEquals("pixel "+x+","+y, expected.getRGB(x, y), result.getRGB(x, y));
+                }
+            }
+        } finally {
+            XImageIO.dispose(reader);
+        }
+    }
+
+    /**
+     * Create a context with black points, one on a tile corner.
+     */
+    private static MapContext createPointsContext(){
+        final List<GraphicalSymbol> symbols = new ArrayList<>();
+        final Stroke stroke = SF.stroke(Color.BLACK, 0);
+        final Fill fill = SF.fill(Color.BLACK);
+        final Mark mark = SF.mark(MARK_SQUARE, fill, stroke);
+        symbols.add(mark);
+        final Graphic graphic = SF.graphic(symbols, LITERAL_ONE_FLOAT, FF.literal(10), LITERAL_ONE_FLOAT, DEFAULT_ANCHOR_POINT, DEFAULT_DISPLACEMENT);
+        final PointSymbolizer symbolizer = SF.pointSymbolizer("mySymbol",(String)null,DEFAULT_DESCRIPTION, Units.POINT, graphic);
+
+        final CoordinateReferenceSystem crs = CommonCRS.WGS84.normalizedGeographic();
+        final FeatureTypeBuilder ftb = new FeatureTypeBuilder();
+        ftb.setName("test");
+        ftb.addAttribute(Point.class).setName("geom").setCRS(crs).addRole(AttributeRole.DEFAULT_GEOMETRY);
+        final FeatureType ft = ftb.build();
+
+        final List<Feature> features = new ArrayList<>();
+        for (double[] coord : new double[][]{{32,32},{20,50},{63,40},{80,10}}) {
+            final Feature feature = ft.newInstance();
+            final Point pt = GF.createPoint(new Coordinate(coord[0], coord[1]));
+            JTS.setCRS(pt, crs);
+            feature.setPropertyValue("geom", pt);
+            features.add(feature);
+        }
+
+        final FeatureCollection col = FeatureStoreUtilities.collection(features.toArray(new Feature[features.size()]));
+        final MapContext context = MapBuilder.createContext();
+        context.layers().add(MapBuilder.createFeatureLayer(col,SF.style(symbolizer)));
+        return context;
+    }
+
     private void testRendering(final MapLayer layer) throws TransformException, PortrayalException{
         final StopOnErrorMonitor monitor = new StopOnErrorMonitor();
 
@@ -0,0 +1,126 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.display2d.style.labeling.decimate;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import org.apache.sis.referencing.CommonCRS;
+import org.geotoolkit.display2d.canvas.J2DCanvasBuffered;
+import org.geotoolkit.display2d.canvas.RenderingContext2D;
+import org.geotoolkit.display2d.container.stateless.StatelessContextParams;
+import org.geotoolkit.display2d.primitive.ProjectedGeometry;
+import org.geotoolkit.display2d.style.labeling.DefaultPointLabelDescriptor;
+import org.geotoolkit.display2d.style.labeling.LabelLayer;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test label placement of the decimation renderer.
+ *
+ * @author agent
+ */
+public class DecimationLabelRendererTest extends org.geotoolkit.test.TestBase {
+
+    private static final GeometryFactory GF = new GeometryFactory();
+    private static final int WIDTH = 360;
+    private static final int HEIGHT = 180;
+
+    /**
+     * A label overlapping a placed label must be moved to a free position.
+     */
+    @Test
+    public void displaceTest() throws Exception {
+        final BufferedImage image = portray(true);
+        final Rectangle black = bounds(image, false);
+        final Rectangle red = bounds(image, true);
+        assertNotNull(black);
+        assertNotNull(red);
+        //first free position is above the placed label
+        assertTrue(red.getMaxY() <= black.getMinY());
+        assertTrue(red.intersects(new Rectangle(black.x, 0, black.width, HEIGHT)));
+    }
+
+    /**
+     * A label overlapping a placed label must be removed when displacement is disabled.
+     */
+    @Test
+    public void dropTest() throws Exception {
+        final BufferedImage image = portray(false);
+        assertNotNull(bounds(image, false));
+        assertNull(bounds(image, true));
+    }
+
+    /**
+     * Portray a black label and a red label at the canvas center.
+     */
+    private static BufferedImage portray(final boolean displace) {
+        final J2DCanvasBuffered canvas = new J2DCanvasBuffered(CommonCRS.WGS84.normalizedGeographic(), new Dimension(WIDTH, HEIGHT));
+        canvas.applyTransform(new AffineTransform(1, 0, 0, -1, WIDTH / 2, HEIGHT / 2));
+
+        final BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        final RenderingContext2D context = new RenderingContext2D(canvas);
+        canvas.prepareContext(context, image.createGraphics(), new Rectangle(0, 0, WIDTH, HEIGHT));
+        final StatelessContextParams params = new StatelessContextParams(canvas, null);
+        params.update(context);
+
+        final DecimationLabelRenderer renderer = new DecimationLabelRenderer();
+        renderer.setDisplaceLabels(displace);
+        renderer.setRenderingContext(context);
+        final LabelLayer layer = renderer.createLabelLayer();
+        layer.labels().add(label(params, Color.BLACK));
+        layer.labels().add(label(params, Color.RED));
+        renderer.append(layer);
+        renderer.portrayLabels();
+        context.getGraphics().dispose();
+        return image;
+    }
+
+    private static DefaultPointLabelDescriptor label(final StatelessContextParams params, final Color color) {
+        final ProjectedGeometry geom = new ProjectedGeometry(params);
+        geom.setDataGeometry(GF.createPoint(new Coordinate(0, 0)), CommonCRS.WGS84.normalizedGeographic());
+        return new DefaultPointLabelDescriptor("Label", new Font("Dialog", Font.PLAIN, 12), color,
+                0, Color.WHITE, 0, 0, 0, 0, 0, CommonCRS.WGS84.normalizedGeographic(), geom);
+    }
+
+    /**
+     * @param red true for red label pixels, false for black label pixels
+     * @return bounds of the label pixels, null if label is not painted
+     */
+    private static Rectangle bounds(final BufferedImage image, final boolean red) {
+        Rectangle bounds = null;
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                final int argb = image.getRGB(x, y);
+                if ((argb >>> 24) == 0) continue;
+                if ((((argb >> 16) & 0xFF) > 0) != red) continue;
+                if (bounds == null) {
+                    bounds = new Rectangle(x, y, 1, 1);
+                } else {
+                    bounds.add(new Rectangle(x, y, 1, 1));
+                }
+            }
+        }
+        return bounds;
+    }
+
+}
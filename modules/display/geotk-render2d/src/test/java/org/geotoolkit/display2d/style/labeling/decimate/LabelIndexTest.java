@@ -0,0 +1,78 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.display2d.style.labeling.decimate;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import org.geotoolkit.display2d.style.labeling.DefaultPointLabelDescriptor;
+import org.geotoolkit.display2d.style.labeling.PointLabelDescriptor;
+import org.geotoolkit.display2d.style.labeling.candidate.PointCandidate;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test label collision grid index.
+ *
+ * @author agent
+ */
+public class LabelIndexTest extends org.geotoolkit.test.TestBase {
+
+    private static PointCandidate candidate(final float x, final float y, final float rotation) {
+        final PointLabelDescriptor desc = new DefaultPointLabelDescriptor("label",
+                new Font("Dialog", Font.PLAIN, 12), Color.BLACK, 0, Color.WHITE,
+                0, 0, 0, 0, rotation, null, null);
+        return new PointCandidate(desc, 40, 10, 2, x, y);
+    }
+
+    /**
+     * Overlapping candidates must be rejected, even in different grid cells.
+     */
+    @Test
+    public void collisionTest() {
+        final LabelIndex index = new LabelIndex(new Rectangle(0, 0, 500, 300), 32);
+
+        assertTrue(index.tryAdd(candidate(10, 20, 0)));
+        assertFalse(index.tryAdd(candidate(30, 25, 0)));
+        //crosses the cells boundary
+        assertFalse(index.tryAdd(candidate(45, 28, 0)));
+        //touching but not overlapping
+        assertTrue(index.tryAdd(candidate(50, 20, 0)));
+        //far away
+        assertTrue(index.tryAdd(candidate(400, 250, 0)));
+        //outside of the indexed area
+        assertTrue(index.tryAdd(candidate(-100, -50, 0)));
+        assertFalse(index.tryAdd(candidate(-90, -45, 0)));
+        //rotated label crossing the first one
+        assertFalse(index.tryAdd(candidate(25, 0, 90)));
+    }
+
+    /**
+     * Candidates must not be placed over obstacles.
+     */
+    @Test
+    public void obstacleTest() {
+        final LabelIndex index = new LabelIndex(new Rectangle(0, 0, 500, 300), 32);
+        index.addObstacle(new Rectangle2D.Double(100, 100, 200, 50));
+
+        assertFalse(index.tryAdd(candidate(150, 120, 0)));
+        assertFalse(index.tryAdd(candidate(80, 105, 0)));
+        assertTrue(index.tryAdd(candidate(150, 80, 0)));
+    }
+
+}
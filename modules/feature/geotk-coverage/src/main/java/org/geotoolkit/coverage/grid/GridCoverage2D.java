@@ -37,8 +37,10 @@ import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
+import java.util.stream.IntStream;
 import javax.measure.Unit;
 import javax.media.jai.Interpolation;
+import javax.media.jai.InterpolationNearest;
 import javax.media.jai.OperationNode;
 import javax.media.jai.PlanarImage;
 import javax.media.jai.RenderedImageAdapter;
@@ -51,10 +53,12 @@ import org.opengis.coverage.grid.GridCoverage;
 import org.opengis.coverage.grid.GridEnvelope;
 import org.opengis.referencing.datum.PixelInCell;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.MathTransform;
 import org.opengis.referencing.operation.TransformException;
 import org.opengis.geometry.DirectPosition;
 import org.opengis.geometry.Envelope;
 import org.opengis.geometry.MismatchedDimensionException;
+import org.opengis.util.FactoryException;
 
 import org.geotoolkit.factory.Hints;
 import org.apache.sis.geometry.Envelope2D;
@@ -63,6 +67,9 @@ import org.geotoolkit.coverage.AbstractCoverage;
 import org.geotoolkit.coverage.GridSampleDimension;
 import org.geotoolkit.internal.coverage.CoverageUtilities;
 import org.apache.sis.util.Classes;
+import org.apache.sis.util.Utilities;
+import org.apache.sis.referencing.CRS;
+import org.apache.sis.referencing.operation.transform.MathTransforms;
 import org.geotoolkit.resources.Errors;
 import org.geotoolkit.resources.Loggings;
 import org.geotoolkit.lang.Debug;
@@ -651,6 +658,162 @@ public class GridCoverage2D extends AbstractGridCoverage implements RenderedCove
         throw new PointOutsideCoverageException(formatEvaluateError(coord, true));
     }
 
+    /**
+     * Returns the double values for many points in the coverage.
+     * Equivalent to {@code evaluate(coords, numPts, sourceCRS, dest, false)}.
+     *
+     * @param  coords    The points coordinates, {@code numPts} consecutive tuples.
+     * @param  numPts    The number of points to evaluate.
+     * @param  sourceCRS The coordinates CRS, or {@code null} for the coverage 2D CRS.
+     * @param  dest      An array of length {@code numPts × numBands} in which to store values, or {@code null}.
+     * @return An array containing the values of each point, {@code NaN} for points outside the coverage.
+     * @throws CannotEvaluateException if the coordinates can't be transformed.
+     *
+     * @see #evaluate(double[], int, CoordinateReferenceSystem, double[], boolean)
+     */
+    public double[] evaluate(final double[] coords, final int numPts,
+            final CoordinateReferenceSystem sourceCRS, final double[] dest)
+            throws CannotEvaluateException
+    {
+        return evaluate(coords, numPts, sourceCRS, dest, false);
+    }
+
+    /**
+     * Returns the double values for many points in the coverage.
+     * <p>
+     * All points are transformed with a single {@link MathTransform} call, then
+     * grouped by image tile so each tile is requested only once. Values of the
+     * first point are stored at index 0 to {@code numBands-1} in the returned
+     * array, values of the second point at {@code numBands} to {@code 2×numBands-1}
+     * and so on. Points outside the coverage get {@code NaN} values instead of
+     * causing a {@link PointOutsideCoverageException}.
+     * </p>
+     * If the coordinates CRS is {@code null}, coordinates are (<var>x</var>,<var>y</var>)
+     * tuples in the {@linkplain #getCoordinateReferenceSystem2D() coverage 2D CRS},
+     * otherwise tuples have the dimension of the given CRS.
+     *
+     * @param  coords    The points coordinates, {@code numPts} consecutive tuples.
+     * @param  numPts    The number of points to evaluate.
+     * @param  sourceCRS The coordinates CRS, or {@code null} for the coverage 2D CRS.
+     * @param  dest      An array of length {@code numPts × numBands} in which to store values, or {@code null}.
+     * @param  parallel  {@code true} for evaluating the different tiles in parallel.
+     * @return An array containing the values of each point, {@code NaN} for points outside the coverage.
+     * @throws CannotEvaluateException if the coordinates can't be transformed.
+     */
+    public double[] evaluate(final double[] coords, final int numPts,
+            final CoordinateReferenceSystem sourceCRS, double[] dest, final boolean parallel)
+            throws CannotEvaluateException
+    {
+        final int numBands = image.getSampleModel().getNumBands();
+        if (dest == null) {
+            dest = new double[numPts * numBands];
+        } else if (dest.length < numPts * numBands) {
+            throw new IllegalArgumentException(Errors.format(
+                    Errors.Keys.MismatchedArrayLength_2, "dest", "coords"));
+        }
+        if (numPts <= 0) {
+            return dest;
+        }
+        /*
+         * Transform all points at once. With nearest neighbor interpolation we go
+         * directly to grid coordinates, other interpolations are made by subclasses
+         * in the evaluate(Point2D, double[]) method which expects coverage coordinates.
+         */
+        final boolean nearest = (getInterpolation() instanceof InterpolationNearest);
+        final double[] pts = new double[numPts * 2];
+        try {
+            final CoordinateReferenceSystem crs2D = getCoordinateReferenceSystem2D();
+            MathTransform trs = null;
+            if (sourceCRS != null && !Utilities.equalsIgnoreMetadata(sourceCRS, crs2D)) {
+                trs = CRS.findOperation(sourceCRS, crs2D, null).getMathTransform();
+            }
+            if (nearest) {
+                final MathTransform toGrid = gridGeometry.getGridToCRS2D().inverse();
+                trs = (trs == null) ? toGrid : MathTransforms.concatenate(trs, toGrid);
+            }
+            if (trs != null) {
+                trs.transform(coords, 0, pts, 0, numPts);
+            } else {
+                System.arraycopy(coords, 0, pts, 0, pts.length);
+            }
+        } catch (FactoryException | TransformException exception) {
+            throw new CannotEvaluateException(exception.getLocalizedMessage(), exception);
+        }
+
+        if (!nearest) {
+            final Point2D.Double point = new Point2D.Double();
+            double[] values = new double[numBands];
+            for (int i=0; i<numPts; i++) {
+                point.setLocation(pts[2*i], pts[2*i+1]);
+                try {
+                    values = evaluate(point, values);
+                    System.arraycopy(values, 0, dest, i*numBands, numBands);
+                } catch (PointOutsideCoverageException ex) {
+                    Arrays.fill(dest, i*numBands, (i+1)*numBands, Double.NaN);
+                }
+            }
+            return dest;
+        }
+
+        /*
+         * Compute the tile of each point and sort the points by tile (counting sort).
+         * Rounded pixel coordinates are stored back in the 'pts' array.
+         */
+        final Rectangle bounds = getBounds();
+        final int minTileX = image.getMinTileX();
+        final int minTileY = image.getMinTileY();
+        final int numXTiles = image.getNumXTiles();
+        final int numTiles = numXTiles * image.getNumYTiles();
+        final int[] tileOf = new int[numPts];
+        final int[] starts = new int[numTiles + 1];
+        for (int i=0; i<numPts; i++) {
+            final double fx = pts[2*i];
+            final double fy = pts[2*i+1];
+            int tile = -1;
+            if (!Double.isNaN(fx) && !Double.isNaN(fy)) {
+                final int x = (int) Math.round(fx);
+                final int y = (int) Math.round(fy);
+                if (bounds.contains(x,y)) {
+                    pts[2*i]   = x;
+                    pts[2*i+1] = y;
+                    tile = (YToTileY(y) - minTileY) * numXTiles + (XToTileX(x) - minTileX);
+                    starts[tile+1]++;
+                }
+            }
+            if (tile < 0) {
+                Arrays.fill(dest, i*numBands, (i+1)*numBands, Double.NaN);
+            }
+            tileOf[i] = tile;
+        }
+        for (int t=0; t<numTiles; t++) {
+            starts[t+1] += starts[t];
+        }
+        final int[] order = new int[starts[numTiles]];
+        final int[] next = Arrays.copyOf(starts, numTiles);
+        for (int i=0; i<numPts; i++) {
+            final int tile = tileOf[i];
+            if (tile >= 0) {
+                order[next[tile]++] = i;
+            }
+        }
+
+        final double[] result = dest;
+        IntStream tiles = IntStream.range(0, numTiles).filter((int t) -> starts[t+1] > starts[t]);
+        if (parallel) {
+            tiles = tiles.parallel();
+        }
+        tiles.forEach((int t) -> {
+            final Raster raster = image.getTile(minTileX + t % numXTiles, minTileY + t / numXTiles);
+            final double[] values = new double[numBands];
+            for (int k=starts[t], end=starts[t+1]; k<end; k++) {
+                final int i = order[k];
+                raster.getPixel((int) pts[2*i], (int) pts[2*i+1], values);
+                System.arraycopy(values, 0, result, i*numBands, numBands);
+            }
+        });
+        return result;
+    }
+
     /**
      * Returns a debug string for the specified coordinate. This method produces a
      * string with pixel coordinates and pixel values for all bands (with geophysics
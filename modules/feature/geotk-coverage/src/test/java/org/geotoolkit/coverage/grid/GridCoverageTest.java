@@ -17,7 +17,10 @@
  */
 package org.geotoolkit.coverage.grid;
 
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
 import java.io.IOException;
+import java.util.Random;
 
 import org.junit.*;
 import static org.geotoolkit.test.Assert.*;
@@ -60,6 +63,37 @@ public final strictfp class GridCoverageTest extends GridCoverageTestBase {
         assertTrue(geophysics.getSampleDimension(0).getSampleToGeophysics().isIdentity());
     }
 
+    /**
+     * Tests the evaluation of many points at once against single point evaluations.
+     */
+    @Test
+    public void testBatchEvaluate() {
+        createRandomCoverage();
+        final Rectangle2D bounds = coverage.getEnvelope2D();
+        final Random random = new Random(7454215427L);
+        final int numPts = 500;
+        final double[] coords = new double[numPts * 2];
+        for (int i=0; i<numPts; i++) {
+            coords[2*i]   = bounds.getMinX() + random.nextDouble() * bounds.getWidth();
+            coords[2*i+1] = bounds.getMinY() + random.nextDouble() * bounds.getHeight();
+        }
+        // one point outside the coverage
+        coords[0] = bounds.getMaxX() + 10;
+
+        final double[] values = coverage.evaluate(coords, numPts, null, null);
+        final double[] parallel = coverage.evaluate(coords, numPts,
+                coverage.getCoordinateReferenceSystem2D(), null, true);
+        assertEquals(numPts, values.length);
+        assertTrue(Double.isNaN(values[0]));
+        assertTrue(Double.isNaN(parallel[0]));
+        double[] buffer = null;
+        for (int i=1; i<numPts; i++) {
+            buffer = coverage.evaluate(new Point2D.Double(coords[2*i], coords[2*i+1]), buffer);
+            assertEquals(buffer[0], values[i], 0.0);
+            assertEquals(buffer[0], parallel[i], 0.0);
+        }
+    }
+
     /**
      * Tests the serialization of a grid coverage.
      *
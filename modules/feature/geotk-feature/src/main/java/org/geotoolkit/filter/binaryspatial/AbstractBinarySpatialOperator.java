@@ -18,6 +18,7 @@
 package org.geotoolkit.filter.binaryspatial;
 
 import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.prep.PreparedGeometry;
 
 import java.io.Serializable;
 import java.util.logging.Level;
@@ -31,6 +32,7 @@ import org.apache.sis.referencing.CRS;
 import org.apache.sis.util.logging.Logging;
 
 import org.opengis.filter.expression.Expression;
+import org.opengis.filter.expression.Literal;
 import org.opengis.filter.expression.PropertyName;
 import org.opengis.filter.spatial.BinarySpatialOperator;
 import org.opengis.util.FactoryException;
@@ -76,6 +78,11 @@ public abstract class AbstractBinarySpatialOperator<E extends Expression,F exten
     protected final E left;
     protected final F right;
 
+    /**
+     * Cached literal operand, created on first evaluation.
+     */
+    private transient volatile PreparedLiteral preparedLiteral;
+
     protected AbstractBinarySpatialOperator(final E left, final F right){
         ensureNonNull("left", left);
         ensureNonNull("right", right);
@@ -99,6 +106,75 @@ public abstract class AbstractBinarySpatialOperator<E extends Expression,F exten
         return right;
     }
 
+    /**
+     * Get the literal operand of this filter, prepared for repeated evaluations.
+     * If both operands are literals, the right one is used.
+     *
+     * @return prepared literal or null if none of the operands is a literal
+     */
+    final PreparedLiteral getPreparedLiteral() throws FactoryException {
+        PreparedLiteral literal = preparedLiteral;
+        if (literal == null) {
+            if (right instanceof Literal) {
+                literal = new PreparedLiteral(toGeometry(null, right), false);
+            } else if (left instanceof Literal) {
+                literal = new PreparedLiteral(toGeometry(null, left), true);
+            } else {
+                literal = PreparedLiteral.NONE;
+            }
+            preparedLiteral = literal;
+        }
+        return (literal == PreparedLiteral.NONE) ? null : literal;
+    }
+
+    /**
+     * Evaluate this filter against the prepared literal operand.
+     * The candidate geometry is extracted from the other operand, the literal is
+     * reprojected in the candidate crs and the predicate is only tested if the
+     * geometries envelopes intersect.
+     *
+     * @param object evaluated object
+     * @param disjointResult result if the geometries envelopes do not intersect
+     * @param predicate relation between the prepared literal and the candidate
+     * @return filter result, or null if none of the operands is a literal
+     */
+    final Boolean evaluatePrepared(final Object object, final boolean disjointResult, final PreparedPredicate predicate) {
+        final PreparedLiteral literal;
+        final PreparedGeometry prepared;
+        final Geometry candidate;
+        try {
+            literal = getPreparedLiteral();
+            if (literal == null) {
+                return null;
+            }
+            candidate = toGeometry(object, literal.isLeft ? right : left);
+            prepared = literal.prepare(candidate);
+        } catch (FactoryException | TransformException ex) {
+            LOGGER.log(Level.WARNING, null, ex);
+            return Boolean.FALSE;
+        }
+        if (prepared == null) {
+            return Boolean.FALSE;
+        }
+        if (PreparedLiteral.envelopeIntersects(prepared, candidate)) {
+            return predicate.test(prepared, candidate, literal.isLeft);
+        }
+        return disjointResult;
+    }
+
+    /**
+     * Spatial relation tested by {@link #evaluatePrepared(Object, boolean, PreparedPredicate)}.
+     */
+    interface PreparedPredicate {
+        /**
+         * @param literal prepared literal operand, in candidate crs
+         * @param candidate geometry of the evaluated object
+         * @param literalIsLeft true if the literal is the left operand of the filter
+         * @return true if the relation is verified
+         */
+        boolean test(PreparedGeometry literal, Geometry candidate, boolean literalIsLeft);
+    }
+
     protected static Unit toUnit(final String str){
         return Units.valueOf(str);
     }
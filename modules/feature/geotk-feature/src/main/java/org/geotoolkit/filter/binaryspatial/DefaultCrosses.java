@@ -46,6 +46,13 @@ public class DefaultCrosses extends AbstractBinarySpatialOperator<Expression,Exp
      */
     @Override
     public boolean evaluate(final Object object) {
+        //fast path, the literal is reprojected and prepared only once
+        final Boolean prepared = evaluatePrepared(object, false,
+                (literal, candidate, literalIsLeft) -> literal.crosses(candidate));
+        if (prepared != null) {
+            return prepared;
+        }
+
         Geometry leftGeom = toGeometry(object, left);
         Geometry rightGeom = toGeometry(object, right);
 
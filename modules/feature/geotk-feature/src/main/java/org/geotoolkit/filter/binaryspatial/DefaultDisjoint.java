@@ -46,6 +46,13 @@ public class DefaultDisjoint extends AbstractBinarySpatialOperator<Expression,Ex
      */
     @Override
     public boolean evaluate(final Object object) {
+        //fast path, the literal is reprojected and prepared only once
+        final Boolean prepared = evaluatePrepared(object, true,
+                (literal, candidate, literalIsLeft) -> literal.disjoint(candidate));
+        if (prepared != null) {
+            return prepared;
+        }
+
         Geometry leftGeom = toGeometry(object, left);
         Geometry rightGeom = toGeometry(object, right);
 
@@ -46,6 +46,13 @@ public class DefaultIntersect extends AbstractBinarySpatialOperator<Expression,E
      */
     @Override
     public boolean evaluate(final Object object) {
+        //fast path, the literal is reprojected and prepared only once
+        final Boolean prepared = evaluatePrepared(object, false,
+                (literal, candidate, literalIsLeft) -> literal.intersects(candidate));
+        if (prepared != null) {
+            return prepared;
+        }
+
         Geometry leftGeom = toGeometry(object, left);
         Geometry rightGeom = toGeometry(object, right);
 
@@ -0,0 +1,124 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.filter.binaryspatial;
+
+import com.vividsolutions.jts.geom.Envelope;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.prep.PreparedGeometry;
+import com.vividsolutions.jts.geom.prep.PreparedGeometryFactory;
+import org.apache.sis.referencing.CRS;
+import org.apache.sis.util.Utilities;
+import org.geotoolkit.geometry.jts.JTS;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.opengis.util.FactoryException;
+
+/**
+ * Literal geometry operand of a binary spatial filter, cached for repeated evaluations.
+ * <p>
+ * The literal is reprojected in the CRS of the evaluated geometries only when this CRS
+ * changes, and the result is kept as a JTS {@link PreparedGeometry}.
+ * </p>
+ *
+ * @author agent
+ * @module
+ */
+final class PreparedLiteral {
+
+    private static final PreparedGeometryFactory PREPARED_FACTORY = new PreparedGeometryFactory();
+
+    /**
+     * Marker used when the filter has no literal operand.
+     */
+    static final PreparedLiteral NONE = new PreparedLiteral();
+
+    /**
+     * True if the literal is the left operand of the filter.
+     */
+    final boolean isLeft;
+    private final Geometry geometry;
+    private final CoordinateReferenceSystem crs;
+
+    /**
+     * Literal prepared for the last target CRS encountered.
+     */
+    private volatile Entry last;
+
+    private PreparedLiteral() {
+        this.isLeft = false;
+        this.geometry = null;
+        this.crs = null;
+    }
+
+    PreparedLiteral(final Geometry geometry, final boolean isLeft) throws FactoryException {
+        this.isLeft = isLeft;
+        this.geometry = geometry;
+        this.crs = JTS.findCoordinateReferenceSystem(geometry);
+    }
+
+    /**
+     * Get the literal geometry prepared in the same CRS as the given candidate.
+     *
+     * @param candidate geometry of the other operand, may be null
+     * @return prepared literal, or null if the literal or the candidate is null
+     */
+    PreparedGeometry prepare(final Geometry candidate) throws FactoryException, TransformException {
+        if (geometry == null || candidate == null) {
+            return null;
+        }
+
+        //if one of the geometries has no CRS, we assume both are in the same CRS
+        final CoordinateReferenceSystem targetCRS = (crs == null) ? null : JTS.findCoordinateReferenceSystem(candidate);
+
+        Entry entry = last;
+        if (entry != null && (entry.crs == targetCRS
+                || (entry.crs != null && targetCRS != null && Utilities.equalsIgnoreMetadata(entry.crs, targetCRS)))) {
+            return entry.prepared;
+        }
+
+        Geometry geom = geometry;
+        if (targetCRS != null && !Utilities.equalsIgnoreMetadata(crs, targetCRS)) {
+            final MathTransform trs = CRS.findOperation(crs, targetCRS, null).getMathTransform();
+            geom = JTS.transform(geometry, trs);
+            JTS.setCRS(geom, targetCRS);
+        }
+        entry = new Entry(targetCRS, PREPARED_FACTORY.create(geom));
+        last = entry;
+        return entry.prepared;
+    }
+
+    /**
+     * Test if the envelopes of the prepared literal and the candidate intersect.
+     */
+    static boolean envelopeIntersects(final PreparedGeometry prepared, final Geometry candidate) {
+        final Envelope env = prepared.getGeometry().getEnvelopeInternal();
+        return env.intersects(candidate.getEnvelopeInternal());
+    }
+
+    private static final class Entry {
+
+        private final CoordinateReferenceSystem crs;
+        private final PreparedGeometry prepared;
+
+        private Entry(final CoordinateReferenceSystem crs, final PreparedGeometry prepared) {
+            this.crs = crs;
+            this.prepared = prepared;
+        }
+    }
+
+}
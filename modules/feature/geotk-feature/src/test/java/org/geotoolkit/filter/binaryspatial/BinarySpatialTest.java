@@ -262,4 +262,26 @@ public class BinarySpatialTest extends org.geotoolkit.test.TestBase {
 
     }
 
+    /**
+     * Literal operands are prepared once, results must not depend on the
+     * operand side nor on the number of evaluations.
+     */
+    @Test
+    public void testPreparedLiteral() {
+
+        final Contains contains = FF.contains(FF.property("testGeometry"), FF.literal(GEOM_CONTAINS));
+        final Within within = FF.within(FF.literal(GEOM_CONTAINS), FF.property("testGeometry"));
+        for (int i=0; i<3; i++) {
+            assertFalse(contains.evaluate(CANDIDATE_1));
+            assertFalse(within.evaluate(CANDIDATE_1));
+        }
+
+        final Contains reverse = FF.contains(FF.literal(GEOM_CONTAINS), FF.property("testGeometry"));
+        final Within within2 = FF.within(FF.property("testGeometry"), FF.literal(GEOM_CONTAINS));
+        for (int i=0; i<3; i++) {
+            assertTrue(reverse.evaluate(CANDIDATE_1));
+            assertTrue(within2.evaluate(CANDIDATE_1));
+        }
+    }
+
 }
@@ -18,6 +18,7 @@ package org.geotoolkit.index.tree;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collection;
 import org.apache.sis.util.ArgumentChecks;
 import org.apache.sis.util.Classes;
 import org.opengis.geometry.Envelope;
@@ -173,6 +174,265 @@ public abstract class AbstractTree<E> implements Tree<E> {
         }
     }
 
+    /**
+     * Insert all objects in one pass.<br/><br/>
+     *
+     * Objects are sorted with Sort-Tile-Recursive algorithm and if tree is empty, tree is built
+     * from leaves to root with completely filled Nodes, which is a lot faster than successive
+     * insertions and produce a smaller tree for data which will not be modified.<br/>
+     * If tree is not empty, objects are inserted one by one in sorted order.<br/><br/>
+     *
+     * All objects are checked before any modification. Tree identifiers are given to the
+     * {@link TreeElementMapper} once all data are in the tree, if it fails data are removed
+     * from the tree and identifiers will be given again to next inserted objects.
+     *
+     * @param objects objects which will be inserted.
+     * @throws StoreIndexException if problem during reading writing element on file.
+     * @see #insertAll(int[], double[])
+     */
+    public synchronized void insertAll(final Collection<? extends E> objects) throws IllegalArgumentException, StoreIndexException {
+        ArgumentChecks.ensureNonNull("insertAll : objects", objects);
+        final int nbElements = objects.size();
+        if (nbElements == 0) return;
+        final int firstIdentifier = treeIdentifier;
+        final int[] identifiers = new int[nbElements];
+        double[] boundaries = null;
+        int i = 0;
+        try {
+            for (E object : objects) {
+                ArgumentChecks.ensureNonNull("insertAll : object", object);
+                final Envelope env = treeEltMap.getEnvelope(object);
+                if (!Utilities.equalsIgnoreMetadata(crs, env.getCoordinateReferenceSystem()))
+                    throw new IllegalArgumentException("During insertion element should have same CoordinateReferenceSystem as Tree.");
+                final double[] coordinates = TreeUtilities.getCoords(env);
+                for (double d : coordinates)
+                    if (Double.isNaN(d))
+                        throw new IllegalArgumentException("coordinates contain at least one NAN value");
+                if (boundaries == null) boundaries = new double[nbElements * coordinates.length];
+                System.arraycopy(coordinates, 0, boundaries, i * coordinates.length, coordinates.length);
+                identifiers[i] = firstIdentifier + i;
+                i++;
+            }
+        } catch (IOException ex) {
+            throw new StoreIndexException(ex);
+        }
+        insertAll(identifiers, boundaries);
+
+        i = 0;
+        try {
+            for (E object : objects) {
+                treeEltMap.setTreeIdentifier(object, identifiers[i++]);
+            }
+        } catch (IOException | RuntimeException ex) {
+            //-- remove data from tree, their identifiers will be reused
+            final int dim2 = boundaries.length / nbElements;
+            for (int r = 0; r < nbElements; r++) {
+                remove(identifiers[r], Arrays.copyOfRange(boundaries, r * dim2, r * dim2 + dim2));
+            }
+            treeIdentifier = firstIdentifier;
+            throw new StoreIndexException(this.getClass().getName()+"Tree.insertAll(), impossible to map elements.", ex);
+        }
+        treeIdentifier = firstIdentifier + nbElements;
+    }
+
+    /**
+     * Insert all data in one pass.<br/><br/>
+     *
+     * Data are sorted with Sort-Tile-Recursive algorithm and if tree is empty, tree is built
+     * from leaves to root with completely filled Nodes.
+     * If tree is not empty, data are inserted one by one in sorted order.<br/>
+     * If insertion fails, already inserted data are removed from the tree.
+     *
+     * @param identifiers data tree identifiers.
+     * @param boundaries data boundaries, lower then upper corner coordinates of each data, one after the other.
+     * @throws StoreIndexException if problem during reading writing element on file.
+     */
+    public synchronized void insertAll(final int[] identifiers, final double[] boundaries) throws IllegalArgumentException, StoreIndexException {
+        ArgumentChecks.ensureNonNull("insertAll : identifiers", identifiers);
+        final int nbElements = identifiers.length;
+        if (nbElements == 0) return;
+        ArgumentChecks.ensureNonNull("insertAll : boundaries", boundaries);
+        final int dim2 = boundaries.length / nbElements;
+        if (dim2 < 2 || (dim2 & 1) != 0 || dim2 * nbElements != boundaries.length)
+            throw new IllegalArgumentException("insertAll : boundaries length does not match identifiers number.");
+
+        final int[] order = sortTileRecursive(boundaries, nbElements, maxElementPerNode);
+        Node root = getRoot();
+        if (root != null && !root.isEmpty()) {
+            insertInOrder(identifiers, boundaries, order);
+            return;
+        }
+
+        final int currentIdentifier = treeIdentifier;
+        boolean success = false;
+        try {
+            //-- root is created first, tree root must always be the first Node.
+            if (root == null) root = createNode(null, IS_LEAF, 0, 0, 0);
+            root.setBoundary(null);
+
+            //-- leaves
+            final int nbLeaves = (nbElements + maxElementPerNode - 1) / maxElementPerNode;
+            Node[] level = new Node[nbLeaves];
+            for (int l = 0, i = 0; l < nbLeaves; l++) {
+                final int end = Math.min(i + maxElementPerNode, nbElements);
+                final Node[] datas = new Node[end - i];
+                for (int d = 0; i < end; i++, d++) {
+                    final int idx = order[i];
+                    datas[d] = createNode(Arrays.copyOfRange(boundaries, idx * dim2, idx * dim2 + dim2), IS_DATA, 0, 0, -identifiers[idx]);
+                }
+                if (nbLeaves == 1) {
+                    root.setProperties(IS_LEAF);
+                    root.addChildren(datas);
+                    level = null;
+                } else {
+                    final Node leaf = createNode(null, IS_LEAF, 0, 0, 0);
+                    leaf.addChildren(datas);
+                    level[l] = leaf;
+                }
+            }
+
+            //-- branches
+            while (level != null && level.length > maxElementPerNode) {
+                final double[] levelBounds = new double[level.length * dim2];
+                for (int n = 0; n < level.length; n++) {
+                    System.arraycopy(level[n].getBoundary(), 0, levelBounds, n * dim2, dim2);
+                }
+                final int[] levelOrder = sortTileRecursive(levelBounds, level.length, maxElementPerNode);
+                final Node[] parents = new Node[(level.length + maxElementPerNode - 1) / maxElementPerNode];
+                for (int p = 0, i = 0; p < parents.length; p++) {
+                    final int end = Math.min(i + maxElementPerNode, level.length);
+                    final Node[] children = new Node[end - i];
+                    for (int c = 0; i < end; i++, c++) {
+                        children[c] = level[levelOrder[i]];
+                    }
+                    parents[p] = createNode(null, IS_OTHER, 0, 0, 0);
+                    parents[p].addChildren(children);
+                }
+                level = parents;
+            }
+            if (level != null) {
+                root.setProperties(IS_OTHER);
+                root.addChildren(level);
+            }
+            eltCompteur += nbElements;
+            setRoot(root);
+            success = true;
+        } catch (IOException ex) {
+            throw new StoreIndexException(this.getClass().getName()+"Tree.insertAll(), impossible to add elements.", ex);
+        } finally {
+            if (!success) {
+                //-- tree was empty, drop written Nodes
+                setRoot(null);
+                treeIdentifier = currentIdentifier;
+            }
+        }
+    }
+
+    /**
+     * Insert data one by one in given order.<br/>
+     * If insertion fails, already inserted data are removed from the tree.
+     *
+     * @param identifiers data tree identifiers.
+     * @param boundaries data boundaries, lower then upper corner coordinates of each data, one after the other.
+     * @param order data insertion order.
+     * @throws StoreIndexException if problem during reading writing element on file.
+     */
+    protected void insertInOrder(final int[] identifiers, final double[] boundaries, final int[] order) throws StoreIndexException {
+        final int dim2 = boundaries.length / identifiers.length;
+        int nbInserted = 0;
+        try {
+            for (int idx : order) {
+                insert(identifiers[idx], Arrays.copyOfRange(boundaries, idx * dim2, idx * dim2 + dim2));
+                nbInserted++;
+            }
+        } catch (StoreIndexException | RuntimeException ex) {
+            for (int n = 0; n < nbInserted; n++) {
+                final int idx = order[n];
+                remove(identifiers[idx], Arrays.copyOfRange(boundaries, idx * dim2, idx * dim2 + dim2));
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Sort boundaries in accordance with Sort-Tile-Recursive algorithm.<br/><br/>
+     *
+     * Boundaries are sorted on their first dimension median, then cut in vertical slices
+     * which are sorted on next dimension, and so on.
+     * Each group of {@code maxElements} consecutive boundaries in returned order
+     * fill one Node with few overlapping.
+     *
+     * @param boundaries lower then upper corner coordinates of each boundary, one after the other.
+     * @param nbElements boundaries number.
+     * @param maxElements maximum element per Node.
+     * @return boundaries index in sorted order.
+     */
+    protected static int[] sortTileRecursive(final double[] boundaries, final int nbElements, final int maxElements) {
+        final int dim2 = boundaries.length / nbElements;
+        final int dim  = dim2 >> 1;
+        //-- boundaries medians
+        final double[] medians = new double[nbElements * dim];
+        final int[] order = new int[nbElements];
+        for (int i = 0; i < nbElements; i++) {
+            order[i] = i;
+            for (int d = 0; d < dim; d++) {
+                medians[i * dim + d] = (boundaries[i * dim2 + d] + boundaries[i * dim2 + dim + d]) / 2;
+            }
+        }
+        sortTileRecursive(order, medians, dim, 0, 0, nbElements, maxElements);
+        return order;
+    }
+
+    private static void sortTileRecursive(final int[] order, final double[] medians, final int dim,
+            final int axis, final int from, final int to, final int maxElements) {
+        sort(order, medians, dim, axis, from, to - 1);
+        if (axis == dim - 1) return;
+        final int nbNodes   = (to - from + maxElements - 1) / maxElements;
+        final int nbSlices  = (int) Math.ceil(Math.pow(nbNodes, 1.0 / (dim - axis)));
+        final int sliceSize = ((nbNodes + nbSlices - 1) / nbSlices) * maxElements;
+        for (int s = from; s < to; s += sliceSize) {
+            sortTileRecursive(order, medians, dim, axis + 1, s, Math.min(s + sliceSize, to), maxElements);
+        }
+    }
+
+    /**
+     * Quick sort of index table in function of median value on given axis.
+     */
+    private static void sort(final int[] order, final double[] medians, final int dim, final int axis, int low, int high) {
+        while (high - low > 16) {
+            final double pivot = medians[order[(low + high) >>> 1] * dim + axis];
+            int i = low, j = high;
+            while (i <= j) {
+                while (medians[order[i] * dim + axis] < pivot) i++;
+                while (medians[order[j] * dim + axis] > pivot) j--;
+                if (i <= j) {
+                    final int tmp = order[i];
+                    order[i++] = order[j];
+                    order[j--] = tmp;
+                }
+            }
+            //-- recurse on smaller part to limit stack depth
+            if (j - low < high - i) {
+                sort(order, medians, dim, axis, low, j);
+                low = i;
+            } else {
+                sort(order, medians, dim, axis, i, high);
+                high = j;
+            }
+        }
+        //-- insertion sort for small ranges
+        for (int i = low + 1; i <= high; i++) {
+            final int current = order[i];
+            final double value = medians[current * dim + axis];
+            int j = i - 1;
+            while (j >= low && medians[order[j] * dim + axis] > value) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = current;
+        }
+    }
+
     /**
      * Insert data in the current {@link Node}.<br/><br/>
      *
@@ -60,6 +60,23 @@ public strictfp class HilbertRTree<E> extends AbstractTree<E> {
         super.setRoot(treeAccess.getRoot());
         treeIdentifier = treeAccess.getTreeIdentifier();
     }
+
+    /**
+     * {@inheritDoc }.<br/><br/>
+     * Note : in this implementation leaf Nodes store data into Hilbert cells,
+     * data are always inserted one by one, in Sort-Tile-Recursive order.
+     */
+    @Override
+    public synchronized void insertAll(final int[] identifiers, final double[] boundaries) throws IllegalArgumentException, StoreIndexException {
+        ArgumentChecks.ensureNonNull("insertAll : identifiers", identifiers);
+        final int nbElements = identifiers.length;
+        if (nbElements == 0) return;
+        ArgumentChecks.ensureNonNull("insertAll : boundaries", boundaries);
+        final int dim2 = boundaries.length / nbElements;
+        if (dim2 < 2 || (dim2 & 1) != 0 || dim2 * nbElements != boundaries.length)
+            throw new IllegalArgumentException("insertAll : boundaries length does not match identifiers number.");
+        insertInOrder(identifiers, boundaries, sortTileRecursive(boundaries, nbElements, getMaxElements()));
+    }
     
     /**
      * {@inheritDoc }.<br/><br/>
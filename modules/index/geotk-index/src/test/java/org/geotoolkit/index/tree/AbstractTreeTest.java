@@ -28,6 +28,7 @@ import org.junit.Test;
 import static org.geotoolkit.internal.tree.TreeUtilities.*;
 import static org.geotoolkit.index.tree.TreeTest.createEntry;
 import org.geotoolkit.internal.tree.TreeAccess;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import org.opengis.referencing.cs.CoordinateSystem;
@@ -172,6 +173,94 @@ public abstract class AbstractTreeTest extends TreeTest {
         }
     }
 
+    /**
+     * Test if tree contain all elements inserted in one pass
+     * and if all Nodes are conform.
+     */
+    @Test
+    public void insertAllTest() throws StoreIndexException, IOException {
+        tree.setRoot(null);
+        tEM.clear();
+        final List<double[]> datas = new ArrayList<double[]>();
+        for (double[] data : lData) datas.add(data.clone());
+        ((AbstractTree) tree).insertAll(datas);
+        tree.flush();
+        assertTrue("after insertAll root node should not be null", tree.getRoot() != null);
+        assertTrue(tree.getElementsNumber() == lData.size());
+
+        final GeneralEnvelope rG = new GeneralEnvelope(crs);
+        rG.setEnvelope(tree.getRoot().getBoundary().clone());
+        final int[] tabSearch = tree.searchID(rG);
+        assertTrue(tabSearch.length == lData.size());
+        assertTrue(compareLists(lData, Arrays.asList(getResult(tabSearch))));
+
+        tAF = ((AbstractTree)tree).getTreeAccess();
+        checkNode(tree.getRoot(), lData);
+    }
+
+    /**
+     * Test that a failing insertAll does not change the tree and does not consume tree identifiers.
+     */
+    @Test
+    public void insertAllRollbackTest() throws StoreIndexException, IOException {
+        tree.setRoot(null);
+        tEM.clear();
+        final List<double[]> datas = new ArrayList<double[]>();
+        for (double[] data : lData) datas.add(data.clone());
+        final double[] nanData = lData.get(0).clone();
+        nanData[0] = Double.NaN;
+        datas.add(nanData);
+        try {
+            ((AbstractTree) tree).insertAll(datas);
+            Assert.fail("insertAll should fail with NaN coordinates.");
+        } catch (IllegalArgumentException ex) {
+            //-- expected
+        }
+        assertTrue("tree should stay empty after a failed insertAll", tree.getRoot() == null || tree.getRoot().isEmpty());
+        assertEquals(0, tree.getElementsNumber());
+        datas.remove(datas.size() - 1);
+
+        //-- mapper failure after the tree has been filled
+        final double[] failOn = datas.get(datas.size() / 2);
+        setMapperFailure(failOn);
+        try {
+            ((AbstractTree) tree).insertAll(datas);
+            Assert.fail("insertAll should fail when mapper fails.");
+        } catch (StoreIndexException ex) {
+            //-- expected
+        } finally {
+            setMapperFailure(null);
+        }
+        assertTrue("tree should be empty after a rolled back insertAll", tree.getRoot() == null || tree.getRoot().isEmpty());
+        assertEquals(0, tree.getElementsNumber());
+
+        ((AbstractTree) tree).insertAll(datas);
+        assertEquals(lData.size(), tree.getElementsNumber());
+        final GeneralEnvelope rG = new GeneralEnvelope(crs);
+        rG.setEnvelope(tree.getRoot().getBoundary().clone());
+        final int[] tabSearch = tree.searchID(rG);
+        Arrays.sort(tabSearch);
+        for (int i = 0; i < tabSearch.length; i++) {
+            assertEquals("identifiers of the failed insertion should be reused", i + 1, tabSearch[i]);
+        }
+        assertTrue(compareLists(lData, Arrays.asList(getResult(tabSearch))));
+    }
+
+    /**
+     * Make tested {@link TreeElementMapper} fail when mapping the given object.
+     *
+     * @param failOn object which can't be mapped, {@code null} to disable failure.
+     */
+    private void setMapperFailure(final double[] failOn) {
+        if (tEM instanceof TreeElementMapperTest) {
+            ((TreeElementMapperTest) tEM).failOn = failOn;
+        } else if (tEM instanceof FileTreeElementMapperTest) {
+            ((FileTreeElementMapperTest) tEM).failOn = failOn;
+        } else {
+            throw new IllegalStateException("Unexpected tree element mapper : "+tEM);
+        }
+    }
+
     /**
      * Compare node properties from its children.<br/>
      * Compare Node boundary from its sub-Nodes boundary sum.<br/>
@@ -37,6 +37,11 @@ public class FileTreeElementMapperTest extends ChannelTreeElementMapper<double[]
     final CoordinateReferenceSystem crs;
     final int boundLength;
 
+    /**
+     * Object for which {@link #setTreeIdentifier(double[], int) } fails, to test insertion rollback.
+     */
+    public double[] failOn;
+
     public FileTreeElementMapperTest(final CoordinateReferenceSystem crs, final File outPut) throws IOException {
         super(Files.newByteChannel(outPut.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
                 StandardOpenOption.WRITE), 4096, ((crs.getCoordinateSystem().getDimension() << 1) * Double.SIZE)>>3);
@@ -59,6 +64,15 @@ public class FileTreeElementMapperTest extends ChannelTreeElementMapper<double[]
         return gE;
     }
 
+    /**
+     * {@inheritDoc }.
+     */
+    @Override
+    public synchronized void setTreeIdentifier(double[] object, int treeIdentifier) throws IOException {
+        if (object == failOn) throw new IOException("mapping failure.");
+        super.setTreeIdentifier(object, treeIdentifier);
+    }
+
     /**
      * {@inheritDoc }.
      */
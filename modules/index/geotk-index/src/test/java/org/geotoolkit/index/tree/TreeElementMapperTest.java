@@ -38,6 +38,11 @@ public class TreeElementMapperTest implements TreeElementMapper<double[]> {
     private final List<Integer> lID;
     private boolean isClosed;
 
+    /**
+     * Object for which {@link #setTreeIdentifier(double[], int) } fails, to test insertion rollback.
+     */
+    public double[] failOn;
+
     public TreeElementMapperTest(CoordinateReferenceSystem crs) {
         this.crs      = crs;
         this.lData    = new ArrayList<double[]>();
@@ -72,7 +77,8 @@ public class TreeElementMapperTest implements TreeElementMapper<double[]> {
      * {@inheritDoc }.
      */
     @Override
-    public void setTreeIdentifier(double[] object, int treeIdentifier) {
+    public void setTreeIdentifier(double[] object, int treeIdentifier) throws IOException {
+        if (object == failOn) throw new IOException("mapping failure.");
         lData.add(object);
         lID.add(treeIdentifier);
     }
@@ -22,13 +22,17 @@ import java.util.logging.Logger;
 import java.util.*;
 
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.index.BinaryDocValues;
 import org.apache.lucene.index.DocsEnum;
 import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.DocIdSet;
 import org.apache.lucene.util.BitDocIdSet;
 import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.FixedBitSet;
 
 import org.geotoolkit.factory.FactoryFinder;
@@ -60,6 +64,10 @@ public class LuceneOGCFilter extends org.apache.lucene.search.Filter implements
 
     public static final String GEOMETRY_FIELD_NAME     = "idx_lucene_geometry";
     public static final String IDENTIFIER_FIELD_NAME   = "id";
+    /**
+     * Numeric doc values field holding the R-tree identifier of the document envelope.
+     */
+    public static final String TREE_ID_FIELD_NAME      = "idx_lucene_tree_id";
     public static final PropertyName GEOMETRY_PROPERTY = FactoryFinder.getFilterFactory(null).property(GEOMETRY_FIELD_NAME);
     public static final Term GEOMETRY_FIELD            = new Term(GEOMETRY_FIELD_NAME);
     public static final Term META_FIELD                = new Term("metafile", "doc");
@@ -108,7 +116,7 @@ public class LuceneOGCFilter extends org.apache.lucene.search.Filter implements
         boolean treeSearch     = false;
         boolean reverse        = false;
         boolean distanceFilter = false;
-        final Set<String> treeMatching = new HashSet<>();
+        int[] treeMatching     = null;
         if (tree != null) {
             /*
              * For distance buffer filter no envelope only mode
@@ -121,16 +129,7 @@ public class LuceneOGCFilter extends org.apache.lucene.search.Filter implements
                     try {
                         final Literal lit = (Literal) sp.getExpression2();
                         final GeneralEnvelope bound = getExtendedReprojectedEnvelope(lit.getValue(), tree.getCrs(), sp.getDistanceUnits(), sp.getDistance());
-                        final int[] resultID = tree.searchID(bound);
-                        Arrays.sort(resultID);
-                        treeMatching.clear();
-                        TreeElementMapper<NamedEnvelope> tem = tree.getTreeElementMapper();
-                        for (int id : resultID) {
-                            final NamedEnvelope env = tem.getObjectFromTreeIdentifier(id);
-                            if (env != null) {
-                                treeMatching.add(env.getId());
-                            }
-                        }
+                        treeMatching = tree.searchID(bound);
                         treeSearch = true;
                     } catch (FactoryException ex) {
                         throw new IOException(ex);
@@ -156,29 +155,11 @@ public class LuceneOGCFilter extends org.apache.lucene.search.Filter implements
                             if (filterType == SpatialFilterType.DISJOINT) {
                                 reverse = true;
                             }
-                            final int[] resultID = tree.searchID(boundFilter);
-                            Arrays.sort(resultID);
-                            final TreeElementMapper<NamedEnvelope> tem = tree.getTreeElementMapper();
-                            treeMatching.clear();
-                            for (int id : resultID) {
-                                final NamedEnvelope env = tem.getObjectFromTreeIdentifier(id);
-                                if (env != null) {
-                                    treeMatching.add(env.getId());
-                                }
-                            }
+                            treeMatching = tree.searchID(boundFilter);
                             treeSearch   = true;
                             envelopeOnly = false;
                         } else {
-                            final int[] resultID = TreeX.search(tree, boundFilter, filterType);
-                            Arrays.sort(resultID);
-                            final TreeElementMapper<NamedEnvelope> tem = tree.getTreeElementMapper();
-                            treeMatching.clear();
-                            for (int id : resultID) {
-                                final NamedEnvelope env = tem.getObjectFromTreeIdentifier(id);
-                                if (env != null) {
-                                    treeMatching.add(env.getId());
-                                }
-                            }
+                            treeMatching = TreeX.search(tree, boundFilter, filterType);
                             treeSearch = true;
                         }
                     } catch (StoreIndexException ex) {
@@ -201,13 +182,39 @@ public class LuceneOGCFilter extends org.apache.lucene.search.Filter implements
 
         final LeafReader reader = ctx.reader();
         final BitDocIdSet set = new BitDocIdSet(new FixedBitSet(reader.maxDoc()));
+
+        /*
+         * Documents written by AbstractIndexer carry their R-tree identifier and their geometry
+         * as doc values. For those documents the tree hits are joined through a bitset of tree
+         * identifiers without loading any stored field. Documents without those values, written
+         * by older indexers or added to the same segment by other means, fall back on the stored
+         * document identifiers and geometries.
+         */
+        final NumericDocValues treeIds   = reader.getNumericDocValues(TREE_ID_FIELD_NAME);
+        final Bits docsWithTreeId        = reader.getDocsWithField(TREE_ID_FIELD_NAME);
+        final BinaryDocValues geometries = reader.getBinaryDocValues(GEOMETRY_FIELD_NAME);
+        final Bits docsWithGeometry      = reader.getDocsWithField(GEOMETRY_FIELD_NAME);
+        final FixedBitSet treeBits = (treeSearch && treeIds != null) ? toBitSet(treeMatching) : null;
+        Set<String> identifiers = null;
+
         final DocsEnum termDocs = reader.termDocsEnum(META_FIELD);
         int n = termDocs.nextDoc();
         while (n != DocsEnum.NO_MORE_DOCS){
-            final int docId     = termDocs.docID();
-            final Document doc  = reader.document(docId, ID_FIELDS);
-            final String id     = doc.get(IDENTIFIER_FIELD_NAME);
-            final boolean match = treeMatching.contains(id);
+            final int docId = termDocs.docID();
+            final boolean match;
+            if (!treeSearch) {
+                match = false;
+            } else if (treeBits != null && docsWithTreeId != null && docsWithTreeId.get(docId)) {
+                final long treeId = treeIds.get(docId);
+                match = treeId > 0 && treeId < treeBits.length() && treeBits.get((int) treeId);
+            } else {
+                if (identifiers == null) {
+                    identifiers = getIdentifiers(treeMatching);
+                }
+                final Document doc = reader.document(docId, ID_FIELDS);
+                match = identifiers.contains(doc.get(IDENTIFIER_FIELD_NAME));
+            }
+
             if (treeSearch && reverse && !match) {
                 set.bits().set(docId);
 
@@ -215,7 +222,13 @@ public class LuceneOGCFilter extends org.apache.lucene.search.Filter implements
                 if (envelopeOnly && !distanceFilter) {
                     set.bits().set(docId);
                 } else {
-                    final Document geoDoc = reader.document(docId, GEOMETRY_FIELDS);
+                    final Document geoDoc;
+                    if (geometries != null && docsWithGeometry != null && docsWithGeometry.get(docId)) {
+                        geoDoc = new Document();
+                        geoDoc.add(new StoredField(GEOMETRY_FIELD_NAME, BytesRef.deepCopyOf(geometries.get(docId))));
+                    } else {
+                        geoDoc = reader.document(docId, GEOMETRY_FIELDS);
+                    }
                     if (filter.evaluate(geoDoc)) {
                         set.bits().set(docId);
                     }
@@ -227,6 +240,39 @@ public class LuceneOGCFilter extends org.apache.lucene.search.Filter implements
         return set;
     }
 
+    /**
+     * Build a bitset of the given tree identifiers.
+     */
+    private static FixedBitSet toBitSet(final int[] treeIds) {
+        int max = 0;
+        for (int id : treeIds) {
+            max = Math.max(max, id);
+        }
+        final FixedBitSet bits = new FixedBitSet(max + 1);
+        for (int id : treeIds) {
+            if (id > 0) {
+                bits.set(id);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Resolve the document identifiers of the given tree identifiers.
+     * Only used for indexes written without the tree identifier doc values.
+     */
+    private Set<String> getIdentifiers(final int[] treeIds) throws IOException {
+        final Set<String> result = new HashSet<>();
+        final TreeElementMapper<NamedEnvelope> tem = tree.getTreeElementMapper();
+        for (int id : treeIds) {
+            final NamedEnvelope env = tem.getObjectFromTreeIdentifier(id);
+            if (env != null) {
+                result.add(env.getId());
+            }
+        }
+        return result;
+    }
+
     public static LuceneOGCFilter wrap(final Filter filter){
         return new LuceneOGCFilter(filter);
     }
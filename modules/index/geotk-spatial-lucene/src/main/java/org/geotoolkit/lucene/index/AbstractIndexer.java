@@ -30,7 +30,9 @@ import java.nio.file.Path;
 
 // Apache Lucene dependencies
 import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.document.BinaryDocValuesField;
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.NumericDocValuesField;
 import org.apache.lucene.document.StoredField;
 import org.apache.lucene.index.CorruptIndexException;
 import org.apache.lucene.index.IndexWriter;
@@ -38,6 +40,7 @@ import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
 import org.apache.sis.util.ArgumentChecks;
 import org.geotoolkit.geometry.jts.JTS;
 
@@ -488,13 +491,17 @@ public abstract class AbstractIndexer<E> extends IndexLucene {
         try {
             final String id = doc.get("id");
             namedBound      = LuceneUtils.getNamedEnvelope(id, geom, crs);
-            rTree.insert(namedBound);
+            final int treeId = rTree.insert(namedBound);
             rTree.getTreeElementMapper().flush();
             rTree.flush();
+            // allow spatial filters to join R-tree results without loading stored fields
+            doc.add(new NumericDocValuesField(LuceneOGCFilter.TREE_ID_FIELD_NAME, treeId));
         } catch (TransformException | FactoryException | MismatchedReferenceSystemException | StoreIndexException | IOException ex) {
             LOGGER.log(Level.WARNING, "Unable to insert envelope in R-Tree.", ex);
         }
-        doc.add(new StoredField(LuceneOGCFilter.GEOMETRY_FIELD_NAME,WKBUtils.toWKBwithSRID(geom)));
+        final byte[] wkb = WKBUtils.toWKBwithSRID(geom);
+        doc.add(new StoredField(LuceneOGCFilter.GEOMETRY_FIELD_NAME, wkb));
+        doc.add(new BinaryDocValuesField(LuceneOGCFilter.GEOMETRY_FIELD_NAME, new BytesRef(wkb)));
         return namedBound;
     }
     
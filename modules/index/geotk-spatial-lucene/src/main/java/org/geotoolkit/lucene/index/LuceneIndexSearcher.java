@@ -21,7 +21,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 
 import org.apache.lucene.analysis.Analyzer;
@@ -29,6 +29,7 @@ import org.apache.lucene.document.Document;
 import org.apache.lucene.index.CorruptIndexException;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
@@ -36,11 +37,14 @@ import org.apache.lucene.queryparser.classic.QueryParser.Operator;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.Filter;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.LRUQueryCache;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryCachingPolicy;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.UsageTrackingQueryCachingPolicy;
 import org.geotoolkit.index.tree.manager.SQLRtreeManager;
 import org.geotoolkit.index.IndexingException;
 import org.geotoolkit.index.LogicalFilterType;
@@ -70,14 +74,44 @@ public class LuceneIndexSearcher extends IndexLucene {
     private final static Query SIMPLE_QUERY = new TermQuery(new Term("metafile", "doc"));
 
     /**
-     * A map of cached request
+     * The maximum size of the map of queries.
      */
-    private final Map<SpatialQuery, Set<String>> cachedQueries = new ConcurrentHashMap<>();
+    private static final int MAX_CACHED_QUERIES_SIZE = 50;
 
     /**
-     * The maximum size of the map of queries.
+     * The maximum number of per-segment entries in the segment cache.
      */
-    private static final int MAX_CACHED_QUERIES_SIZE = 50;
+    private static final int MAX_SEGMENT_CACHE_SIZE = 1000;
+
+    /**
+     * The maximum memory used by the segment cache, in bytes.
+     */
+    private static final long MAX_SEGMENT_CACHE_BYTES = 32 * 1024 * 1024;
+
+    /**
+     * A map of cached request, the least recently used query is removed first.
+     * Results depends on the whole index, this map is cleared on each refresh.
+     */
+    private final Map<SpatialQuery, Set<String>> cachedQueries = Collections.synchronizedMap(
+            new LinkedHashMap<SpatialQuery, Set<String>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<SpatialQuery, Set<String>> eldest) {
+                    return size() > MAX_CACHED_QUERIES_SIZE;
+                }
+            });
+
+    /**
+     * Cache of the documents matched by queries and filters, for each segment of the index.
+     * Entries are keyed on the segment core, they stay valid after a refresh for all
+     * the segments which have not been rewritten.
+     */
+    private final LRUQueryCache segmentCache = new LRUQueryCache(MAX_SEGMENT_CACHE_SIZE, MAX_SEGMENT_CACHE_BYTES);
+
+    /**
+     * Number of searches answered from, or missed in the map of cached request.
+     */
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
 
     /**
      * A flag indicating if the cache system for query is enabled.
@@ -197,6 +231,8 @@ public class LuceneIndexSearcher extends IndexLucene {
         this.rTree = SQLRtreeManager.get(indexDirectory, this);
         final IndexReader reader  = DirectoryReader.open(LuceneUtils.getAppropriateDirectory(indexDirectory));
         searcher                  = new IndexSearcher(reader);
+        searcher.setQueryCache(segmentCache);
+        searcher.setQueryCachingPolicy(new SpatialCachingPolicy());
         LOGGER.log(Level.INFO, "Creating new Index Searcher with index directory:{0}", indexDirectory.toString());
        
     }
@@ -325,10 +361,14 @@ public class LuceneIndexSearcher extends IndexLucene {
             spatialQuery.applyRtreeOnFilter(rTree, envelopeOnly);
 
             //we look for a cached Query
-            if (isCacheEnabled && cachedQueries.containsKey(spatialQuery)) {
+            if (isCacheEnabled) {
                 final Set<String> cachedResults = cachedQueries.get(spatialQuery);
-                LOGGER.log(logLevel, "returning result from cache ({0} matching documents)", results.size());
-                return cachedResults;
+                if (cachedResults != null) {
+                    cacheHits.incrementAndGet();
+                    LOGGER.log(logLevel, "returning result from cache ({0} matching documents)", cachedResults.size());
+                    return cachedResults;
+                }
+                cacheMisses.incrementAndGet();
             }
 
             int maxRecords = (int) searcher.collectionStatistics("id").maxDoc();
@@ -508,14 +548,39 @@ public class LuceneIndexSearcher extends IndexLucene {
      */
     private void putInCache(final SpatialQuery query, final Set<String> results) {
         if (isCacheEnabled) {
-            // if we had reach the maximum cache size we remove the first request
-            if (cachedQueries.size() >= MAX_CACHED_QUERIES_SIZE) {
-                cachedQueries.remove(cachedQueries.keySet().iterator().next());
-            }
             cachedQueries.put(query, results);
         }
     }
 
+    /**
+     * Return the number of searches answered from the query cache.
+     *
+     * @return number of cache hits since the searcher creation.
+     */
+    public long getCacheHitCount() {
+        return cacheHits.get();
+    }
+
+    /**
+     * Return the number of searches which were not found in the query cache.
+     *
+     * @return number of cache misses since the searcher creation.
+     */
+    public long getCacheMissCount() {
+        return cacheMisses.get();
+    }
+
+    /**
+     * Return the per-segment cache used by this searcher.
+     * The returned cache gives access to its hit, miss and eviction counts,
+     * its number of entries and its memory usage.
+     *
+     * @return the per-segment cache, never null.
+     */
+    public LRUQueryCache getSegmentCache() {
+        return segmentCache;
+    }
+
     /**
      * Free the resources when closing the searcher.
      */
@@ -524,5 +589,25 @@ public class LuceneIndexSearcher extends IndexLucene {
         super.destroy();
         LOGGER.info("shutting down index searcher");
         cachedQueries.clear();
+        segmentCache.clear();
+    }
+
+    /**
+     * Always cache the spatial filters, they are the most expensive part of a search.
+     * Other queries are cached when they are used frequently.
+     */
+    private static final class SpatialCachingPolicy implements QueryCachingPolicy {
+
+        private final QueryCachingPolicy fallback = new UsageTrackingQueryCachingPolicy();
+
+        @Override
+        public void onUse(final Query query) {
+            fallback.onUse(query);
+        }
+
+        @Override
+        public boolean shouldCache(final Query query, final LeafReaderContext context) throws IOException {
+            return query instanceof org.geotoolkit.lucene.filter.Filter || fallback.shouldCache(query, context);
+        }
     }
 }
@@ -8,10 +8,12 @@ import java.util.Iterator;
 import java.util.List;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.NumericDocValuesField;
 import org.geotoolkit.index.IndexingException;
 import org.geotoolkit.index.tree.StoreIndexException;
 import org.geotoolkit.index.tree.manager.NamedEnvelope;
 import org.geotoolkit.lucene.DocumentIndexer.DocumentEnvelope;
+import org.geotoolkit.lucene.filter.LuceneOGCFilter;
 import org.geotoolkit.lucene.index.AbstractIndexer;
 
 /**
@@ -61,7 +63,8 @@ public class DocumentIndexer extends AbstractIndexer<DocumentEnvelope>{
     protected Document createDocument(DocumentEnvelope object, int docId) throws IndexingException {
         if (object.env != null) {
             try {
-                rTree.insert(object.env);
+                final int treeId = rTree.insert(object.env);
+                object.doc.add(new NumericDocValuesField(LuceneOGCFilter.TREE_ID_FIELD_NAME, treeId));
             } catch (StoreIndexException ex) {
                 throw new IndexingException("Unable to insert BBOX for document", ex);
             }
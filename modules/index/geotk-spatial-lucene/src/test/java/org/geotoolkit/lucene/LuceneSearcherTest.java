@@ -2385,6 +2385,31 @@ public class LuceneSearcherTest extends org.geotoolkit.test.TestBase {
         assertTrue(results.contains("box 3"));
     }
 
+    /**
+     * Test the query cache and the per-segment cache statistics.
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void cacheTest() throws Exception {
+        final org.opengis.filter.Filter spaFilter = FF.bbox(GEOMETRY_PROPERTY, -21, -21, 21, 21, "CRS:84");
+        final SpatialQuery bboxQuery = new SpatialQuery(wrap(spaFilter));
+
+        final long hits = searcher.getCacheHitCount();
+        final long misses = searcher.getCacheMissCount();
+        final Set<String> results = searcher.doSearch(bboxQuery);
+        assertEquals(misses + 1, searcher.getCacheMissCount());
+        assertEquals(results, searcher.doSearch(new SpatialQuery(wrap(spaFilter))));
+        assertEquals(hits + 1, searcher.getCacheHitCount());
+        assertTrue(searcher.getSegmentCache().getCacheCount() > 0);
+
+        // the query cache is cleared, unchanged segments are still cached
+        final long segmentHits = searcher.getSegmentCache().getHitCount();
+        searcher.refresh();
+        assertEquals(results, searcher.doSearch(new SpatialQuery(wrap(spaFilter))));
+        assertEquals(misses + 2, searcher.getCacheMissCount());
+        assertTrue(searcher.getSegmentCache().getHitCount() > segmentHits);
+    }
+
 
     /**
      * Test the combination of a String query and/or spatial filter.
@@ -16,10 +16,18 @@
  */
 package org.geotoolkit.processing.chain;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.geotoolkit.cql.CQL;
@@ -60,6 +68,16 @@ public class ChainProcess extends AbstractProcess {
 
     private Process currentProcess;
 
+    /**
+     * Executor used to run independent sub processes concurrently, null for sequential execution.
+     */
+    private ExecutorService executor;
+
+    /**
+     * Wake up signals for the execution thread : completed nodes, resume and cancel requests.
+     */
+    private final BlockingQueue<Object> signals = new LinkedBlockingQueue<>();
+
 
     public ChainProcess(final ChainProcessDescriptor desc, final ParameterValueGroup input) {
         super(desc, input);
@@ -73,6 +91,27 @@ public class ChainProcess extends AbstractProcess {
         return (ChainProcessDescriptor)super.getDescriptor();
     }
 
+    /**
+     * Set the executor used to run the chain steps.
+     * <p>
+     * When an executor is set, each sub process is started as soon as all the elements it
+     * depends on, by execution or data links, are completed. Independent steps are executed
+     * concurrently. Chains containing conditional elements are always executed sequentially.
+     * </p>
+     *
+     * @param executor executor service, null to execute the steps sequentially in the calling thread.
+     */
+    public void setExecutor(final ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @return executor used to run the chain steps, null if steps are executed sequentially.
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -130,6 +169,11 @@ public class ChainProcess extends AbstractProcess {
         // Will contain all the versions of processes used
         final StringBuilder processVersion = new StringBuilder();
 
+        if (executor != null && !hasCondition(model)) {
+            executeConcurrently(model, nodes, configs, processVersion);
+            return;
+        }
+
         //run processes in order
         for (int j = 0; j < ranked.size(); j++) {
             final List<FlowNode> rank = ranked.get(j);
@@ -137,11 +181,7 @@ public class ChainProcess extends AbstractProcess {
             for(FlowNode node : rank){
                 final Object obj = node.getObject();
                 if (obj == ElementProcess.BEGIN) {
-                    //copy input params in children nodes
-                    for(DataLink link : model.getInputLinks(Integer.MIN_VALUE)){
-                        final Object value = inputParameters.parameter(link.getSourceCode()).getValue();
-                        setValue(value, configs.get(link.getTargetId()).parameter(link.getTargetCode()));
-                    }
+                    copyInputs(model, configs);
                 } else if (obj == ElementProcess.END) {
                     // do nothing
 
@@ -153,9 +193,9 @@ public class ChainProcess extends AbstractProcess {
                     // handle process pause
                     if (isPaused()) {
                         fireProcessPaused(descriptor.getIdentifier().getCode() + " paused", i * part);
-                        while (isPaused()) {
+                        while (isPaused() && !isCanceled()) {
                             try {
-                                Thread.sleep(1000);
+                                signals.take();
                             } catch (InterruptedException ex) {
                                 LOGGER.log(Level.WARNING, "Interruption while process is in pause", ex);
                             }
@@ -182,15 +222,12 @@ public class ChainProcess extends AbstractProcess {
                     processVersion.append(processId).append(" ")
                             .append(((AbstractProcessDescriptor)currentProcess.getDescriptor()).getVersion());
 
+                    final long start = System.nanoTime();
                     final ParameterValueGroup result = currentProcess.call();
-                    fireProgressing(pdesc.getIdentifier().getCode() + " completed", i * part, false);
+                    fireProgressing(completedMessage(processId, System.nanoTime() - start), i * part, false);
                     i++;
 
-                    //set result in children
-                    for(DataLink link : model.getInputLinks(element.getId())){
-                        final Object value = result.parameter(link.getSourceCode()).getValue();
-                        setValue(value, configs.get(link.getTargetId()).parameter(link.getTargetCode()));
-                    }
+                    copyOutputs(model, element, result, configs);
                 } else if (obj instanceof ElementCondition) {
                     final ElementCondition condition = (ElementCondition) obj;
                     final Boolean result = executeConditionalElement(condition, configs.get(condition.getId()));
@@ -208,6 +245,198 @@ public class ChainProcess extends AbstractProcess {
 
     }
 
+    /**
+     * Execute the chain steps on the executor, each step is submitted as soon as
+     * all its parents are completed. Parameters are copied and events are fired
+     * in the calling thread only.
+     */
+    private void executeConcurrently(final Chain model, final Collection<FlowNode> nodes,
+            final Map<Integer, ParameterValueGroup> configs, final StringBuilder processVersion) throws ProcessException {
+
+        final float part = 100 / model.getElements().size();
+        int i = 1;
+
+        //build the dependency graph, BEGIN and END are not scheduled
+        final Map<Integer, FlowNode> byId = new HashMap<>();
+        final Map<FlowNode, List<FlowNode>> dependents = new HashMap<>();
+        final Map<FlowNode, Integer> nbParents = new HashMap<>();
+        for (FlowNode node : nodes) {
+            if (!node.isInput && !node.isOutput) {
+                dependents.put(node, new ArrayList<>());
+                nbParents.put(node, 0);
+                if (node.object instanceof Element) {
+                    byId.put(((Element) node.object).getId(), node);
+                }
+            }
+        }
+        for (Map.Entry<FlowNode, List<FlowNode>> entry : dependents.entrySet()) {
+            final FlowNode node = entry.getKey();
+            final List<FlowNode> children = entry.getValue();
+            for (FlowNode child : node.children) {
+                addDependency(children, nbParents, child);
+            }
+            if (node.object instanceof ElementProcess) {
+                for (DataLink link : model.getInputLinks(((ElementProcess) node.object).getId())) {
+                    addDependency(children, nbParents, byId.get(link.getTargetId()));
+                }
+            }
+        }
+
+        copyInputs(model, configs);
+
+        final Deque<FlowNode> ready = new ArrayDeque<>();
+        for (Map.Entry<FlowNode, Integer> entry : nbParents.entrySet()) {
+            if (entry.getValue() == 0) {
+                ready.add(entry.getKey());
+            }
+        }
+
+        final Map<FlowNode, NodeExecution> running = new HashMap<>();
+        int remaining = nbParents.size();
+        boolean pauseNotified = false;
+        boolean success = false;
+        try {
+            while (remaining > 0) {
+                // handle process cancel
+                if (isCanceled()) {
+                    throw new ProcessException("Process Canceled by user", this, null);
+                }
+
+                // handle process pause, running steps are not interrupted
+                if (isPaused()) {
+                    if (!pauseNotified) {
+                        fireProcessPaused(descriptor.getIdentifier().getCode() + " paused", i * part);
+                        pauseNotified = true;
+                    }
+                } else {
+                    if (pauseNotified) {
+                        fireProcessResumed(descriptor.getIdentifier().getCode() + " resumed", i * part);
+                        pauseNotified = false;
+                    }
+                    for (FlowNode node = ready.poll(); node != null; node = ready.poll()) {
+                        if (node.object instanceof ElementProcess) {
+                            final ElementProcess element = (ElementProcess) node.object;
+                            final ProcessDescriptor pdesc;
+                            try {
+                                pdesc = getProcessDescriptor(element);
+                            } catch (NoSuchIdentifierException ex) {
+                                throw new ProcessException("Sub process not found", this, ex);
+                            }
+                            final NodeExecution execution = new NodeExecution(node,
+                                    pdesc.createProcess(configs.get(element.getId())), signals);
+                            execution.future = executor.submit(execution);
+                            running.put(node, execution);
+                        } else {
+                            //nothing to execute
+                            remaining--;
+                            release(dependents.get(node), nbParents, ready);
+                        }
+                    }
+                    if (remaining == 0) {
+                        break;
+                    }
+                    if (running.isEmpty()) {
+                        throw new ProcessException("Chain contains a dependency cycle.", this, null);
+                    }
+                }
+
+                final Object signal = signals.take();
+                if (signal instanceof NodeExecution) {
+                    final NodeExecution execution = (NodeExecution) signal;
+                    if (running.remove(execution.node) == null) {
+                        //left over from a previous failed execution
+                        continue;
+                    }
+                    final String processId = execution.process.getDescriptor().getIdentifier().getCode();
+                    if (execution.error != null) {
+                        if (execution.error instanceof ProcessException) {
+                            throw (ProcessException) execution.error;
+                        }
+                        throw new ProcessException("Sub process " + processId + " failed.", this, execution.error);
+                    }
+
+                    if (processVersion.length() > 0) {
+                        processVersion.append(", ");
+                    }
+                    processVersion.append(processId).append(" ")
+                            .append(((AbstractProcessDescriptor)execution.process.getDescriptor()).getVersion());
+
+                    fireProgressing(completedMessage(processId, execution.elapsed), i * part, false);
+                    i++;
+
+                    copyOutputs(model, (ElementProcess) execution.node.object, execution.result, configs);
+                    remaining--;
+                    release(dependents.get(execution.node), nbParents, ready);
+                }
+            }
+            success = true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ProcessException("Process interrupted", this, ex);
+        } finally {
+            if (!success) {
+                //propagate cancellation to the running steps
+                for (NodeExecution execution : running.values()) {
+                    if (execution.process instanceof AbstractProcess) {
+                        ((AbstractProcess) execution.process).cancelProcess();
+                    }
+                    execution.future.cancel(true);
+                }
+            }
+        }
+    }
+
+    private static void addDependency(final List<FlowNode> children, final Map<FlowNode, Integer> nbParents, final FlowNode child) {
+        if (child != null && nbParents.containsKey(child) && !children.contains(child)) {
+            children.add(child);
+            nbParents.put(child, nbParents.get(child) + 1);
+        }
+    }
+
+    private static void release(final List<FlowNode> children, final Map<FlowNode, Integer> nbParents, final Deque<FlowNode> ready) {
+        for (FlowNode child : children) {
+            final int nb = nbParents.get(child) - 1;
+            nbParents.put(child, nb);
+            if (nb == 0) {
+                ready.add(child);
+            }
+        }
+    }
+
+    private static boolean hasCondition(final Chain model) {
+        for (Element element : model.getElements()) {
+            if (element instanceof ElementCondition) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String completedMessage(final String processId, final long elapsedNanos) {
+        return processId + " completed in " + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + " ms";
+    }
+
+    /**
+     * Copy chain input parameters in children nodes.
+     */
+    private void copyInputs(final Chain model, final Map<Integer, ParameterValueGroup> configs) {
+        for(DataLink link : model.getInputLinks(Integer.MIN_VALUE)){
+            final Object value = inputParameters.parameter(link.getSourceCode()).getValue();
+            setValue(value, configs.get(link.getTargetId()).parameter(link.getTargetCode()));
+        }
+    }
+
+    /**
+     * Copy a sub process result in children nodes.
+     */
+    private void copyOutputs(final Chain model, final ElementProcess element, final ParameterValueGroup result,
+            final Map<Integer, ParameterValueGroup> configs) {
+        for(DataLink link : model.getInputLinks(element.getId())){
+            final Object value = result.parameter(link.getSourceCode()).getValue();
+            setValue(value, configs.get(link.getTargetId()).parameter(link.getTargetCode()));
+        }
+    }
+
     private boolean executeConditionalElement(final ElementCondition condition, final ParameterValueGroup inputs) throws ProcessException {
         final FilterFactory ff = FactoryFinder.getFilterFactory(null);
         final String statement = condition.getExpression();
@@ -286,6 +515,47 @@ public class ChainProcess extends AbstractProcess {
         if (currentProcess instanceof AbstractProcess) {
             ((AbstractProcess)currentProcess).cancelProcess();
         }
+        signals.add(Boolean.TRUE);
+    }
+
+    @Override
+    public void resumeProcess() {
+        super.resumeProcess();
+        signals.add(Boolean.TRUE);
+    }
+
+    /**
+     * Execution of a single sub process on the executor.
+     * The execution is posted in the signal queue when finished.
+     */
+    private static final class NodeExecution implements Runnable {
+
+        private final FlowNode node;
+        private final Process process;
+        private final BlockingQueue<Object> signals;
+        private Future<?> future;
+        private ParameterValueGroup result;
+        private Throwable error;
+        private long elapsed;
+
+        private NodeExecution(final FlowNode node, final Process process, final BlockingQueue<Object> signals) {
+            this.node = node;
+            this.process = process;
+            this.signals = signals;
+        }
+
+        @Override
+        public void run() {
+            final long start = System.nanoTime();
+            try {
+                result = process.call();
+            } catch (Throwable ex) {
+                error = ex;
+            } finally {
+                elapsed = System.nanoTime() - start;
+                signals.add(this);
+            }
+        }
     }
 
     @Override
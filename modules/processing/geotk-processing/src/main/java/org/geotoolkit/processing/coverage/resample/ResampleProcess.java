@@ -28,6 +28,7 @@ import java.awt.image.WritableRaster;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.LogRecord;
 import java.util.logging.Logger;
 import org.apache.sis.geometry.GeneralEnvelope;
@@ -92,6 +93,12 @@ public class ResampleProcess extends AbstractProcess {
      */
     private static final PixelOrientation CORNER = PixelOrientation.UPPER_LEFT;
 
+    /**
+     * Executor shared by all resample processes to fill target images concurrently,
+     * its parallelism is bounded to the number of processors.
+     */
+    static final ForkJoinPool EXECUTOR = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
 
     public ResampleProcess(GridCoverage2D coverage, CoordinateReferenceSystem targetCrs, double[] background) {
         super(INSTANCE, asParameters(coverage, targetCrs,  null, null, background));
@@ -537,6 +544,7 @@ public class ResampleProcess extends AbstractProcess {
 //                PixelIteratorFactory.createDefaultIterator(sourceImage,sourceBB), interpolationType, 2);
          final Resample resample = new Resample(targetToSource, targetImage, sourceImage,
                 interpolationType, borderComportement, fillValue);
+        resample.setExecutor(EXECUTOR);
         resample.fillImage();
 
         return create(sourceCoverage, targetImage, targetGG, finalView, hints);
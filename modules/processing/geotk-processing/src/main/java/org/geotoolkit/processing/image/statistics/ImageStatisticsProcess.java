@@ -16,7 +16,9 @@
  */
 package org.geotoolkit.processing.image.statistics;
 
+import java.awt.Rectangle;
 import java.awt.image.RenderedImage;
+import java.util.stream.StreamSupport;
 import org.apache.sis.math.Statistics;
 import org.geotoolkit.image.iterator.PixelIterator;
 import org.geotoolkit.image.iterator.PixelIteratorFactory;
@@ -51,17 +53,34 @@ public class ImageStatisticsProcess extends AbstractProcess {
         final PixelIterator pix = PixelIteratorFactory.createDefaultIterator(inImg);
         
         final int numBand = pix.getNumBands();
+        //-- compute statistics of each tile in parallel, then merge them
+        final Statistics[] stats = StreamSupport.stream(pix.tileSpliterator(), true)
+                .map((Rectangle tile) -> {
+                    final Statistics[] tileStats = createStatistics(numBand);
+                    final double[] samples = pix.getPixels(tile, null);
+                    for (int i = 0; i < samples.length;) {
+                        for (int b = 0; b < numBand; b++) {
+                            tileStats[b].accept(samples[i++]);
+                        }
+                    }
+                    return tileStats;
+                })
+                .reduce((Statistics[] s1, Statistics[] s2) -> {
+                    for (int b = 0; b < numBand; b++) {
+                        s1[b].combine(s2[b]);
+                    }
+                    return s1;
+                })
+                .orElseGet(() -> createStatistics(numBand));
+                
+        Parameters.getOrCreate(OUTPUT_STATS, outputParameters).setValue(stats);
+    }
+
+    private static Statistics[] createStatistics(final int numBand) {
         final Statistics[] stats = new Statistics[numBand];
         for (int b = 0; b < numBand; b++) {
             stats[b] = new Statistics("statistic from band "+b);
         }
-        
-        int b = 0;
-        while (pix.next()) {
-            stats[b].accept(pix.getSampleDouble());
-            if (++b == numBand) b = 0; 
-        }
-                
-        Parameters.getOrCreate(OUTPUT_STATS, outputParameters).setValue(stats);
+        return stats;
     }
 }
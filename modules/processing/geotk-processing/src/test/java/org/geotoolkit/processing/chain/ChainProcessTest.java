@@ -18,12 +18,18 @@ package org.geotoolkit.processing.chain;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.xml.bind.JAXBException;
 import org.geotoolkit.process.ProcessDescriptor;
+import org.geotoolkit.process.ProcessEvent;
 import org.geotoolkit.process.Process;
 import org.geotoolkit.process.ProcessException;
+import org.geotoolkit.processing.ProcessListenerAdapter;
 import org.geotoolkit.processing.chain.model.Chain;
 import org.geotoolkit.processing.chain.model.ElementProcess;
 import org.geotoolkit.processing.chain.model.Constant;
@@ -71,6 +77,41 @@ public class ChainProcessTest extends org.geotoolkit.test.TestBase {
         return chain;
     }
 
+    private Chain createConcurrentChain(){
+        //produce a chain equivalent to :  ($a + 10) * ($b + 10)
+        final Chain chain = new Chain("concurrentChain");
+        int id = 1;
+
+        //input/out/constants parameters
+        final Parameter a = chain.addInputParameter("a", Double.class, "desc",1,1,null);
+        final Parameter b = chain.addInputParameter("b", Double.class, "desc",1,1,null);
+        final Parameter r = chain.addOutputParameter("r", Double.class, "desc",1,1,null);
+        final Constant c = chain.addConstant(id++, Double.class, 10d);
+
+        //chain blocks, both additions are independent
+        final ElementProcess addA = chain.addProcessElement(id++, "demo", "add");
+        final ElementProcess addB = chain.addProcessElement(id++, "demo", "add");
+        final ElementProcess multi = chain.addProcessElement(id++, "demo", "multiply");
+
+        //execution flow links
+        chain.addFlowLink(BEGIN.getId(), addA.getId());
+        chain.addFlowLink(BEGIN.getId(), addB.getId());
+        chain.addFlowLink(addA.getId(), multi.getId());
+        chain.addFlowLink(addB.getId(), multi.getId());
+        chain.addFlowLink(multi.getId(), END.getId());
+
+        //data flow links
+        chain.addDataLink(BEGIN.getId(), a.getCode(), addA.getId(), "first");
+        chain.addDataLink(BEGIN.getId(), b.getCode(), addB.getId(), "first");
+        chain.addDataLink(c.getId(), "", addA.getId(), "second");
+        chain.addDataLink(c.getId(), "", addB.getId(), "second");
+        chain.addDataLink(addA.getId(), "result", multi.getId(), "first");
+        chain.addDataLink(addB.getId(), "result", multi.getId(), "second");
+        chain.addDataLink(multi.getId(), "result", END.getId(), r.getCode());
+
+        return chain;
+    }
+
     private Chain createBranchChain(){
         //produce a chain equivalent to :  (($a+10) > 20) ? *10 : /10
         final Chain chain = new Chain("branchChain");
@@ -135,6 +176,44 @@ public class ChainProcessTest extends org.geotoolkit.test.TestBase {
 
     }
 
+    @Test
+    public void testConcurrentChain() throws ProcessException{
+
+        final Chain chain = createConcurrentChain();
+
+        //process registries to use
+        final Set<MockProcessRegistry> registries = Collections.singleton(new MockProcessRegistry());
+
+        //create a process descriptor to use it like any process.
+        final ProcessDescriptor desc = new ChainProcessDescriptor(chain, MockProcessRegistry.IDENTIFICATION, registries);
+
+        //input params
+        final ParameterValueGroup input = desc.getInputDescriptor().createValue();
+        input.parameter("a").setValue(5d);
+        input.parameter("b").setValue(2d);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final ChainProcess process = (ChainProcess) desc.createProcess(input);
+            process.setExecutor(executor);
+
+            final List<String> tasks = new ArrayList<>();
+            process.addListener(new ProcessListenerAdapter() {
+                @Override
+                public void progressing(ProcessEvent event) {
+                    tasks.add(event.getTask().toString());
+                }
+            });
+            final ParameterValueGroup result = process.call();
+
+            assertEquals(180d, result.parameter("r").doubleValue(),0.000001);
+            assertEquals(3, tasks.size());
+            assertTrue(tasks.get(2).startsWith("multiply completed in "));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void testSimpleXmlRW() throws ProcessException, JAXBException, IOException{
 
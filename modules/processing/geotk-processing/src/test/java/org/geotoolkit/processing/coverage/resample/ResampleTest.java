@@ -142,6 +142,51 @@ public class ResampleTest extends AbstractProcessTest {
 
     }
 
+    /**
+     * Large target images are filled concurrently with the shared executor,
+     * partitions must give the same result as a single pass.
+     */
+    @Test
+    public void resampleConcurrent() throws ProcessException{
+
+        final CoordinateReferenceSystem crs = CommonCRS.WGS84.normalizedGeographic();
+
+        final float[][] array = {
+            {0,1,2},
+            {3,4,5},
+            {6,7,8}
+        };
+
+        MathTransform gridToCrs = new AffineTransform2D(1,0,0,-1,20,60);
+        gridToCrs = PixelTranslation.translate(gridToCrs, PixelInCell.CELL_CORNER, PixelInCell.CELL_CENTER);
+        final GridCoverageBuilder gcb = new GridCoverageBuilder();
+        gcb.setName("test");
+        gcb.setCoordinateReferenceSystem(crs);
+        gcb.setGridToCRS(gridToCrs);
+        gcb.setRenderedImage(array);
+        final GridCoverage2D coverage = gcb.getGridCoverage2D();
+
+        //output layout, large enough to be divided in several partitions
+        MathTransform gridToCrsOut = new AffineTransform2D(0.005,0,0,-0.005,20,60);
+        gridToCrsOut = PixelTranslation.translate(gridToCrsOut, PixelInCell.CELL_CORNER, PixelInCell.CELL_CENTER);
+        final GeneralGridEnvelope gridenv = new GeneralGridEnvelope(new Rectangle(0, 0, 600, 600), 2);
+        final GeneralGridGeometry outGridGeom = new GeneralGridGeometry(gridenv, gridToCrsOut, crs);
+        GridCoverage2D result = new ResampleProcess(coverage, crs, new GridGeometry2D(outGridGeom), InterpolationCase.NEIGHBOR, new double[]{Double.NaN}).executeNow();
+
+        final Raster raster = result.getRenderedImage().getData();
+        assertEquals(600, raster.getWidth());
+        assertEquals(600, raster.getHeight());
+
+        testPart(raster,   0, 200,   0, 200, 0);testPart(raster, 200, 400,   0, 200, 1);testPart(raster, 400, 600,   0, 200, 2);
+        testPart(raster,   0, 200, 200, 400, 3);testPart(raster, 200, 400, 200, 400, 4);testPart(raster, 400, 600, 200, 400, 5);
+        testPart(raster,   0, 200, 400, 600, 6);testPart(raster, 200, 400, 400, 600, 7);testPart(raster, 400, 600, 400, 600, 8);
+
+        if (Runtime.getRuntime().availableProcessors() > 1) {
+            //partitions have been submitted to the shared executor
+            assertTrue(ResampleProcess.EXECUTOR.getPoolSize() > 0);
+        }
+    }
+
     @Test
     public void resampleBorder() throws ProcessException{
 
@@ -18,6 +18,7 @@ package org.geotoolkit.image.io.plugin;
 
 import java.io.*;
 import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
@@ -52,6 +53,13 @@ import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.zip.DataFormatException;
 import java.util.zip.Inflater;
@@ -344,6 +352,16 @@ public class TiffImageReader extends SpatialImageReader {
      */
     private int noDataTemporaryKey = 1000000;
 
+    /**
+     * Executor used to decompress tiles concurrently, or {@code null} for sequential decoding.
+     */
+    private ExecutorService decodingExecutor;
+
+    /**
+     * Maximum number of compressed tiles waiting for decoding, per available processor.
+     */
+    private static final int MAX_PENDING_TILES_PER_CPU = 4;
+
     /**
      * Creates a new reader.
      *
@@ -359,6 +377,27 @@ public class TiffImageReader extends SpatialImageReader {
         currentImage = -1;
     }
 
+    /**
+     * Sets the executor used to decompress the tiles of Deflate compressed images.
+     * When an executor is set, tile byte ranges are read with positional reads when the input
+     * is a file, and tiles are decompressed concurrently into the destination raster.
+     * The number of tiles waiting for decoding is bounded.
+     *
+     * @param executor the executor to use, or {@code null} to decode tiles sequentially in the calling thread.
+     */
+    public void setDecodingExecutor(final ExecutorService executor) {
+        this.decodingExecutor = executor;
+    }
+
+    /**
+     * Returns the executor used to decompress tiles.
+     *
+     * @return the executor, or {@code null} if tiles are decoded sequentially.
+     */
+    public ExecutorService getDecodingExecutor() {
+        return decodingExecutor;
+    }
+
     /**
      * Returns {@code true} since this image format places no inherent impediment on random access
      * to pixels. Actually, having easy random access is the whole point of uncompressed TIFF files
@@ -3588,8 +3627,6 @@ public class TiffImageReader extends SpatialImageReader {
         //-- predictor study ---//
         final Map<String, Object> predictor = (headProperties.get(Predictor));
         final short predic    = (predictor != null) ? (short) ((long[]) predictor.get(ATT_VALUE)) [0] : 1;
-        //-- array which represent a pixel to permit horizontal differencing if exist --//
-        final long[] prediPix = new long[pixelLength];
 
         //-- fillOrder --//
         final Map<String, Object> fillOrder = headProperties.get(FillOrder);
@@ -3617,171 +3654,359 @@ public class TiffImageReader extends SpatialImageReader {
         final long bitpersampl = bitsPerSample[0];
 
         final int sourceScanTileStride     = tileWidth * pixelLength;
-        final int sourceScanTileByteStride = (tileWidth * (int)bitpersampl)/ Byte.SIZE;
-
-        //-- Inflate decompressor
-        final Inflater inflater              = new Inflater(false);
-        final int unCompressedTileByteLength = sourceScanTileByteStride * tileHeight;
-        final byte[] decompressedData        = new byte[unCompressedTileByteLength];
+        final int sourceScanTileByteStride = (sourceScanTileStride * (int)bitpersampl)/ Byte.SIZE;
 
+        //-- concurrent decoding, file inputs are read with positional reads from worker threads --//
+        final ExecutorService executor = decodingExecutor;
 
-        for (int bank = 0; bank < bankOffsets.length; bank++) {
-            /*
-             * Get the underlying array of the image DataBuffer in which to write the data.
-             */
-            final Object targetArray;
-            switch (dataType) {
-                case DataBuffer.TYPE_BYTE   : targetArray = ((DataBufferByte)   dataBuffer).getData(bank); break;
-                case DataBuffer.TYPE_USHORT : targetArray = ((DataBufferUShort) dataBuffer).getData(bank); break;
-                case DataBuffer.TYPE_SHORT  : targetArray = ((DataBufferShort)  dataBuffer).getData(bank); break;
-                case DataBuffer.TYPE_INT    : targetArray = ((DataBufferInt)    dataBuffer).getData(bank); break;
-                case DataBuffer.TYPE_FLOAT  : targetArray = ((DataBufferFloat)  dataBuffer).getData(bank); break;
-                case DataBuffer.TYPE_DOUBLE : targetArray = ((DataBufferDouble) dataBuffer).getData(bank); break;
-                default: throw new AssertionError(dataType);
-            }
-
-            final int targetRegionOffset = bankOffsets[bank] + dstRegion.y * targetScanlineStride + dstRegion.x * samplesPerPixel;
-
-            for (int s = 0; s < samplesPerPixel; s += pixelLength) {
-                final int tileIndexOffset = s * numXTile * numYTile;
-                for (int ty = minTileY; ty < maxTileY; ty++) {
-
-                    final int rowTileIndexOffset = ty * numXTile;
-                    final int interMinY          = Math.max(srcRegion.y, ty * tileHeight);
-                    final int interMaxY          = Math.min(srcRegionMaxY, (ty + 1) * tileHeight);
+        //-- Inflate decompressor, workers have their own when decoding concurrently
+        final int unCompressedTileByteLength = sourceScanTileByteStride * tileHeight;
+        final Inflater inflater              = (executor == null) ? new Inflater(false) : null;
+        final byte[] decompressedData        = (executor == null) ? new byte[unCompressedTileByteLength] : null;
 
-                    final int yOffset = (((interMinY - srcRegion.y) % sourceYSubsampling) == 0) ? 0 : (sourceYSubsampling - ((interMinY - srcRegion.y)) % sourceYSubsampling);
-                    if (yOffset >= tileHeight || (interMinY + yOffset) >= interMaxY) continue;
-                    final int rowSampleOffset = (interMinY + yOffset - ty * tileHeight) * sourceScanTileStride;
-                    final int targetRowOffset = ((interMinY - srcRegion.y + sourceYSubsampling - 1) / sourceYSubsampling) * targetScanlineStride;
+        final DeflateTileDecoder decoder = new DeflateTileDecoder(dataType, (int) bitpersampl, predic, pixelLength, planarDenum,
+                sourceScanTileStride, sourceScanTileByteStride, targetScanlineStride, sourceXSubsampling, sourceYSubsampling);
 
-         nextTile : for (int tx = minTileX; tx < maxTileX; tx++) {
+        final FileChannel fileChannel = (executor != null && fO == 1 && IOUtilities.canProcessAsPath(currentInput))
+                ? FileChannel.open(IOUtilities.toPath(currentInput), StandardOpenOption.READ) : null;
+        final List<Future<?>> pendingTiles = new ArrayList<>();
+        final Semaphore maxPendingTiles = new Semaphore(MAX_PENDING_TILES_PER_CPU * Runtime.getRuntime().availableProcessors());
+        //-- set when a tile fails, remaining tiles are skipped --//
+        final AtomicBoolean aborted = new AtomicBoolean();
 
-                        //-- define first byte file position to read --//
-                        final int tileIndex = tileIndexOffset + rowTileIndexOffset + tx;
-                        long currentBuffPos = tileOffsets[tileIndex];
-                        rasterStream.seek(currentBuffPos);
-                        assert rasterStream.getBitOffset() == 0;
+        try {
+            for (int bank = 0; bank < bankOffsets.length; bank++) {
+                /*
+                 * Get the underlying array of the image DataBuffer in which to write the data.
+                 */
+                final Object targetArray;
+                switch (dataType) {
+                    case DataBuffer.TYPE_BYTE   : targetArray = ((DataBufferByte)   dataBuffer).getData(bank); break;
+                    case DataBuffer.TYPE_USHORT : targetArray = ((DataBufferUShort) dataBuffer).getData(bank); break;
+                    case DataBuffer.TYPE_SHORT  : targetArray = ((DataBufferShort)  dataBuffer).getData(bank); break;
+                    case DataBuffer.TYPE_INT    : targetArray = ((DataBufferInt)    dataBuffer).getData(bank); break;
+                    case DataBuffer.TYPE_FLOAT  : targetArray = ((DataBufferFloat)  dataBuffer).getData(bank); break;
+                    case DataBuffer.TYPE_DOUBLE : targetArray = ((DataBufferDouble) dataBuffer).getData(bank); break;
+                    default: throw new AssertionError(dataType);
+                }
 
-                        //-- define intersection between srcRegion and current tile --//
-                        final int interMinX       = Math.max(srcRegion.x, tx * tileWidth);
-                        final int interMaxX       = Math.min(srcRegionMaxX, (tx + 1) * tileWidth);
+                final int targetRegionOffset = bankOffsets[bank] + dstRegion.y * targetScanlineStride + dstRegion.x * samplesPerPixel;
+
+                for (int s = 0; s < samplesPerPixel; s += pixelLength) {
+                    final int tileIndexOffset = s * numXTile * numYTile;
+                    for (int ty = minTileY; ty < maxTileY; ty++) {
+
+                        final int rowTileIndexOffset = ty * numXTile;
+                        final int interMinY          = Math.max(srcRegion.y, ty * tileHeight);
+                        final int interMaxY          = Math.min(srcRegionMaxY, (ty + 1) * tileHeight);
+
+                        final int yOffset = (((interMinY - srcRegion.y) % sourceYSubsampling) == 0) ? 0 : (sourceYSubsampling - ((interMinY - srcRegion.y)) % sourceYSubsampling);
+                        if (yOffset >= tileHeight || (interMinY + yOffset) >= interMaxY) continue;
+                        final int rowSampleOffset = (interMinY + yOffset - ty * tileHeight) * sourceScanTileStride;
+                        final int targetRowOffset = ((interMinY - srcRegion.y + sourceYSubsampling - 1) / sourceYSubsampling) * targetScanlineStride;
+
+                        for (int tx = minTileX; tx < maxTileX; tx++) {
+
+                            final int tileIndex = tileIndexOffset + rowTileIndexOffset + tx;
+
+                            //-- define intersection between srcRegion and current tile --//
+                            final int interMinX       = Math.max(srcRegion.x, tx * tileWidth);
+                            final int interMaxX       = Math.min(srcRegionMaxX, (tx + 1) * tileWidth);
+
+                            //-- source offset in x direction --//
+                            final int sourceColOffset = (interMinX - srcRegion.x) % sourceXSubsampling == 0 ? 0 : (sourceXSubsampling - ((interMinX - srcRegion.x) % sourceXSubsampling));
+                            //-- in case where subsampling is more longer than tilewidth --//
+                            if (sourceColOffset >= tileWidth || (interMinX + sourceColOffset) >= interMaxX) continue;
+                            final int maxSampleXPos = (interMaxX - tx * tileWidth) * pixelLength;
+                            //-- target begin position --//
+                            final int targetOffset = targetRegionOffset + targetRowOffset + ((interMinX - srcRegion.x + sourceXSubsampling - 1) / sourceXSubsampling) * samplesPerPixel + s;
+
+                           /*
+                            * We define to positions "posRef" and "maxRowRefPos" where "posRef" represent
+                            * index of current sample which will be written in source array and "maxRowRefPos" the last exclusive written sample.
+                            */
+                            final int posRef       = rowSampleOffset + (interMinX + sourceColOffset - tx * tileWidth) * pixelLength;
+                            final int maxRowRefPos = rowSampleOffset + maxSampleXPos;
+                            final int maxSamplePos = (interMaxY - ty * tileHeight - 1) * sourceScanTileStride + maxSampleXPos;
+
+                            final long tileOffset = tileOffsets[tileIndex];
+                            final int tileLength  = (int) tileByteCounts[tileIndex];
+
+                            if (executor == null) {
+                                //-- decode datas
+                                rasterStream.seek(tileOffset);
+                                assert rasterStream.getBitOffset() == 0;
+                                final byte[] data = new byte[tileLength];
+                                rasterStream.readFully(data);
+                                inflate(inflater, data, decompressedData);
+                                decoder.decode(decompressedData, targetArray, posRef, targetOffset, maxRowRefPos, maxSamplePos);
+                                continue;
+                            }
 
-                        //-- source offset in x direction --//
-                        final int sourceColOffset = (interMinX - srcRegion.x) % sourceXSubsampling == 0 ? 0 : (sourceXSubsampling - ((interMinX - srcRegion.x) % sourceXSubsampling));
-                        //-- in case where subsampling is more longer than tilewidth --//
-                        if (sourceColOffset >= tileWidth || (interMinX + sourceColOffset) >= interMaxX) continue nextTile;
-                        final int maxSampleXPos = (interMaxX - tx * tileWidth) * pixelLength;
-                        //-- target begin position --//
-                        int targetOffset = targetRegionOffset + targetRowOffset + ((interMinX - srcRegion.x + sourceXSubsampling - 1) / sourceXSubsampling) * samplesPerPixel + s;
-                        int targetPos    = targetOffset;
+                            //-- a tile failed, error is reported once running tiles are finished
+                            if (aborted.get()) continue;
 
-                       /*
-                        * With LZW compression we must read all byte to build appropriate LZW map container.
-                        * We define to positions "posRef" and "maxRowRefPos" where "posRef" represent
-                        * index of current sample which will be written in source array and "maxRowRefPos" the last exclusive written sample.
-                        */
-                        int posRef = rowSampleOffset + (interMinX + sourceColOffset - tx * tileWidth) * pixelLength;
+                            final byte[] data;
+                            if (fileChannel != null) {
+                                data = null;
+                            } else {
+                                rasterStream.seek(tileOffset);
+                                data = new byte[tileLength];
+                                rasterStream.readFully(data);
+                            }
+                            try {
+                                maxPendingTiles.acquire();
+                            } catch (InterruptedException ex) {
+                                Thread.currentThread().interrupt();
+                                throw new IIOException("Interrupted while decoding tiles.", ex);
+                            }
+                            try {
+                                pendingTiles.add(executor.submit(() -> {
+                                    try {
+                                        if (aborted.get()) return null;
+                                        final byte[] compressed = (data != null) ? data : readFully(fileChannel, tileOffset, tileLength);
+                                        final byte[] uncompressed = new byte[unCompressedTileByteLength];
+                                        final Inflater tileInflater = new Inflater(false);
+                                        try {
+                                            inflate(tileInflater, compressed, uncompressed);
+                                        } finally {
+                                            tileInflater.end();
+                                        }
+                                        if (aborted.get()) return null;
+                                        decoder.decode(uncompressed, targetArray, posRef, targetOffset, maxRowRefPos, maxSamplePos);
+                                        return null;
+                                    } catch (Exception | Error ex) {
+                                        aborted.set(true);
+                                        throw ex;
+                                    } finally {
+                                        maxPendingTiles.release();
+                                    }
+                                }));
+                            } catch (RejectedExecutionException ex) {
+                                maxPendingTiles.release();
+                                throw new IIOException("Unable to submit tile decoding.", ex);
+                            }
+                        }
+                    }
+                }
+            }
 
-                        int nextPosRef         = posRef + sourceYSubsampling * sourceScanTileStride;
-                        int maxRowRefPos       = rowSampleOffset + maxSampleXPos;
-                        final int maxSamplePos = (interMaxY - ty * tileHeight - 1) * sourceScanTileStride + maxSampleXPos;
-                        int samplePos          = 0;
+            //-- wait for all concurrent decodings --//
+            for (Future<?> tile : pendingTiles) {
+                try {
+                    tile.get();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IIOException("Interrupted while decoding tiles.", ex);
+                } catch (ExecutionException ex) {
+                    final Throwable cause = ex.getCause();
+                    if (cause instanceof IOException) throw (IOException) cause;
+                    throw new IIOException("Error while decoding tile.", cause);
+                }
+            }
+        } finally {
+            /*
+             * On failure, tiles not decoded yet are skipped and running decodings are waited for,
+             * no tile must be written in the raster once this method has returned.
+             */
+            aborted.set(true);
+            boolean interrupted = false;
+            for (Future<?> tile : pendingTiles) {
+                while (true) {
+                    try {
+                        tile.get();
+                        break;
+                    } catch (InterruptedException ex) {
+                        interrupted = true;
+                    } catch (ExecutionException | CancellationException ex) {
+                        //-- first error is already reported
+                        break;
+                    }
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+            if (inflater != null) inflater.end();
+            if (fileChannel != null) fileChannel.close();
+        }
+    }
 
-                        //-- current LZW array index --//
-                        //-- precedently iteration LZW code --//
-                        int hdb              = 0;
-                        Arrays.fill(prediPix, 0);
+    /**
+     * Read a byte range from the given channel, without changing the channel position.
+     *
+     * @param channel  channel to read from.
+     * @param position position of the first byte to read.
+     * @param length   number of bytes to read.
+     * @return read bytes.
+     * @throws IOException if the end of channel is reached before all bytes are read.
+     */
+    private static byte[] readFully(final FileChannel channel, final long position, final int length) throws IOException {
+        final byte[] data = new byte[length];
+        final ByteBuffer bb = ByteBuffer.wrap(data);
+        while (bb.hasRemaining()) {
+            if (channel.read(bb, position + bb.position()) < 0) {
+                throw new EOFException("Unexpected end of file at position " + (position + bb.position()));
+            }
+        }
+        return data;
+    }
 
-                        //-- bytePos must read throught all file byte per byte --//
-                        int bytePos = 0;
-                        int b       = 0;
+    /**
+     * Copies the samples of an uncompressed Deflate tile into the destination array.
+     * Instances hold only immutable image wide settings and can be shared between threads.
+     *
+     * @see #readFromTilesDeflate(java.awt.image.WritableRaster, javax.imageio.ImageReadParam, java.awt.Rectangle, java.awt.Rectangle)
+     */
+    private static final class DeflateTileDecoder {
+
+        private final int dataType;
+        private final int bitpersampl;
+        private final short predic;
+        private final int pixelLength;
+        private final int planarDenum;
+        private final int sourceScanTileStride;
+        private final int sourceScanTileByteStride;
+        private final int targetScanlineStride;
+        private final int sourceXSubsampling;
+        private final int sourceYSubsampling;
+
+        DeflateTileDecoder(final int dataType, final int bitpersampl, final short predic, final int pixelLength,
+                final int planarDenum, final int sourceScanTileStride, final int sourceScanTileByteStride,
+                final int targetScanlineStride, final int sourceXSubsampling, final int sourceYSubsampling) {
+            this.dataType                 = dataType;
+            this.bitpersampl              = bitpersampl;
+            this.predic                   = predic;
+            this.pixelLength              = pixelLength;
+            this.planarDenum              = planarDenum;
+            this.sourceScanTileStride     = sourceScanTileStride;
+            this.sourceScanTileByteStride = sourceScanTileByteStride;
+            this.targetScanlineStride     = targetScanlineStride;
+            this.sourceXSubsampling       = sourceXSubsampling;
+            this.sourceYSubsampling       = sourceYSubsampling;
+        }
 
-                        /*
-                         * Long container use to build a sample,
-                         * because each sample is read byte per byte regardless their bit size.
-                         */
-                        long dataContainer = 0;
-                        int maskCount      = 0;
+        /**
+         * Write the samples of a tile.
+         *
+         * @param decompressedData uncompressed tile bytes.
+         * @param targetArray      destination bank array.
+         * @param posRef           index of the first source sample to write.
+         * @param targetOffset     index in the destination array of the first written sample.
+         * @param maxRowRefPos     last exclusive source sample written in the first row.
+         * @param maxSamplePos     last exclusive source sample to write.
+         */
+        void decode(final byte[] decompressedData, final Object targetArray, int posRef, int targetOffset,
+                int maxRowRefPos, final int maxSamplePos) {
+            if (predic == 3) undoFloatingPointPredictor(decompressedData);
 
-                        //-- decode datas
-                        final byte[] data = new byte[(int)tileByteCounts[tileIndex]];
-                        rasterStream.readFully(data);
-                        inflate(inflater, data, decompressedData);
+            //-- array which represent a pixel to permit horizontal differencing if exist --//
+            final long[] prediPix = new long[pixelLength];
+            int nextPosRef = posRef + sourceYSubsampling * sourceScanTileStride;
+            int targetPos  = targetOffset;
+            int samplePos  = 0;
+            int hdb        = 0;
 
-                        for (int i = 0; i < unCompressedTileByteLength; i++) {
-                            //-- build sample in relation with bits per samples --//
-                            final long val = decompressedData[i] & 0x000000FFL;
-                            dataContainer  = dataContainer | (val << maskCount);
-                            maskCount     += Byte.SIZE;
+            //-- bytePos must read throught all file byte per byte --//
+            int bytePos = 0;
+            int b       = 0;
 
-                            //-- if a sample is built --//
-                            if (maskCount == bitpersampl) {
-                                //-- add in precedently array before insertion --//
-                                //-- if horizontal differencing add with precedently value --//
-                                prediPix[hdb] = (predic == 2) ? (prediPix[hdb] + dataContainer) : dataContainer;
+            /*
+             * Long container use to build a sample,
+             * because each sample is read byte per byte regardless their bit size.
+             */
+            long dataContainer = 0;
+            int maskCount      = 0;
 
-                                //prediPix[hdb] = dataContainer;
-                                if (++hdb == pixelLength) hdb = 0;
+            for (int i = 0; i < decompressedData.length; i++) {
+                //-- build sample in relation with bits per samples --//
+                final long val = decompressedData[i] & 0x000000FFL;
+                dataContainer  = dataContainer | (val << maskCount);
+                maskCount     += Byte.SIZE;
 
-                                //-- re-initialize datacontainer --//
-                                dataContainer = 0;
-                                maskCount     = 0;
+                //-- if a sample is built --//
+                if (maskCount == bitpersampl) {
+                    //-- add in precedently array before insertion --//
+                    //-- if horizontal differencing add with precedently value --//
+                    prediPix[hdb] = (predic == 2) ? (prediPix[hdb] + dataContainer) : dataContainer;
 
-                                //-- write sample in target array if its necessary --//
-                                if (samplePos == posRef) {
-                                    switch (dataType) {
-                                        case DataBuffer.TYPE_BYTE   : ((byte[])targetArray)[targetPos] = (byte) (prediPix[b]); break;
-                                        case DataBuffer.TYPE_SHORT  :
-                                        case DataBuffer.TYPE_USHORT : ((short[])targetArray)[targetPos] = (short) (prediPix[b]); break;
-                                        case DataBuffer.TYPE_INT    : ((int[])targetArray)[targetPos] =  (int) (prediPix[b]); break;
-                                        case DataBuffer.TYPE_FLOAT  : ((float[])targetArray)[targetPos] = Float.intBitsToFloat((int) (prediPix[b])); break;
-                                        case DataBuffer.TYPE_DOUBLE : ((double[])targetArray)[targetPos] = Double.longBitsToDouble(prediPix[b]); break;
-                                        default: throw new AssertionError(dataType);
-                                    }
-                                    targetPos += planarDenum;
-                                    if (++b == pixelLength) {
-                                        posRef += (sourceXSubsampling - 1) * pixelLength;
-                                        b = 0;
-                                    }
-                                    posRef++;
-                                    //-- this if means : pass to the next destination image row --//
-                                    if (posRef >= maxRowRefPos) {
-                                        assert hdb == 0 : "hdb should be zero. hdb = "+hdb;
-
-                                        //-- begin source position writing --//
-                                        posRef      = nextPosRef;
-                                        nextPosRef += sourceYSubsampling * sourceScanTileStride;
-
-                                        //-- ending source position writing --//
-                                        maxRowRefPos += sourceYSubsampling * sourceScanTileStride;
-
-                                        //-- if it is unnecessary to finish to read current tile --//
-                                        if (posRef >= maxSamplePos) {
-                                            assert maxRowRefPos >= maxSamplePos : "maxRowrefpos = "+maxRowRefPos+" maxSamplepos = "+maxSamplePos;
-                                            continue nextTile;
-                                        }
+                    if (++hdb == pixelLength) hdb = 0;
 
-                                        //-- destination shifts --//
-                                        targetOffset += targetScanlineStride;
-                                        targetPos = targetOffset;
+                    //-- re-initialize datacontainer --//
+                    dataContainer = 0;
+                    maskCount     = 0;
 
-                                    }
-                                }
-                                //-- shift by one when a sample was built --//
-                                samplePos++;
-                            }
-                            if (++bytePos == sourceScanTileByteStride) {
-                                //-- initialize predictor array --//
-                                Arrays.fill(prediPix, 0);
-                                bytePos = 0;
+                    //-- write sample in target array if its necessary --//
+                    if (samplePos == posRef) {
+                        switch (dataType) {
+                            case DataBuffer.TYPE_BYTE   : ((byte[])targetArray)[targetPos] = (byte) (prediPix[b]); break;
+                            case DataBuffer.TYPE_SHORT  :
+                            case DataBuffer.TYPE_USHORT : ((short[])targetArray)[targetPos] = (short) (prediPix[b]); break;
+                            case DataBuffer.TYPE_INT    : ((int[])targetArray)[targetPos] =  (int) (prediPix[b]); break;
+                            case DataBuffer.TYPE_FLOAT  : ((float[])targetArray)[targetPos] = Float.intBitsToFloat((int) (prediPix[b])); break;
+                            case DataBuffer.TYPE_DOUBLE : ((double[])targetArray)[targetPos] = Double.longBitsToDouble(prediPix[b]); break;
+                            default: throw new AssertionError(dataType);
+                        }
+                        targetPos += planarDenum;
+                        if (++b == pixelLength) {
+                            posRef += (sourceXSubsampling - 1) * pixelLength;
+                            b = 0;
+                        }
+                        posRef++;
+                        //-- this if means : pass to the next destination image row --//
+                        if (posRef >= maxRowRefPos) {
+                            assert hdb == 0 : "hdb should be zero. hdb = "+hdb;
+
+                            //-- begin source position writing --//
+                            posRef      = nextPosRef;
+                            nextPosRef += sourceYSubsampling * sourceScanTileStride;
+
+                            //-- ending source position writing --//
+                            maxRowRefPos += sourceYSubsampling * sourceScanTileStride;
+
+                            //-- if it is unnecessary to finish to read current tile --//
+                            if (posRef >= maxSamplePos) {
+                                assert maxRowRefPos >= maxSamplePos : "maxRowrefpos = "+maxRowRefPos+" maxSamplepos = "+maxSamplePos;
+                                return;
                             }
+
+                            //-- destination shifts --//
+                            targetOffset += targetScanlineStride;
+                            targetPos = targetOffset;
                         }
                     }
+                    //-- shift by one when a sample was built --//
+                    samplePos++;
+                }
+                if (++bytePos == sourceScanTileByteStride) {
+                    //-- initialize predictor array --//
+                    Arrays.fill(prediPix, 0);
+                    bytePos = 0;
+                }
+            }
+        }
+
+        /**
+         * Undo floating point predictor (predictor 3) : each byte is added to the byte of the same
+         * plane of previous pixel, then the byte planes of each row, stored from the most significant
+         * to the least one, are gathered back into samples in the byte order expected by {@link #decode}.
+         *
+         * @param data uncompressed tile bytes, modified in place.
+         */
+        private void undoFloatingPointPredictor(final byte[] data) {
+            final int sampleSize = bitpersampl / Byte.SIZE;
+            final byte[] planes  = new byte[sourceScanTileByteStride];
+            for (int row = 0; row + sourceScanTileByteStride <= data.length; row += sourceScanTileByteStride) {
+                for (int i = row + pixelLength, end = row + sourceScanTileByteStride; i < end; i++) {
+                    data[i] += data[i - pixelLength];
+                }
+                System.arraycopy(data, row, planes, 0, sourceScanTileByteStride);
+                for (int s = 0; s < sourceScanTileStride; s++) {
+                    final int samplePos = row + s * sampleSize;
+                    for (int b = 0; b < sampleSize; b++) {
+                        data[samplePos + sampleSize - 1 - b] = planes[b * sourceScanTileStride + s];
+                    }
                 }
             }
         }
-        inflater.end();
     }
 
     /**
@@ -29,12 +29,41 @@ import org.geotoolkit.image.io.SpatialImageWriteParam;
  */
 public class TiffImageWriteParam extends SpatialImageWriteParam {
 
+    /**
+     * Predictor value, 0 means the writer choose the predictor in function of image data type.
+     */
+    private int predictor = 0;
+
     public TiffImageWriteParam(ImageWriter writer) {
         super(writer);
         canOffsetTiles      = false;
         canWriteCompressed  = true;
         canWriteProgressive = false;
         canWriteTiles       = true;
-        compressionTypes    = new String[]{"LZW", "PackBits"};
+        compressionTypes    = new String[]{"LZW", "PackBits", "Deflate"};
+    }
+
+    /**
+     * Sets the predictor applied on samples before Deflate compression.<br>
+     * 1 : no predictor, 2 : horizontal differencing, 3 : floating point predictor.<br>
+     * Predictor is ignored by other compressions.
+     *
+     * @param predictor predictor value, or 0 to let the writer choose
+     *        horizontal differencing for integer samples and floating point predictor for floating samples.
+     */
+    public void setPredictor(final int predictor) {
+        if (predictor < 0 || predictor > 3) {
+            throw new IllegalArgumentException("Unsupported predictor : "+predictor);
+        }
+        this.predictor = predictor;
+    }
+
+    /**
+     * Returns the predictor applied on samples before Deflate compression.
+     *
+     * @return predictor value, or 0 if the writer choose the predictor.
+     */
+    public int getPredictor() {
+        return predictor;
     }
 }
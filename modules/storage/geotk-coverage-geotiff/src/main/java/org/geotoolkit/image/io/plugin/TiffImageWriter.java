@@ -44,13 +44,20 @@ import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.logging.Level;
+import java.util.zip.Deflater;
 
 import javax.imageio.IIOException;
 import javax.imageio.IIOImage;
@@ -120,6 +127,24 @@ public class TiffImageWriter extends SpatialImageWriter {
      */
     private final static String packbits = "PackBits";
 
+    /**
+     * String use to determinate deflate compression type.
+     *
+     * @see TiffImageWriteParam#compressionTypes
+     */
+    private final static String deflate  = "Deflate";
+
+    /**
+     * Maximum number of Deflate tiles or strips waiting to be written, per available processor.
+     */
+    private static final int MAX_PENDING_BLOCKS_PER_CPU = 4;
+
+    /**
+     * Approximative uncompressed size, in bytes, of Deflate strips.
+     * Rows are grouped into strips of about this size, a single row being too small to compress well.
+     */
+    private static final int DEFLATE_STRIP_SIZE = 65536;
+
     /**
      * Size of data structures in standard TIFF files ({@code SIZE_*}) and in big TIFF files
      * ({@code SIZE_BIG_*}). In standard TIFF, the size of structures for counting the number
@@ -310,6 +335,36 @@ public class TiffImageWriter extends SpatialImageWriter {
      */
     private int compression;
 
+    /**
+     * Predictor value of current image writing, only used with Deflate compression.
+     */
+    private int predictor = 1;
+
+    /**
+     * Executor used to compress Deflate tiles or strips, or {@code null} to compress them in the calling thread.
+     */
+    private ExecutorService compressionExecutor;
+
+    /**
+     * Uncompressed bytes of the current Deflate tile or strip.
+     *
+     * @see #writeWithCompression(java.lang.Object, int, int, int, int)
+     */
+    private byte[] deflateBlock;
+    private int deflateBlockPos;
+
+    /**
+     * Number of bytes of a row and number of interleaved samples of the current Deflate tile or strip,
+     * needed to apply predictor.
+     */
+    private int deflateRowByteLength;
+    private int deflatePixelLength;
+
+    /**
+     * Deflate tiles or strips currently compressed by {@link #compressionExecutor}, in writing order.
+     */
+    private final Deque<PendingBlock> pendingBlocks = new ArrayDeque<>();
+
     /**
      * {@code Rectangle} which define boundary of the current written image.<br/>
      * See {@linkplain #computeRegions(java.awt.image.RenderedImage, javax.imageio.ImageWriteParam) }.
@@ -390,6 +445,27 @@ public class TiffImageWriter extends SpatialImageWriter {
         metaHeads = new Map[4];
     }
 
+    /**
+     * Sets the executor used to compress the tiles or strips of Deflate compressed images.
+     * When an executor is set, tiles are compressed concurrently while following tiles are read
+     * from the source image, and compressed tiles are written in their expected order.
+     * The number of tiles waiting to be written is bounded.
+     *
+     * @param executor the executor to use, or {@code null} to compress tiles sequentially in the calling thread.
+     */
+    public void setCompressionExecutor(final ExecutorService executor) {
+        this.compressionExecutor = executor;
+    }
+
+    /**
+     * Returns the executor used to compress tiles.
+     *
+     * @return the executor, or {@code null} if tiles are compressed sequentially.
+     */
+    public ExecutorService getCompressionExecutor() {
+        return compressionExecutor;
+    }
+
     /**
      *
      * @param layerIndex
@@ -409,9 +485,11 @@ public class TiffImageWriter extends SpatialImageWriter {
 
         assert compObj != null;
         final int comp = ((short[]) compObj.get(ATT_VALUE))[0];
-        assert comp == 1 || comp == 5 || comp == 32773 : "compression of current layer is not supported. layer index : "+layerIndex+" compression value : "+compression;
+        assert comp == 1 || comp == 5 || comp == 8 || comp == 32773 : "compression of current layer is not supported. layer index : "+layerIndex+" compression value : "+compression;
 
         compression = comp;
+        final Map<String, Object> predObj = headProperties.get(Predictor);
+        predictor = (predObj != null) ? ((short[]) predObj.get(ATT_VALUE))[0] : 1;
 
         final int imageWidth;
         final short imgWT = (short) iwObj.get(ATT_TYPE);
@@ -1346,6 +1424,8 @@ public class TiffImageWriter extends SpatialImageWriter {
                     compression = 5;
                 } else if (packbits.equalsIgnoreCase(comp)) {
                     compression = 32773;
+                } else if (deflate.equalsIgnoreCase(comp)) {
+                    compression = 8;
                 } else {
                     throw new IllegalStateException("the compression type : "+comp+". Is not known. Impossible to write image.");
                 }
@@ -1354,6 +1434,12 @@ public class TiffImageWriter extends SpatialImageWriter {
         assert compression <= 0xFFFF : "compression exceed short max value";
         addProperty(Compression, TYPE_USHORT, 1, new short[]{(short) compression}, properties);
 
+        //-- predictor --//
+        predictor = getPredictor(param, sm.getDataType(), photoInter);
+        if (predictor != 1) {
+            addProperty(Predictor, TYPE_USHORT, 1, new short[]{(short) predictor}, properties);
+        }
+
         //-- planar configuration
         final short planarConfig = getPlanarConfiguration(sm);
         addProperty(PlanarConfiguration, TYPE_USHORT, 1, new short[]{planarConfig}, properties);
@@ -1365,7 +1451,7 @@ public class TiffImageWriter extends SpatialImageWriter {
         if (currentImgTW != 0 && currentImgTH != 0) {
             addTileOffsetsProperties(currentImgTW, currentImgTH, currentImgNumXT, currentImgNumYT, properties);
         } else {
-            addStripOffsetProperties(destRegion.height, properties);
+            addStripOffsetProperties(destRegion.height, sm, properties);
         }
     }
 
@@ -1478,6 +1564,8 @@ public class TiffImageWriter extends SpatialImageWriter {
                     compression = 5;
                 } else if (packbits.equalsIgnoreCase(comp)) {
                     compression = 32773;
+                } else if (deflate.equalsIgnoreCase(comp)) {
+                    compression = 8;
                 } else {
                     throw new IllegalStateException("the compression type : "+comp+". Is not known. Impossible to write image.");
                 }
@@ -1486,6 +1574,12 @@ public class TiffImageWriter extends SpatialImageWriter {
         assert compression <= 0xFFFF : "compression exceed short max value";
         addProperty(Compression, TYPE_USHORT, 1, new short[]{(short) compression}, properties);
 
+        //-- predictor --//
+        predictor = getPredictor(param, sm.getDataType(), photoInter);
+        if (predictor != 1) {
+            addProperty(Predictor, TYPE_USHORT, 1, new short[]{(short) predictor}, properties);
+        }
+
         /*
          * Some globals class attribut have been already initialized to define writing made.
          * See method computeRegion.
@@ -1493,26 +1587,61 @@ public class TiffImageWriter extends SpatialImageWriter {
         if (currentImgTW != 0 && currentImgTH != 0) {
             addTileOffsetsProperties(currentImgTW, currentImgTH, currentImgNumXT, currentImgNumYT, properties);
         } else {
-            addStripOffsetProperties((planarConfig == 2 ) ? destRegion.height * sm.getNumBands() : destRegion.height, properties);
+            addStripOffsetProperties(destRegion.height, sm, properties);
         }
     }
 
+    /**
+     * Returns the predictor applied on samples of current image.<br/>
+     * Predictor is only applied with Deflate compression. If not explicitely asked by {@link TiffImageWriteParam},
+     * horizontal differencing is choosen for integer samples, except for indexed colors,
+     * and floating point predictor for floating samples.
+     *
+     * @param param properties to write image or null.
+     * @param dataType image {@link DataBuffer} type.
+     * @param photoInter photometric interpretation of current image.
+     * @return predictor value, 1 means no predictor.
+     */
+    private int getPredictor(final ImageWriteParam param, final int dataType, final short photoInter) {
+        if (compression != 8 || bitPerSample % Byte.SIZE != 0) return 1;
+        final boolean isFloat = dataType == DataBuffer.TYPE_FLOAT || dataType == DataBuffer.TYPE_DOUBLE;
+        if (param instanceof TiffImageWriteParam) {
+            final int pred = ((TiffImageWriteParam) param).getPredictor();
+            if (pred == 3 && !isFloat) {
+                throw new IllegalStateException("Floating point predictor is only available with floating samples. Impossible to write image.");
+            }
+            if (pred != 0) return pred;
+        }
+        if (isFloat) return 3;
+        return (photoInter == 3) ? 1 : 2;
+    }
+
     /**
      * Add appropriate tag in {@link #headProperties} adapted to strip offset writing of current image.<br/>
-     * Note : in this current implementation we admit one row for one strip.
+     * Note : in this current implementation we admit one row for one strip, except with Deflate compression
+     * where rows are grouped into strips of about {@value #DEFLATE_STRIP_SIZE} uncompressed bytes.
      *
      * @param height height of current image.
+     * @param sm sample model of current image.
      * @param properties {@link Map} which contain all properties of current image.
      */
-    private void addStripOffsetProperties(final int height, final Map properties) {
+    private void addStripOffsetProperties(final int height, final SampleModel sm, final Map properties) {
+        final boolean planar = getPlanarConfiguration(sm) == 2;
+        final int planeCount = planar ? sm.getNumBands() : 1;
 
         // row per strip
-        final short rowperstrip = 1;
-        addProperty(RowsPerStrip, TYPE_USHORT, 1, new short[]{rowperstrip}, properties);
+        rowsPerStrip = 1;
+        if (compression == 8 && bitPerSample % Byte.SIZE == 0) {
+            final int pixelLength   = planar ? 1 : sm.getNumBands();
+            final int rowByteLength = destRegion.width * pixelLength * (bitPerSample / Byte.SIZE);
+            rowsPerStrip = StrictMath.max(1, StrictMath.min(StrictMath.min(height, 0xFFFF), DEFLATE_STRIP_SIZE / rowByteLength));
+        }
+        addProperty(RowsPerStrip, TYPE_USHORT, 1, new short[]{(short) rowsPerStrip}, properties);
 
+        final int stripCount = planeCount * ((height + rowsPerStrip - 1) / rowsPerStrip);
         final short arrayType = (isBigTIFF) ? TYPE_ULONG : TYPE_UINT;
-        addProperty(StripByteCounts, arrayType, height, null, properties);
-        addProperty(StripOffsets, arrayType, height, null, properties);
+        addProperty(StripByteCounts, arrayType, stripCount, null, properties);
+        addProperty(StripOffsets, arrayType, stripCount, null, properties);
     }
 
     /**
@@ -1982,6 +2111,9 @@ public class TiffImageWriter extends SpatialImageWriter {
         lastByte32773     = destTileByteCount - 1;
         precLastByte32773 = lastByte32773     - 1;
 
+        //-- initialization for deflate compression --//
+        beginDeflateBlocks(currentImgTW * pixelLength, pixelLength);
+
         // initialize tile offset
         long tileOffsetBeg = channel.getStreamPosition();//-- position in bytes
         int tileOffsetID = 0;
@@ -2018,6 +2150,11 @@ public class TiffImageWriter extends SpatialImageWriter {
                         lastByte32773     += destTileByteCount;
                         precLastByte32773 += destTileByteCount;
 
+                        if (compression == 8) {
+                            endDeflateBlock(offsetArray, byteCountArray, tileOffsetID++);
+                            continue;
+                        }
+
                         /*
                          * To stipulate end of current destination tile.
                          * Moreover in this current algorithm channel is automaticaly
@@ -2157,6 +2294,11 @@ public class TiffImageWriter extends SpatialImageWriter {
                     lastByte32773     += destTileByteCount;
                     precLastByte32773 += destTileByteCount;
 
+                    if (compression == 8) {
+                        endDeflateBlock(offsetArray, byteCountArray, tileOffsetID++);
+                        continue;
+                    }
+
                     /*
                      * To stipulate end of current destination tile.
                      * Moreover in this current algorithm channel is automaticaly
@@ -2181,6 +2323,7 @@ public class TiffImageWriter extends SpatialImageWriter {
                 }
             }
         }
+        flushDeflateBlocks(offsetArray, byteCountArray);
         writeByteCountAndOffsets(byteCountTagPosition, arrayType, byteCountArray, offsetTagPosition, arrayType, offsetArray);
         //-- add current offset array in current headProperties --//
         addProperty(TileOffsets, arrayType, Array.getLength(offsetArray), offsetArray, headProperties);
@@ -2208,7 +2351,7 @@ public class TiffImageWriter extends SpatialImageWriter {
         if (compress == 1) {
             //-- no compression --//
              write(sourceArray, datatype, arrayOffset, arrayLength);
-        } else if (compress == 5 || compress == 32773) {
+        } else if (compress == 5 || compress == 8 || compress == 32773) {
             //-- with compression --//
             writeWithCompression(sourceArray, datatype, arrayOffset, arrayLength, bitPerSample);
         } else {
@@ -2703,7 +2846,9 @@ public class TiffImageWriter extends SpatialImageWriter {
         final int offsetArraySize;
         final short arrayType = (isBigTIFF) ? TYPE_ULONG : TYPE_UINT;
 
-        final int tableLength = (planarConf == 2) ? destRegion.height * numband : destRegion.height;
+        assert rowsPerStrip > 0;
+        final int stripPerPlane = (destRegion.height + rowsPerStrip - 1) / rowsPerStrip;
+        final int tableLength   = (planarConf == 2) ? stripPerPlane * numband : stripPerPlane;
         if (isBigTIFF) {
             byteCountArray = new long[tableLength];
             offsetArray    = new long[tableLength];
@@ -2803,6 +2948,9 @@ public class TiffImageWriter extends SpatialImageWriter {
         lastByte32773     = currentByteCount - 1;
         precLastByte32773 = lastByte32773 - 1;
 
+        //-- initialization for deflate compression --//
+        beginDeflateBlocks(destRegion.width * pixelLength, pixelLength);
+
         int stripArrayID = 0;
         // on defini intersection indice de tuiles
         final int minTX = imgMinTXOffset + (srcRegion.x - imageMinX) / imgTileWidth;
@@ -2839,11 +2987,20 @@ public class TiffImageWriter extends SpatialImageWriter {
             default: throw new AssertionError(dataType);
         }
         for (int bank = 0; bank < numbanks; bank++) {
+            //-- number of rows of the current Deflate strip already written --//
+            int stripRows = 0;
             if (dstOffY > 0) {
                 for (int r = 0; r < dstOffY; r++) {
 
                     write(destOffsetRowArray, dataType, 0, destRegion.width * pixelLength, bitPerSample, compression);
 
+                    if (compression == 8) {
+                        if (++stripRows == rowsPerStrip) {
+                            endDeflateBlock(offsetArray, byteCountArray, stripArrayID++);
+                            stripRows = 0;
+                        }
+                        continue;
+                    }
                     if (compression == 5) writeWithLZWCompression(LZW_EOI_CODE);
                     lastByte32773     += currentByteCount;
                     precLastByte32773 += currentByteCount;
@@ -2940,6 +3097,13 @@ public class TiffImageWriter extends SpatialImageWriter {
                        }
                    }
 
+                   if (compression == 8) {
+                       if (++stripRows == rowsPerStrip) {
+                           endDeflateBlock(offsetArray, byteCountArray, stripArrayID++);
+                           stripRows = 0;
+                       }
+                       continue;
+                   }
                    if (compression == 5) writeWithLZWCompression(LZW_EOI_CODE);
                    lastByte32773     += currentByteCount;
                    precLastByte32773 += currentByteCount;
@@ -2963,7 +3127,12 @@ public class TiffImageWriter extends SpatialImageWriter {
                            +" expected writen byte number : "+currentByteCount;
                }
             }
+            //-- last strip of the plane may contain less rows --//
+            if (stripRows > 0) {
+                endDeflateBlock(offsetArray, byteCountArray, stripArrayID++);
+            }
         }
+        flushDeflateBlocks(offsetArray, byteCountArray);
         //-- after destination image writing, write stripOffset and stripByteCount tables --//
         writeByteCountAndOffsets(byteCountTagPosition, arrayType, byteCountArray, offsetTagPosition, arrayType, offsetArray);
         //-- add current offset array in current headProperties --//
@@ -3036,6 +3205,11 @@ public class TiffImageWriter extends SpatialImageWriter {
                     writeWithPackBitsCompression((byte) val);
                 } else if (compression == 5) {
                     writeWithLZWCompression((byte) val);
+                } else if (compression == 8) {
+                    if (deflateBlockPos == deflateBlock.length) {
+                        deflateBlock = Arrays.copyOf(deflateBlock, deflateBlock.length << 1);
+                    }
+                    deflateBlock[deflateBlockPos++] = (byte) val;
                 } else {
                     throw new IllegalStateException("no compression value should never append.");
                 }
@@ -3044,6 +3218,227 @@ public class TiffImageWriter extends SpatialImageWriter {
         }
     }
 
+    /**
+     * Prepare Deflate compression of the tiles or strips of current image.
+     *
+     * @param rowSampleLength number of samples in a row of a tile or strip.
+     * @param pixelLength number of interleaved samples for each pixel.
+     */
+    private void beginDeflateBlocks(final int rowSampleLength, final int pixelLength) {
+        cancelDeflateBlocks();
+        deflateRowByteLength = rowSampleLength * (bitPerSample / Byte.SIZE);
+        deflatePixelLength   = pixelLength;
+        deflateBlockPos      = 0;
+        if (compression == 8 && deflateBlock == null) {
+            deflateBlock = new byte[Math.max(deflateRowByteLength, 8196)];
+        }
+    }
+
+    /**
+     * Stipulate end of current Deflate tile or strip.<br/>
+     * Uncompressed bytes are compressed then written into {@linkplain #channel}, immediately
+     * or, if a {@linkplain #setCompressionExecutor(ExecutorService) compression executor} is set,
+     * when all previous tiles or strips have been written.
+     *
+     * @param offsetArray tile or strip offsets, updated when the block is written.
+     * @param byteCountArray tile or strip byte counts, updated when the block is written.
+     * @param blockIndex index of the block in offsets and byte counts arrays.
+     * @throws IOException if problem during compression or writing.
+     */
+    private void endDeflateBlock(final Object offsetArray, final Object byteCountArray, final int blockIndex) throws IOException {
+        final byte[] block          = Arrays.copyOf(deflateBlock, deflateBlockPos);
+        final int pred              = predictor;
+        final int rowByteLength     = deflateRowByteLength;
+        final int pixelLength       = deflatePixelLength;
+        final int sampleSize        = bitPerSample / Byte.SIZE;
+        final boolean littleEndian  = currentBO.equals(ByteOrder.LITTLE_ENDIAN);
+        deflateBlockPos = 0;
+
+        final ExecutorService executor = compressionExecutor;
+        if (executor == null) {
+            final byte[] compressed = compressBlock(block, pred, rowByteLength, pixelLength, sampleSize, littleEndian);
+            writeDeflateBlock(compressed, offsetArray, byteCountArray, blockIndex);
+            return;
+        }
+        final Future<byte[]> compressed;
+        try {
+            compressed = executor.submit(() -> compressBlock(block, pred, rowByteLength, pixelLength, sampleSize, littleEndian));
+        } catch (RejectedExecutionException ex) {
+            cancelDeflateBlocks();
+            throw new IIOException("Unable to submit tile compression.", ex);
+        }
+        pendingBlocks.add(new PendingBlock(compressed, blockIndex));
+        if (pendingBlocks.size() > MAX_PENDING_BLOCKS_PER_CPU * Runtime.getRuntime().availableProcessors()) {
+            writeNextDeflateBlock(offsetArray, byteCountArray);
+        }
+    }
+
+    /**
+     * Wait for and write all Deflate tiles or strips still being compressed.
+     *
+     * @param offsetArray tile or strip offsets.
+     * @param byteCountArray tile or strip byte counts.
+     * @throws IOException if problem during compression or writing.
+     */
+    private void flushDeflateBlocks(final Object offsetArray, final Object byteCountArray) throws IOException {
+        while (!pendingBlocks.isEmpty()) {
+            writeNextDeflateBlock(offsetArray, byteCountArray);
+        }
+    }
+
+    /**
+     * Wait for the oldest pending Deflate tile or strip and write it.
+     *
+     * @param offsetArray tile or strip offsets.
+     * @param byteCountArray tile or strip byte counts.
+     * @throws IOException if problem during compression or writing.
+     */
+    private void writeNextDeflateBlock(final Object offsetArray, final Object byteCountArray) throws IOException {
+        final PendingBlock block = pendingBlocks.poll();
+        final byte[] compressed;
+        try {
+            compressed = block.compressed.get();
+        } catch (InterruptedException ex) {
+            cancelDeflateBlocks();
+            Thread.currentThread().interrupt();
+            throw new IIOException("Interrupted while compressing tiles.", ex);
+        } catch (ExecutionException ex) {
+            cancelDeflateBlocks();
+            throw new IIOException("Error while compressing tile.", ex.getCause());
+        }
+        writeDeflateBlock(compressed, offsetArray, byteCountArray, block.index);
+    }
+
+    /**
+     * Cancel all pending Deflate tiles or strips, after a failure.
+     */
+    private void cancelDeflateBlocks() {
+        for (PendingBlock block : pendingBlocks) {
+            block.compressed.cancel(false);
+        }
+        pendingBlocks.clear();
+    }
+
+    /**
+     * Write a compressed tile or strip at current {@linkplain #channel} position and store its offset and byte count.
+     *
+     * @param compressed compressed bytes.
+     * @param offsetArray tile or strip offsets.
+     * @param byteCountArray tile or strip byte counts.
+     * @param blockIndex index of the block in offsets and byte counts arrays.
+     * @throws IOException if problem during writing.
+     */
+    private void writeDeflateBlock(final byte[] compressed, final Object offsetArray,
+            final Object byteCountArray, final int blockIndex) throws IOException {
+        final long blockOffset = channel.getStreamPosition();
+        channel.write(compressed);
+        if (isBigTIFF) {
+            Array.setLong(offsetArray, blockIndex, blockOffset);
+            Array.setLong(byteCountArray, blockIndex, compressed.length);
+        } else {
+            Array.setInt(offsetArray, blockIndex, (int) blockOffset);
+            Array.setInt(byteCountArray, blockIndex, compressed.length);
+        }
+    }
+
+    /**
+     * Apply predictor on the given uncompressed tile or strip then compress it with {@link Deflater}.<br/>
+     * This method does not depend on writer state and may be called from any thread.
+     *
+     * @param block uncompressed bytes, modified by predictor.
+     * @param predictor 1 for no predictor, 2 for horizontal differencing, 3 for floating point predictor.
+     * @param rowByteLength number of bytes of a row.
+     * @param pixelLength number of interleaved samples for each pixel.
+     * @param sampleSize size of a sample in bytes.
+     * @param littleEndian byte order of samples within block.
+     * @return compressed bytes.
+     */
+    private static byte[] compressBlock(final byte[] block, final int predictor, final int rowByteLength,
+            final int pixelLength, final int sampleSize, final boolean littleEndian) {
+        switch (predictor) {
+            case 1 : break;
+            case 2 : applyHorizontalDifferencing(block, rowByteLength, pixelLength, sampleSize, littleEndian); break;
+            case 3 : applyFloatingPointPredictor(block, rowByteLength, pixelLength, sampleSize, littleEndian); break;
+            default : throw new IllegalStateException("Unknown predictor : "+predictor);
+        }
+        final Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(block);
+            deflater.finish();
+            byte[] compressed = new byte[Math.max(64, block.length >> 1)];
+            int pos = 0;
+            while (!deflater.finished()) {
+                if (pos == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length << 1);
+                }
+                pos += deflater.deflate(compressed, pos, compressed.length - pos);
+            }
+            return Arrays.copyOf(compressed, pos);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Replace each sample by its difference with the same sample of previous pixel in the row (predictor 2).
+     *
+     * @param block uncompressed bytes.
+     * @param rowByteLength number of bytes of a row.
+     * @param pixelLength number of interleaved samples for each pixel.
+     * @param sampleSize size of a sample in bytes.
+     * @param littleEndian byte order of samples within block.
+     */
+    private static void applyHorizontalDifferencing(final byte[] block, final int rowByteLength,
+            final int pixelLength, final int sampleSize, final boolean littleEndian) {
+        final int pixelByteLength = pixelLength * sampleSize;
+        for (int row = 0; row < block.length; row += rowByteLength) {
+            //-- from the end of row to use original values of previous pixel --//
+            for (int pos = row + rowByteLength - sampleSize; pos >= row + pixelByteLength; pos -= sampleSize) {
+                long diff = 0;
+                long prev = 0;
+                for (int i = 0; i < sampleSize; i++) {
+                    final int shift = (littleEndian ? i : sampleSize - 1 - i) * Byte.SIZE;
+                    diff |= (block[pos + i] & 0xFFL) << shift;
+                    prev |= (block[pos - pixelByteLength + i] & 0xFFL) << shift;
+                }
+                diff -= prev;
+                for (int i = 0; i < sampleSize; i++) {
+                    final int shift = (littleEndian ? i : sampleSize - 1 - i) * Byte.SIZE;
+                    block[pos + i] = (byte) (diff >>> shift);
+                }
+            }
+        }
+    }
+
+    /**
+     * Floating point predictor (predictor 3) : bytes of each row samples are reordered from the most
+     * significant byte plane to the least one, then each byte is replaced by its difference with the
+     * byte of the same plane of previous pixel.
+     *
+     * @param block uncompressed bytes.
+     * @param rowByteLength number of bytes of a row.
+     * @param pixelLength number of interleaved samples for each pixel.
+     * @param sampleSize size of a sample in bytes.
+     * @param littleEndian byte order of samples within block.
+     */
+    private static void applyFloatingPointPredictor(final byte[] block, final int rowByteLength,
+            final int pixelLength, final int sampleSize, final boolean littleEndian) {
+        final int rowSampleLength = rowByteLength / sampleSize;
+        final byte[] planes = new byte[rowByteLength];
+        for (int row = 0; row < block.length; row += rowByteLength) {
+            for (int s = 0; s < rowSampleLength; s++) {
+                final int samplePos = row + s * sampleSize;
+                for (int b = 0; b < sampleSize; b++) {
+                    planes[b * rowSampleLength + s] = block[samplePos + (littleEndian ? sampleSize - 1 - b : b)];
+                }
+            }
+            for (int i = rowByteLength - 1; i >= pixelLength; i--) {
+                planes[i] -= planes[i - pixelLength];
+            }
+            System.arraycopy(planes, 0, block, row, rowByteLength);
+        }
+    }
+
     /**
      * Write the given value into stream {@linkplain #channel}
      * in accordance with LZW algorithm compression.
@@ -3549,6 +3944,20 @@ public class TiffImageWriter extends SpatialImageWriter {
         super.setOutput(out);
     }
 
+    /**
+     * A Deflate tile or strip compressed by {@link #compressionExecutor}, waiting to be written.
+     */
+    private static final class PendingBlock {
+
+        private final Future<byte[]> compressed;
+        private final int index;
+
+        private PendingBlock(final Future<byte[]> compressed, final int index) {
+            this.compressed = compressed;
+            this.index      = index;
+        }
+    }
+
    /**
      * Service provider interface (SPI) for {@code TiffImageWriter}.
      *
@@ -0,0 +1,132 @@
+/*
+ *    Geotoolkit.org - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.image.io.plugin.TiffReader;
+
+import java.awt.image.RenderedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.geotoolkit.image.internal.PhotometricInterpretation;
+import org.geotoolkit.image.internal.SampleType;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link DeflateTiledReaderTest} implementation which decompress tiles concurrently.
+ *
+ * @author agent
+ */
+public strictfp class ConcurrentDeflateTiledReaderTest extends DeflateTiledReaderTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    public ConcurrentDeflateTiledReaderTest() throws IOException {
+        super();
+        reader.setDecodingExecutor(executor);
+    }
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * A tile decoding failure must be reported once all tile decodings are finished,
+     * no tile must be written in the raster after the read method has returned.
+     *
+     * @throws IOException if problem during writing action.
+     */
+    @Test
+    public void decodingFailureTest() throws IOException {
+        final File fileTest = File.createTempFile("decodingFailureTest", "tiff", tempDir);
+        final RenderedImage sourceImage = createImageTest(256, 256, SampleType.BYTE, 1, PhotometricInterpretation.GRAYSCALE);
+        writerParam.setTiling(16, 16, 0, 0);
+        writer.setOutput(fileTest);
+        writer.write(sourceImage, writerParam);
+        writer.dispose();
+
+        final AtomicInteger submitted = new AtomicInteger();
+        final AtomicInteger running   = new AtomicInteger();
+        reader.setDecodingExecutor(new AbstractExecutorService() {
+            @Override
+            protected <T> RunnableFuture<T> newTaskFor(final Callable<T> callable) {
+                final int index = submitted.incrementAndGet();
+                return new FutureTask<>(() -> {
+                    running.incrementAndGet();
+                    try {
+                        if (index == 5) throw new IllegalStateException("Tile decoding failure.");
+                        return callable.call();
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                });
+            }
+
+            @Override
+            public void execute(final Runnable command) {
+                executor.execute(command);
+            }
+
+            @Override
+            public void shutdown() {
+                executor.shutdown();
+            }
+
+            @Override
+            public List<Runnable> shutdownNow() {
+                return executor.shutdownNow();
+            }
+
+            @Override
+            public boolean isShutdown() {
+                return executor.isShutdown();
+            }
+
+            @Override
+            public boolean isTerminated() {
+                return executor.isTerminated();
+            }
+
+            @Override
+            public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+                return executor.awaitTermination(timeout, unit);
+            }
+        });
+
+        reader.setInput(fileTest);
+        try {
+            reader.read(0, null);
+            fail("Tile decoding failure should be reported.");
+        } catch (IOException ex) {
+            //-- expected
+        } finally {
+            reader.dispose();
+        }
+        assertTrue("failing tile should have been submitted", submitted.get() >= 5);
+        assertEquals("no tile decoding should be running", 0, running.get());
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ *    Geotoolkit.org - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.image.io.plugin.TiffReader;
+
+import java.io.IOException;
+import javax.imageio.ImageWriteParam;
+import org.geotoolkit.image.io.plugin.TestTiffImageReaderWriter;
+
+/**
+ * Effectuate all tests from {@link TestTiffImageReaderWriter} for reading action,
+ * with Deflate compression and tiled writing made.
+ *
+ * @author agent
+ */
+public strictfp class DeflateTiledReaderTest extends TestTiffImageReader {
+
+    public DeflateTiledReaderTest() throws IOException {
+        super("Deflate");
+        writerParam.setTilingMode(ImageWriteParam.MODE_EXPLICIT);
+
+        final int tileWidth  = (random.nextInt(7) + 1) * 16;
+        final int tileHeight = (random.nextInt(7) + 1) * 16;
+        writerParam.setTiling(tileWidth, tileHeight, 0, 0);
+    }
+
+}
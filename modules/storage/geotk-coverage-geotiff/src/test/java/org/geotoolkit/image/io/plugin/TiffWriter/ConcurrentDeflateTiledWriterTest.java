@@ -0,0 +1,43 @@
+/*
+ *    Geotoolkit.org - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.image.io.plugin.TiffWriter;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+
+/**
+ * {@link DeflateTiledWriterTest} implementation which compress and decompress tiles concurrently.
+ *
+ * @author agent
+ */
+public strictfp class ConcurrentDeflateTiledWriterTest extends DeflateTiledWriterTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    public ConcurrentDeflateTiledWriterTest() throws IOException {
+        super();
+        writer.setCompressionExecutor(executor);
+        reader.setDecodingExecutor(executor);
+    }
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+}
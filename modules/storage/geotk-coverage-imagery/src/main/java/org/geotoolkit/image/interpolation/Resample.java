@@ -21,6 +21,13 @@ import java.awt.geom.AffineTransform;
 import java.awt.image.DataBuffer;
 import java.awt.image.RenderedImage;
 import java.awt.image.WritableRenderedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import org.apache.sis.geometry.Envelope2D;
 import org.apache.sis.geometry.GeneralEnvelope;
 import org.apache.sis.util.ArgumentChecks;
@@ -49,6 +56,11 @@ public class Resample {
     private static final double[] CLAMP_USHORT = new double[]{0,                 0xFFFF};
     private static final double[] CLAMP_INT    = new double[]{Integer.MIN_VALUE, Integer.MAX_VALUE};
 
+    /**
+     * Minimum number of destination pixels of a partition filled concurrently.
+     */
+    private static final int MIN_PARTITION_PIXELS = 4096;
+
     /**
      * Transform multi-dimensional point (in our case pixel coordinate) from target image
      * {@code CoordinateReferenceSystem} to source image {@code CoordinateReferenceSystem}.
@@ -112,6 +124,21 @@ public class Resample {
      */
     ResampleGrid theGrid;
 
+    /**
+     * Source image, interpolation case and lanczos window, used to create one {@link Interpolation}
+     * for each destination partition filled concurrently.<br/>
+     * Source image is {@code null} when resample has been built from an {@link Interpolation},
+     * in this case destination image is always filled in the calling thread.
+     */
+    private final RenderedImage imageSrc;
+    private final InterpolationCase interpolationCase;
+    private final int lanczosWindow;
+
+    /**
+     * Executor used to fill destination partitions concurrently, or {@code null} to fill in the calling thread.
+     */
+    private ExecutorService executor;
+
     /**
      * <p>Fill destination image from interpolation of source pixels.<br/>
      * Source pixel coordinate is obtained from invert transformation of destination pixel coordinates.<br/>
@@ -283,6 +310,10 @@ public class Resample {
         PixelIterator pix = PixelIteratorFactory.createDefaultIterator(imageSrc);
         interpol          = Interpolation.create(pix, interpolation, lanczosWindow, rbc, fillValue);
 
+        this.imageSrc          = imageSrc;
+        this.interpolationCase = interpolation;
+        this.lanczosWindow     = lanczosWindow;
+
         this.rbc   = rbc;
         this.clamp = getClamp(imageDest.getSampleModel().getDataType());
     }
@@ -336,6 +367,9 @@ public class Resample {
         this.destIterator              = PixelIteratorFactory.createDefaultWriteableIterator(this.imageDest, this.imageDest, resampleArea);
         this.destToSourceMathTransform = mathTransform;
         this.interpol                  = interpol;
+        this.imageSrc                  = null;
+        this.interpolationCase         = null;
+        this.lanczosWindow             = 0;
         srcCoords  = new double[2];
         destCoords = new double[2];
         this.rbc   = rbc;
@@ -356,9 +390,11 @@ public class Resample {
     /**
      * Fill destination image from pre-computed grid.
      *
+     * @param destIterator iterator on the destination area to fill.
+     * @param interpol interpolation of source image pixels.
      * @throws TransformException
      */
-    private void fillImageByGrid() throws TransformException {
+    private void fillImageByGrid(final PixelIterator destIterator, final Interpolation interpol) throws TransformException {
 
         final double[] theGridArray  = theGrid.getGrid();
         final int stepX              = theGrid.getStepX();
@@ -416,7 +452,7 @@ public class Resample {
                 final int interMaxRastX = StrictMath.min(rMaxX, rectBound.x + rectBound.width);
 
                 //-- define minimum and maximum needed grid index in X direction.
-                final int gCMinX = (int) (interMinRastX - minGridY / stepX) + minGridXIndex;
+                final int gCMinX = (int) ((interMinRastX - minGridX) / stepX) + minGridXIndex;
                 /*
                  * Max grid index in X direction equal Math.ceil(intersectionX / stepX) + 1.
                  * With + 1 because gridWidth = sub-division on X axis + 1;
@@ -602,9 +638,15 @@ public class Resample {
     /**
      * Fill image without any grid, all pixels coordinates are transform by given {@link MathTransform}.
      *
+     * @param destCoordToSource transformation from destination to source pixel coordinates.
+     * @param destIterator iterator on the destination area to fill.
+     * @param interpol interpolation of source image pixels.
      * @throws TransformException
      */
-    private void fillImageByAffineTransform(AffineTransform destCoordToSource) throws TransformException {
+    private void fillImageByAffineTransform(final AffineTransform destCoordToSource, final PixelIterator destIterator,
+            final Interpolation interpol) throws TransformException {
+        final double[] destCoords = new double[2];
+        final double[] srcCoords  = new double[2];
         int band;
         while (destIterator.next()) {
             band = 0;
@@ -638,9 +680,13 @@ public class Resample {
     /**
      * Fill image without any grid, all pixels coordinates are transform by given {@link MathTransform}.
      *
+     * @param destIterator iterator on the destination area to fill.
+     * @param interpol interpolation of source image pixels.
      * @throws TransformException
      */
-    private void fillImageByTransform() throws TransformException {
+    private void fillImageByTransform(final PixelIterator destIterator, final Interpolation interpol) throws TransformException {
+        final double[] destCoords = new double[2];
+        final double[] srcCoords  = new double[2];
         int band;
         while (destIterator.next()) {
             band = 0;
@@ -670,28 +716,148 @@ public class Resample {
         }
     }
 
+    /**
+     * Sets the executor used to fill destination image concurrently.<br/>
+     * Destination area is divided by destination tiles, or by rows when it is contained in a single tile,
+     * and each partition is filled with its own source iterator and {@link Interpolation}.
+     * By default no executor is set and destination image is filled in the calling thread,
+     * the resample process uses an executor shared by all its executions.<br/>
+     * Resamples built from an {@link Interpolation} instance are always filled in the calling thread.
+     *
+     * @param executor the executor to use, or {@code null} to fill destination image in the calling thread.
+     */
+    public void setExecutor(final ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the executor used to fill destination image concurrently.
+     *
+     * @return the executor, or {@code null} if destination image is filled in the calling thread.
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
     /**
      * Fill destination image from source image pixel interpolation.
      */
     public void fillImage() throws TransformException {
+        //-- AffineTransform, ResampleGrid or MathTransform used to compute source pixel coordinates.
+        Object destToSource = destToSourceMathTransform;
         if (destToSourceMathTransform instanceof MathTransform2D) {
             try {
                 final GridFactory gridFact = new GridFactory(0.125);
                 final Object object = gridFact.create((MathTransform2D) destToSourceMathTransform, destIterator.getBoundary(false));
-                if (object instanceof AffineTransform) {
-                    fillImageByAffineTransform((AffineTransform) object);
-                } else {
+                if (object instanceof ResampleGrid) {
                     theGrid = (ResampleGrid) object;
-                    fillImageByGrid();
                 }
-                return;
+                destToSource = object;
             } catch (TransformException ex) {
                 //-- leave to fall back
             } catch (ArithmeticException e) {
                 //-- leave to fall back
             }
         }
-        fillImageByTransform();
+
+        final List<Rectangle> partitions = getPartitions();
+        if (partitions == null) {
+            fill(destToSource, destIterator, interpol);
+            return;
+        }
+
+        final Object transform = destToSource;
+        final List<Callable<Object>> tasks = new ArrayList<>(partitions.size());
+        for (final Rectangle partition : partitions) {
+            tasks.add(() -> {
+                final PixelIterator partitionIterator = PixelIteratorFactory.createDefaultWriteableIterator(imageDest, imageDest, partition);
+                final Interpolation partitionInterpol = Interpolation.create(PixelIteratorFactory.createDefaultIterator(imageSrc),
+                        interpolationCase, lanczosWindow, rbc, fillValue);
+                fill(transform, partitionIterator, partitionInterpol);
+                return null;
+            });
+        }
+        try {
+            for (Future<Object> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new TransformException("Interrupted while resampling image.", ex);
+        } catch (ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof TransformException) throw (TransformException) cause;
+            if (cause instanceof RuntimeException)   throw (RuntimeException) cause;
+            if (cause instanceof Error)              throw (Error) cause;
+            throw new TransformException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Fill destination area traveled by given iterator.
+     *
+     * @param destToSource {@link AffineTransform}, {@link ResampleGrid} or {@link MathTransform}
+     *                     from destination to source pixel coordinates.
+     * @param destIterator iterator on the destination area to fill.
+     * @param interpol interpolation of source image pixels.
+     * @throws TransformException
+     */
+    private void fill(final Object destToSource, final PixelIterator destIterator, final Interpolation interpol) throws TransformException {
+        if (destToSource instanceof AffineTransform) {
+            fillImageByAffineTransform((AffineTransform) destToSource, destIterator, interpol);
+        } else if (destToSource instanceof ResampleGrid) {
+            fillImageByGrid(destIterator, interpol);
+        } else {
+            fillImageByTransform(destIterator, interpol);
+        }
+    }
+
+    /**
+     * Divide destination area to fill into partitions which may be filled concurrently.<br/>
+     * Each destination tile intersecting area is a partition. If area is contained in a single tile,
+     * it is divided by rows. Partitions never share destination samples.
+     *
+     * @return partitions, or {@code null} if destination image should be filled in the calling thread.
+     */
+    private List<Rectangle> getPartitions() {
+        if (executor == null || imageSrc == null) return null;
+        if (executor instanceof ForkJoinPool && ((ForkJoinPool) executor).getParallelism() < 2) return null;
+
+        final Rectangle area = destIterator.getBoundary(true);
+        final long numPixels = (long) area.width * area.height;
+        if (numPixels < 2L * MIN_PARTITION_PIXELS) return null;
+
+        final int tileWidth  = imageDest.getTileWidth();
+        final int tileHeight = imageDest.getTileHeight();
+        final int gridXOff   = imageDest.getTileGridXOffset();
+        final int gridYOff   = imageDest.getTileGridYOffset();
+        final int minTX      = Math.floorDiv(area.x - gridXOff, tileWidth);
+        final int minTY      = Math.floorDiv(area.y - gridYOff, tileHeight);
+        final int maxTX      = Math.floorDiv(area.x + area.width  - 1 - gridXOff, tileWidth);
+        final int maxTY      = Math.floorDiv(area.y + area.height - 1 - gridYOff, tileHeight);
+
+        final List<Rectangle> partitions = new ArrayList<>();
+        if (minTX == maxTX && minTY == maxTY) {
+            //-- single destination tile, divide by rows.
+            final int numParts = (int) Math.min(Math.min(Runtime.getRuntime().availableProcessors(), area.height),
+                                                numPixels / MIN_PARTITION_PIXELS);
+            if (numParts < 2) return null;
+            int y = area.y;
+            for (int p = 0; p < numParts; p++) {
+                final int maxY = area.y + (int) ((long) area.height * (p + 1) / numParts);
+                partitions.add(new Rectangle(area.x, y, area.width, maxY - y));
+                y = maxY;
+            }
+        } else {
+            for (int ty = minTY; ty <= maxTY; ty++) {
+                for (int tx = minTX; tx <= maxTX; tx++) {
+                    final Rectangle tile = new Rectangle(gridXOff + tx * tileWidth, gridYOff + ty * tileHeight, tileWidth, tileHeight);
+                    final Rectangle partition = tile.intersection(area);
+                    if (!partition.isEmpty()) partitions.add(partition);
+                }
+            }
+        }
+        return partitions;
     }
 
     /**
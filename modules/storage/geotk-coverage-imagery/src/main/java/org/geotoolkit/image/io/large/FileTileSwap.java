@@ -0,0 +1,162 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.image.io.large;
+
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.RenderedImage;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriter;
+import javax.imageio.spi.ImageReaderSpi;
+import javax.imageio.spi.ImageWriterSpi;
+import javax.imageio.stream.ImageOutputStream;
+import javax.media.jai.RasterFactory;
+import org.apache.sis.util.ArgumentChecks;
+import org.apache.sis.util.logging.Logging;
+import org.geotoolkit.nio.IOUtilities;
+
+/**
+ * Tile swap writing each tile as a geotiff file, in a {@link QuadTreeDirectory}
+ * created in the temporary system directory.
+ * <p>
+ * Tiles are stored in tiff format to avoid onerous compression decompression cost during disk writing reading.
+ * </p>
+ *
+ * @author Rémi Maréchal (Geomatys).
+ * @author Alexis Manin (Geomatys).
+ * @author Johann Sorel (Geomatys).
+ * @module
+ */
+final class FileTileSwap extends TileSwap {
+
+    private static final Logger LOGGER = Logging.getLogger("org.geotoolkit.image.io.large");
+
+    private static final Path TEMPORARY_PATH = Paths.get(System.getProperty("java.io.tmpdir"));
+    private static final String FORMAT = "geotiff";
+    private static final ImageReaderSpi READER_SPI;
+    private static final ImageWriterSpi WRITER_SPI;
+    static {
+        final Iterator<ImageReader> iteR = ImageIO.getImageReadersByFormatName(FORMAT);
+        READER_SPI = (iteR.hasNext()) ? iteR.next().getOriginatingProvider() : null;
+
+        final Iterator<ImageWriter> iteW = ImageIO.getImageWritersByFormatName(FORMAT);
+        WRITER_SPI = (iteW.hasNext()) ? iteW.next().getOriginatingProvider() : null;
+    }
+    private static final Point WPOINT = new Point(0, 0);
+
+    private final ColorModel cm;
+    private final QuadTreeDirectory qTD;
+    private final boolean overwrite;
+
+    FileTileSwap(final RenderedImage ri, final boolean overwrite) throws IOException {
+        ArgumentChecks.ensureNonNull("READER_SPI", READER_SPI);
+        ArgumentChecks.ensureNonNull("WRITER_SPI", WRITER_SPI);
+        this.cm = ri.getColorModel();
+        this.overwrite = overwrite;
+        final Path dirPath = Files.createTempDirectory(TEMPORARY_PATH, "img");
+        this.qTD = new QuadTreeDirectory(dirPath, ri.getNumXTiles(), ri.getNumYTiles(), FORMAT, true);
+    }
+
+    @Override
+    void write(int tileX, int tileY, WritableRaster raster) throws IOException {
+        final Path tileFile = Paths.get(qTD.getPath(tileX, tileY));
+        if (overwrite || !Files.exists(tileFile)) {
+            final BufferedImage toWrite = new BufferedImage(
+                    cm, RasterFactory.createWritableRaster(raster.getSampleModel(), raster.getDataBuffer(), WPOINT), true, null);
+            // TODO : Optimize using a "writer pool" instead of creating one each time ?
+            final ImageWriter imgWriter = WRITER_SPI.createWriterInstance();
+            try {
+                imgWriter.setOutput(tileFile);
+                imgWriter.write(toWrite);
+                imgWriter.dispose();
+            } finally {
+                releaseWriter(imgWriter);
+            }
+        }
+    }
+
+    @Override
+    WritableRaster read(int tileX, int tileY) throws IOException {
+        final Path tileFile = Paths.get(qTD.getPath(tileX, tileY));
+        if (!Files.exists(tileFile)) {
+            return null;
+        }
+        // TODO : Use a "pool" of readers, instead of creating one each time ?
+        final ImageReader imgReader = READER_SPI.createReaderInstance();
+        try {
+            imgReader.setInput(tileFile);
+            return imgReader.read(0).getRaster();
+        } finally {
+            imgReader.dispose();
+        }
+    }
+
+    @Override
+    void remove(int tileX, int tileY) {
+        final Path removeFile = Paths.get(qTD.getPath(tileX, tileY));
+        //delete on hard disk if exist.
+        try {
+            Files.deleteIfExists(removeFile);
+        } catch (IOException e) {
+            //delete failed try to delete it when JVM shutdown
+            LOGGER.log(Level.FINE,"Tile delete failed : "+ e.getLocalizedMessage(), e);
+            IOUtilities.deleteOnExit(removeFile);
+        }
+    }
+
+    @Override
+    void clear() throws IOException {
+        qTD.cleanDirectory();
+    }
+
+    /**
+     * Release ImageWriter and his output.
+     * TODO replace with XImageIO utility methods
+     * @param imgWriter
+     */
+    private static void releaseWriter(ImageWriter imgWriter) {
+        if(imgWriter != null) {
+            Object writerOutput = imgWriter.getOutput();
+            if(writerOutput instanceof OutputStream){
+                try {
+                    ((OutputStream)writerOutput).close();
+                } catch (IOException ex) {
+                    LOGGER.log(Level.INFO, ex.getMessage(),ex);
+                }
+            }else if(writerOutput instanceof ImageOutputStream){
+                try {
+                    ((ImageOutputStream)writerOutput).close();
+                } catch (IOException ex) {
+                    LOGGER.log(Level.INFO, ex.getMessage(),ex);
+                }
+            }
+            imgWriter.dispose();
+        }
+    }
+
+}
@@ -53,6 +53,25 @@ public final class ImageCacheConfiguration extends Static {
      */
     public static final String KEY_CACHE_SWAP = "geotk.image.cache.swap";
 
+    /**
+     *  The {@linkplain System#getProperties() system properties} key which control
+     *  how LargeCache swap tiles on filesystem.
+     *  Valid values : "file", "mapped"
+     *  With "file" each tile is written as a geotiff file in a QuadTreeDirectory,
+     *  with "mapped" raw tile samples are written in a single memory mapped file.
+     */
+    public static final String KEY_CACHE_SWAP_MODE = "geotk.image.cache.swap.mode";
+
+    /**
+     * Swap mode writing one file per tile, this is the default.
+     */
+    public static final String SWAP_MODE_FILE = "file";
+
+    /**
+     * Swap mode writing tiles in a memory mapped file.
+     */
+    public static final String SWAP_MODE_MAPPED = "mapped";
+
     /**
      * Default memory size used if {@linkplain System#getProperties() system properties} {@linkplain #KEY_CACHE_MEMORY_SIZE}
      * property is not defined.
@@ -161,4 +180,34 @@ public final class ImageCacheConfiguration extends Static {
     public static void setCacheSwapEnable(boolean allowSwap) {
         System.setProperty(KEY_CACHE_SWAP, String.valueOf(allowSwap));
     }
+
+    /**
+     * Check in {@linkplain System#getProperties() system properties} for cache swap mode configuration.
+     *
+     * @return {@link #SWAP_MODE_MAPPED} if property is set to this value, {@link #SWAP_MODE_FILE} otherwise.
+     */
+    public static String getCacheSwapMode() {
+        final String mode = System.getProperty(KEY_CACHE_SWAP_MODE);
+        if (SWAP_MODE_MAPPED.equalsIgnoreCase(mode)) {
+            return SWAP_MODE_MAPPED;
+        } else if (mode != null && !SWAP_MODE_FILE.equalsIgnoreCase(mode)) {
+            LOGGER.warning("Invalid property -D"+KEY_CACHE_SWAP_MODE+" value "+mode+". Default value (file) will be used.");
+        }
+        return SWAP_MODE_FILE;
+    }
+
+    /**
+     * Set cache swap mode in {@linkplain System#getProperties() system properties}.
+     * It is not assured that LargeCache will use given value if it was already instantiated.
+     * <b>This mode should be set during application startup not during his life-cycle.</b>
+     *
+     * @param mode one of {@link #SWAP_MODE_FILE} or {@link #SWAP_MODE_MAPPED}
+     * @throws IllegalArgumentException if mode is not a valid swap mode.
+     */
+    public static void setCacheSwapMode(String mode) throws IllegalArgumentException {
+        if (!SWAP_MODE_FILE.equals(mode) && !SWAP_MODE_MAPPED.equals(mode)) {
+            throw new IllegalArgumentException("Invalid cache swap mode : '"+mode+"' should be '"+SWAP_MODE_FILE+"' or '"+SWAP_MODE_MAPPED+"'");
+        }
+        System.setProperty(KEY_CACHE_SWAP_MODE, mode);
+    }
 }
@@ -17,39 +17,23 @@
 package org.geotoolkit.image.io.large;
 
 
-import javax.imageio.ImageIO;
-import javax.imageio.ImageReader;
-import javax.imageio.ImageWriter;
-import javax.imageio.stream.ImageOutputStream;
-import javax.media.jai.RasterFactory;
 import java.awt.*;
 import java.awt.image.*;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.lang.ref.PhantomReference;
 import java.lang.ref.ReferenceQueue;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Logger;
-import java.util.logging.Level;
-import javax.imageio.spi.ImageReaderSpi;
-import javax.imageio.spi.ImageWriterSpi;
-import org.apache.sis.util.ArgumentChecks;
-import org.apache.sis.util.collection.WeakValueHashMap;
 import org.apache.sis.util.logging.Logging;
-import org.geotoolkit.nio.IOUtilities;
 
 /**
  * Stock all {@link java.awt.image.Raster} contained from define {@link java.awt.image.RenderedImage}. It's a map whose key
- * is tile location, and value is the value the tile data. We use a {@link java.util.LinkedHashMap}, so when we need to
- * remove an element, we will take the oldest one.
+ * is tile location, and value is the value the tile data. Each tile keeps the time of its last access, so when we need to
+ * remove an element, we take the least recently used one among a sample of tiles.
  *
  * @author Rémi Maréchal (Geomatys).
  * @author Alexis Manin (Geomatys).
@@ -64,26 +48,12 @@ final class ImageTilesCache extends PhantomReference<RenderedImage> {
      */
     private static final Logger LOGGER = Logging.getLogger("org.geotoolkit.image.io.large");
 
-    private static final Path TEMPORARY_PATH = Paths.get(System.getProperty("java.io.tmpdir"));
-    private static final String FORMAT = "geotiff";
-    private static final ImageReaderSpi READER_SPI;
-    private static final ImageWriterSpi WRITER_SPI;
-    static {
-        final Iterator<ImageReader> iteR = ImageIO.getImageReadersByFormatName(FORMAT);
-        READER_SPI = (iteR.hasNext()) ? iteR.next().getOriginatingProvider() : null;
-
-        final Iterator<ImageWriter> iteW = ImageIO.getImageWritersByFormatName(FORMAT);
-        WRITER_SPI = (iteW.hasNext()) ? iteW.next().getOriginatingProvider() : null;
-    }
-    private static final Point WPOINT = new Point(0, 0);
-
     private final LargeCache cache;
-    private ColorModel cm;
     private final int minTileX;
     private final int minTileY;
     private final int numTilesX;
     private final int numTilesY;
-    private final QuadTreeDirectory qTD;
+    private final TileSwap swap;
     private final int riMinX;
     private final int riMinY;
     private final int riTileWidth;
@@ -93,41 +63,85 @@ final class ImageTilesCache extends PhantomReference<RenderedImage> {
     private final boolean isWritableRenderedImage;
 
     /**
-     * Tile by Tile locks.
+     * Number of tile locks, must be a power of 2.
+     */
+    private static final int NB_LOCKS = 64;
+
+    /**
+     * Striped tile locks, a tile is protected by the lock at index
+     * given by {@link #getLock(java.awt.Point) }.
      */
-    private final WeakValueHashMap<Point,ReadWriteLock> locks = new WeakValueHashMap<>(Point.class);
+    private final ReadWriteLock[] locks = new ReadWriteLock[NB_LOCKS];
 
     /**
      * Contains tiles of pointed image.
-     * TODO : Replace LargeRaster type with simple raster ? (Raster weight will be embed in {@link org.geotoolkit.image.io.large.CachedTile}
-     *
-     * accesOrder = true : this ensure the must used element are at the top
-     * This behavior is used by the flush to remove the oldest used tiles first
-     *
-     * We subclass the map to keep track of the used memory.
+     * The used memory is tracked in {@link #usedCapacity}, always use {@link #putTile} and
+     * {@link #removeTile} to modify the map.
      */
     private final AtomicLong usedCapacity = new AtomicLong(0);
-    private final Map<Point, TileRasterCache> tiles = new LinkedHashMap<Point, TileRasterCache>(16, 0.75f, true){
-        @Override
-        public TileRasterCache put(Point key, TileRasterCache value) {
-            final TileRasterCache last = super.put(key, value);
-            if(last!=null) usedCapacity.addAndGet(-last.getWeight());
-            if(value!=null) usedCapacity.addAndGet(value.getWeight());
-            return last;
-        }
-        @Override
-        public void clear() {
-            super.clear();
-            usedCapacity.set(0);
-        }
-        @Override
-        public TileRasterCache remove(Object key) {
-            final TileRasterCache last = super.remove(key);
-            if(last!=null) usedCapacity.addAndGet(-last.getWeight());
-            return last;
-        }
-    };
+    private final ConcurrentHashMap<Point, TileRasterCache> tiles = new ConcurrentHashMap<>();
+
+    /**
+     * Number of tiles compared to select the tile to evict.
+     */
+    private static final int EVICTION_SAMPLE = 16;
+
+    /**
+     * Lock held while selecting the tile to evict, it guards {@link #evictionHand}.
+     * The tiles lookup does not need it.
+     */
+    private final Object evictionLock = new Object();
+
+    /**
+     * Position of the next tile to sample for eviction, moves through the tiles
+     * like a clock hand so successive evictions sample different tiles.
+     */
+    private Iterator<TileRasterCache> evictionHand;
+
+    private void putTile(Point key, TileRasterCache value) {
+        final TileRasterCache last = tiles.put(key, value);
+        if(last!=null) usedCapacity.addAndGet(-last.getWeight());
+        usedCapacity.addAndGet(value.getWeight());
+    }
 
+    private TileRasterCache removeTile(Point key) {
+        final TileRasterCache last = tiles.remove(key);
+        if(last!=null) usedCapacity.addAndGet(-last.getWeight());
+        return last;
+    }
+
+    /**
+     * Remove the tile only if it is still the given one.
+     */
+    private boolean removeTile(Point key, TileRasterCache expected) {
+        if (!tiles.remove(key, expected)) return false;
+        usedCapacity.addAndGet(-expected.getWeight());
+        return true;
+    }
+
+    /**
+     * @return least recently used tile among sampled tiles, or null if there are no tiles in memory
+     */
+    private TileRasterCache eldest() {
+        synchronized (evictionLock) {
+            final int nb = Math.min(EVICTION_SAMPLE, tiles.size());
+            TileRasterCache eldest = null;
+            boolean restarted = false;
+            for (int i = 0; i < nb; i++) {
+                if (evictionHand == null || !evictionHand.hasNext()) {
+                    if (restarted) break;
+                    evictionHand = tiles.values().iterator();
+                    restarted = true;
+                    if (!evictionHand.hasNext()) break;
+                }
+                final TileRasterCache candidate = evictionHand.next();
+                if (eldest == null || candidate.getLastAccess() < eldest.getLastAccess()) {
+                    eldest = candidate;
+                }
+            }
+            return eldest;
+        }
+    }
 
     /**
      * when you use the lock keep it until release
@@ -136,33 +150,28 @@ final class ImageTilesCache extends PhantomReference<RenderedImage> {
      * @return
      */
     private ReadWriteLock getLock(final Point key){
-        ReadWriteLock lock;
-        synchronized(locks){
-            lock = locks.get(key);
-            if (lock == null) {
-                lock = new ReentrantReadWriteLock();
-                locks.put(key, lock);
-            }
-        }
-        return lock;
+        int hash = key.x * 31 + key.y;
+        hash ^= (hash >>> 16);
+        return locks[hash & (NB_LOCKS-1)];
     }
 
     /**
      * <p>List which contain {@link java.awt.image.Raster} from {@link java.awt.image.RenderedImage} owner.<br/>
      * If some of {@link java.awt.image.Raster} weight within list exceed memory capacity, {@link java.awt.image.Raster} are stored
-     * on hard disk at appropriate quad tree emplacement in temporary system directory.<br/><br/>
-     *
-     * Note : {@link java.awt.image.Raster} are stored in tiff format to avoid onerous, compression decompression, cost during disk writing reading.</p>
+     * on hard disk in temporary system directory, using the {@link TileSwap} selected by {@link ImageCacheConfiguration#KEY_CACHE_SWAP_MODE}.</p>
      *
      * @param ri {@link java.awt.image.RenderedImage} which contain all raster in list.
      * @param memoryCapacity storage capacity in Byte.
      * @param enableSwap flag that enable memory swapping on filesystem.
-     * @throws java.io.IOException if impossible to create {@link javax.imageio.ImageReader} or {@link javax.imageio.ImageWriter}.
+     * @throws java.io.IOException if impossible to create the swap store.
      */
     ImageTilesCache(RenderedImage ri, ReferenceQueue queue, LargeCache cache) throws IOException {
         super(ri, queue);
         //cache properties.
         this.cache = cache;
+        for (int i=0; i<NB_LOCKS; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+        }
         this.isWritableRenderedImage = ri instanceof WritableRenderedImage;
 
         if (ri instanceof WritableLargeRenderedImage ) {
@@ -170,7 +179,6 @@ final class ImageTilesCache extends PhantomReference<RenderedImage> {
                 throw new IllegalArgumentException("With WritableRenderedImage LargeCache must swap.");
         }
         //image owner properties.
-        this.cm            = ri.getColorModel();
         this.numTilesX     = ri.getNumXTiles();
         this.numTilesY     = ri.getNumYTiles();
         this.riMinX        = ri.getMinX();
@@ -180,14 +188,11 @@ final class ImageTilesCache extends PhantomReference<RenderedImage> {
         this.minTileX      = ri.getMinTileX();
         this.minTileY      = ri.getMinTileY();
 
-        //quad tree directory architecture.
+        //swap store, quad tree directory or mapped file.
         if (cache.isEnableSwap()) {
-            ArgumentChecks.ensureNonNull("READER_SPI", READER_SPI);
-            ArgumentChecks.ensureNonNull("WRITER_SPI", WRITER_SPI);
-            final Path dirPath = Files.createTempDirectory(TEMPORARY_PATH, "img");
-            this.qTD = new QuadTreeDirectory(dirPath, numTilesX, numTilesY, FORMAT, true);
+            this.swap = TileSwap.create(cache.getSwapMode(), ri, isWritableRenderedImage);
         } else {
-            this.qTD = null;
+            this.swap = null;
         }
 
         final int datatype = ri.getSampleModel().getDataType();
@@ -225,16 +230,10 @@ final class ImageTilesCache extends PhantomReference<RenderedImage> {
     }
 
     private void add(Point tileCorner, WritableRaster raster) throws IOException {
-        final long rasterWeight = getRasterWeight(raster);
-        if (rasterWeight > cache.getCacheSizePerImage()) throw new IOException("Raster too large : " + rasterWeight
-                + " bytes, but maximum cache capacity is "+ cache.getCacheSizePerImage() +" bytes");
-
         final ReadWriteLock tileLock = getLock(tileCorner);
         tileLock.writeLock().lock();
         try {
-            synchronized(tiles){
-                tiles.put(tileCorner, new TileRasterCache(tileCorner.x, tileCorner.y, rasterWeight, raster));
-            }
+            put(tileCorner, raster);
         } finally {
             tileLock.writeLock().unlock();
         }
@@ -242,6 +241,18 @@ final class ImageTilesCache extends PhantomReference<RenderedImage> {
         checkMap();
     }
 
+    /**
+     * Store raster in memory, caller must hold the tile write lock.
+     * The memory capacity is not checked, {@link #checkMap() } must be called
+     * after the tile lock is released, to avoid dead locks with other tiles.
+     */
+    private void put(Point tileCorner, WritableRaster raster) throws IOException {
+        final long rasterWeight = getRasterWeight(raster);
+        if (rasterWeight > cache.getCacheSizePerImage()) throw new IOException("Raster too large : " + rasterWeight
+                + " bytes, but maximum cache capacity is "+ cache.getCacheSizePerImage() +" bytes");
+        putTile(tileCorner, new TileRasterCache(tileCorner.x, tileCorner.y, rasterWeight, raster));
+    }
+
     /**
      * Remove {@link java.awt.image.Raster} at tileX tileY mosaic coordinates.
      *
@@ -254,21 +265,10 @@ final class ImageTilesCache extends PhantomReference<RenderedImage> {
         final ReadWriteLock tileLock = getLock(tileCorner);
         tileLock.writeLock().lock();
         try {
-            synchronized(tiles){
-                tiles.remove(tileCorner);
-            }
+            removeTile(tileCorner);
 
-            if (qTD != null) {
-                //quad tree
-                final Path removeFile = Paths.get(qTD.getPath(tileCorner.x, tileCorner.y));
-                //delete on hard disk if exist.
-                try {
-                    Files.deleteIfExists(removeFile);
-                } catch (IOException e) {
-                    //delete failed try to delete it when JVM shutdown
-                    LOGGER.log(Level.FINE,"Tile delete failed : "+ e.getLocalizedMessage(), e);
-                    IOUtilities.deleteOnExit(removeFile);
-                }
+            if (swap != null) {
+                swap.remove(tileCorner.x, tileCorner.y);
             }
 
         } finally {
@@ -288,25 +288,20 @@ final class ImageTilesCache extends PhantomReference<RenderedImage> {
      */
     Raster getRaster(int tileX, int tileY) throws IOException, IllegalArgumentException {
         final Point tileCorner = new Point(tileX - minTileX, tileY - minTileY);
-        // Check if queried raster is cached.
-        final ReadWriteLock tileLock = getLock(tileCorner);
-        tileLock.readLock().lock();
-        try {
-            final TileRasterCache lRaster;
-            synchronized(tiles){
-                lRaster= tiles.get(tileCorner);
-            }
-            if (lRaster != null) {
-                return lRaster.getRaster();
-            }
-        } finally {
-            tileLock.readLock().unlock();
+        // Check if queried raster is cached, no lock needed.
+        final TileRasterCache cached = tiles.get(tileCorner);
+        if (cached != null) {
+            cached.touch();
+            cache.tileHit();
+            return cached.getRaster();
         }
 
-        if (qTD == null) {
+        if (swap == null) {
             // raster not found in memory
             throw new IllegalArgumentException("Tile (" + tileX + ", " + tileY + ") not found in memory.");
         } else {
+            final ReadWriteLock tileLock = getLock(tileCorner);
+            WritableRaster checkedRaster = null;
 
             //-- lock in writing
             tileLock.writeLock().lock();
@@ -314,36 +309,29 @@ final class ImageTilesCache extends PhantomReference<RenderedImage> {
 
                 //-- asked again getRaster() in case another thread already enter
                 //-- into this scope and has loaded tile from file system.
-                final TileRasterCache lRaster;
-                synchronized (tiles) {
-                    lRaster= tiles.get(tileCorner);
-                }
+                final TileRasterCache lRaster = tiles.get(tileCorner);
                 if (lRaster != null) {
+                    lRaster.touch();
+                    cache.tileHit();
                     return lRaster.getRaster();
                 }
 
-                // If not, we must take it from input quad-tree.
-                final Path tileFile = Paths.get(qTD.getPath(tileCorner.x, tileCorner.y));
-                if (Files.exists(tileFile)) {
-                    // TODO : Use a "pool" of readers, instead of creating one each time ?
-                    final ImageReader imgReader = READER_SPI.createReaderInstance();
-                    final BufferedImage buff;
-                    try {
-                        imgReader.setInput(tileFile);
-                        buff = imgReader.read(0);
-                    }catch (Exception ex){
-                        throw ex;
-                    }finally {
-                        imgReader.dispose();
-                    }
+                // If not, we must take it from swap.
+                final WritableRaster swapped = swap.read(tileCorner.x, tileCorner.y);
+                if (swapped != null) {
+                    cache.tileMiss();
                     //add in cache list.
-                    final WritableRaster checkedRaster = checkRaster(buff.getRaster(), tileCorner);
-                    add(tileCorner, checkedRaster);
-                    return checkedRaster;
+                    checkedRaster = checkRaster(swapped, tileCorner);
+                    put(tileCorner, checkedRaster);
                 }
             } finally {
                tileLock.writeLock().unlock();
             }
+            if (checkedRaster != null) {
+                //remove or cache on disk oldest raster
+                checkMap();
+                return checkedRaster;
+            }
         }
         throw new IOException("Tile (" + tileX + ", " + tileY + ") unknown. Cannot get raster.");
     }
@@ -353,11 +341,11 @@ final class ImageTilesCache extends PhantomReference<RenderedImage> {
      */
     void removeTiles() throws IOException {
         //rendered image won't be used after this
-        synchronized(tiles){
-            tiles.clear();
-            if (qTD != null) {
-                qTD.cleanDirectory();
-            }
+        for (Point key : tiles.keySet()) {
+            removeTile(key);
+        }
+        if (swap != null) {
+            swap.clear();
         }
     }
 
@@ -384,79 +372,6 @@ final class ImageTilesCache extends PhantomReference<RenderedImage> {
         return width * raster.getHeight() * dataTypeWeight;
     }
 
-    /**
-     * Write {@link java.awt.image.Raster} within {@link org.geotoolkit.image.io.large.TileRasterCache} object on hard disk at appropriate quad tree emplacement.
-     *
-     * @param lRaster object which contain raster.
-     * @throws java.io.IOException if impossible to write raster on disk.
-     */
-    private void writeRaster(final TileRasterCache lRaster) throws IOException {
-        final Path tileFile = Paths.get(qTD.getPath(lRaster.getGridX(), lRaster.getGridY()));
-        if (isWritableRenderedImage || !Files.exists(tileFile)) {
-            final BufferedImage toWrite = new BufferedImage(
-                    cm, RasterFactory.createWritableRaster(lRaster.getRaster().getSampleModel(), lRaster.getRaster().getDataBuffer(), WPOINT), true, null);
-            // TODO : Optimize using a "writer pool" instead of creating one each time ?
-            final ImageWriter imgWriter = WRITER_SPI.createWriterInstance();
-            try {
-                imgWriter.setOutput(tileFile);
-                imgWriter.write(toWrite);
-                imgWriter.dispose();
-            } finally {
-                releaseWriter(imgWriter);
-            }
-        }
-    }
-
-    /**
-     * Release ImageReader and his input.
-     * TODO replace with XImageIO utility methods
-     * @param imageReader
-     */
-    private void releaseReader(ImageReader imageReader) {
-        if(imageReader != null) {
-            Object writerOutput = imageReader.getInput();
-            if(writerOutput instanceof OutputStream){
-                try {
-                    ((OutputStream)writerOutput).close();
-                } catch (IOException ex) {
-                    LOGGER.log(Level.INFO, ex.getMessage(),ex);
-                }
-            }else if(writerOutput instanceof ImageOutputStream){
-                try {
-                    ((ImageOutputStream)writerOutput).close();
-                } catch (IOException ex) {
-                    LOGGER.log(Level.INFO, ex.getMessage(),ex);
-                }
-            }
-            imageReader.dispose();
-        }
-    }
-
-    /**
-     * Release ImageWriter and his output.
-     * TODO replace with XImageIO utility methods
-     * @param imgWriter
-     */
-    private void releaseWriter(ImageWriter imgWriter) {
-        if(imgWriter != null) {
-            Object writerOutput = imgWriter.getOutput();
-            if(writerOutput instanceof OutputStream){
-                try {
-                    ((OutputStream)writerOutput).close();
-                } catch (IOException ex) {
-                    LOGGER.log(Level.INFO, ex.getMessage(),ex);
-                }
-            }else if(writerOutput instanceof ImageOutputStream){
-                try {
-                    ((ImageOutputStream)writerOutput).close();
-                } catch (IOException ex) {
-                    LOGGER.log(Level.INFO, ex.getMessage(),ex);
-                }
-            }
-            imgWriter.dispose();
-        }
-    }
-
     /**
      * <p>Verify that {@link java.awt.image.Raster} coordinate is agree from {@link java.awt.image.RenderedImage} location.<br/>
      * If location is correct return {@link java.awt.image.Raster} else return new {@link java.awt.image.Raster} with correct<br/>
@@ -482,30 +397,22 @@ final class ImageTilesCache extends PhantomReference<RenderedImage> {
     private void checkMap() throws IOException {
         final long maxCacheSize = cache.getCacheSizePerImage();
 
-        final boolean swap = cache.isEnableSwap();
-
         for(long currentCapacity = usedCapacity.get(); currentCapacity>maxCacheSize; currentCapacity = usedCapacity.get()){
 
-            Point key = null;
-            synchronized(tiles){
-                //get oldest key
-                Iterator<Point> ite = tiles.keySet().iterator();
-                if(ite.hasNext()){
-                    key = ite.next();
-                }
-            }
-            if(key==null) continue;
+            //get least recently used tile
+            final TileRasterCache tr = eldest();
+            if(tr==null) break;
 
+            final Point key = new Point(tr.getGridX(), tr.getGridY());
             final ReadWriteLock rwl = getLock(key);
             rwl.writeLock().lock();
             try {
-                final TileRasterCache tr;
-                synchronized (tiles) {
-                    tr = tiles.remove(key);
-                }
-
-                if (tr != null && swap) {
-                    writeRaster(tr);
+                //tile may have been replaced or removed since it was selected
+                if (removeTile(key, tr)) {
+                    cache.tileEvicted();
+                    if (swap != null) {
+                        swap.write(tr.getGridX(), tr.getGridY(), tr.getRaster());
+                    }
                 }
             } finally {
                 rwl.writeLock().unlock();
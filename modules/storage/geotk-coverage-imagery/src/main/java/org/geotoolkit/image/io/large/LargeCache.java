@@ -23,7 +23,10 @@ import java.awt.image.RenderedImage;
 import java.awt.image.WritableRaster;
 import java.io.IOException;
 import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.media.jai.TileCache;
@@ -50,31 +53,40 @@ public final class LargeCache implements TileCache {
 
     private volatile long memoryCapacity;
     private final boolean enableSwap;
+    private final String swapMode;
 
     /**
      * Contains a tile manager for each cached rendered image. A tile manager job is to swap / cache image tiles as we ask it.
      *
-     * Note : we can not use ReentrantReadWriteLock with WeakHashMap because
-     * get and iteration methods may modify the content of the map.
-     * This is because the weak references are tested when a get occurs.
+     * Images are weakly referenced by the keys. The values are hard references,
+     * they are removed by the cleaner thread when the image is garbage collected,
+     * otherwise the dispose wont be called by the reference queue.
      */
-    private final WeakHashMap<RenderedImage, ImageTilesCache> tileManagers = new WeakHashMap<>();
-    //We MUST keep hard references to the largemaps, otherwise the dispose wont be called
-    //by the reference queue. check the javadoc for more details.
-    private final Set<ImageTilesCache> largemaps = new HashSet<>();
+    private final ConcurrentHashMap<ImageKey, ImageTilesCache> tileManagers = new ConcurrentHashMap<>();
+
+    /**
+     * Cache statistics.
+     */
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
 
     private static LargeCache INSTANCE;
 
-    private LargeCache(long memoryCapacity, boolean enableSwap) {
+    /**
+     * Use {@link #getInstance() }, this constructor is only visible for tests.
+     */
+    LargeCache(long memoryCapacity, boolean enableSwap, String swapMode) {
         this.memoryCapacity = memoryCapacity;
         this.enableSwap = enableSwap;
+        this.swapMode = swapMode;
         final Thread phantomCleaner = new Thread(new Runnable() {
             @Override
             public void run() {
                 while (true) {
                     try {
                         final ImageTilesCache removed = (ImageTilesCache) phantomQueue.remove();
-                        largemaps.remove(removed);
+                        tileManagers.values().remove(removed);
                         removed.removeTiles();
                         // Re-distribute freed memory amount between remaining caches.
                         updateLList();
@@ -96,10 +108,64 @@ public final class LargeCache implements TileCache {
         return enableSwap;
     }
 
+    /**
+     * @return swap mode, one of {@link ImageCacheConfiguration#SWAP_MODE_FILE} or {@link ImageCacheConfiguration#SWAP_MODE_MAPPED}
+     */
+    String getSwapMode() {
+        return swapMode;
+    }
+
     long getCacheSizePerImage(){
-        synchronized(tileManagers){
-            return memoryCapacity / (tileManagers.size() + 1);
-        }
+        return memoryCapacity / (tileManagers.size() + 1);
+    }
+
+    void tileHit() {
+        hitCount.increment();
+    }
+
+    void tileMiss() {
+        missCount.increment();
+    }
+
+    void tileEvicted() {
+        evictionCount.increment();
+    }
+
+    /**
+     * Number of tiles requests served from memory.
+     *
+     * @return hit count since cache creation.
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Number of tiles requests which required to read the tile from the swap.
+     *
+     * @return miss count since cache creation.
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Number of tiles removed from memory to respect the memory capacity.
+     *
+     * @return eviction count since cache creation.
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * Get the cache system associated to the given rendered image, without locking.
+     *
+     * @param source The image we want data from.
+     * @return cache system or null
+     */
+    private ImageTilesCache getLargeMap(final RenderedImage source) {
+        return tileManagers.get(new ImageKey(source));
     }
 
     /**
@@ -112,7 +178,8 @@ public final class LargeCache implements TileCache {
         if(INSTANCE==null){
             final long memoryCapacity = ImageCacheConfiguration.getCacheMemorySize();
             final boolean enableSwap  = ImageCacheConfiguration.isCacheSwapEnable();
-            INSTANCE = new LargeCache(memoryCapacity, enableSwap);
+            final String swapMode     = ImageCacheConfiguration.getCacheSwapMode();
+            INSTANCE = new LargeCache(memoryCapacity, enableSwap, swapMode);
         }
         return INSTANCE;
     }
@@ -125,24 +192,19 @@ public final class LargeCache implements TileCache {
      * @throws IOException If the image did not have any cache system, and we cannot create one.
      */
     private ImageTilesCache getOrCreateLargeMap(final RenderedImage source) throws IOException {
-        ImageTilesCache lL;
-        synchronized (source) {
-            synchronized(tileManagers){
-                lL = tileManagers.get(source);
-            }
-
-            if (lL == null) {
+        final ImageKey key = new ImageKey(source);
+        ImageTilesCache lL = tileManagers.get(key);
+        if (lL == null) {
+            final boolean[] created = new boolean[1];
+            lL = tileManagers.computeIfAbsent(key, (ImageKey k) -> {
                 try {
-                    lL = new ImageTilesCache(source, phantomQueue, this);
+                    created[0] = true;
+                    return new ImageTilesCache(source, phantomQueue, this);
                 } catch (IOException ex) {
                     throw new RuntimeException("impossible to create cache list", ex);
                 }
-
-                synchronized(tileManagers){
-                    tileManagers.put(source, lL);
-                    largemaps.add(lL);
-                }
-
+            });
+            if (created[0]) {
                 updateLList();
             }
         }
@@ -172,10 +234,7 @@ public final class LargeCache implements TileCache {
      */
     @Override
     public void remove(RenderedImage ri, int tileX, int tileY) {
-        final ImageTilesCache lL;
-        synchronized(tileManagers){
-            lL = tileManagers.get(ri);
-        }
+        final ImageTilesCache lL = getLargeMap(ri);
 
         if (lL == null){
             throw new IllegalArgumentException("renderedImage don't exist in this "+LargeCache.class.getName());
@@ -191,10 +250,7 @@ public final class LargeCache implements TileCache {
      */
     @Override
     public Raster getTile(RenderedImage ri, int tileX, int tileY) {
-        final ImageTilesCache cache;
-        synchronized(tileManagers){
-            cache = tileManagers.get(ri);
-        }
+        final ImageTilesCache cache = getLargeMap(ri);
         if (cache == null){
             throw new IllegalArgumentException("renderedImage doesn't exist in this "+LargeCache.class.getName());
         }
@@ -210,11 +266,8 @@ public final class LargeCache implements TileCache {
      */
     @Override
     public void removeTiles(RenderedImage ri) {
-        final ImageTilesCache lL;
         // De-reference image
-        synchronized(tileManagers){
-            lL = tileManagers.remove(ri);
-        }
+        final ImageTilesCache lL = tileManagers.remove(new ImageKey(ri));
 
         // Clear cache.
         if (lL != null) {
@@ -258,10 +311,7 @@ public final class LargeCache implements TileCache {
      */
     @Override
     public Raster[] getTiles(RenderedImage ri, Point[] points) {
-        final ImageTilesCache lL;
-        synchronized(tileManagers){
-            lL = tileManagers.get(ri);
-        }
+        final ImageTilesCache lL = getLargeMap(ri);
 
         if (lL == null)
             throw new IllegalArgumentException("renderedImage don't exist in this "+LargeCache.class.getName());
@@ -292,13 +342,9 @@ public final class LargeCache implements TileCache {
      * @param listMemoryCapacity new memory capacity.
      */
     private void updateLList() {
-        Object[] array;
-        synchronized(tileManagers){
-            array = tileManagers.values().toArray();
-        }
-        for (Object lL : array) {
+        for (ImageTilesCache lL : tileManagers.values()) {
             try {
-                ((ImageTilesCache)lL).capacityChanged();
+                lL.capacityChanged();
             } catch (IOException ex) {
                 throw new RuntimeException("Raster too large for remaining memory capacity", ex);
             }
@@ -408,4 +454,30 @@ public final class LargeCache implements TileCache {
     public void add(RenderedImage ri, int i, int i1, Raster raster, Object o) {
         throw new UnsupportedOperationException("Not supported yet.");
     }
+    /**
+     * Weak reference to an image, compared by identity.
+     */
+    private static final class ImageKey extends WeakReference<RenderedImage> {
+
+        private final int hash;
+
+        private ImageKey(final RenderedImage image) {
+            super(image);
+            this.hash = System.identityHashCode(image);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (!(obj instanceof ImageKey)) return false;
+            final RenderedImage image = get();
+            return image != null && image == ((ImageKey) obj).get();
+        }
+    }
+
 }
@@ -0,0 +1,300 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.image.io.large;
+
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferDouble;
+import java.awt.image.DataBufferFloat;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferShort;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.sis.util.logging.Logging;
+import org.geotoolkit.nio.IOUtilities;
+
+/**
+ * Tile swap writing raw tile samples in a single memory mapped file.
+ * <p>
+ * All tiles of an image share the same sample model, the file is divided in fixed size slots,
+ * one slot contains the data buffer banks of one tile. Slots of removed tiles are reused.
+ * The file is mapped by chunks of at most 1Gb, chunks are mapped only when needed.
+ * Samples are stored in native byte order, no encoding is done.
+ * </p>
+ *
+ * @author agent
+ * @module
+ */
+final class MappedTileSwap extends TileSwap {
+
+    private static final Logger LOGGER = Logging.getLogger("org.geotoolkit.image.io.large");
+
+    private static final Path TEMPORARY_PATH = Paths.get(System.getProperty("java.io.tmpdir"));
+
+    /**
+     * Maximum size in bytes of a mapped chunk.
+     */
+    private static final int CHUNK_SIZE = 1 << 30;
+
+    /**
+     * Sample model of stored tiles, located at (0,0).
+     */
+    private final SampleModel sm;
+    private final int numTilesX;
+    private final boolean overwrite;
+
+    /**
+     * Number of elements in each bank of a tile data buffer.
+     */
+    private final int bankSize;
+    private final int numBanks;
+    private final int slotSize;
+    private final int slotsPerChunk;
+
+    /**
+     * Slot index of each tile, -1 if tile is not stored.
+     */
+    private final int[] tileSlots;
+
+    /**
+     * Stack of released slots.
+     */
+    private int[] freeSlots = new int[16];
+    private int nbFreeSlots = 0;
+    private int nextSlot = 0;
+
+    private Path file;
+    private FileChannel channel;
+    private final List<MappedByteBuffer> chunks = new ArrayList<>();
+
+    MappedTileSwap(final RenderedImage ri, final boolean overwrite) throws IOException {
+        this.sm = ri.getSampleModel().createCompatibleSampleModel(ri.getTileWidth(), ri.getTileHeight());
+        this.numTilesX = ri.getNumXTiles();
+        this.overwrite = overwrite;
+
+        final DataBuffer prototype = sm.createDataBuffer();
+        this.numBanks = prototype.getNumBanks();
+        this.bankSize = prototype.getSize();
+        final long size = (long) numBanks * bankSize * (DataBuffer.getDataTypeSize(prototype.getDataType()) / Byte.SIZE);
+        if (size > CHUNK_SIZE) {
+            throw new IOException("Tile too large to be swapped in a mapped file : " + size + " bytes");
+        }
+        this.slotSize = (int) size;
+
+        final int nbTiles = ri.getNumXTiles() * ri.getNumYTiles();
+        this.slotsPerChunk = Math.max(1, Math.min(CHUNK_SIZE / slotSize, nbTiles));
+        this.tileSlots = new int[nbTiles];
+        Arrays.fill(tileSlots, -1);
+    }
+
+    @Override
+    void write(int tileX, int tileY, WritableRaster raster) throws IOException {
+        final int index = tileY * numTilesX + tileX;
+        final ByteBuffer buffer;
+        synchronized (this) {
+            int slot = tileSlots[index];
+            if (slot >= 0 && !overwrite) return;
+            if (slot < 0) {
+                slot = (nbFreeSlots > 0) ? freeSlots[--nbFreeSlots] : nextSlot++;
+                tileSlots[index] = slot;
+            }
+            buffer = getSlotBuffer(slot);
+        }
+
+        if (!isCompatible(raster)) {
+            final WritableRaster copy = Raster.createWritableRaster(sm, null);
+            copy.setRect(-raster.getMinX(), -raster.getMinY(), raster);
+            raster = copy;
+        }
+
+        final DataBuffer db = raster.getDataBuffer();
+        switch (db.getDataType()) {
+            case DataBuffer.TYPE_BYTE : {
+                final DataBufferByte dbb = (DataBufferByte) db;
+                for (int b=0; b<numBanks; b++) buffer.put(dbb.getData(b), 0, bankSize);
+            } break;
+            case DataBuffer.TYPE_SHORT : {
+                final DataBufferShort dbs = (DataBufferShort) db;
+                final ShortBuffer view = buffer.asShortBuffer();
+                for (int b=0; b<numBanks; b++) view.put(dbs.getData(b), 0, bankSize);
+            } break;
+            case DataBuffer.TYPE_USHORT : {
+                final DataBufferUShort dbs = (DataBufferUShort) db;
+                final ShortBuffer view = buffer.asShortBuffer();
+                for (int b=0; b<numBanks; b++) view.put(dbs.getData(b), 0, bankSize);
+            } break;
+            case DataBuffer.TYPE_INT : {
+                final DataBufferInt dbi = (DataBufferInt) db;
+                final IntBuffer view = buffer.asIntBuffer();
+                for (int b=0; b<numBanks; b++) view.put(dbi.getData(b), 0, bankSize);
+            } break;
+            case DataBuffer.TYPE_FLOAT : {
+                final DataBufferFloat dbf = (DataBufferFloat) db;
+                final FloatBuffer view = buffer.asFloatBuffer();
+                for (int b=0; b<numBanks; b++) view.put(dbf.getData(b), 0, bankSize);
+            } break;
+            case DataBuffer.TYPE_DOUBLE : {
+                final DataBufferDouble dbd = (DataBufferDouble) db;
+                final DoubleBuffer view = buffer.asDoubleBuffer();
+                for (int b=0; b<numBanks; b++) view.put(dbd.getData(b), 0, bankSize);
+            } break;
+            default : throw new IOException("Unsupported data buffer type : " + db.getDataType());
+        }
+    }
+
+    @Override
+    WritableRaster read(int tileX, int tileY) throws IOException {
+        final int index = tileY * numTilesX + tileX;
+        final ByteBuffer buffer;
+        synchronized (this) {
+            final int slot = tileSlots[index];
+            if (slot < 0) return null;
+            buffer = getSlotBuffer(slot);
+        }
+
+        final DataBuffer db = sm.createDataBuffer();
+        switch (db.getDataType()) {
+            case DataBuffer.TYPE_BYTE : {
+                final DataBufferByte dbb = (DataBufferByte) db;
+                for (int b=0; b<numBanks; b++) buffer.get(dbb.getData(b), 0, bankSize);
+            } break;
+            case DataBuffer.TYPE_SHORT : {
+                final DataBufferShort dbs = (DataBufferShort) db;
+                final ShortBuffer view = buffer.asShortBuffer();
+                for (int b=0; b<numBanks; b++) view.get(dbs.getData(b), 0, bankSize);
+            } break;
+            case DataBuffer.TYPE_USHORT : {
+                final DataBufferUShort dbs = (DataBufferUShort) db;
+                final ShortBuffer view = buffer.asShortBuffer();
+                for (int b=0; b<numBanks; b++) view.get(dbs.getData(b), 0, bankSize);
+            } break;
+            case DataBuffer.TYPE_INT : {
+                final DataBufferInt dbi = (DataBufferInt) db;
+                final IntBuffer view = buffer.asIntBuffer();
+                for (int b=0; b<numBanks; b++) view.get(dbi.getData(b), 0, bankSize);
+            } break;
+            case DataBuffer.TYPE_FLOAT : {
+                final DataBufferFloat dbf = (DataBufferFloat) db;
+                final FloatBuffer view = buffer.asFloatBuffer();
+                for (int b=0; b<numBanks; b++) view.get(dbf.getData(b), 0, bankSize);
+            } break;
+            case DataBuffer.TYPE_DOUBLE : {
+                final DataBufferDouble dbd = (DataBufferDouble) db;
+                final DoubleBuffer view = buffer.asDoubleBuffer();
+                for (int b=0; b<numBanks; b++) view.get(dbd.getData(b), 0, bankSize);
+            } break;
+            default : throw new IOException("Unsupported data buffer type : " + db.getDataType());
+        }
+        return Raster.createWritableRaster(sm, db, null);
+    }
+
+    @Override
+    synchronized void remove(int tileX, int tileY) {
+        final int index = tileY * numTilesX + tileX;
+        final int slot = tileSlots[index];
+        if (slot >= 0) {
+            tileSlots[index] = -1;
+            if (nbFreeSlots == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, nbFreeSlots * 2);
+            }
+            freeSlots[nbFreeSlots++] = slot;
+        }
+    }
+
+    @Override
+    synchronized void clear() throws IOException {
+        Arrays.fill(tileSlots, -1);
+        nbFreeSlots = 0;
+        nextSlot = 0;
+        chunks.clear();
+        if (channel != null) {
+            channel.close();
+            channel = null;
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                //file may still be mapped, try to delete it when JVM shutdown
+                LOGGER.log(Level.FINE, "Swap file delete failed : "+ e.getLocalizedMessage(), e);
+                IOUtilities.deleteOnExit(file);
+            }
+            file = null;
+        }
+    }
+
+    /**
+     * Test if raster data buffer can be copied directly in a slot.
+     */
+    private boolean isCompatible(final Raster raster) {
+        if (raster.getParent() != null
+                || raster.getSampleModelTranslateX() != -raster.getMinX()
+                || raster.getSampleModelTranslateY() != -raster.getMinY()
+                || !sm.equals(raster.getSampleModel())) {
+            return false;
+        }
+        final DataBuffer db = raster.getDataBuffer();
+        if (db.getNumBanks() != numBanks || db.getSize() != bankSize) {
+            return false;
+        }
+        for (int offset : db.getOffsets()) {
+            if (offset != 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Get a buffer view on given slot, mapping the file chunk if needed.
+     * Caller must hold this object lock.
+     */
+    private ByteBuffer getSlotBuffer(final int slot) throws IOException {
+        if (channel == null) {
+            file = Files.createTempFile(TEMPORARY_PATH, "img", ".swap");
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        final int chunkIndex = slot / slotsPerChunk;
+        while (chunks.size() <= chunkIndex) {
+            final long position = (long) chunks.size() * slotsPerChunk * slotSize;
+            chunks.add(channel.map(FileChannel.MapMode.READ_WRITE, position, (long) slotsPerChunk * slotSize));
+        }
+        final ByteBuffer buffer = chunks.get(chunkIndex).duplicate();
+        final int offset = (slot % slotsPerChunk) * slotSize;
+        buffer.position(offset);
+        buffer.limit(offset + slotSize);
+        return buffer.slice().order(ByteOrder.nativeOrder());
+    }
+
+}
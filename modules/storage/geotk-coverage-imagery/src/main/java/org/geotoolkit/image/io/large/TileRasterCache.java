@@ -13,6 +13,11 @@ final class TileRasterCache {
     private final long weight;
     private final Raster raster;
 
+    /**
+     * Time of the last access, in nanoseconds, used to select tiles to evict.
+     */
+    private volatile long lastAccess = System.nanoTime();
+
     /**
      * Object to wrap {@link java.awt.image.Raster} and different raster properties.
      *
@@ -64,6 +69,22 @@ final class TileRasterCache {
         return weight;
     }
 
+    /**
+     * Mark this tile as used now.
+     */
+    void touch() {
+        lastAccess = System.nanoTime();
+    }
+
+    /**
+     * Return time of the last access, in nanoseconds.
+     *
+     * @return time of the last access.
+     */
+    long getLastAccess() {
+        return lastAccess;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (!(obj instanceof TileRasterCache)) return false;
@@ -0,0 +1,89 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.image.io.large;
+
+import java.awt.image.RenderedImage;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+
+/**
+ * Storage used by {@link ImageTilesCache} to keep tiles which do not fit in memory anymore.
+ * Tiles are identified by their index in the image tile grid, starting at (0,0).
+ * <p>
+ * Implementations are called while the tile lock is held by the cache, so a same tile
+ * is never accessed concurrently, but different tiles may be.
+ * </p>
+ *
+ * @author agent
+ * @module
+ */
+abstract class TileSwap {
+
+    /**
+     * Create the swap store for the given image.
+     *
+     * @param mode one of {@link ImageCacheConfiguration#SWAP_MODE_FILE} or {@link ImageCacheConfiguration#SWAP_MODE_MAPPED}
+     * @param ri image which tiles will be swapped
+     * @param overwrite true if tiles must be written again when already swapped,
+     *        this is the case for writable images
+     * @return swap store, never null
+     * @throws IOException if the swap store can not be created
+     */
+    static TileSwap create(final String mode, final RenderedImage ri, final boolean overwrite) throws IOException {
+        if (ImageCacheConfiguration.SWAP_MODE_MAPPED.equalsIgnoreCase(mode)) {
+            return new MappedTileSwap(ri, overwrite);
+        }
+        return new FileTileSwap(ri, overwrite);
+    }
+
+    /**
+     * Store tile data.
+     *
+     * @param tileX tile index in X direction.
+     * @param tileY tile index in Y direction.
+     * @param raster tile data.
+     * @throws IOException if an error occurs during writing.
+     */
+    abstract void write(int tileX, int tileY, WritableRaster raster) throws IOException;
+
+    /**
+     * Get back tile data.
+     *
+     * @param tileX tile index in X direction.
+     * @param tileY tile index in Y direction.
+     * @return tile raster, location may not match the tile location in the image,
+     *         or null if the tile has not been stored.
+     * @throws IOException if an error occurs during reading.
+     */
+    abstract WritableRaster read(int tileX, int tileY) throws IOException;
+
+    /**
+     * Remove stored tile data, if any.
+     *
+     * @param tileX tile index in X direction.
+     * @param tileY tile index in Y direction.
+     */
+    abstract void remove(int tileX, int tileY);
+
+    /**
+     * Remove all stored tiles and release resources.
+     *
+     * @throws IOException if an error occurs while deleting files.
+     */
+    abstract void clear() throws IOException;
+
+}
@@ -82,6 +82,7 @@ class DefaultWritableDirectByteIterator extends DefaultDirectByteIterator {
         super(raster, subArea);
         checkRasters(raster, writableRaster, subArea);
         this.currentWritableRaster    = writableRaster;
+        this.destRaster               = writableRaster;
         this.currentWritableDataArray = ((DataBufferByte) writableRaster.getDataBuffer()).getData();
     }
 
@@ -98,6 +99,7 @@ class DefaultWritableDirectByteIterator extends DefaultDirectByteIterator {
         super(renderedImage, subArea);
         checkRenderedImage(renderedImage, writableRI, subArea);
         this.writableRenderedImage = writableRI;
+        this.destImage = writableRI;
     }
 
     /**
@@ -82,6 +82,7 @@ class DefaultWritableDirectFloatIterator extends DefaultDirectFloatIterator {
         super(raster, subArea);
         checkRasters(raster, writableRaster, subArea);
         this.currentWritableRaster = writableRaster;
+        this.destRaster = writableRaster;
         this.currentWritableDataArray = ((DataBufferFloat) writableRaster.getDataBuffer()).getData();
     }
 
@@ -98,6 +99,7 @@ class DefaultWritableDirectFloatIterator extends DefaultDirectFloatIterator {
         super(renderedImage, subArea);
         checkRenderedImage(renderedImage, writableRI, subArea);
         this.writableRenderedImage = writableRI;
+        this.destImage = writableRI;
     }
 
     /**
@@ -79,6 +79,7 @@ class DefaultWritableIterator extends DefaultIterator {
         super(raster, subArea);
         checkRasters(raster, writableRaster, subArea);
         this.currentWritableRaster = writableRaster;
+        this.destRaster = writableRaster;
     }
 
     /**
@@ -94,6 +95,7 @@ class DefaultWritableIterator extends DefaultIterator {
         super(renderedImage, subArea);
         checkRenderedImage(renderedImage, writableRI, subArea);
         this.writableRenderedImage = writableRI;
+        this.destImage = writableRI;
     }
 
     /**
@@ -19,6 +19,8 @@ package org.geotoolkit.image.iterator;
 import java.awt.Rectangle;
 import java.awt.image.*;
 import java.io.Closeable;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 import org.apache.sis.util.ArgumentChecks;
 import org.opengis.coverage.grid.SequenceType;
@@ -155,6 +157,23 @@ public abstract class PixelIterator implements Closeable {
      */
     protected final SampleModel currentSampleModel;
 
+    /**
+     * Raster wherein writable iterators write, {@code null} for read-only iterators
+     * or if iterator follow a rendered image.
+     */
+    WritableRaster destRaster;
+
+    /**
+     * Rendered image wherein writable iterators write, {@code null} for read-only iterators
+     * or if iterator follow a raster.
+     */
+    WritableRenderedImage destImage;
+
+    /**
+     * Index of the last row returned by {@link #nextRow(double[])}, relative to {@link #areaIterateMinY}.
+     */
+    private int row = -1;
+
     /**
      * Create raster iterator to follow from minX, minY raster and rectangle intersection coordinate.
      *
@@ -415,6 +434,288 @@ public abstract class PixelIterator implements Closeable {
         return renderedImage;
     }
 
+    /**
+     * Read the next row of the iteration area.
+     * Row cursor is independent of the pixel cursor moved by {@link #next()}.
+     *
+     * Code example :<br/>
+     * {@code final double[] row = new double[iterator.getBoundary(true).width * iterator.getNumBands()];}<br/>
+     * {@code while (iterator.nextRow(row))} {<br/>
+     * {@code     //process row samples, pixel interleaved}<br/>
+     * }
+     *
+     * @param buffer array which will be filled by the row samples, pixel interleaved.
+     * @return true if a row has been read, false if all rows have already been read.
+     * @throws IllegalArgumentException if buffer is too small.
+     */
+    public boolean nextRow(final double[] buffer) {
+        if (areaIterateMinY + row + 1 >= areaIterateMaxY) return false;
+        row++;
+        getPixels(areaIterateMinX, areaIterateMinY + row, areaIterateMaxX - areaIterateMinX, 1, buffer);
+        return true;
+    }
+
+    /**
+     * Returns the Y coordinate of the last row read by {@link #nextRow(double[])}.
+     *
+     * @return Y coordinate of current row.
+     * @throws IllegalStateException if {@link #nextRow(double[])} has not been called.
+     */
+    public int getRowY() {
+        if (row < 0) throw new IllegalStateException("nextRow must be called before.");
+        return areaIterateMinY + row;
+    }
+
+    /**
+     * Write given samples in the last row read by {@link #nextRow(double[])}.
+     *
+     * @param buffer row samples, pixel interleaved.
+     * @throws IllegalStateException if {@link #nextRow(double[])} has not been called.
+     * @throws UnsupportedOperationException if this iterator is not a writable iterator.
+     */
+    public void writeRow(final double[] buffer) {
+        setPixels(areaIterateMinX, getRowY(), areaIterateMaxX - areaIterateMinX, 1, buffer);
+    }
+
+    /**
+     * Move row cursor before the first row of the iteration area.
+     */
+    public void rewindRows() {
+        row = -1;
+    }
+
+    /**
+     * Fill given buffer with samples of all bands within the given area.
+     * Samples are pixel interleaved, in row major order.<br/>
+     * This method does not move iterator cursors and may be called concurrently
+     * from many threads, for example on the tiles given by {@link #tileSpliterator()}.
+     *
+     * @param area needed samples area, must be within iteration area.
+     * @param buffer array which will be filled by samples, or {@code null}.
+     * @return the buffer filled by samples.
+     * @throws IllegalArgumentException if area is not within iteration area or buffer is too small.
+     */
+    public double[] getPixels(final Rectangle area, final double[] buffer) {
+        ArgumentChecks.ensureNonNull("area", area);
+        return getPixels(area.x, area.y, area.width, area.height, buffer);
+    }
+
+    /**
+     * Write samples of all bands within the given area.
+     * Samples are pixel interleaved, in row major order.<br/>
+     * This method does not move iterator cursors and may be called concurrently
+     * from many threads on distinct areas.
+     *
+     * @param area written samples area, must be within iteration area.
+     * @param buffer samples to write.
+     * @throws IllegalArgumentException if area is not within iteration area or buffer is too small.
+     * @throws UnsupportedOperationException if this iterator is not a writable iterator.
+     */
+    public void setPixels(final Rectangle area, final double[] buffer) {
+        ArgumentChecks.ensureNonNull("area", area);
+        ArgumentChecks.ensureNonNull("buffer", buffer);
+        setPixels(area.x, area.y, area.width, area.height, buffer);
+    }
+
+    /**
+     * Returns a {@link Spliterator} over the tiles of the iteration area.
+     * Each element is the intersection of a tile with the iteration area, it can be
+     * given to {@link #getPixels(Rectangle, double[])} and {@link #setPixels(Rectangle, double[])}.
+     *
+     * Code example :<br/>
+     * {@code StreamSupport.stream(iterator.tileSpliterator(), true).forEach((Rectangle tile) ->} {<br/>
+     * {@code     final double[] samples = iterator.getPixels(tile, null);}<br/>
+     * {@code     //process tile samples}<br/>
+     * });
+     *
+     * @return tiles areas spliterator.
+     */
+    public Spliterator<Rectangle> tileSpliterator() {
+        if (renderedImage == null) {
+            return new TileSpliterator(0, 1, 0, 0, 1);
+        }
+        final int numXTiles = tMaxX - tMinX;
+        return new TileSpliterator(tMinX, numXTiles, tMinY, 0, numXTiles * (tMaxY - tMinY));
+    }
+
+    /**
+     * Check that the given area is within iteration area and that the buffer can contain its samples.
+     */
+    private int checkArea(final int x, final int y, final int width, final int height, final double[] buffer) {
+        if (x < areaIterateMinX || y < areaIterateMinY || width < 0 || height < 0
+         || x + width > areaIterateMaxX || y + height > areaIterateMaxY)
+            throw new IllegalArgumentException("area out of iteration area define by: "
+                    +"("+areaIterateMinX+", "+areaIterateMinY+")"+" ; ("+areaIterateMaxX+", "+areaIterateMaxY+") given area is "
+                    +x+" "+y+" "+width+" "+height);
+        final int length = width * height * fixedNumBand;
+        if (buffer != null && buffer.length < length)
+            throw new IllegalArgumentException("Buffer must have a length equal or upper than area sample number. Expected : "+length);
+        return length;
+    }
+
+    /**
+     * Fill buffer with samples of all bands within the given area, tile by tile.
+     */
+    private double[] getPixels(final int x, final int y, final int width, final int height, double[] buffer) {
+        final int length = checkArea(x, y, width, height, buffer);
+        if (buffer == null) buffer = new double[length];
+        if (renderedImage == null) {
+            return currentRaster.getPixels(x, y, width, height, buffer);
+        }
+        final int maxX = x + width;
+        final int maxY = y + height;
+        final int txMin = Math.floorDiv(x - renderedImage.getTileGridXOffset(), tileWidth);
+        final int tyMin = Math.floorDiv(y - renderedImage.getTileGridYOffset(), tileHeight);
+        final int txMax = Math.floorDiv(maxX - 1 - renderedImage.getTileGridXOffset(), tileWidth);
+        final int tyMax = Math.floorDiv(maxY - 1 - renderedImage.getTileGridYOffset(), tileHeight);
+        if (txMin == txMax && tyMin == tyMax) {
+            return renderedImage.getTile(txMin, tyMin).getPixels(x, y, width, height, buffer);
+        }
+        double[] tileBuffer = null;
+        for (int ty = tyMin; ty <= tyMax; ty++) {
+            for (int tx = txMin; tx <= txMax; tx++) {
+                final Raster tile = renderedImage.getTile(tx, ty);
+                final int minX = Math.max(x, tile.getMinX());
+                final int minY = Math.max(y, tile.getMinY());
+                final int w = Math.min(maxX, tile.getMinX() + tile.getWidth()) - minX;
+                final int h = Math.min(maxY, tile.getMinY() + tile.getHeight()) - minY;
+                final int rowLength = w * fixedNumBand;
+                if (tileBuffer == null || tileBuffer.length < h * rowLength) {
+                    tileBuffer = new double[h * rowLength];
+                }
+                tile.getPixels(minX, minY, w, h, tileBuffer);
+                int destId = ((minY - y) * width + minX - x) * fixedNumBand;
+                for (int srcId = 0, end = h * rowLength; srcId < end; srcId += rowLength) {
+                    System.arraycopy(tileBuffer, srcId, buffer, destId, rowLength);
+                    destId += width * fixedNumBand;
+                }
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Write samples of all bands within the given area, tile by tile.
+     */
+    private void setPixels(final int x, final int y, final int width, final int height, final double[] buffer) {
+        checkArea(x, y, width, height, buffer);
+        if (destRaster != null) {
+            destRaster.setPixels(x, y, width, height, buffer);
+            return;
+        }
+        if (destImage == null) {
+            throw new UnsupportedOperationException("Read-only iterator.");
+        }
+        final int maxX = x + width;
+        final int maxY = y + height;
+        final int txMin = Math.floorDiv(x - destImage.getTileGridXOffset(), tileWidth);
+        final int tyMin = Math.floorDiv(y - destImage.getTileGridYOffset(), tileHeight);
+        final int txMax = Math.floorDiv(maxX - 1 - destImage.getTileGridXOffset(), tileWidth);
+        final int tyMax = Math.floorDiv(maxY - 1 - destImage.getTileGridYOffset(), tileHeight);
+        double[] tileBuffer = null;
+        for (int ty = tyMin; ty <= tyMax; ty++) {
+            for (int tx = txMin; tx <= txMax; tx++) {
+                final WritableRaster tile = destImage.getWritableTile(tx, ty);
+                try {
+                    final int minX = Math.max(x, tile.getMinX());
+                    final int minY = Math.max(y, tile.getMinY());
+                    final int w = Math.min(maxX, tile.getMinX() + tile.getWidth()) - minX;
+                    final int h = Math.min(maxY, tile.getMinY() + tile.getHeight()) - minY;
+                    if (w == width && h == height) {
+                        tile.setPixels(x, y, width, height, buffer);
+                        continue;
+                    }
+                    final int rowLength = w * fixedNumBand;
+                    if (tileBuffer == null || tileBuffer.length < h * rowLength) {
+                        tileBuffer = new double[h * rowLength];
+                    }
+                    int srcId = ((minY - y) * width + minX - x) * fixedNumBand;
+                    for (int destId = 0, end = h * rowLength; destId < end; destId += rowLength) {
+                        System.arraycopy(buffer, srcId, tileBuffer, destId, rowLength);
+                        srcId += width * fixedNumBand;
+                    }
+                    tile.setPixels(minX, minY, w, h, tileBuffer);
+                } finally {
+                    destImage.releaseWritableTile(tx, ty);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@link Spliterator} over the tiles of the iteration area, in row major order.
+     * Each element is the intersection of a tile with the iteration area.
+     */
+    private final class TileSpliterator implements Spliterator<Rectangle> {
+
+        /**
+         * Tile index of the first tile column and row.
+         */
+        private final int tileMinX, tileMinY;
+
+        /**
+         * Number of tiles on a row.
+         */
+        private final int numXTiles;
+
+        /**
+         * Current and end tile indices, counted from the first tile in row major order.
+         */
+        private int index, fence;
+
+        TileSpliterator(final int tileMinX, final int numXTiles, final int tileMinY,
+                final int index, final int fence) {
+            this.tileMinX  = tileMinX;
+            this.numXTiles = numXTiles;
+            this.tileMinY  = tileMinY;
+            this.index     = index;
+            this.fence     = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super Rectangle> action) {
+            if (index >= fence) return false;
+            action.accept(getTileArea(index++));
+            return true;
+        }
+
+        @Override
+        public Spliterator<Rectangle> trySplit() {
+            final int mid = (index + fence) >>> 1;
+            if (mid <= index) return null;
+            final Spliterator<Rectangle> prefix = new TileSpliterator(tileMinX, numXTiles, tileMinY, index, mid);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+
+        /**
+         * Returns the intersection of the tile at given index with the iteration area.
+         */
+        private Rectangle getTileArea(final int tileIndex) {
+            if (renderedImage == null) {
+                return new Rectangle(areaIterateMinX, areaIterateMinY,
+                        areaIterateMaxX - areaIterateMinX, areaIterateMaxY - areaIterateMinY);
+            }
+            final int tx = tileMinX + tileIndex % numXTiles;
+            final int ty = tileMinY + tileIndex / numXTiles;
+            final int minX = Math.max(areaIterateMinX, renderedImage.getTileGridXOffset() + tx * tileWidth);
+            final int minY = Math.max(areaIterateMinY, renderedImage.getTileGridYOffset() + ty * tileHeight);
+            final int maxX = Math.min(areaIterateMaxX, renderedImage.getTileGridXOffset() + (tx + 1) * tileWidth);
+            final int maxY = Math.min(areaIterateMaxY, renderedImage.getTileGridYOffset() + (ty + 1) * tileHeight);
+            return new Rectangle(minX, minY, maxX - minX, maxY - minY);
+        }
+    }
+
     /**
      * Check that the two input rasters are compatible for coupling in a {@link WritablePixelIterator}
      */
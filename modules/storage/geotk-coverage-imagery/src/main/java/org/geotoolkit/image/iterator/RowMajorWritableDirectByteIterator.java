@@ -81,6 +81,7 @@ class RowMajorWritableDirectByteIterator extends RowMajorDirectByteIterator{
         super(renderedImage, subArea);
         checkRenderedImage(renderedImage, writableRI, subArea);
         this.writableRenderedImage = writableRI;
+        this.destImage = writableRI;
     }
 
     /**
@@ -81,6 +81,7 @@ class RowMajorWritableDirectFloatIterator extends RowMajorDirectFloatIterator {
         super(renderedImage, subArea);
         checkRenderedImage(renderedImage, writableRI, subArea);
         this.writableRenderedImage = writableRI;
+        this.destImage = writableRI;
     }
 
     /**
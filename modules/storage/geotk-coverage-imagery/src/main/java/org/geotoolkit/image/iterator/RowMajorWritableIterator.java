@@ -79,6 +79,7 @@ class RowMajorWritableIterator extends RowMajorIterator {
         super(renderedImage, subArea);
         checkRenderedImage(renderedImage, writableRI, subArea);
         this.writableRenderedImage = writableRI;
+        this.destImage = writableRI;
     }
 
     /**
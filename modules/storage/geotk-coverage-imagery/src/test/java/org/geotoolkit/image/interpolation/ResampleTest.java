@@ -16,14 +16,19 @@
  */
 package org.geotoolkit.image.interpolation;
 
+import java.awt.Dimension;
 import java.awt.Transparency;
 import java.awt.color.ColorSpace;
 import java.awt.image.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import javax.imageio.ImageTypeSpecifier;
 import org.apache.sis.geometry.Envelope2D;
 import org.apache.sis.internal.referencing.j2d.AffineTransform2D;
 import org.apache.sis.referencing.operation.transform.MathTransforms;
 import org.apache.sis.geometry.Envelopes;
+import org.geotoolkit.image.io.large.WritableLargeRenderedImage;
 import org.geotoolkit.image.iterator.PixelIterator;
 import org.geotoolkit.image.iterator.PixelIteratorFactory;
 import org.apache.sis.referencing.CRS;
@@ -446,6 +451,87 @@ public class ResampleTest extends org.geotoolkit.test.TestBase {
         return interpolate1D(t0y, y, x0, x1);
     }
 
+    /**
+     * Test that destination image filled concurrently, by tiles or by rows,
+     * is identical to destination image filled in the calling thread,
+     * with an affine transform and with a non linear transform resolved by a {@link ResampleGrid}.
+     */
+    @Test
+    public void concurrentFillTest() throws FactoryException, TransformException, InterruptedException {
+        final ColorSpace cs = ColorSpace.getInstance(ColorSpace.CS_GRAY);
+        final ColorModel cm = new ComponentColorModel(cs, new int[]{Double.SIZE}, false, false, Transparency.OPAQUE, DataBuffer.TYPE_DOUBLE);
+        final SampleModel sm = cm.createCompatibleSampleModel(1, 1);
+        sourceImg = new ImageTypeSpecifier(cm, sm).createBufferedImage(64, 64);
+        final PixelIterator srcPix = PixelIteratorFactory.createDefaultWriteableIterator(sourceImg, sourceImg);
+        while (srcPix.next()) {
+            srcPix.setSampleDouble(srcPix.getX() * 64 + srcPix.getY() % 7);
+        }
+
+        //-- rotation and scale, from destination to source.
+        final MathTransform affineDestToSrc = MathTransforms.concatenate(pixelInCellCenter,
+                new AffineTransform2D(0.18, 0.05, -0.05, 0.18, 4, 2), pixelInCellCenter.inverse());
+
+        //-- geographic source projected into lambert destination, from destination to source.
+        final ProjectedCRS projCRS = (ProjectedCRS) CRS.forCode("EPSG:2154");
+        final MathTransform mt     = projCRS.getConversionFromBase().getMathTransform();
+        final Envelope srcEnv      = new Envelope2D(projCRS.getBaseCRS(), 45, -8, 5, 16);
+        final Envelope destEnv     = Envelopes.transform(mt, srcEnv);
+        final MathTransform srcGridToCrs = MathTransforms.concatenate(pixelInCellCenter,
+                new AffineTransform2D(srcEnv.getSpan(0) / 64, 0, 0, -srcEnv.getSpan(1) / 64, srcEnv.getMinimum(0), srcEnv.getMaximum(1)));
+        final MathTransform destGridToCrs = MathTransforms.concatenate(pixelInCellCenter,
+                new AffineTransform2D(destEnv.getSpan(0) / 300, 0, 0, -destEnv.getSpan(1) / 300, destEnv.getMinimum(0), destEnv.getMaximum(1)));
+        final MathTransform gridDestToSrc = MathTransforms.concatenate(srcGridToCrs, mt, destGridToCrs.inverse()).inverse();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (final MathTransform destToSrc : new MathTransform[]{affineDestToSrc, gridDestToSrc}) {
+                final boolean byGrid = destToSrc == gridDestToSrc;
+
+                //-- tiled destination, partitions by tiles.
+                final WritableRenderedImage expected = new WritableLargeRenderedImage(0, 0, 300, 300, new Dimension(100, 100), 0, 0, cm, sm);
+                final WritableRenderedImage tested   = new WritableLargeRenderedImage(0, 0, 300, 300, new Dimension(100, 100), 0, 0, cm, sm);
+                Resample resample = new Resample(destToSrc, expected, sourceImg, InterpolationCase.BILINEAR, ResampleBorderComportement.FILL_VALUE, new double[]{-1});
+                assertNull("concurrent fill should be opt-in", resample.getExecutor());
+                resample.fillImage();
+                assertEquals(byGrid, resample.getGrid() != null);
+                resample = new Resample(destToSrc, tested, sourceImg, InterpolationCase.BILINEAR, ResampleBorderComportement.FILL_VALUE, new double[]{-1});
+                resample.setExecutor(executor);
+                resample.fillImage();
+                assertEquals(byGrid, resample.getGrid() != null);
+                assertSameSamples(expected, tested);
+
+                //-- single tile destination, partitions by rows.
+                setTargetImage(300, 300, DataBuffer.TYPE_DOUBLE, 0);
+                final WritableRenderedImage expectedRows = targetImage;
+                setTargetImage(300, 300, DataBuffer.TYPE_DOUBLE, 0);
+                resample = new Resample(destToSrc, expectedRows, sourceImg, InterpolationCase.BICUBIC, ResampleBorderComportement.FILL_VALUE, new double[]{-1});
+                resample.fillImage();
+                resample = new Resample(destToSrc, targetImage, sourceImg, InterpolationCase.BICUBIC, ResampleBorderComportement.FILL_VALUE, new double[]{-1});
+                resample.setExecutor(executor);
+                resample.fillImage();
+                assertEquals(byGrid, resample.getGrid() != null);
+                assertSameSamples(expectedRows, targetImage);
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Compare all samples of two images.
+     */
+    private static void assertSameSamples(final RenderedImage expected, final RenderedImage tested) {
+        final PixelIterator expectedPix = PixelIteratorFactory.createRowMajorIterator(expected);
+        final PixelIterator testedPix   = PixelIteratorFactory.createRowMajorIterator(tested);
+        while (expectedPix.next()) {
+            assertTrue(testedPix.next());
+            assertEquals("at ("+expectedPix.getX()+", "+expectedPix.getY()+")",
+                    expectedPix.getSampleDouble(), testedPix.getSampleDouble(), 0.0);
+        }
+        assertFalse(testedPix.next());
+    }
+
     /**
      * Compute linear interpolation between 2 values.
      * {@inheritDoc }
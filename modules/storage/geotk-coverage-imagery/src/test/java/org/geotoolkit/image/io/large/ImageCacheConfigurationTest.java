@@ -85,4 +85,24 @@ public class ImageCacheConfigurationTest extends org.geotoolkit.test.TestBase {
         } catch (IllegalArgumentException e) {
         }
     }
+
+    @Test
+    public void swapMode() {
+        System.getProperties().remove(ImageCacheConfiguration.KEY_CACHE_SWAP_MODE);
+        Assert.assertEquals(ImageCacheConfiguration.SWAP_MODE_FILE, ImageCacheConfiguration.getCacheSwapMode());
+
+        ImageCacheConfiguration.setCacheSwapMode(ImageCacheConfiguration.SWAP_MODE_MAPPED);
+        Assert.assertEquals(ImageCacheConfiguration.SWAP_MODE_MAPPED, ImageCacheConfiguration.getCacheSwapMode());
+
+        //invalid values
+        System.getProperties().setProperty(ImageCacheConfiguration.KEY_CACHE_SWAP_MODE, "invalid");
+        Assert.assertEquals(ImageCacheConfiguration.SWAP_MODE_FILE, ImageCacheConfiguration.getCacheSwapMode());
+
+        try {
+            ImageCacheConfiguration.setCacheSwapMode("invalid");
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+        }
+        System.getProperties().remove(ImageCacheConfiguration.KEY_CACHE_SWAP_MODE);
+    }
 }
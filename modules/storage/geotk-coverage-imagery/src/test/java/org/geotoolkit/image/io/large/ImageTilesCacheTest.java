@@ -0,0 +1,75 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.image.io.large;
+
+import java.awt.image.BufferedImage;
+import java.lang.ref.ReferenceQueue;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test {@link ImageTilesCache} eviction policy.
+ *
+ * @author agent
+ */
+public class ImageTilesCacheTest extends org.geotoolkit.test.TestBase {
+
+    /**
+     * Least recently used tiles must be evicted first.
+     */
+    @Test
+    public void evictionOrderTest() throws Exception {
+        final BufferedImage image = new BufferedImage(16, 16, BufferedImage.TYPE_BYTE_GRAY);
+        //room for 3 tiles of 16*16 bytes
+        final LargeCache cache = new LargeCache(3 * 256, false, null);
+        final ImageTilesCache tiles = new ImageTilesCache(image, new ReferenceQueue<>(), cache);
+
+        tiles.add(0, 0, image.getRaster().createCompatibleWritableRaster());
+        tiles.add(1, 0, image.getRaster().createCompatibleWritableRaster());
+        tiles.add(2, 0, image.getRaster().createCompatibleWritableRaster());
+        Assert.assertEquals(3 * 256, tiles.getUsedCapacity());
+
+        //tile 0 becomes the most recently used
+        Assert.assertNotNull(tiles.getRaster(0, 0));
+
+        //evicts tile 1, then tile 2
+        tiles.add(3, 0, image.getRaster().createCompatibleWritableRaster());
+        tiles.add(4, 0, image.getRaster().createCompatibleWritableRaster());
+        Assert.assertEquals(3 * 256, tiles.getUsedCapacity());
+        Assert.assertEquals(2, cache.getEvictionCount());
+
+        Assert.assertNotNull(tiles.getRaster(0, 0));
+        Assert.assertNotNull(tiles.getRaster(3, 0));
+        Assert.assertNotNull(tiles.getRaster(4, 0));
+        assertEvicted(tiles, 1);
+        assertEvicted(tiles, 2);
+
+        //access order is now 0,3,4 : tile 0 is evicted next
+        tiles.add(5, 0, image.getRaster().createCompatibleWritableRaster());
+        assertEvicted(tiles, 0);
+        Assert.assertNotNull(tiles.getRaster(3, 0));
+    }
+
+    private static void assertEvicted(final ImageTilesCache tiles, final int tileX) throws Exception {
+        try {
+            tiles.getRaster(tileX, 0);
+            Assert.fail("Tile " + tileX + " should have been evicted");
+        } catch (IllegalArgumentException ex) {
+            //ok, not in memory and no swap
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.image.io.large;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test tiles round trip in {@link MappedTileSwap}.
+ *
+ * @author agent
+ */
+public class MappedTileSwapTest extends org.geotoolkit.test.TestBase {
+
+    @Test
+    public void writeReadTest() throws Exception {
+        final BufferedImage image = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+        final MappedTileSwap swap = new MappedTileSwap(image, true);
+        try {
+            Assert.assertNull(swap.read(0, 0));
+
+            final WritableRaster raster = image.getRaster();
+            for (int y=0; y<64; y++) {
+                for (int x=0; x<64; x++) {
+                    raster.setSample(x, y, 0, x);
+                    raster.setSample(x, y, 1, y);
+                }
+            }
+            swap.write(0, 0, raster);
+
+            final Raster read = swap.read(0, 0);
+            Assert.assertNotNull(read);
+            Assert.assertEquals(DataBuffer.TYPE_INT, read.getDataBuffer().getDataType());
+            for (int y=0; y<64; y++) {
+                for (int x=0; x<64; x++) {
+                    Assert.assertEquals(x, read.getSample(x, y, 0));
+                    Assert.assertEquals(y, read.getSample(x, y, 1));
+                }
+            }
+
+            //removed slot must be reused
+            swap.remove(0, 0);
+            Assert.assertNull(swap.read(0, 0));
+            swap.write(0, 0, raster.createWritableChild(0, 0, 64, 64, 0, 0, null));
+            Assert.assertEquals(63, swap.read(0, 0).getSample(63, 0, 0));
+        } finally {
+            swap.clear();
+        }
+    }
+}
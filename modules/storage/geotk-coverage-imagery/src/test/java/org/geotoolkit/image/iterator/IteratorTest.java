@@ -20,6 +20,8 @@ import java.awt.Rectangle;
 import java.awt.image.Raster;
 import java.awt.image.RenderedImage;
 import java.awt.image.WritableRaster;
+import java.util.Spliterator;
+import java.util.stream.StreamSupport;
 import javax.media.jai.TiledImage;
 import org.junit.Assert;
 import static org.junit.Assert.assertTrue;
@@ -742,6 +744,44 @@ public abstract class IteratorTest extends org.geotoolkit.test.TestBase {
         assertTrue(compareTab());
     }
 
+    /**
+     * Test rows read by {@link PixelIterator#nextRow(double[])} and tiles areas
+     * given by {@link PixelIterator#tileSpliterator()} against image samples.
+     */
+    @Test
+    public void rowAndTileReadTest() {
+        final Rectangle rect = new Rectangle(3, -2, 40, 21);
+        minx = -5;
+        miny = 5;
+        width = 100;
+        height = 50;
+        tilesWidth = 10;
+        tilesHeight = 5;
+        setRenderedImgTest(minx, miny, width, height, tilesWidth, tilesHeight, 3, rect);
+        setPixelIterator(renderedImage, rect);
+
+        final Rectangle area = pixIterator.getBoundary(true);
+        final double[] row = new double[area.width * 3];
+        int y = area.y;
+        while (pixIterator.nextRow(row)) {
+            Assert.assertEquals(y, pixIterator.getRowY());
+            final Rectangle rowArea = new Rectangle(area.x, y, area.width, 1);
+            Assert.assertArrayEquals(renderedImage.getData(rowArea).getPixels(area.x, y, area.width, 1, (double[]) null), row, 0.0);
+            y++;
+        }
+        Assert.assertEquals(area.y + area.height, y);
+
+        final Spliterator<Rectangle> tiles = pixIterator.tileSpliterator();
+        Assert.assertEquals(5 * 3, tiles.estimateSize());
+        final long count = StreamSupport.stream(tiles, true).mapToLong((Rectangle tile) -> {
+            Assert.assertTrue(area.contains(tile));
+            Assert.assertArrayEquals(renderedImage.getData(tile).getPixels(tile.x, tile.y, tile.width, tile.height, (double[]) null),
+                    pixIterator.getPixels(tile, null), 0.0);
+            return tile.width * tile.height;
+        }).sum();
+        Assert.assertEquals(area.width * area.height, count);
+    }
+
     /**
      * Test catching exception with rectangle which don't intersect raster area.
      */
@@ -19,6 +19,7 @@ package org.geotoolkit.image.iterator;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.image.*;
+import java.util.Arrays;
 import javax.media.jai.RasterFactory;
 import javax.media.jai.TiledImage;
 import org.junit.Assert;
@@ -262,6 +263,35 @@ public abstract class WritableIteratorTest extends IteratorTest{
         while (pixIterator.next()) assertTrue(pixIterator.getSampleDouble() == 1);
     }
 
+    /**
+     * Test if rows written with {@link PixelIterator#writeRow(double[])} fill expected area.
+     */
+    @Test
+    public void rowWriteTest() {
+        final Rectangle rect = new Rectangle(-10, 12, 47, 30);
+        minx = -2;
+        miny = 4;
+        width = 100;
+        height = 50;
+        tilesWidth = 10;
+        tilesHeight = 5;
+        numBand = 3;
+        setRenderedImgTest(minx, miny, width, height, tilesWidth, tilesHeight, numBand, null);
+        setPixelIterator(renderedImage, rect);
+        final double[] row = new double[pixIterator.getBoundary(true).width * numBand];
+        while (pixIterator.nextRow(row)) {
+            Arrays.fill(row, -1);
+            pixIterator.writeRow(row);
+        }
+        fillGoodTabRef(minx, miny, width, height, tilesWidth, tilesHeight, numBand, rect);
+        setPixelIterator(renderedImage);
+        int comp = 0;
+        while (pixIterator.next()) {
+            setTabTestValue(comp++, pixIterator.getSampleDouble());
+        }
+        assertTrue(compareTab());
+    }
+
     /**
      * Test catching exception if rendered images haven't got same criterion.
      */
@@ -21,7 +21,10 @@ import java.awt.image.*;
 import java.io.IOException;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import javax.imageio.ImageReader;
@@ -57,6 +60,7 @@ import org.geotoolkit.referencing.ReferencingUtilities;
 import org.geotoolkit.image.BufferedImages;
 import org.geotoolkit.image.internal.ImageUtilities;
 import org.geotoolkit.image.io.large.AbstractLargeRenderedImage;
+import org.geotoolkit.internal.Threads;
 import org.opengis.coverage.SampleDimension;
 import org.opengis.coverage.grid.GridCoverage;
 import org.opengis.coverage.grid.GridGeometry;
@@ -157,6 +161,22 @@ public class PyramidCoverageBuilder {
      */
     private boolean reuseTiles = false;
 
+    /**
+     * Kernel used to build a level from the previous one, {@code null} to resample
+     * each level from the source coverage.
+     */
+    private OverviewKernel cascade = null;
+
+    /**
+     * Flag to keep tiles already written by a previous interrupted build.
+     */
+    private boolean resume = false;
+
+    /**
+     * Number of threads used to build cascaded levels.
+     */
+    private int nbThreads = Runtime.getRuntime().availableProcessors();
+
     /**
      * Global number of tiles which will be generate.
      * @see PyramidCoverageBuilder#initListener(java.util.Map, org.geotoolkit.process.ProcessListener)
@@ -245,6 +265,63 @@ public class PyramidCoverageBuilder {
         this.reuseTiles        = reuseTiles;
     }
 
+    /**
+     * <p>Enable cascaded overview generation.<br/><br/>
+     *
+     * When enabled, levels are built from the finest to the coarsest scale and
+     * each level which scale is twice the scale of the previous level is computed
+     * from the previous level tiles, reducing each 2 x 2 pixel block to one pixel
+     * with the given kernel. Other levels are resampled from the source coverage.</p>
+     *
+     * @param kernel reduction kernel, {@code null} to resample all levels from the source coverage.
+     */
+    public void setCascade(OverviewKernel kernel) {
+        this.cascade = kernel;
+    }
+
+    /**
+     * @return reduction kernel used for cascaded levels, {@code null} if cascade is disabled.
+     */
+    public OverviewKernel getCascade() {
+        return cascade;
+    }
+
+    /**
+     * Resume an interrupted build : tiles already present in the output mosaics
+     * are kept as they are, only missing tiles are computed.
+     *
+     * @param resume {@code true} to compute only missing tiles.
+     */
+    public void setResume(boolean resume) {
+        this.resume = resume;
+    }
+
+    /**
+     * @return {@code true} if only missing tiles are computed.
+     */
+    public boolean isResume() {
+        return resume;
+    }
+
+    /**
+     * Define the number of threads used to compute cascaded levels.
+     * The number of tiles waiting to be computed is bounded by this number,
+     * which limits memory use on large pyramids.
+     *
+     * @param nbThreads number of threads, strictly positive.
+     */
+    public void setThreadCount(int nbThreads) {
+        ArgumentChecks.ensureStrictlyPositive("nbThreads", nbThreads);
+        this.nbThreads = nbThreads;
+    }
+
+    /**
+     * @return number of threads used to compute cascaded levels.
+     */
+    public int getThreadCount() {
+        return nbThreads;
+    }
+
     /**
      * <p>Effectuate resampling, re-projection, tile cutting and insertion in datastore on {@link GridCoverage}.<br/><br/>
      *
@@ -434,21 +511,11 @@ public class PyramidCoverageBuilder {
         Arrays.fill(res, 1.0);
         //----------------------------------------------------------------------
 
-        //-- one mosaic for each level scale
-        for (double pixelScal : scaleLevel) {
-            res[widthAxis] = res[heightAxis] = pixelScal;
-            //-- output image size
-            readParam.setResolution(res);
-            assert Utilities.equalsIgnoreMetadata(readParam.getCoordinateReferenceSystem(), ggg.getCoordinateReferenceSystem())
-                    : "PyramidCoverageBuilder : requested CRS into GridCoverageReadParam must be same than Coverage";
-
-            final GridCoverage2D gridCoverage2D = (GridCoverage2D) coverageReader.read(imageIndex, readParam);//-- normaly with a gridGeometry2D --> gridCoverage2D
-            final RenderedImage baseImg = gridCoverage2D.getRenderedImage();
-            final MathTransform2D coverageCRS_to_grid = gridCoverage2D.getGridGeometry().getGridToCRS2D(PixelOrientation.CENTER).inverse();
-            final MathTransform destCrs_to_covGrid     = MathTransforms.concatenate(destCrs_to_coverageCRS, coverageCRS_to_grid).inverse();
-
-            final double[] fill    = getFillValue(gridCoverage2D, fillValue);
+        GridMosaic previous = null;
+        double[] fill = null;
 
+        //-- one mosaic for each level scale
+        for (double pixelScal : sortScales(scaleLevel)) {
             final double imgWidth  = envWidth  / pixelScal;
             final double imgHeight = envHeight / pixelScal;
             final double sx        = envWidth  / imgWidth;
@@ -471,6 +538,26 @@ public class PyramidCoverageBuilder {
             final GridMosaic mosaic = getOrCreateMosaic(pm, pyramidID, new Dimension(nbrTileX, nbrTileY), tileSize, upperLeft, pixelScal);
             final String mosaicId   = mosaic.getId();
 
+            if (isCascaded(previous, mosaic)) {
+                //-- build this level from the previous level tiles, source is not read
+                reduce(pm, pyramidID, previous, mosaic, new Rectangle(startTileX, startTileY, endTileX-startTileX, endTileY-startTileY), fill, processListener);
+                previous = mosaic;
+                continue;
+            }
+
+            res[widthAxis] = res[heightAxis] = pixelScal;
+            //-- output image size
+            readParam.setResolution(res);
+            assert Utilities.equalsIgnoreMetadata(readParam.getCoordinateReferenceSystem(), ggg.getCoordinateReferenceSystem())
+                    : "PyramidCoverageBuilder : requested CRS into GridCoverageReadParam must be same than Coverage";
+
+            final GridCoverage2D gridCoverage2D = (GridCoverage2D) coverageReader.read(imageIndex, readParam);//-- normaly with a gridGeometry2D --> gridCoverage2D
+            final RenderedImage baseImg = gridCoverage2D.getRenderedImage();
+            final MathTransform2D coverageCRS_to_grid = gridCoverage2D.getGridGeometry().getGridToCRS2D(PixelOrientation.CENTER).inverse();
+            final MathTransform destCrs_to_covGrid     = MathTransforms.concatenate(destCrs_to_coverageCRS, coverageCRS_to_grid).inverse();
+
+            fill = getFillValue(gridCoverage2D, fillValue);
+
             final AtomicInteger inc = new AtomicInteger();
             final RenderedImage img = new BuildImage(
                     startTileX*tileWidth,
@@ -484,7 +571,7 @@ public class PyramidCoverageBuilder {
                     );
 
             try{
-                pm.writeTiles(pyramidID, mosaicId, img, false, null);
+                pm.writeTiles(pyramidID, mosaicId, img, resume, null);
             }catch(ImagingOpException ex){
                 if(processListener!=null){
                     float prc = (float)niemeTile / globalTileNumber;
@@ -492,7 +579,7 @@ public class PyramidCoverageBuilder {
                 }
                 throw new DataStoreException(ex.getMessage(), ex);
             }
-
+            previous = mosaic;
         }
     }
 
@@ -761,8 +848,10 @@ public class PyramidCoverageBuilder {
         final GeneralEnvelope covEnvInDestCRS = Envelopes.transform(destCrs_to_coverageCRS.inverse(), covEnv);
         final GeneralEnvelope clipEnv   = ReferencingUtilities.intersectEnvelopes(covEnvInDestCRS, envDest2D);
 
+        GridMosaic previous = null;
+
         //one mosaic for each level scale
-        for (double pixelScal : scaleLevel) {
+        for (double pixelScal : sortScales(scaleLevel)) {
             //output image size
 
             final double imgWidth  = envWidth / pixelScal;
@@ -787,6 +876,13 @@ public class PyramidCoverageBuilder {
             final GridMosaic mosaic = getOrCreateMosaic(pm, pyramidID, new Dimension(nbrTileX, nbrTileY), tileSize, upperLeft, pixelScal);
             final String mosaicId   = mosaic.getId();
 
+            if (isCascaded(previous, mosaic)) {
+                //-- build this level from the previous level tiles
+                reduce(pm, pyramidID, previous, mosaic, new Rectangle(startTileX, startTileY, endTileX-startTileX, endTileY-startTileY), fill, processListener);
+                previous = mosaic;
+                continue;
+            }
+
             final AtomicInteger inc = new AtomicInteger();
             final AtomicReference<Exception> exps = new AtomicReference<>();
 
@@ -802,7 +898,7 @@ public class PyramidCoverageBuilder {
                     );
 
             try{
-                pm.writeTiles(pyramidID, mosaicId, img, false, null);
+                pm.writeTiles(pyramidID, mosaicId, img, resume, null);
             }catch(ImagingOpException ex){
                 if(processListener!=null){
                     float prc = (float)niemeTile / globalTileNumber;
@@ -810,10 +906,176 @@ public class PyramidCoverageBuilder {
                 }
                 throw new DataStoreException(ex.getMessage(), ex);
             }
+            previous = mosaic;
+        }
+    }
 
-            pm.writeTiles(pyramidID, mosaicId, img, false, null);
+    /**
+     * Returns scales in building order, finest scale first when cascade is enabled.
+     */
+    private double[] sortScales(double[] scaleLevel) {
+        if (cascade == null) return scaleLevel;
+        final double[] scales = scaleLevel.clone();
+        Arrays.sort(scales);
+        return scales;
+    }
+
+    /**
+     * Check if mosaic can be computed from the previous level tiles :
+     * scale must be twice the previous scale, with same upper left corner and tile size.
+     *
+     * @param previous previous built mosaic, may be null.
+     * @param mosaic mosaic to build.
+     * @return true if mosaic can be computed by reduction of the previous mosaic.
+     */
+    private boolean isCascaded(GridMosaic previous, GridMosaic mosaic) {
+        if (cascade == null || previous == null) return false;
+        final double ratio = mosaic.getScale() / previous.getScale();
+        return Math.abs(ratio - 2.0) < 1E-9
+            && tileWidth % 2 == 0 && tileHeight % 2 == 0
+            && previous.getTileSize().equals(mosaic.getTileSize())
+            && Arrays.equals(previous.getUpperLeftCorner().getCoordinate(), mosaic.getUpperLeftCorner().getCoordinate());
+    }
 
+    /**
+     * Compute mosaic tiles from the previous level tiles.
+     * Each output tile is built from the 2 x 2 child tiles of the previous level,
+     * output tiles without any existing child tile are not written.
+     * Tiles are computed in parallel, the number of pending tiles is bounded.
+     *
+     * @param pm {@code PyramidalModel} in which insert pyramid tiles.
+     * @param pyramidID ID in which pyramid is inserted.
+     * @param source previous level mosaic.
+     * @param target mosaic to build.
+     * @param area tile range to build in target mosaic.
+     * @param fill fill values used where no child data exist.
+     * @param processListener {@link ProcessListener} to send state informations (may be null).
+     * @throws DataStoreException if reading or writing a tile failed.
+     */
+    private void reduce(final PyramidalCoverageReference pm, final String pyramidID, final GridMosaic source,
+            final GridMosaic target, Rectangle area, final double[] fill, final ProcessListener processListener)
+            throws DataStoreException {
+
+        area = area.intersection(new Rectangle(target.getGridSize()));
+        if (area.isEmpty()) return;
+
+        final String mosaicId = target.getId();
+        final Dimension sourceGrid = source.getGridSize();
+        final AtomicInteger inc = new AtomicInteger();
+        final AtomicReference<Exception> error = new AtomicReference<>();
+
+        //-- bounded queue, when full the caller thread computes the tile itself
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(nbThreads, nbThreads, 1, TimeUnit.MINUTES,
+                new ArrayBlockingQueue<Runnable>(nbThreads), Threads.createThreadFactory("PyramidBuilder #"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            for (int ty = area.y, endY = area.y + area.height; ty < endY && error.get() == null; ty++) {
+                for (int tx = area.x, endX = area.x + area.width; tx < endX && error.get() == null; tx++) {
+                    if (resume && !target.isMissing(tx, ty)) {
+                        fireProgress(processListener, inc);
+                        continue;
+                    }
+                    final int col = tx;
+                    final int row = ty;
+                    executor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (error.get() != null) return;
+                            try {
+                                final RenderedImage tile = reduceTile(source, sourceGrid, col, row, fill);
+                                if (tile != null) {
+                                    pm.writeTile(pyramidID, mosaicId, col, row, tile);
+                                }
+                                fireProgress(processListener, inc);
+                            } catch (Exception ex) {
+                                error.compareAndSet(null, ex);
+                            }
+                        }
+                    });
+                }
+            }
+        } finally {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                error.compareAndSet(null, ex);
+            }
+        }
+
+        final Exception ex = error.get();
+        if (ex != null) {
+            if (processListener != null) {
+                float prc = (float)niemeTile / globalTileNumber;
+                processListener.failed(new ProcessEvent(fakeProcess, "reducing tiles", prc, ex));
+            }
+            if (ex instanceof DataStoreException) throw (DataStoreException) ex;
+            throw new DataStoreException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Compute one tile from the 2 x 2 child tiles of the previous level.
+     *
+     * @return reduced tile or null if none of the child tiles exist.
+     */
+    private RenderedImage reduceTile(GridMosaic source, Dimension sourceGrid, int tx, int ty, double[] fill)
+            throws DataStoreException, IOException {
+
+        final Raster[] children = new Raster[4];
+        RenderedImage model = null;
+        for (int i = 0; i < 4; i++) {
+            final int cx = 2 * tx + (i & 1);
+            final int cy = 2 * ty + (i >> 1);
+            if (cx < sourceGrid.width && cy < sourceGrid.height && !source.isMissing(cx, cy)) {
+                final TileReference tile = source.getTile(cx, cy, null);
+                if (tile == null) continue;
+                final RenderedImage img = getRenderedImageFromTile(tile);
+                children[i] = (img instanceof BufferedImage) ? ((BufferedImage) img).getRaster() : img.getData();
+                if (model == null) model = img;
+            }
+        }
+        if (model == null) return null;
+
+        final BufferedImage destImg = BufferedImages.createImage(tileWidth, tileHeight, model);
+        final WritableRaster dest = destImg.getRaster();
+        final int nbBand = dest.getNumBands();
+        final int halfWidth  = tileWidth  / 2;
+        final int halfHeight = tileHeight / 2;
+        final boolean integral = dest.getDataBuffer().getDataType() != DataBuffer.TYPE_FLOAT
+                              && dest.getDataBuffer().getDataType() != DataBuffer.TYPE_DOUBLE;
+
+        //-- averaging palette indices has no meaning
+        final OverviewKernel kernel = (cascade == OverviewKernel.AVERAGE && destImg.getColorModel() instanceof IndexColorModel)
+                ? OverviewKernel.MODE : cascade;
+
+        final double[] fillPixel = new double[nbBand];
+        for (int b = 0; b < nbBand; b++) {
+            fillPixel[b] = (fill != null && b < fill.length) ? fill[b] : 0.0;
+        }
+
+        final double[] block = new double[4 * nbBand];
+        final double[] pixel = new double[nbBand];
+        for (int i = 0; i < 4; i++) {
+            final Raster child = children[i];
+            final int offX = (i & 1) * halfWidth;
+            final int offY = (i >> 1) * halfHeight;
+            for (int y = 0; y < halfHeight; y++) {
+                for (int x = 0; x < halfWidth; x++) {
+                    if (child == null || 2 * x + 1 >= child.getWidth() || 2 * y + 1 >= child.getHeight()) {
+                        dest.setPixel(offX + x, offY + y, fillPixel);
+                        continue;
+                    }
+                    child.getPixels(child.getMinX() + 2 * x, child.getMinY() + 2 * y, 2, 2, block);
+                    kernel.reduce(block, nbBand, fillPixel, pixel);
+                    if (integral) {
+                        for (int b = 0; b < nbBand; b++) pixel[b] = Math.round(pixel[b]);
+                    }
+                    dest.setPixel(offX + x, offY + y, pixel);
+                }
+            }
         }
+        return destImg;
     }
 
     /**
@@ -844,6 +1106,37 @@ public class PyramidCoverageBuilder {
         return sourceImg;
     }
 
+    /**
+     * Extract RenderedImage from TileReference, without copy if the tile input is already an image.
+     *
+     * @param tile TileReference, should not be null.
+     * @return tile image.
+     * @throws IOException if error on reading image from tile ImageReader.
+     */
+    private RenderedImage getRenderedImageFromTile(TileReference tile) throws IOException {
+        if (tile.getInput() instanceof RenderedImage) {
+            return (RenderedImage) tile.getInput();
+        }
+        return getImageFromTile(tile);
+    }
+
+    /**
+     * Send a progress event, one every percent.
+     *
+     * @param processListener {@link ProcessListener} to send state informations (may be null).
+     * @param lastProc last sent percentage.
+     */
+    private synchronized void fireProgress(ProcessListener processListener, AtomicInteger lastProc) {
+        if (processListener != null) {
+            niemeTile++;
+            //do not send too much events, one every percent
+            int prc = (niemeTile * 100 / globalTileNumber);
+            if(prc!= lastProc.getAndSet(prc)){
+                processListener.progressing(new ProcessEvent(fakeProcess, (niemeTile) + "/" + globalTileNumber, prc));
+            }
+        }
+    }
+
     private static double[] getFillValue(GridCoverage2D gridCoverage2D, double[] fillValue){
         //-- calculate fill values
         if (fillValue == null) {
@@ -1063,6 +1356,110 @@ public class PyramidCoverageBuilder {
         return true;
     }
 
+    /**
+     * Kernels used to reduce a 2 x 2 pixel block of a pyramid level into one pixel
+     * of the next level when levels are built by cascade.
+     * Pixels which all samples are equal to the fill values are ignored,
+     * a block without any valid pixel gives the fill values.
+     *
+     * @see PyramidCoverageBuilder#setCascade(org.geotoolkit.storage.coverage.PyramidCoverageBuilder.OverviewKernel)
+     */
+    public static enum OverviewKernel {
+        /**
+         * Upper left valid pixel of the block, for any kind of data.
+         */
+        NEAREST {
+            @Override
+            void reduce(double[] block, int nbBand, double[] fill, double[] result) {
+                for (int p = 0; p < 4; p++) {
+                    if (!isFill(block, p, nbBand, fill)) {
+                        System.arraycopy(block, p * nbBand, result, 0, nbBand);
+                        return;
+                    }
+                }
+                System.arraycopy(fill, 0, result, 0, nbBand);
+            }
+        },
+        /**
+         * Mean of the valid pixels, for continuous data like imagery or elevation.
+         */
+        AVERAGE {
+            @Override
+            void reduce(double[] block, int nbBand, double[] fill, double[] result) {
+                Arrays.fill(result, 0, nbBand, 0.0);
+                int count = 0;
+                for (int p = 0; p < 4; p++) {
+                    if (!isFill(block, p, nbBand, fill)) {
+                        for (int b = 0; b < nbBand; b++) {
+                            result[b] += block[p * nbBand + b];
+                        }
+                        count++;
+                    }
+                }
+                if (count == 0) {
+                    System.arraycopy(fill, 0, result, 0, nbBand);
+                } else {
+                    for (int b = 0; b < nbBand; b++) {
+                        result[b] /= count;
+                    }
+                }
+            }
+        },
+        /**
+         * Most frequent valid pixel, for classified data.
+         * When several pixels have the same frequency the first one is used.
+         */
+        MODE {
+            @Override
+            void reduce(double[] block, int nbBand, double[] fill, double[] result) {
+                int best = -1;
+                int bestCount = 0;
+                for (int p = 0; p < 4; p++) {
+                    if (isFill(block, p, nbBand, fill)) continue;
+                    int count = 1;
+                    for (int o = p + 1; o < 4; o++) {
+                        if (samePixel(block, p, o, nbBand)) count++;
+                    }
+                    if (count > bestCount) {
+                        best = p;
+                        bestCount = count;
+                    }
+                }
+                if (best < 0) {
+                    System.arraycopy(fill, 0, result, 0, nbBand);
+                } else {
+                    System.arraycopy(block, best * nbBand, result, 0, nbBand);
+                }
+            }
+        };
+
+        /**
+         * Reduce a 2 x 2 block of pixels.
+         *
+         * @param block samples of the 4 pixels, in row order, bands interleaved.
+         * @param nbBand number of bands.
+         * @param fill fill values.
+         * @param result reduced pixel.
+         */
+        abstract void reduce(double[] block, int nbBand, double[] fill, double[] result);
+
+        private static boolean isFill(double[] block, int p, int nbBand, double[] fill) {
+            for (int b = 0; b < nbBand; b++) {
+                if (Double.doubleToLongBits(block[p * nbBand + b]) != Double.doubleToLongBits(fill[b])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean samePixel(double[] block, int p1, int p2, int nbBand) {
+            for (int b = 0; b < nbBand; b++) {
+                if (block[p1 * nbBand + b] != block[p2 * nbBand + b]) return false;
+            }
+            return true;
+        }
+    }
+
     /**
      * Inner class that extend {@link AbstractLargeRenderedImage#getTile(int, int)}
      * that resample on the fly mosaic tiles.
@@ -1103,6 +1500,13 @@ public class PyramidCoverageBuilder {
             boolean noFill = false;
 
             try{
+                if (resume && !mosaic.isMissing(cTX, cTY)) {
+                    //-- tile written by a previous build, not resampled again
+                    fireProgress(processListener, lastProc);
+                    final RenderedImage existing = getRenderedImageFromTile(mosaic.getTile(cTX, cTY, null));
+                    return (existing instanceof BufferedImage) ? ((BufferedImage) existing).getRaster() : existing.getData();
+                }
+
                 WritableRenderedImage destImg;
                 if (reuseTiles && !mosaic.isMissing(cTX, cTY)) {
                     TileReference tile = mosaic.getTile(cTX, cTY, null);
@@ -1114,14 +1518,7 @@ public class PyramidCoverageBuilder {
                     ImageUtilities.fill(destImg, fill[0]);
                 }
 
-                if (processListener != null) {
-                    niemeTile++;
-                    //do not send too much events, one every percent
-                    int prc = (niemeTile * 100 / globalTileNumber);
-                    if(prc!= lastProc.getAndSet(prc)){
-                        processListener.progressing(new ProcessEvent(fakeProcess, (niemeTile) + "/" + globalTileNumber, prc));
-                    }
-                }
+                fireProgress(processListener, lastProc);
 
                 //-- dest grid --> dest envelope coordinate --> base envelope --> base grid
                 //-- concatene : dest grid_to_crs, dest_crs_to_coverageCRS, coverageCRS_to_grid coverage
@@ -286,6 +286,70 @@ public class PyramidCoverageBuilderTest extends org.geotoolkit.test.TestBase {
         }
 
     }
+    /**
+     * Test cascaded levels built from previous level tiles, then resuming
+     * a complete build which must not modify existing tiles.
+     */
+    @Test
+    public void testCascade () throws DataStoreException, TransformException, IOException, FactoryException {
+        GeneralEnvelope env1 = new GeneralEnvelope(EPSG4326);
+        env1.setRange(0, 0, +20);
+        env1.setRange(1, 0, +20);
+        AffineTransform af = new AffineTransform(0.1, 0, 0, -0.1, 0, 20);
+        CoverageReference ref1 = createCoverage("cov1", env1, af, createImage(200, 200, Color.RED));
+        CoverageReference ref2 = createCoverage("cov2", env1, af, createImage(200, 200, Color.BLUE));
+
+        final MPCoverageStore mpCovStore = new MPCoverageStore();
+        final PyramidCoverageBuilder pcb = new PyramidCoverageBuilder(new Dimension(100, 100), InterpolationCase.NEIGHBOR, 2);
+        pcb.setCascade(PyramidCoverageBuilder.OverviewKernel.AVERAGE);
+        pcb.setThreadCount(2);
+        final double[] fillValue = new double[4];
+
+        final double[] scales = new double[]{0.4, 0.1, 0.2};
+        final Map<Envelope, double[]> map = new HashMap<>();
+        map.put(env1, scales);
+
+        final GenericName name = NamesExt.create("memory_store_test");
+        pcb.create(ref1, mpCovStore, name, map, fillValue, null, null);
+
+        //resume with another coverage, all tiles exist and must stay red
+        pcb.setResume(true);
+        pcb.create(ref2, mpCovStore, name, map, fillValue, null, null);
+
+        final AbstractPyramidalCoverageReference outRef = (AbstractPyramidalCoverageReference) mpCovStore.getCoverageReference(name);
+        final Pyramid pyramid = outRef.getPyramidSet().getPyramids().iterator().next();
+        assertEquals(3, pyramid.getMosaics().size());
+
+        GridMosaic mosaic = getMosaic(pyramid, 0.1);
+        assertEquals(new Dimension(2,2), mosaic.getGridSize());
+        for (int y = 0; y < 2; y++) {
+            for (int x = 0; x < 2; x++) {
+                testImage((RenderedImage) mosaic.getTile(x, y, null).getInput(), 100, 100, Color.RED);
+            }
+        }
+
+        mosaic = getMosaic(pyramid, 0.2);
+        assertEquals(new Dimension(1,1), mosaic.getGridSize());
+        testImage((RenderedImage) mosaic.getTile(0, 0, null).getInput(), 100, 100, Color.RED);
+
+        //only the upper left quarter contains data
+        mosaic = getMosaic(pyramid, 0.4);
+        assertEquals(new Dimension(1,1), mosaic.getGridSize());
+        final BufferedImage expectedImage = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D g = expectedImage.createGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, 50, 50);
+        testImage((RenderedImage) mosaic.getTile(0, 0, null).getInput(), expectedImage, 0);
+    }
+
+    private static GridMosaic getMosaic(Pyramid pyramid, double scale) {
+        for (GridMosaic mosaic : pyramid.getMosaics()) {
+            if (Math.abs(mosaic.getScale() - scale) < 1E-9) return mosaic;
+        }
+        fail("No mosaic at scale "+scale);
+        return null;
+    }
+
     private CoverageReference createCoverage(String name, GeneralEnvelope env, AffineTransform gridToCRS, RenderedImage image) throws DataStoreException {
         final GridCoverageBuilder gcb = new GridCoverageBuilder();
         gcb.setName(name);
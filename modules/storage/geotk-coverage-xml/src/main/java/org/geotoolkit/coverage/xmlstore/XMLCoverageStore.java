@@ -57,6 +57,7 @@ public class XMLCoverageStore extends AbstractCoverageStore {
     private final DataNode rootNode = new DefaultDataNode();
 
     final boolean cacheTileState;
+    final boolean packedTiles;
 
     @Deprecated
     public XMLCoverageStore(File root) throws URISyntaxException, IOException {
@@ -90,6 +91,7 @@ public class XMLCoverageStore extends AbstractCoverageStore {
         root = Paths.get(rootPath);
         Boolean tmpCacheState = Parameters.value(XMLCoverageStoreFactory.CACHE_TILE_STATE, params);
         cacheTileState = (tmpCacheState == null)? true : tmpCacheState;
+        packedTiles = Boolean.TRUE.equals(Parameters.value(XMLCoverageStoreFactory.PACKED_TILES, params));
         explore();
     }
 
@@ -158,6 +160,18 @@ public class XMLCoverageStore extends AbstractCoverageStore {
 
     @Override
     public void close() {
+        for (DataNode node : rootNode.getChildren()) {
+            if (!(node instanceof XMLCoverageReference)) continue;
+            try {
+                for (XMLPyramid pyramid : ((XMLCoverageReference) node).getPyramidSet().pyramids()) {
+                    for (XMLMosaic mosaic : pyramid.mosaics()) {
+                        mosaic.close();
+                    }
+                }
+            } catch (IOException ex) {
+                getLogger().log(Level.WARNING, ex.getMessage(), ex);
+            }
+        }
     }
 
     @Override
@@ -42,6 +42,8 @@ import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
 import javax.imageio.ImageWriter;
 import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
 import javax.swing.ProgressMonitor;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
@@ -122,8 +124,16 @@ public class XMLMosaic implements GridMosaic {
     @XmlElement
     Boolean cacheTileState;
 
+    /**
+     * True if tiles are stored in a pack file instead of one file per tile.
+     */
+    @XmlElement
+    Boolean packed;
+
     Path folder;
 
+    private XMLTilePack pack;
+
     final ReentrantReadWriteLock bitsetLock = new ReentrantReadWriteLock();
 
     /**
@@ -164,6 +174,29 @@ public class XMLMosaic implements GridMosaic {
             }
         }
 
+        // Tile layout is determined at mosaic creation, existing mosaics with tile files keep them.
+        if (packed == null) {
+            boolean storePacked;
+            try {
+                storePacked = ((XMLCoverageStore) pyramid.getPyramidSet().getRef().getStore()).packedTiles;
+            } catch (Exception e) {
+                storePacked = false;
+            }
+            packed = storePacked && (existMask == null || existMask.isEmpty()) && !Files.isDirectory(getFolder());
+        }
+
+        if (packed) {
+            // Tile states are stored in the pack index.
+            bitsetLock.writeLock().lock();
+            try {
+                tileExist = null;
+                tileEmpty = null;
+            } finally {
+                bitsetLock.writeLock().unlock();
+            }
+            return;
+        }
+
         bitsetLock.writeLock().lock();
         try {
             if (existMask != null && !existMask.isEmpty()) {
@@ -291,6 +324,23 @@ public class XMLMosaic implements GridMosaic {
         return emptyTileEncoded;
     }
 
+    private synchronized XMLTilePack getPack() {
+        if (pack == null) {
+            pack = new XMLTilePack(getFolder(), gridWidth, gridHeight);
+        }
+        return pack;
+    }
+
+    /**
+     * Release pack files if tiles are packed.
+     */
+    synchronized void close() throws IOException {
+        if (pack != null) {
+            pack.close();
+            pack = null;
+        }
+    }
+
     private static String updateCompletionString(BitSet input) throws IOException {
         return Base64.encodeBytes(input.toByteArray(), Base64.GZIP);
     }
@@ -404,6 +454,15 @@ public class XMLMosaic implements GridMosaic {
 
     @Override
     public boolean isMissing(int col, int row) throws PointOutsideCoverageException {
+        if (packed) {
+            checkPosition(col, row);
+            try {
+                return !getPack().exists(col, row);
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, e.getLocalizedMessage(), e);
+                return true;
+            }
+        }
         bitsetLock.readLock().lock();
         try {
             if (tileExist == null || tileExist.isEmpty()) {
@@ -455,7 +514,16 @@ public class XMLMosaic implements GridMosaic {
     public TileReference getTile(int col, int row, Map hints) throws DataStoreException {
 
         final TileReference tile;
-        if (isEmpty(col, row)) {
+        if (packed) {
+            checkPosition(col, row);
+            try {
+                final byte[] data = getPack().read(col, row);
+                tile = new DefaultTileReference(getPyramid().getPyramidSet().getReaderSpi(),
+                        (data == null) ? null : new MemoryCacheImageInputStream(new ByteArrayInputStream(data)), 0, new Point(col, row));
+            } catch (IOException ex) {
+                throw new DataStoreException(ex);
+            }
+        } else if (isEmpty(col, row)) {
             try {
                 tile = new DefaultTileReference(getPyramid().getPyramidSet().getReaderSpi(),
                         ImageIO.createImageInputStream(new ByteArrayInputStream(createEmptyTile())), 0, new Point(col, row));
@@ -475,6 +543,14 @@ public class XMLMosaic implements GridMosaic {
      */
     @Override
     public Rectangle getDataArea() {
+        if (packed) {
+            try {
+                return getPack().getDataArea();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Data area compute failed "+e.getLocalizedMessage(), e);
+                return null;
+            }
+        }
         final Path folder = getFolder();
 
         try (DirectoryStream<Path> tileStream = Files.newDirectoryStream(folder)) {
@@ -596,6 +672,17 @@ public class XMLMosaic implements GridMosaic {
 
     void createTile(final int col, final int row, final RenderedImage image, final ImageWriter writer) throws DataStoreException {
 
+        if (packed) {
+            checkPosition(col, row);
+            try {
+                final byte[] data = isEmpty(image.getData()) ? createEmptyTile() : encode(image, writer);
+                getPack().write(col, row, data);
+            } catch (IOException ex) {
+                throw new DataStoreException(ex.getMessage(), ex);
+            }
+            return;
+        }
+
         try {
             checkMosaicFolderExist();
         } catch (IOException e) {
@@ -699,8 +786,11 @@ public class XMLMosaic implements GridMosaic {
                 final int tileIndex = getTileIndex(tx, ty);
                 checkPosition(tx, ty);
 
-                Path tilePath = getTileFile(tx, ty);
-                if (tilePath == null) tilePath = getDefaultTileFile(tx, ty);
+                Path tilePath = null;
+                if (!packed) {
+                    tilePath = getTileFile(tx, ty);
+                    if (tilePath == null) tilePath = getDefaultTileFile(tx, ty);
+                }
 
                 Future fut = TILEWRITEREXECUTOR.submit(new TileWriter(tilePath, image, tx, ty, tileIndex, image.getColorModel(), getPyramid().getPyramidSet().getFormatName(), monitor));
                 futurs.add(fut);
@@ -718,6 +808,28 @@ public class XMLMosaic implements GridMosaic {
 
     }
 
+    /**
+     * Encode image in the pyramid format.
+     *
+     * @param image image or {@link IIOImage} to encode
+     * @param writer image writer to use
+     * @return encoded image
+     */
+    private static byte[] encode(Object image, ImageWriter writer) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = new MemoryCacheImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            if (image instanceof IIOImage) {
+                writer.write((IIOImage) image);
+            } else {
+                writer.write((RenderedImage) image);
+            }
+        } finally {
+            writer.setOutput(null);
+        }
+        return bytes.toByteArray();
+    }
+
     private void checkPosition(int col, int row) throws PointOutsideCoverageException {
         // TODO : Negative indices are allowed ?
         if(col < 0 || row < 0 || col >= getGridSize().width || row >=getGridSize().height){
@@ -834,8 +946,11 @@ public class XMLMosaic implements GridMosaic {
         private final String formatName;
         private final ProgressMonitor monitor;
 
+        /**
+         * @param tilePath tile file, null if tiles are packed
+         */
         public TileWriter(Path tilePath, RenderedImage image, int idx, int idy, int tileIndex, ColorModel cm, String formatName, ProgressMonitor monitor) {
-            ArgumentChecks.ensureNonNull("file", tilePath);
+            if (!packed) ArgumentChecks.ensureNonNull("file", tilePath);
             ArgumentChecks.ensureNonNull("image", image);
             this.tilePath = tilePath;
             this.image = image;
@@ -862,6 +977,19 @@ public class XMLMosaic implements GridMosaic {
                 final int offsetY = image.getMinTileY();
                 Raster raster = image.getTile(offsetX+idx, offsetY+idy);
 
+                if (packed) {
+                    final byte[] data;
+                    if (raster == null || isEmpty(raster)) {
+                        data = createEmptyTile();
+                    } else {
+                        writer = ImageIO.getImageWritersByFormatName(formatName).next();
+                        data = encode(writer.canWriteRasters() ? new IIOImage(raster, null, null)
+                                : new BufferedImage(cm, (WritableRaster) raster, cm.isAlphaPremultiplied(), null), writer);
+                    }
+                    getPack().write(idx, idy, data);
+                    return;
+                }
+
                 //check if image is empty
                 if (tileEmpty != null && (raster == null || isEmpty(raster))) {
 
@@ -0,0 +1,461 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.coverage.xmlstore;
+
+import java.awt.Rectangle;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Tiles of a mosaic stored in a single append-only pack file.
+ * <p>
+ * The pack file contains a header followed by tile records, each record is
+ * the encoded tile length, the SHA-1 digest of the encoded tile and the encoded tile bytes.
+ * Records are never modified or removed, a rewritten tile is appended at the end of the file.
+ * </p>
+ * <p>
+ * The index file contains a header followed by one long per tile, in row order,
+ * which is the position of the tile record in the pack file or 0 if the tile is missing.
+ * The index is memory mapped by blocks and each tile position is written in one operation
+ * after its record, readers never see a partially written tile, even while a writer appends.
+ * Reads do not take any lock.
+ * </p>
+ * Identical tiles, typically empty tiles, are stored once : a tile with the same digest
+ * as an existing record points to this record.
+ *
+ * @author agent
+ */
+final class XMLTilePack implements Closeable {
+
+    static final String PACK_FILE = "tiles.pack";
+    static final String INDEX_FILE = "tiles.idx";
+
+    private static final int PACK_MAGIC = 0x47545450;  // "GTTP"
+    private static final int INDEX_MAGIC = 0x47545449; // "GTTI"
+    private static final int VERSION = 1;
+    private static final int PACK_HEADER_SIZE = 8;
+    private static final int INDEX_HEADER_SIZE = 16;
+    private static final int DIGEST_SIZE = 20;
+    private static final int RECORD_HEADER_SIZE = 4 + DIGEST_SIZE;
+    /** Number of tile positions in a mapped block of the index. */
+    private static final int BLOCK_SIZE = 1 << 20;
+
+    private final Path folder;
+    private final int gridWidth;
+    private final int gridHeight;
+    private final long nbTiles;
+
+    /**
+     * Opened files, null until first access. Readers only read this field
+     * and the mapped index blocks, they never take a lock.
+     */
+    private volatile PackFiles files;
+    private final Object writeLock = new Object();
+
+    /**
+     * Records by digest, created at first write, guarded by writeLock.
+     */
+    private Map<Digest,Long> records;
+
+    /**
+     * @param folder mosaic folder
+     * @param gridWidth mosaic grid width
+     * @param gridHeight mosaic grid height
+     */
+    XMLTilePack(Path folder, int gridWidth, int gridHeight) {
+        this.folder = folder;
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.nbTiles = (long) gridWidth * gridHeight;
+    }
+
+    /**
+     * Open files if not opened yet.
+     *
+     * @param write true to open files for writing, they are created if needed
+     * @return opened files, null if the files do not exist and write is false
+     */
+    private PackFiles open(boolean write) throws IOException {
+        PackFiles files = this.files;
+        if (files == null) {
+            synchronized (this) {
+                files = this.files;
+                if (files == null) {
+                    files = openFiles(write);
+                    if (files == null) return null;
+                    this.files = files;
+                }
+            }
+        }
+        if (write && !files.writable) {
+            throw new IOException("Tile pack is read only " + folder.resolve(PACK_FILE));
+        }
+        return files;
+    }
+
+    /**
+     * Existing files are opened for writing if possible, so the files are never
+     * reopened while readers are using them.
+     */
+    private PackFiles openFiles(boolean write) throws IOException {
+        final Path indexPath = folder.resolve(INDEX_FILE);
+        final Path packPath = folder.resolve(PACK_FILE);
+        final boolean exist = Files.isRegularFile(indexPath);
+        if (!write && !exist) return null;
+
+        final PackFiles files;
+        if (write || (Files.isWritable(indexPath) && Files.isWritable(packPath))) {
+            Files.createDirectories(folder);
+            files = new PackFiles(
+                    FileChannel.open(packPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE),
+                    FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE),
+                    true);
+        } else {
+            files = new PackFiles(
+                    FileChannel.open(packPath, StandardOpenOption.READ),
+                    FileChannel.open(indexPath, StandardOpenOption.READ),
+                    false);
+        }
+        try {
+            if (files.writable && (files.pack.size() == 0 || files.index.size() == 0)) {
+                writeHeaders(files);
+            }
+            checkHeaders(files);
+        } catch (IOException ex) {
+            files.close();
+            throw ex;
+        }
+        return files;
+    }
+
+    private void writeHeaders(PackFiles files) throws IOException {
+        try (FileLock lock = files.pack.lock()) {
+            if (files.pack.size() == 0) {
+                final ByteBuffer header = ByteBuffer.allocate(PACK_HEADER_SIZE);
+                header.putInt(PACK_MAGIC).putInt(VERSION).flip();
+                writeFully(files.pack, header, 0);
+            }
+            if (files.index.size() == 0) {
+                final ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER_SIZE);
+                header.putInt(INDEX_MAGIC).putInt(VERSION).putInt(gridWidth).putInt(gridHeight).flip();
+                writeFully(files.index, header, 0);
+            }
+        }
+    }
+
+    private void checkHeaders(PackFiles files) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER_SIZE);
+        readFully(files.index, header, 0);
+        header.flip();
+        if (header.getInt() != INDEX_MAGIC || header.getInt() != VERSION
+                || header.getInt() != gridWidth || header.getInt() != gridHeight) {
+            throw new IOException("Invalid tile index file " + folder.resolve(INDEX_FILE));
+        }
+        header.clear().limit(PACK_HEADER_SIZE);
+        readFully(files.pack, header, 0);
+        header.flip();
+        if (header.getInt() != PACK_MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Invalid tile pack file " + folder.resolve(PACK_FILE));
+        }
+    }
+
+    /**
+     * Returns the mapped index block, mapping it if needed.
+     * Two threads may map the same block at the same time, only one mapping is kept.
+     *
+     * @return mapped block, null if the read only index does not contain this block yet
+     */
+    private MappedByteBuffer getBlock(PackFiles files, int blockIndex) throws IOException {
+        MappedByteBuffer block = files.blocks.get(blockIndex);
+        if (block == null) {
+            final long first = (long) blockIndex * BLOCK_SIZE;
+            final long size = Math.min(BLOCK_SIZE, nbTiles - first) * 8;
+            final long position = INDEX_HEADER_SIZE + first * 8;
+            if (files.writable) {
+                block = files.index.map(FileChannel.MapMode.READ_WRITE, position, size);
+            } else {
+                if (files.index.size() < position + size) {
+                    //index not extended up to this block by the writer yet, all tiles are missing
+                    return null;
+                }
+                block = files.index.map(FileChannel.MapMode.READ_ONLY, position, size);
+            }
+            if (!files.blocks.compareAndSet(blockIndex, null, block)) {
+                block = files.blocks.get(blockIndex);
+            }
+        }
+        return block;
+    }
+
+    private long getTileIndex(int col, int row) {
+        return (long) row * gridWidth + col;
+    }
+
+    /**
+     * @return position of tile record in the pack file, 0 if tile is missing
+     */
+    private long getPosition(PackFiles files, int col, int row) throws IOException {
+        if (files == null) return 0;
+        final long tile = getTileIndex(col, row);
+        final MappedByteBuffer block = getBlock(files, (int) (tile / BLOCK_SIZE));
+        if (block == null) return 0;
+        return block.getLong((int) (tile % BLOCK_SIZE) * 8);
+    }
+
+    /**
+     * @param col tile column
+     * @param row tile row
+     * @return true if tile exist in the pack
+     */
+    boolean exists(int col, int row) throws IOException {
+        return getPosition(open(false), col, row) != 0;
+    }
+
+    /**
+     * Read encoded tile.
+     *
+     * @param col tile column
+     * @param row tile row
+     * @return encoded tile or null if tile is missing
+     */
+    byte[] read(int col, int row) throws IOException {
+        final PackFiles files = open(false);
+        final long position = getPosition(files, col, row);
+        if (position == 0) return null;
+
+        final ByteBuffer header = ByteBuffer.allocate(4);
+        readFully(files.pack, header, position);
+        header.flip();
+        final byte[] data = new byte[header.getInt()];
+        readFully(files.pack, ByteBuffer.wrap(data), position + RECORD_HEADER_SIZE);
+        return data;
+    }
+
+    /**
+     * Write encoded tile, identical tiles are stored only once.
+     *
+     * @param col tile column
+     * @param row tile row
+     * @param data encoded tile
+     */
+    void write(int col, int row, byte[] data) throws IOException {
+        final PackFiles files = open(true);
+        final Digest digest = Digest.of(data);
+        final long tile = getTileIndex(col, row);
+        final MappedByteBuffer block = getBlock(files, (int) (tile / BLOCK_SIZE));
+
+        //lock the pack, other threads and processes may append at the same time
+        synchronized (writeLock) {
+            try (FileLock lock = files.pack.lock()) {
+                final Map<Digest,Long> records = getRecords(files);
+                Long position = records.get(digest);
+                if (position == null) {
+                    position = files.pack.size();
+                    final ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + data.length);
+                    buffer.putInt(data.length).put(digest.bytes).put(data).flip();
+                    writeFully(files.pack, buffer, position);
+                    records.put(digest, position);
+                }
+                //update the index once the record is complete
+                block.putLong((int) (tile % BLOCK_SIZE) * 8, position);
+            }
+        }
+    }
+
+    /**
+     * Returns known records, the pack file is scanned on first call.
+     * Must be called with writeLock held.
+     */
+    private Map<Digest,Long> getRecords(PackFiles files) throws IOException {
+        if (records == null) {
+            records = new HashMap<>();
+            final ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+            final long size = files.pack.size();
+            long position = PACK_HEADER_SIZE;
+            while (position + RECORD_HEADER_SIZE <= size) {
+                header.clear();
+                readFully(files.pack, header, position);
+                header.flip();
+                final int length = header.getInt();
+                final byte[] digest = new byte[DIGEST_SIZE];
+                header.get(digest);
+                final long end = position + RECORD_HEADER_SIZE + length;
+                if (length < 0 || end > size) {
+                    //incomplete record, writer has been interrupted
+                    break;
+                }
+                records.put(new Digest(digest), position);
+                position = end;
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Scan the index blocks for existing tiles.
+     *
+     * @return area containing all existing tiles, null if the pack is empty
+     */
+    Rectangle getDataArea() throws IOException {
+        final PackFiles files = open(false);
+        if (files == null) return null;
+        int minX = gridWidth;
+        int maxX = -1;
+        int minY = -1;
+        int maxY = -1;
+        for (int b = 0, n = files.blocks.length(); b < n; b++) {
+            final MappedByteBuffer block = getBlock(files, b);
+            if (block == null) continue;
+            final long first = (long) b * BLOCK_SIZE;
+            final int size = block.capacity() / 8;
+            for (int i = 0; i < size; i++) {
+                if (block.getLong(i * 8) != 0) {
+                    final long tile = first + i;
+                    final int col = (int) (tile % gridWidth);
+                    final int row = (int) (tile / gridWidth);
+                    //tiles are in row order
+                    if (minY < 0) minY = row;
+                    maxY = row;
+                    if (col < minX) minX = col;
+                    if (col > maxX) maxX = col;
+                }
+            }
+        }
+        if (maxX < 0) return null;
+        return new Rectangle(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    /**
+     * Flush pending index and pack changes to the disk.
+     */
+    void flush() throws IOException {
+        final PackFiles files = this.files;
+        if (files != null) files.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        final PackFiles files = this.files;
+        if (files == null) return;
+        this.files = null;
+        synchronized (writeLock) {
+            records = null;
+        }
+        try {
+            files.flush();
+        } finally {
+            files.close();
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            final int nb = channel.read(buffer, position);
+            if (nb < 0) throw new EOFException("Unexpected end of tile pack file");
+            position += nb;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Opened pack and index files with the mapped index blocks.
+     */
+    private final class PackFiles implements Closeable {
+
+        private final FileChannel pack;
+        private final FileChannel index;
+        private final boolean writable;
+        private final AtomicReferenceArray<MappedByteBuffer> blocks;
+
+        private PackFiles(FileChannel pack, FileChannel index, boolean writable) {
+            this.pack = pack;
+            this.index = index;
+            this.writable = writable;
+            this.blocks = new AtomicReferenceArray<>((int) ((nbTiles + BLOCK_SIZE - 1) / BLOCK_SIZE));
+        }
+
+        private void flush() throws IOException {
+            if (!writable) return;
+            for (int i = 0, n = blocks.length(); i < n; i++) {
+                final MappedByteBuffer block = blocks.get(i);
+                if (block != null) block.force();
+            }
+            pack.force(false);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                index.close();
+            } finally {
+                pack.close();
+            }
+        }
+    }
+
+    /**
+     * SHA-1 digest of an encoded tile.
+     */
+    private static final class Digest {
+
+        private final byte[] bytes;
+        private final int hash;
+
+        private Digest(byte[] bytes) {
+            this.bytes = bytes;
+            this.hash = Arrays.hashCode(bytes);
+        }
+
+        private static Digest of(byte[] data) throws IOException {
+            try {
+                return new Digest(MessageDigest.getInstance("SHA-1").digest(data));
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IOException(ex.getMessage(), ex);
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Digest && Arrays.equals(bytes, ((Digest) obj).bytes);
+        }
+    }
+
+}
@@ -0,0 +1,177 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.coverage.xmlstore;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.sis.geometry.GeneralDirectPosition;
+import org.apache.sis.referencing.CRS;
+import org.geotoolkit.coverage.AbstractPyramidalModelStoreTest;
+import org.geotoolkit.nio.IOUtilities;
+import org.geotoolkit.parameter.Parameters;
+import org.geotoolkit.storage.coverage.CoverageStore;
+import org.geotoolkit.storage.coverage.Pyramid;
+import org.geotoolkit.storage.coverage.PyramidalCoverageReference;
+import org.geotoolkit.util.NamesExt;
+import org.junit.AfterClass;
+import org.junit.Test;
+import org.opengis.parameter.ParameterValueGroup;
+
+import static org.junit.Assert.*;
+
+/**
+ * Same tests as {@link XMLCoverageStoreTest} with tiles stored in pack files.
+ *
+ * @author agent
+ */
+public class XMLCoverageStorePackedTest extends AbstractPyramidalModelStoreTest {
+
+    private static final List<Path> folders = new ArrayList<>();
+
+    @Override
+    protected CoverageStore createStore() throws Exception{
+        final Path tempFolder = Files.createTempDirectory("mosaic");
+        folders.add(tempFolder);
+
+        final ParameterValueGroup params = XMLCoverageStoreFactory.PARAMETERS_DESCRIPTOR.createValue();
+        Parameters.getOrCreate(XMLCoverageStoreFactory.PATH, params).setValue(tempFolder.toUri());
+        Parameters.getOrCreate(XMLCoverageStoreFactory.PACKED_TILES, params).setValue(true);
+        return new XMLCoverageStore(params);
+    }
+
+    /**
+     * Tiles must be written in the pack file, identical tiles only once.
+     */
+    @Test
+    public void packFilesTest() throws Exception {
+        final CoverageStore store = createStore();
+        try {
+            final PyramidalCoverageReference ref = (PyramidalCoverageReference) store.create(NamesExt.create("packed"));
+            final Pyramid pyramid = ref.createPyramid(CRS.forCode("EPSG:3395"));
+            final GeneralDirectPosition corner = new GeneralDirectPosition(pyramid.getCoordinateReferenceSystem());
+            corner.setOrdinate(0, 100);
+            corner.setOrdinate(1, 20);
+            final XMLMosaic mosaic = (XMLMosaic) ref.createMosaic(pyramid.getId(),
+                    new Dimension(3, 2), new Dimension(10, 10), corner, 1);
+            final Path pack = mosaic.getFolder().resolve(XMLTilePack.PACK_FILE);
+
+            ref.writeTile(pyramid.getId(), mosaic.getId(), 0, 0, createImage(Color.RED));
+            //no file per tile
+            final Set<String> names;
+            try (Stream<Path> stream = Files.list(mosaic.getFolder())) {
+                names = stream.map((Path p) -> p.getFileName().toString()).collect(Collectors.toSet());
+            }
+            assertEquals(new HashSet<>(Arrays.asList(XMLTilePack.PACK_FILE, XMLTilePack.INDEX_FILE)), names);
+
+            //identical tile points to the existing record
+            final long size = Files.size(pack);
+            ref.writeTile(pyramid.getId(), mosaic.getId(), 2, 1, createImage(Color.RED));
+            assertEquals(size, Files.size(pack));
+            ref.writeTile(pyramid.getId(), mosaic.getId(), 1, 0, createImage(Color.GREEN));
+            assertTrue(Files.size(pack) > size);
+
+            assertFalse(mosaic.isMissing(0, 0));
+            assertFalse(mosaic.isMissing(1, 0));
+            assertFalse(mosaic.isMissing(2, 1));
+            assertTrue(mosaic.isMissing(0, 1));
+            assertEquals(new Rectangle(0, 0, 2, 1), mosaic.getDataArea());
+        } finally {
+            store.close();
+        }
+    }
+
+    /**
+     * A reader must see complete tiles appended by a writer while it reads.
+     */
+    @Test
+    public void concurrentReadTest() throws Exception {
+        final Path folder = Files.createTempDirectory("mosaic");
+        folders.add(folder);
+        final int width = 20;
+        final int height = 10;
+
+        try (XMLTilePack writer = new XMLTilePack(folder, width, height);
+             XMLTilePack reader = new XMLTilePack(folder, width, height)) {
+            writer.write(0, 0, tile(0));
+            assertArrayEquals(tile(0), reader.read(0, 0));
+            assertTrue(reader.exists(0, 0));
+            assertFalse(reader.exists(1, 0));
+
+            final AtomicReference<Throwable> error = new AtomicReference<>();
+            final Thread thread = new Thread(() -> {
+                try {
+                    for (int i = 1; i < width * height; i++) {
+                        writer.write(i % width, i / width, tile(i));
+                    }
+                } catch (Throwable ex) {
+                    error.set(ex);
+                }
+            });
+            thread.start();
+
+            //tiles are read in write order, while the writer appends
+            final long deadline = System.currentTimeMillis() + 30000;
+            for (int i = 1; i < width * height; i++) {
+                byte[] data;
+                while ((data = reader.read(i % width, i / width)) == null) {
+                    assertNull(error.get());
+                    assertTrue("Tile " + i + " not visible", System.currentTimeMillis() < deadline);
+                    Thread.yield();
+                }
+                assertArrayEquals(tile(i), data);
+            }
+            thread.join();
+            assertNull(error.get());
+            assertEquals(new Rectangle(0, 0, width - 1, height - 1), reader.getDataArea());
+        }
+    }
+
+    private static byte[] tile(int i) {
+        return new byte[]{(byte) i, (byte) (i >> 8), 1, 2, 3};
+    }
+
+    private static BufferedImage createImage(final Color color) {
+        final BufferedImage buffer = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D g = buffer.createGraphics();
+        g.setColor(color);
+        g.fillRect(0, 0, 10, 10);
+        g.dispose();
+        return buffer;
+    }
+
+    @AfterClass
+    public static void cleanup(){
+        for(Path f : folders){
+            IOUtilities.deleteSilently(f);
+        }
+        folders.clear();
+    }
+
+}
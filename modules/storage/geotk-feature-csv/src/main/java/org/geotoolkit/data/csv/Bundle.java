@@ -58,15 +58,25 @@ public final class Bundle extends IndexedResourceBundle {
          */
         public static final short datastoreTitle = 4;
 
+        /**
+         * Index
+         */
+        public static final short paramIndexAlias = 5;
+
+        /**
+         * Use a row offset index file
+         */
+        public static final short paramIndexRemarks = 6;
+
         /**
          * Separator
          */
-        public static final short paramSeparatorAlias = 5;
+        public static final short paramSeparatorAlias = 7;
 
         /**
          * Value separator
          */
-        public static final short paramSeparatorRemarks = 6;
+        public static final short paramSeparatorRemarks = 8;
     }
 
     /**
@@ -16,15 +16,20 @@
  */
 package org.geotoolkit.data.csv;
 
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.GeometryFactory;
 import com.vividsolutions.jts.io.ParseException;
 import com.vividsolutions.jts.io.WKTReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.logging.Level;
 import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.util.ObjectConverter;
 import org.apache.sis.util.ObjectConverters;
+import org.apache.sis.util.UnconvertibleObjectException;
 import org.geotoolkit.data.FeatureReader;
 import org.geotoolkit.data.FeatureStoreRuntimeException;
 import org.opengis.feature.AttributeType;
@@ -44,15 +49,30 @@ class CSVFeatureReader implements FeatureReader {
     protected final CSVFeatureStore store;
     protected final ReadWriteLock fileLock;
     protected final FeatureType featureType;
-    protected final WKTReader reader = new WKTReader();
-    protected final Scanner scanner;
+    protected final GeometryFactory geometryFactory = new GeometryFactory();
+    protected final WKTReader reader = new WKTReader(geometryFactory);
+    protected final CSVRecordReader records;
     protected final AttributeType[] atts;
+    protected final String[] attNames;
+    /** Value parser of each attribute, null for geometries. */
+    protected final ObjectConverter<? super String, ?>[] converters;
     protected final Feature reuse;
     protected Feature current = null;
     protected int inc = 0;
+    private final int endRow;
 
     CSVFeatureReader(CSVFeatureStore store, final FeatureType featureType, final boolean reuseFeature, final ReadWriteLock fileLock) throws DataStoreException {
+        this(store, featureType, reuseFeature, fileLock, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param startRow index of the first record to read
+     * @param endRow index after the last record to read
+     */
+    CSVFeatureReader(CSVFeatureStore store, final FeatureType featureType, final boolean reuseFeature,
+            final ReadWriteLock fileLock, final int startRow, final int endRow) throws DataStoreException {
         this.store = store;
+        this.endRow = endRow;
         this.fileLock = fileLock;
         this.featureType = featureType;
         this.fileLock.readLock().lock();
@@ -61,13 +81,34 @@ class CSVFeatureReader implements FeatureReader {
         } else {
             reuse = null;
         }
+        CSVRecordReader records = null;
         try {
-            scanner = new Scanner(store.getFile());
-            //skip the type line
-            scanner.nextLine();
+            records = new CSVRecordReader(store.getFile(), store.getSeparator());
+            int row = 0;
+            final CSVRowIndex index = (startRow > 0) ? store.getIndex() : null;
+            if (index != null) {
+                records.seek(index.getIndexedPosition(startRow));
+                row = (int) index.getIndexedRow(startRow);
+            } else {
+                //skip the type line
+                records.skip();
+            }
+            while (row < startRow && records.skip()) {
+                row++;
+            }
+            inc = row;
         } catch (IOException ex) {
+            fileLock.readLock().unlock();
+            if (records != null) {
+                try {
+                    records.close();
+                } catch (IOException e) {
+                    ex.addSuppressed(e);
+                }
+            }
             throw new DataStoreException(ex);
         }
+        this.records = records;
 
         final List<AttributeType> atts = new ArrayList<>();
         for (PropertyType pt : featureType.getProperties(true)) {
@@ -76,6 +117,20 @@ class CSVFeatureReader implements FeatureReader {
         }
 
         this.atts = atts.toArray(new AttributeType[0]);
+        this.attNames = new String[this.atts.length];
+        this.converters = new ObjectConverter[this.atts.length];
+        for (int i = 0; i < this.atts.length; i++) {
+            final AttributeType<?> att = this.atts[i];
+            attNames[i] = att.getName().toString();
+            if (!AttributeConvention.isGeometryAttribute(att)) {
+                try {
+                    converters[i] = ObjectConverters.find(String.class, att.getValueClass());
+                } catch (UnconvertibleObjectException ex) {
+                    //will fail when reading a value
+                    store.getLogger().log(Level.FINE, ex.getMessage(), ex);
+                }
+            }
+        }
     }
 
     @Override
@@ -104,44 +159,98 @@ class CSVFeatureReader implements FeatureReader {
         if (current != null) {
             return;
         }
-        final String line = CSVUtils.getNextLine(scanner);
-        if (line != null) {
-            final List<String> fields = CSVUtils.toStringList(scanner, line, store.getSeparator());
-            current = null;
+        if (inc >= endRow) {
+            return;
+        }
+        final boolean found;
+        try {
+            found = records.next();
+        } catch (IOException ex) {
+            throw new FeatureStoreRuntimeException(ex);
+        }
+        if (found) {
             if (reuse == null) {
                 current = CSVUtils.defaultFeature(featureType, Integer.toString(inc++));
             } else {
                 reuse.setPropertyValue(AttributeConvention.IDENTIFIER_PROPERTY.toString(), Integer.toString(inc++));
                 current = reuse;
             }
-            final int fieldSize = fields.size();
+            final int fieldSize = records.getValueCount();
             for (int i = 0, n = atts.length; i < n; i++) {
-                final AttributeType<?> att = atts[i];
                 final Object value;
                 if (i >= fieldSize) {
                     value = null;
-                } else if (AttributeConvention.isGeometryAttribute(att)) {
-                    if (fields.get(i).trim().isEmpty()) {
-                        value = null;
+                } else {
+                    final String text = records.getValue(i);
+                    final ObjectConverter<? super String, ?> converter = converters[i];
+                    if (converter != null) {
+                        value = converter.apply(text);
+                    } else if (AttributeConvention.isGeometryAttribute(atts[i])) {
+                        value = parseGeometry(text);
                     } else {
+                        value = ObjectConverters.convert(text, atts[i].getValueClass());
+                    }
+                }
+                current.setPropertyValue(attNames[i], value);
+            }
+        }
+    }
+
+    /**
+     * Parse a WKT geometry, points are decoded directly,
+     * other geometries are delegated to the WKT reader.
+     */
+    private Geometry parseGeometry(final String text) throws FeatureStoreRuntimeException {
+        if (text.trim().isEmpty()) {
+            return null;
+        }
+        if (text.startsWith("POINT")) {
+            final int open = text.indexOf('(');
+            final int close = text.lastIndexOf(')');
+            if (open > 0 && close == text.length() - 1 && text.substring(5, open).trim().isEmpty()) {
+                final String coords = text.substring(open + 1, close).trim();
+                int space = coords.indexOf(' ');
+                if (space < 0) space = coords.indexOf('\t');
+                if (space > 0) {
+                    final String x = coords.substring(0, space);
+                    final String y = coords.substring(space + 1).trim();
+                    if (isNumber(x) && isNumber(y)) {
                         try {
-                            value = reader.read(fields.get(i));
-                        } catch (ParseException ex) {
-                            throw new FeatureStoreRuntimeException(ex);
+                            return geometryFactory.createPoint(new Coordinate(
+                                    Double.parseDouble(x), Double.parseDouble(y)));
+                        } catch (NumberFormatException ex) {
+                            //let the WKT reader report the error
                         }
                     }
-                } else {
-                    value = ObjectConverters.convert(fields.get(i), att.getValueClass());
                 }
-                current.setPropertyValue(att.getName().toString(), value);
             }
         }
+        try {
+            return reader.read(text);
+        } catch (ParseException ex) {
+            throw new FeatureStoreRuntimeException(ex);
+        }
+    }
+
+    private static boolean isNumber(final String text) {
+        if (text.isEmpty()) return false;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            final char c = text.charAt(i);
+            if ((c < '0' || c > '9') && c != '.' && c != '-' && c != '+' && c != 'e' && c != 'E') {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public void close() {
         fileLock.readLock().unlock();
-        scanner.close();
+        try {
+            records.close();
+        } catch (IOException ex) {
+            throw new FeatureStoreRuntimeException(ex);
+        }
     }
 
     @Override
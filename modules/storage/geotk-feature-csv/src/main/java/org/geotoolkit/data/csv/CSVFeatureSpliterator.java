@@ -0,0 +1,120 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.data.csv;
+
+import java.util.ArrayDeque;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import org.apache.sis.storage.DataStoreException;
+import org.geotoolkit.data.FeatureReader;
+import org.geotoolkit.data.FeatureStoreRuntimeException;
+import org.geotoolkit.data.query.Query;
+import org.opengis.feature.Feature;
+import org.opengis.filter.Filter;
+
+/**
+ * Spliterator over a range of CSV records.
+ * Splits and batches are aligned on the records indexed by {@link CSVRowIndex},
+ * so each batch reader seeks directly to its first record. A reader is opened
+ * for each batch and closed once the batch is read, so a spliterator which is
+ * not fully consumed does not hold the file.
+ *
+ * @author agent
+ */
+final class CSVFeatureSpliterator implements Spliterator<Feature> {
+
+    /**
+     * Number of records read with the same reader, also the minimum size of a split.
+     */
+    private static final int BATCH_SIZE = CSVRowIndex.STEP;
+
+    private final CSVFeatureStore store;
+    private final Query query;
+    private final boolean sized;
+    private final int end;
+    /**
+     * Features of the last batch not yet consumed, they are before index.
+     */
+    private final ArrayDeque<Feature> batch = new ArrayDeque<>();
+    private int index;
+
+    /**
+     * @param store source store
+     * @param query features query, without sort, start index or max features
+     * @param start index of the first record, multiple of {@link CSVRowIndex#STEP}
+     * @param end index after the last record
+     */
+    CSVFeatureSpliterator(final CSVFeatureStore store, final Query query, final int start, final int end) {
+        this.store = store;
+        this.query = query;
+        this.sized = query.getFilter() == null || query.getFilter() == Filter.INCLUDE;
+        this.index = start;
+        this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super Feature> action) {
+        //filtered batches may be empty
+        while (batch.isEmpty()) {
+            if (index >= end) {
+                return false;
+            }
+            readBatch();
+        }
+        action.accept(batch.poll());
+        return true;
+    }
+
+    /**
+     * Read the features of the next records batch.
+     */
+    private void readBatch() {
+        final int batchEnd = (int) Math.min(end, (long) index + BATCH_SIZE);
+        try (FeatureReader reader = store.getFeatureReader(query, index, batchEnd)) {
+            while (reader.hasNext()) {
+                batch.add(reader.next());
+            }
+        } catch (DataStoreException ex) {
+            throw new FeatureStoreRuntimeException(ex);
+        }
+        index = batchEnd;
+    }
+
+    @Override
+    public Spliterator<Feature> trySplit() {
+        //features of the current batch must stay before the prefix
+        if (!batch.isEmpty() || end - index < 2 * BATCH_SIZE) {
+            return null;
+        }
+        //keep split start aligned on indexed records
+        final int mid = index + ((end - index) / 2 / BATCH_SIZE) * BATCH_SIZE;
+        final Spliterator<Feature> prefix = new CSVFeatureSpliterator(store, query, index, mid);
+        index = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return batch.size() + end - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return sized ? (ORDERED | NONNULL | SIZED | SUBSIZED) : (ORDERED | NONNULL);
+    }
+
+}
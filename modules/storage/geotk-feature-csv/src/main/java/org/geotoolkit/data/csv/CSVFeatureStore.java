@@ -19,7 +19,6 @@ package org.geotoolkit.data.csv;
 
 import com.vividsolutions.jts.geom.Geometry;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.Writer;
@@ -38,6 +37,7 @@ import org.apache.sis.feature.FeatureExt;
 import org.geotoolkit.data.*;
 import org.geotoolkit.data.query.DefaultQueryCapabilities;
 import org.geotoolkit.data.query.Query;
+import org.geotoolkit.data.query.QueryBuilder;
 import org.geotoolkit.data.query.QueryCapabilities;
 import org.geotoolkit.data.query.QueryUtilities;
 import org.geotoolkit.factory.FactoryFinder;
@@ -94,6 +94,9 @@ public class CSVFeatureStore extends AbstractFeatureStore implements DataFileSto
     private final Path file;
     private String name;
     private final char separator;
+    private final boolean useIndex;
+    private final Object indexLock = new Object();
+    private CSVRowIndex index;
 
     private FeatureType featureType;
 
@@ -138,6 +141,7 @@ public class CSVFeatureStore extends AbstractFeatureStore implements DataFileSto
             throw new DataStoreException(ex);
         }
         this.separator = (Character) params.parameter(CSVFeatureStoreFactory.SEPARATOR.getName().toString()).getValue();
+        this.useIndex = Boolean.TRUE.equals(params.parameter(CSVFeatureStoreFactory.INDEX.getName().toString()).getValue());
 
         final String path = uri.toString();
         final int slash = Math.max(0, path.lastIndexOf('/') + 1);
@@ -179,6 +183,48 @@ public class CSVFeatureStore extends AbstractFeatureStore implements DataFileSto
         return (Path) IOUtilities.changeExtension(file, "wcsv");
     }
 
+    Path getIndexFile() {
+        return IOUtilities.changeExtension(file, "cidx");
+    }
+
+    /**
+     * Returns the row offset index, creating or updating the index file if needed.
+     * Caller must hold the file read lock.
+     *
+     * @return index, or null if index is not used
+     */
+    CSVRowIndex getIndex() throws IOException {
+        if (!useIndex) return null;
+        synchronized (indexLock) {
+            if (index != null && index.isValid(file)) {
+                return index;
+            }
+            final Path indexFile = getIndexFile();
+            index = CSVRowIndex.read(indexFile);
+            if (index == null || !index.isValid(file)) {
+                index = CSVRowIndex.create(file, separator);
+                try {
+                    index.write(indexFile);
+                } catch (IOException ex) {
+                    //index will be recreated on next use
+                    getLogger().log(Level.WARNING, ex.getLocalizedMessage(), ex);
+                }
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Remove the index file after a modification of the csv file.
+     * Caller must hold the file write lock.
+     */
+    void clearIndex() throws IOException {
+        synchronized (indexLock) {
+            index = null;
+            Files.deleteIfExists(getIndexFile());
+        }
+    }
+
     private FeatureType readType() throws DataStoreException {
         final String line;
         fileLock.readLock().lock();
@@ -323,6 +369,7 @@ public class CSVFeatureStore extends AbstractFeatureStore implements DataFileSto
         fileLock.writeLock().lock();
         try (final Writer output = Files.newBufferedWriter(file, UTF8_ENCODING, CREATE, WRITE)) {
             output.write(createHeader(type));
+            clearIndex();
         } catch (IOException ex) {
             throw new DataStoreException(ex);
         } finally {
@@ -333,18 +380,20 @@ public class CSVFeatureStore extends AbstractFeatureStore implements DataFileSto
     @Override
     public long getCount(final Query query) throws DataStoreException {
         if(QueryUtilities.queryAll(query)) {
-            //Neither filter nor start index, just count number of lines to avoid reading features.
+            //Neither filter nor start index, just count records to avoid reading features.
             fileLock.readLock().lock();
-            try (final BufferedReader reader = Files.newBufferedReader(file, UTF8_ENCODING)) {
-                long cnt = -1; //avoid counting the header line
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (!line.isEmpty() && !line.startsWith(COMMENT_STRING)) {
-                        //avoid potential empty or commented lines
+            try {
+                final CSVRowIndex index = getIndex();
+                if (index != null) {
+                    return index.getRowCount();
+                }
+                try (final CSVRecordReader reader = new CSVRecordReader(file, separator)) {
+                    long cnt = -1; //avoid counting the header line
+                    while (reader.skip()) {
                         cnt++;
                     }
+                    return Math.max(cnt, 0);
                 }
-                return cnt;
             } catch (IOException ex) {
                 throw new DataStoreException(ex);
             } finally {
@@ -396,6 +445,7 @@ public class CSVFeatureStore extends AbstractFeatureStore implements DataFileSto
         try {
             fileLock.writeLock().lock();
             Files.deleteIfExists(file);
+            clearIndex();
             featureType = null;
         } catch (IOException e) {
             throw new DataStoreException(e.getLocalizedMessage(), e);
@@ -425,10 +475,74 @@ public class CSVFeatureStore extends AbstractFeatureStore implements DataFileSto
         final Hints hints = query.getHints();
         final Boolean detached = (hints == null) ? null : (Boolean) hints.get(HintsPending.FEATURE_DETACHED);
 
-        final FeatureReader fr = new CSVFeatureReader(this,featureType,detached != null && !detached,fileLock);
+        //skip records directly when no filter or sort is applied before the start index
+        int startIndex = 0;
+        Query remaining = query;
+        final Filter filter = query.getFilter();
+        if (query.getStartIndex() > 0 && (filter == null || Filter.INCLUDE.equals(filter))
+                && QueryBuilder.isNaturalSortBy(query.getSortBy())) {
+            startIndex = query.getStartIndex();
+            final QueryBuilder qb = new QueryBuilder(query);
+            qb.setStartIndex(0);
+            remaining = qb.buildQuery();
+        }
+
+        final FeatureReader fr = new CSVFeatureReader(this,featureType,detached != null && !detached,fileLock,startIndex,Integer.MAX_VALUE);
+        return handleRemaining(fr, remaining);
+    }
+
+    /**
+     * Create a reader on a range of records.
+     *
+     * @param query features query, without sort, start index or max features
+     * @param startRow index of the first record
+     * @param endRow index after the last record
+     * @return feature reader
+     * @throws DataStoreException
+     */
+    FeatureReader getFeatureReader(final Query query, final int startRow, final int endRow) throws DataStoreException {
+        final Hints hints = query.getHints();
+        final Boolean detached = (hints == null) ? null : (Boolean) hints.get(HintsPending.FEATURE_DETACHED);
+        final FeatureReader fr = new CSVFeatureReader(this,featureType,detached != null && !detached,fileLock,startRow,endRow);
         return handleRemaining(fr, query);
     }
 
+    /**
+     * Create a spliterator splitting the features by ranges of records, using the
+     * records positions from the row index. Each split opens its own readers,
+     * records of different splits can be decoded in parallel.
+     * <p>
+     * Queries with sort, start index or max features can not be split, null is
+     * returned in this case, or if the index is not used.
+     * </p>
+     *
+     * @param query features query
+     * @return spliterator or null
+     * @throws DataStoreException
+     */
+    @Override
+    public Spliterator<Feature> getFeatureSpliterator(final Query query) throws DataStoreException {
+        typeCheck(query.getTypeName()); //raise error is type doesnt exist
+        if (!useIndex || !QueryBuilder.isNaturalSortBy(query.getSortBy())
+                || query.getStartIndex() > 0 || query.getMaxFeatures() != null) {
+            return null;
+        }
+        final long rowCount;
+        fileLock.readLock().lock();
+        try {
+            final CSVRowIndex index = getIndex();
+            if (index == null) return null;
+            rowCount = index.getRowCount();
+        } catch (IOException ex) {
+            throw new DataStoreException(ex);
+        } finally {
+            fileLock.readLock().unlock();
+        }
+        //feature identifiers are int row numbers
+        if (rowCount > Integer.MAX_VALUE) return null;
+        return new CSVFeatureSpliterator(this, query, 0, (int) rowCount);
+    }
+
     @Override
     public FeatureWriter getFeatureWriter(Query query) throws DataStoreException {
         typeCheck(query.getTypeName()); //raise error is type doesnt exist
@@ -468,6 +582,10 @@ public class CSVFeatureStore extends AbstractFeatureStore implements DataFileSto
 
     @Override
     public Path[] getDataFiles() throws DataStoreException {
+        final Path indexFile = getIndexFile();
+        if (Files.exists(indexFile)) {
+            return new Path[] { this.file, indexFile };
+        }
         return new Path[] { this.file };
     }
 
@@ -70,9 +70,20 @@ public class CSVFeatureStoreFactory extends AbstractFileFeatureStoreFactory {
             .setRequired(false)
             .create(Character.class, ';');
 
+    /**
+     * Optional - use a row offset index file, created next to the csv file.
+     * Queries with a start index seek in the file instead of reading all previous records.
+     */
+    public static final ParameterDescriptor<Boolean> INDEX = new ParameterBuilder()
+            .addName("index")
+            .addName(Bundle.formatInternational(Bundle.Keys.paramIndexAlias))
+            .setRemarks(Bundle.formatInternational(Bundle.Keys.paramIndexRemarks))
+            .setRequired(false)
+            .create(Boolean.class, Boolean.FALSE);
+
     public static final ParameterDescriptorGroup PARAMETERS_DESCRIPTOR =
             new ParameterBuilder().addName("CSVParameters").createGroup(
-                IDENTIFIER, PATH,NAMESPACE,SEPARATOR);
+                IDENTIFIER, PATH,NAMESPACE,SEPARATOR,INDEX);
 
     @Override
     public Identification getIdentification() {
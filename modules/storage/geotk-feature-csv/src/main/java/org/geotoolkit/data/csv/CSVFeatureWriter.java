@@ -176,6 +176,7 @@ class CSVFeatureWriter extends CSVFeatureReader implements FeatureWriter {
         tempLock.writeLock().lock();
         try {
             Files.move(writeFile, store.getFile(), StandardCopyOption.REPLACE_EXISTING);
+            store.clearIndex();
         } catch (IOException ex) {
             throw new FeatureStoreRuntimeException(ex);
         } finally {
@@ -0,0 +1,265 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.data.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Buffered CSV record reader working on the UTF-8 bytes of the file.
+ * <p>
+ * Separators, quotes, line breaks and comment characters are ASCII, they can not
+ * appear inside multi-byte UTF-8 sequences, only field contents need to be decoded.
+ * Working on bytes also gives the exact file position of each record, which is
+ * used to seek in the file.
+ * </p>
+ * Lines starting with {@code #} are ignored,
+ * text after a {@code #} outside quotes is ignored, empty lines are ignored,
+ * unquoted values are trimmed, quoted values may contain separators, line breaks
+ * and doubled quotes.
+ *
+ * @author agent
+ */
+final class CSVRecordReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int QUOTE = '"';
+    private static final int COMMENT = '#';
+
+    private final FileChannel channel;
+    private final byte separator;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final byte[] buf = buffer.array();
+    private int pos;
+    private int limit;
+    /** File position of the first byte in the buffer. */
+    private long bufferPosition;
+
+    /** Current value bytes. */
+    private byte[] value = new byte[256];
+    private int valueLength;
+
+    /** Values of the last record. */
+    private String[] values = new String[16];
+    private int nbValues;
+
+    /**
+     * @param file CSV file
+     * @param separator value separator, must be an ASCII character
+     */
+    CSVRecordReader(final Path file, final char separator) throws IOException {
+        if (separator > 0x7F || separator == QUOTE || separator == COMMENT || separator == '\n' || separator == '\r') {
+            throw new IOException("Unsupported CSV separator : "+separator);
+        }
+        this.separator = (byte) separator;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    }
+
+    /**
+     * @return file position of the next record, comments and empty lines before it included
+     */
+    long getPosition() {
+        return bufferPosition + pos;
+    }
+
+    /**
+     * Move to given file position, which must be the start of a line.
+     */
+    void seek(final long position) throws IOException {
+        if (position >= bufferPosition && position <= bufferPosition + limit) {
+            pos = (int) (position - bufferPosition);
+        } else {
+            channel.position(position);
+            bufferPosition = position;
+            pos = 0;
+            limit = 0;
+        }
+    }
+
+    /**
+     * Read the next record.
+     *
+     * @return true if a record was read, false at end of file
+     */
+    boolean next() throws IOException {
+        return read(true);
+    }
+
+    /**
+     * Skip the next record without decoding its values.
+     *
+     * @return true if a record was skipped, false at end of file
+     */
+    boolean skip() throws IOException {
+        return read(false);
+    }
+
+    /**
+     * @return number of values in the last record read
+     */
+    int getValueCount() {
+        return nbValues;
+    }
+
+    /**
+     * @param index value index
+     * @return value of the last record read
+     */
+    String getValue(final int index) {
+        return values[index];
+    }
+
+    private boolean read(final boolean decode) throws IOException {
+        nbValues = 0;
+        for (;;) {
+            int b = nextByte();
+            if (b < 0) return false;
+            if (b == COMMENT) {
+                skipLine();
+                continue;
+            }
+
+            boolean separatorFound = false;
+            for (;;) {
+                valueLength = 0;
+                //skip spaces before a quote
+                while ((b == ' ' || b == '\t') && b != separator) {
+                    b = nextByte();
+                }
+
+                if (b == QUOTE) {
+                    //quoted value
+                    for (;;) {
+                        b = nextByte();
+                        if (b < 0) break;
+                        if (b == QUOTE) {
+                            b = nextByte();
+                            if (b != QUOTE) break;
+                        } else if (b == '\r') {
+                            if (peekByte() == '\n') continue;
+                            b = '\n';
+                        }
+                        if (decode) append(b);
+                    }
+                    if (decode) addValue(false);
+                    //ignore anything between closing quote and separator
+                    while (b >= 0 && b != separator && b != '\n' && b != '\r' && b != COMMENT) {
+                        b = nextByte();
+                    }
+                } else {
+                    boolean blank = true;
+                    while (b >= 0 && b != separator && b != '\n' && b != '\r' && b != COMMENT) {
+                        if (decode) append(b);
+                        if (b > ' ') blank = false;
+                        b = nextByte();
+                    }
+                    final boolean endOfLine = (b != separator);
+                    if (!endOfLine || !blank) {
+                        if (decode) addValue(true);
+                        else nbValues++;
+                    } else if (!separatorFound) {
+                        //empty line
+                        if (b == COMMENT) skipLine();
+                        else if (b == '\r' && peekByte() == '\n') nextByte();
+                        break;
+                    }
+                }
+
+                if (b == separator) {
+                    separatorFound = true;
+                    b = nextByte();
+                    continue;
+                }
+                //end of record
+                if (b == COMMENT) {
+                    skipLine();
+                } else if (b == '\r' && peekByte() == '\n') {
+                    nextByte();
+                }
+                return true;
+            }
+            if (b < 0) return false;
+        }
+    }
+
+    private void append(final int b) {
+        if (valueLength == value.length) {
+            value = Arrays.copyOf(value, valueLength * 2);
+        }
+        value[valueLength++] = (byte) b;
+    }
+
+    private void addValue(final boolean trim) {
+        int start = 0;
+        int end = valueLength;
+        if (trim) {
+            //same as String.trim, UTF-8 bytes lower or equal to space are ASCII characters
+            while (start < end && (value[start] & 0xFF) <= ' ') start++;
+            while (end > start && (value[end - 1] & 0xFF) <= ' ') end--;
+        }
+        if (nbValues == values.length) {
+            values = Arrays.copyOf(values, nbValues * 2);
+        }
+        values[nbValues++] = new String(value, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    private void skipLine() throws IOException {
+        for (int b = nextByte(); b >= 0; b = nextByte()) {
+            if (b == '\n') return;
+            if (b == '\r') {
+                if (peekByte() == '\n') nextByte();
+                return;
+            }
+        }
+    }
+
+    private int nextByte() throws IOException {
+        if (pos == limit && !fill()) return -1;
+        return buf[pos++] & 0xFF;
+    }
+
+    private int peekByte() throws IOException {
+        if (pos == limit && !fill()) return -1;
+        return buf[pos] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        bufferPosition += limit;
+        pos = 0;
+        limit = 0;
+        buffer.clear();
+        int n;
+        do {
+            n = channel.read(buffer);
+        } while (n == 0);
+        if (n < 0) return false;
+        limit = n;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+}
@@ -0,0 +1,189 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.data.csv;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Row offset index of a CSV file.
+ * <p>
+ * The index stores the file position of one record every {@link #STEP} records,
+ * and the total number of records. It is saved next to the CSV file and is valid
+ * as long as the CSV file size and modification date do not change.
+ * </p>
+ *
+ * @author agent
+ */
+final class CSVRowIndex {
+
+    /**
+     * Number of records between two indexed positions.
+     */
+    static final int STEP = 1024;
+
+    private static final int MAGIC = 0x43534949; // "CSII"
+
+    private final long fileSize;
+    private final long fileDate;
+    private final long[] positions;
+    private final long rowCount;
+
+    private CSVRowIndex(long fileSize, long fileDate, long[] positions, long rowCount) {
+        this.fileSize = fileSize;
+        this.fileDate = fileDate;
+        this.positions = positions;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * @return number of records in the file, header excluded
+     */
+    long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @param row record index
+     * @return index of the closest indexed record before given record
+     */
+    long getIndexedRow(long row) {
+        final int block = (int) Math.min(row / STEP, positions.length - 1);
+        return (long) block * STEP;
+    }
+
+    /**
+     * @param row record index
+     * @return file position of the closest indexed record before given record
+     */
+    long getIndexedPosition(long row) {
+        return positions[(int) Math.min(row / STEP, positions.length - 1)];
+    }
+
+    /**
+     * @param file indexed CSV file
+     * @return true if the index matches the current file state
+     */
+    boolean isValid(Path file) {
+        try {
+            return Files.size(file) == fileSize
+                && Files.getLastModifiedTime(file).toMillis() == fileDate;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Scan the CSV file and create its index.
+     *
+     * @param file CSV file
+     * @param separator value separator
+     * @return index
+     */
+    static CSVRowIndex create(Path file, char separator) throws IOException {
+        final long fileSize = Files.size(file);
+        final long fileDate = Files.getLastModifiedTime(file).toMillis();
+        long[] positions = new long[16];
+        int nbPositions = 0;
+        long row = 0;
+        try (CSVRecordReader reader = new CSVRecordReader(file, separator)) {
+            //skip header
+            reader.skip();
+            for (;;) {
+                final long position = reader.getPosition();
+                if (!reader.skip()) break;
+                if (row % STEP == 0) {
+                    if (nbPositions == positions.length) {
+                        positions = Arrays.copyOf(positions, nbPositions * 2);
+                    }
+                    positions[nbPositions++] = position;
+                }
+                row++;
+            }
+            if (nbPositions == 0) {
+                positions[nbPositions++] = reader.getPosition();
+            }
+        }
+        return new CSVRowIndex(fileSize, fileDate, Arrays.copyOf(positions, nbPositions), row);
+    }
+
+    /**
+     * Read index file.
+     *
+     * @param indexFile index file
+     * @return index or null if file does not exist, can not be read or is not a valid index
+     */
+    static CSVRowIndex read(Path indexFile) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != STEP) {
+                return null;
+            }
+            final long fileSize = in.readLong();
+            final long fileDate = in.readLong();
+            final long rowCount = in.readLong();
+            final int nbPositions = in.readInt();
+            if (rowCount < 0 || nbPositions != Math.max(1, (rowCount + STEP - 1) / STEP)) {
+                return null;
+            }
+            final long[] positions = new long[nbPositions];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = in.readLong();
+                //positions are strictly increasing and within the file
+                if (positions[i] < 0 || positions[i] > fileSize || (i > 0 && positions[i] <= positions[i-1])) {
+                    return null;
+                }
+            }
+            if (in.read() >= 0) {
+                //trailing bytes
+                return null;
+            }
+            return new CSVRowIndex(fileSize, fileDate, positions, rowCount);
+        } catch (IOException ex) {
+            //missing, truncated or unreadable index, will be rebuilt
+            return null;
+        }
+    }
+
+    /**
+     * Save index in given file.
+     *
+     * @param indexFile index file
+     */
+    void write(Path indexFile) throws IOException {
+        final Path temp = indexFile.resolveSibling(indexFile.getFileName().toString() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(STEP);
+            out.writeLong(fileSize);
+            out.writeLong(fileDate);
+            out.writeLong(rowCount);
+            out.writeInt(positions.length);
+            for (long position : positions) {
+                out.writeLong(position);
+            }
+        }
+        Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+}
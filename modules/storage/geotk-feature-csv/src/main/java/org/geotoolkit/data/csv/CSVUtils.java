@@ -16,9 +16,6 @@
  */
 package org.geotoolkit.data.csv;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 import java.util.Scanner;
 import org.apache.sis.util.Static;
 import org.opengis.feature.Feature;
@@ -63,70 +60,4 @@ public class CSVUtils extends Static {
         return feature;
     }
 
-    /**
-     *
-     * @param toSplit
-     * @param separator
-     * @return
-     */
-    static List<String> toStringList(Scanner scanner, String toSplit, final char separator) {
-        if (toSplit == null) {
-            return Collections.emptyList();
-        }
-        final List<String> strings = new ArrayList<>();
-        int last = 0;
-        toSplit = toSplit.trim();
-
-        String currentValue = null;
-        boolean inEscape = false;
-        for(;;){
-            if(inEscape){
-
-                int end = toSplit.indexOf('\"',last);
-                while(end>=0){
-                    if(end>=toSplit.length()){
-                        //found escape end
-                        break;
-                    }else if(toSplit.charAt(end+1)=='\"'){
-                        //double quote, not an escape
-                        end = toSplit.indexOf('\"',end+2);
-                    }else{
-                        break;
-                    }
-                }
-
-                if(end>=0){
-                    currentValue += toSplit.substring(last, end);
-                    currentValue = currentValue.replace("\"\"", "\"");
-                    strings.add(currentValue);
-                    last = end+2;
-                    inEscape = false;
-                }else{
-                    currentValue += toSplit.substring(last);
-                    currentValue += "\n";
-                    last = 0;
-                    toSplit = scanner.nextLine();
-                }
-
-            }else if(last>=toSplit.length()){
-                break;
-            }else if(toSplit.charAt(last)=='\"'){
-                inEscape = true;
-                last++;
-                currentValue = "";
-            }else{
-                final int end = toSplit.indexOf(separator, last);
-                if(end>=0){
-                    strings.add(toSplit.substring(last, end).trim());
-                    last = end+1;
-                }else{
-                    strings.add(toSplit.substring(last).trim());
-                    break;
-                }
-            }
-        }
-        return strings;
-    }
-
-
 }
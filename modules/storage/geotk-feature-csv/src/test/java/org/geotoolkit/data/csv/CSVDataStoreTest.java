@@ -20,20 +20,31 @@ package org.geotoolkit.data.csv;
 import java.util.Map;
 import java.util.Collections;
 import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.Point;
 import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import org.apache.sis.feature.FeatureExt;
 import org.apache.sis.feature.builder.FeatureTypeBuilder;
 import org.geotoolkit.data.AbstractFileFeatureStoreFactory;
 import org.geotoolkit.data.FeatureStore;
 import org.geotoolkit.storage.DataStores;
 import org.geotoolkit.data.FeatureReader;
 import org.geotoolkit.data.FeatureWriter;
+import org.geotoolkit.data.query.Query;
 import org.geotoolkit.data.query.QueryBuilder;
+import org.geotoolkit.factory.FactoryFinder;
 import org.geotoolkit.factory.Hints;
 import org.geotoolkit.factory.HintsPending;
 import org.apache.sis.referencing.CommonCRS;
 import org.geotoolkit.data.FeatureCollection;
 import org.geotoolkit.data.FeatureIterator;
 import org.geotoolkit.nio.IOUtilities;
+import org.geotoolkit.parameter.Parameters;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -46,6 +57,8 @@ import org.opengis.feature.Feature;
 import org.opengis.feature.FeatureType;
 import org.opengis.feature.PropertyType;
 import org.opengis.filter.Filter;
+import org.opengis.filter.FilterFactory;
+import org.opengis.parameter.ParameterValueGroup;
 
 /**
  *
@@ -204,4 +217,93 @@ public class CSVDataStoreTest extends org.geotoolkit.test.TestBase {
 
     }
 
+    @Test
+    public void testIndexedStartIndex() throws Exception{
+
+        final File file = File.createTempFile("test", ".csv");
+        file.deleteOnExit();
+
+        final StringBuilder sb = new StringBuilder("id(Integer);geom(EPSG:4326);comment(String)\n");
+        for (int i=0; i<3000; i++) {
+            sb.append(i).append(";POINT (").append(i).append(' ').append(-i).append(");\"line\n").append(i).append("\"\n");
+        }
+        Files.write(file.toPath(), sb.toString().getBytes(CSVFeatureStore.UTF8_ENCODING));
+
+        final ParameterValueGroup params = CSVFeatureStoreFactory.PARAMETERS_DESCRIPTOR.createValue();
+        Parameters.getOrCreate(CSVFeatureStoreFactory.PATH, params).setValue(file.toURI());
+        Parameters.getOrCreate(CSVFeatureStoreFactory.SEPARATOR, params).setValue(';');
+        Parameters.getOrCreate(CSVFeatureStoreFactory.INDEX, params).setValue(true);
+        final CSVFeatureStore store = new CSVFeatureStore(params);
+        final GenericName name = store.getNames().iterator().next();
+
+        assertEquals(3000, store.getCount(QueryBuilder.all(name.toString())));
+        assertEquals(2, store.getDataFiles().length);
+        store.getIndexFile().toFile().deleteOnExit();
+
+        final QueryBuilder qb = new QueryBuilder(name.toString());
+        qb.setStartIndex(2500);
+        qb.setMaxFeatures(3);
+        try (FeatureReader reader = store.getFeatureReader(qb.buildQuery())) {
+            for (int i=2500; i<2503; i++) {
+                assertTrue(reader.hasNext());
+                final Feature feature = reader.next();
+                assertEquals(String.valueOf(i), FeatureExt.getId(feature).getID());
+                assertEquals(i, feature.getPropertyValue("id"));
+                final Point pt = (Point) feature.getPropertyValue("geom");
+                assertEquals(i, pt.getX(), 0.0);
+                assertEquals(-i, pt.getY(), 0.0);
+                assertEquals("line\n"+i, feature.getPropertyValue("comment"));
+            }
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    public void testIndexedParallelRead() throws Exception{
+
+        final File file = File.createTempFile("test", ".csv");
+        file.deleteOnExit();
+
+        final StringBuilder sb = new StringBuilder("id(Integer);geom(EPSG:4326)\n");
+        for (int i=0; i<5000; i++) {
+            sb.append(i).append(";POINT (").append(i).append(' ').append(-i).append(")\n");
+        }
+        Files.write(file.toPath(), sb.toString().getBytes(CSVFeatureStore.UTF8_ENCODING));
+
+        final ParameterValueGroup params = CSVFeatureStoreFactory.PARAMETERS_DESCRIPTOR.createValue();
+        Parameters.getOrCreate(CSVFeatureStoreFactory.PATH, params).setValue(file.toURI());
+        Parameters.getOrCreate(CSVFeatureStoreFactory.SEPARATOR, params).setValue(';');
+        Parameters.getOrCreate(CSVFeatureStoreFactory.INDEX, params).setValue(true);
+        CSVFeatureStore store = new CSVFeatureStore(params);
+        final GenericName name = store.getNames().iterator().next();
+        assertEquals(5000, store.getCount(QueryBuilder.all(name.toString())));
+        store.getIndexFile().toFile().deleteOnExit();
+
+        //a truncated index must be rebuilt
+        final byte[] index = Files.readAllBytes(store.getIndexFile());
+        Files.write(store.getIndexFile(), Arrays.copyOf(index, index.length - 5));
+        store = new CSVFeatureStore(params);
+        assertEquals(5000, store.getCount(QueryBuilder.all(name.toString())));
+        assertArrayEquals(index, Files.readAllBytes(store.getIndexFile()));
+
+        final Spliterator<Feature> split = store.getFeatureSpliterator(QueryBuilder.all(name.toString()));
+        assertNotNull(split);
+        final Spliterator<Feature> prefix = split.trySplit();
+        assertNotNull(prefix);
+        assertEquals(0, prefix.estimateSize() % CSVRowIndex.STEP);
+        assertEquals(5000, prefix.estimateSize() + split.estimateSize());
+
+        final List<Integer> ids = StreamSupport.stream(store.getFeatureSpliterator(QueryBuilder.all(name.toString())), true)
+                .map((Feature f) -> (Integer) f.getPropertyValue("id")).collect(Collectors.toList());
+        assertEquals(5000, ids.size());
+        for (int i=0; i<5000; i++) {
+            assertEquals(Integer.valueOf(i), ids.get(i));
+        }
+
+        //filtered ranges
+        final FilterFactory ff = FactoryFinder.getFilterFactory(null);
+        final Query filtered = QueryBuilder.filtered(name.toString(), ff.less(ff.property("id"), ff.literal(1500)));
+        assertEquals(1500, StreamSupport.stream(store.getFeatureSpliterator(filtered), true).count());
+    }
+
 }
@@ -67,6 +67,16 @@ public final class Bundle extends IndexedResourceBundle {
          * GeoJSON
          */
         public static final short datastoreTitle = 6;
+
+        /**
+         * Spatial index
+         */
+        public static final short index = 7;
+
+        /**
+         * Use a feature offset and spatial index file
+         */
+        public static final short index_remarks = 8;
     }
 
     /**
@@ -20,6 +20,8 @@ package org.geotoolkit.data.geojson;
 import org.geotoolkit.util.NamesExt;
 import org.opengis.util.GenericName;
 import com.vividsolutions.jts.geom.*;
+import org.apache.sis.geometry.GeneralEnvelope;
+import org.apache.sis.referencing.CRS;
 import org.apache.sis.storage.DataStoreException;
 import org.apache.sis.util.logging.Logging;
 import org.geotoolkit.data.*;
@@ -31,11 +33,18 @@ import org.geotoolkit.data.query.*;
 import org.geotoolkit.factory.Hints;
 import org.geotoolkit.factory.HintsPending;
 import org.geotoolkit.parameter.Parameters;
+import org.opengis.filter.And;
 import org.opengis.filter.Filter;
+import org.opengis.filter.Id;
+import org.opengis.filter.expression.Expression;
+import org.opengis.filter.expression.Literal;
 import org.opengis.filter.identity.FeatureId;
+import org.opengis.filter.identity.Identifier;
+import org.opengis.filter.spatial.BBOX;
 import org.opengis.geometry.Envelope;
 import org.opengis.parameter.ParameterValueGroup;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.util.FactoryException;
 
 import static org.geotoolkit.data.geojson.GeoJSONFeatureStoreFactory.*;
 import static org.geotoolkit.data.geojson.binding.GeoJSONGeometry.*;
@@ -51,6 +60,7 @@ import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.apache.sis.feature.FeatureExt;
 import org.apache.sis.feature.builder.AttributeRole;
 import org.apache.sis.feature.builder.AttributeTypeBuilder;
 import org.apache.sis.feature.builder.FeatureTypeBuilder;
@@ -80,6 +90,10 @@ public class GeoJSONFeatureStore extends AbstractFeatureStore {
     private Integer coordAccuracy;
     private boolean isLocal = true;
 
+    private final boolean useIndex;
+    private final Object indexLock = new Object();
+    private GeoJSONIndex index;
+
     public GeoJSONFeatureStore(final Path path, final String namespace, Integer coordAccuracy)
             throws DataStoreException {
         this(toParameter(path.toUri(), namespace, coordAccuracy));
@@ -93,6 +107,7 @@ public class GeoJSONFeatureStore extends AbstractFeatureStore {
     public GeoJSONFeatureStore (final ParameterValueGroup params) throws DataStoreException {
         super(params);
         this.coordAccuracy = (Integer) params.parameter(COORDINATE_ACCURACY.getName().toString()).getValue();
+        this.useIndex = Boolean.TRUE.equals(params.parameter(INDEX.getName().toString()).getValue());
 
         final URI uri = (URI) params.parameter(PATH.getName().toString()).getValue();
 
@@ -278,6 +293,7 @@ public class GeoJSONFeatureStore extends AbstractFeatureStore {
             if (!jsonExist) Files.createFile(jsonFile);
             //create json with empty collection
             GeoJSONUtils.writeEmptyFeatureCollection(jsonFile);
+            clearIndex();
 
             //json schema file
             final boolean descExist = Files.exists(descFile);
@@ -325,18 +341,18 @@ public class GeoJSONFeatureStore extends AbstractFeatureStore {
         typeCheck(query.getTypeName());
 
         if(QueryUtilities.queryAll(query)){
+            rwLock.readLock().lock();
             try {
-                rwLock.readLock().lock();
                 final GeoJSONObject obj = GeoJSONParser.parse(jsonFile, true);
                 final CoordinateReferenceSystem crs = GeoJSONUtils.getCRS(obj);
                 final Envelope envelope = GeoJSONUtils.getEnvelope(obj, crs);
                 if (envelope != null) {
                     return envelope;
                 }
-
-                rwLock.readLock().unlock();
             } catch (IOException e) {
                 throw new DataStoreException(e.getMessage(), e);
+            } finally {
+                rwLock.readLock().unlock();
             }
         }
         //fallback
@@ -350,10 +366,133 @@ public class GeoJSONFeatureStore extends AbstractFeatureStore {
     public FeatureReader getFeatureReader(final Query query) throws DataStoreException {
         typeCheck(query.getTypeName());
 
-        final FeatureReader fr = new GeoJSONReader(jsonFile, featureType, rwLock);
+        FeatureReader fr = null;
+        if (useIndex && isIndexable(query.getFilter())) {
+            rwLock.readLock().lock();
+            try {
+                final GeoJSONIndex index = getIndex();
+                final int[] selection = (index == null) ? null : select(index, query.getFilter());
+                if (selection != null) {
+                    //created under lock, the file can not change before the reader locks it
+                    fr = new GeoJSONReader(jsonFile, featureType, rwLock, index, selection);
+                }
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "GeoJSON index query failed : " + ex.getMessage(), ex);
+            } finally {
+                rwLock.readLock().unlock();
+            }
+        }
+        if (fr == null) {
+            fr = new GeoJSONReader(jsonFile, featureType, rwLock);
+        }
         return handleRemaining(fr, query);
     }
 
+    private static boolean isIndexable(final Filter filter) {
+        if (filter instanceof Id || filter instanceof BBOX) {
+            return true;
+        } else if (filter instanceof And) {
+            for (Filter child : ((And) filter).getChildren()) {
+                if (isIndexable(child)) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find features to read with the index, only identifier and bounding box
+     * filters can use it, the complete filter is still evaluated on the features.
+     *
+     * @return feature indexes, or null if the index can not be used
+     */
+    private int[] select(final GeoJSONIndex index, final Filter filter) throws IOException {
+        if (filter instanceof Id) {
+            final Set<String> ids = new HashSet<>();
+            for (Identifier id : ((Id) filter).getIdentifiers()) {
+                ids.add(String.valueOf(id.getID()));
+            }
+            return index.search(ids);
+        } else if (filter instanceof BBOX) {
+            final BBOX bbox = (BBOX) filter;
+            final Expression exp = bbox.getExpression2();
+            final Object value = (exp instanceof Literal) ? ((Literal) exp).getValue() : null;
+            if (value instanceof Envelope) {
+                return index.search((Envelope) value);
+            }
+            //bbox without envelope literal is expressed in its srs, or in the layer crs
+            CoordinateReferenceSystem crs = FeatureExt.getCRS(featureType);
+            final String srs = bbox.getSRS();
+            if (srs != null && !srs.isEmpty()) {
+                try {
+                    crs = CRS.forCode(srs);
+                } catch (FactoryException ex) {
+                    LOGGER.log(Level.FINE, "Unknown BBOX srs : " + srs, ex);
+                    return null;
+                }
+            }
+            final GeneralEnvelope env = (crs != null) ? new GeneralEnvelope(crs) : new GeneralEnvelope(2);
+            env.setToNaN();
+            env.setRange(0, bbox.getMinX(), bbox.getMaxX());
+            env.setRange(1, bbox.getMinY(), bbox.getMaxY());
+            return index.search(env);
+        } else if (filter instanceof And) {
+            for (Filter child : ((And) filter).getChildren()) {
+                final int[] selection = select(index, child);
+                if (selection != null) return selection;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the sidecar index, creating or updating the index files if needed.
+     *
+     * @return index, or null if index is not used or not available
+     */
+    private GeoJSONIndex getIndex() {
+        if (!useIndex) return null;
+        synchronized (indexLock) {
+            if (index != null) {
+                if (index.isValid(jsonFile)) {
+                    return index;
+                }
+                closeIndex();
+            }
+            try {
+                index = GeoJSONIndex.read(jsonFile);
+                if (index == null || !index.isValid(jsonFile)) {
+                    index = GeoJSONIndex.create(jsonFile, FeatureExt.getCRS(featureType));
+                }
+            } catch (IOException ex) {
+                //fallback on full file reading
+                LOGGER.log(Level.WARNING, "Failed to create GeoJSON index : " + ex.getMessage(), ex);
+                index = null;
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Remove the index files after the json file has been replaced.
+     */
+    private void clearIndex() throws IOException {
+        synchronized (indexLock) {
+            closeIndex();
+            GeoJSONIndex.delete(jsonFile);
+        }
+    }
+
+    private void closeIndex() {
+        if (index != null) {
+            try {
+                index.close();
+            } catch (IOException ex) {
+                LOGGER.log(Level.FINE, ex.getMessage(), ex);
+            }
+            index = null;
+        }
+    }
+
     /**
      * {@inheritDoc }
      */
@@ -361,7 +500,7 @@ public class GeoJSONFeatureStore extends AbstractFeatureStore {
     public FeatureWriter getFeatureWriter(Query query) throws DataStoreException {
         typeCheck(query.getTypeName());
         final FeatureWriter fw = new GeoJSONFileWriter(jsonFile, featureType, rwLock, tmpLock,
-                GeoJSONFeatureStoreFactory.ENCODING, coordAccuracy);
+                GeoJSONFeatureStoreFactory.ENCODING, coordAccuracy, useIndex);
         return handleRemaining(fw, query.getFilter());
     }
 
@@ -445,6 +584,7 @@ public class GeoJSONFeatureStore extends AbstractFeatureStore {
             Files.deleteIfExists(descFile);
             Files.deleteIfExists(jsonFile);
             Files.createFile(jsonFile);
+            clearIndex();
         } catch (IOException e) {
             throw new DataStoreException("Can not delete GeoJSON schema.", e);
         } finally{
@@ -481,6 +621,14 @@ public class GeoJSONFeatureStore extends AbstractFeatureStore {
         handleRemoveWithFeatureWriter(groupName, filter);
     }
 
+    @Override
+    public void close() throws DataStoreException {
+        synchronized (indexLock) {
+            closeIndex();
+        }
+        super.close();
+    }
+
     @Override
     public void refreshMetaModel() {
         name = null;
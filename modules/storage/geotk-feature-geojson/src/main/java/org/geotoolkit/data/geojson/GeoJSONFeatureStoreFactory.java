@@ -63,10 +63,19 @@ public class GeoJSONFeatureStoreFactory extends AbstractFileFeatureStoreFactory
             .setRequired(false)
             .create(Integer.class, 7);
 
+    /**
+     * Optional, maintain a sidecar spatial index next to the json file.
+     */
+    public static final ParameterDescriptor<Boolean> INDEX = new ParameterBuilder()
+            .addName("index")
+            .addName(Bundle.formatInternational(Bundle.Keys.index))
+            .setRemarks(Bundle.formatInternational(Bundle.Keys.index_remarks))
+            .setRequired(false)
+            .create(Boolean.class, Boolean.FALSE);
 
     public static final ParameterDescriptorGroup PARAMETERS_DESCRIPTOR =
             new ParameterBuilder().addName("GeoJSONParameters").createGroup(
-                IDENTIFIER, PATH, NAMESPACE, COORDINATE_ACCURACY);
+                IDENTIFIER, PATH, NAMESPACE, COORDINATE_ACCURACY, INDEX);
 
     @Override
     public Identification getIdentification() {
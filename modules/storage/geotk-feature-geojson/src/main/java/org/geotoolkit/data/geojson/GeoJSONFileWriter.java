@@ -17,18 +17,24 @@
 package org.geotoolkit.data.geojson;
 
 import com.fasterxml.jackson.core.JsonEncoding;
+import com.vividsolutions.jts.geom.Geometry;
 import org.apache.sis.storage.DataStoreException;
 import org.geotoolkit.data.FeatureStoreRuntimeException;
 import org.geotoolkit.data.FeatureWriter;
 
 import java.io.File;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import org.apache.sis.feature.FeatureExt;
 import org.apache.sis.internal.feature.AttributeConvention;
+import org.apache.sis.util.logging.Logging;
 import org.opengis.feature.Feature;
 import org.opengis.feature.FeatureType;
 
@@ -38,8 +44,15 @@ import org.opengis.feature.FeatureType;
  */
 class GeoJSONFileWriter extends GeoJSONReader implements FeatureWriter {
 
+    private static final Logger LOGGER = Logging.getLogger("org.geotoolkit.data.geojson");
+
     private ReadWriteLock tmpLock;
     private final GeoJSONWriter writer;
+    /**
+     * Index updated while writing features, null if the store does not use an index.
+     */
+    private final GeoJSONIndex.Builder indexBuilder;
+    private final CountingOutputStream output;
 
     private Feature edited = null;
     private Feature lastWritten = null;
@@ -54,6 +67,14 @@ class GeoJSONFileWriter extends GeoJSONReader implements FeatureWriter {
 
     public GeoJSONFileWriter(Path jsonFile, FeatureType featureType, ReadWriteLock rwLock, ReadWriteLock tmpLock,
                              final String encoding, final int doubleAccuracy) throws DataStoreException {
+        this(jsonFile, featureType, rwLock, tmpLock, encoding, doubleAccuracy, false);
+    }
+
+    /**
+     * @param index true to write the sidecar index of the new file
+     */
+    GeoJSONFileWriter(Path jsonFile, FeatureType featureType, ReadWriteLock rwLock, ReadWriteLock tmpLock,
+                             final String encoding, final int doubleAccuracy, final boolean index) throws DataStoreException {
         super(jsonFile, featureType, rwLock);
         this.tmpLock = tmpLock;
 
@@ -63,7 +84,16 @@ class GeoJSONFileWriter extends GeoJSONReader implements FeatureWriter {
         try {
             final String name = featureType.getName().tip().toString();
             tmpFile = jsonFile.resolveSibling(name + ".wjson");
-            writer = new GeoJSONWriter(tmpFile, jsonEncoding, doubleAccuracy, false);
+            if (index) {
+                //feature positions are needed for the index
+                output = new CountingOutputStream(Files.newOutputStream(tmpFile));
+                writer = new GeoJSONWriter(output, jsonEncoding, doubleAccuracy, false);
+                indexBuilder = new GeoJSONIndex.Builder(jsonFile, FeatureExt.getCRS(featureType));
+            } else {
+                output = null;
+                writer = new GeoJSONWriter(tmpFile, jsonEncoding, doubleAccuracy, false);
+                indexBuilder = null;
+            }
 
             //start write feature collection.
             writer.writeStartFeatureCollection(FeatureExt.getCRS(featureType), null);
@@ -98,8 +128,15 @@ class GeoJSONFileWriter extends GeoJSONReader implements FeatureWriter {
 
         lastWritten = edited;
         try {
+            final long start = (output != null) ? output.count : 0;
             writer.writeFeature(edited);
             writer.flush();
+            if (indexBuilder != null) {
+                final Object geom = edited.getPropertyValue(AttributeConvention.GEOMETRY_PROPERTY.toString());
+                final Object id = edited.getPropertyValue(AttributeConvention.IDENTIFIER_PROPERTY.toString());
+                indexBuilder.add(start, output.count, (id != null) ? id.toString() : null,
+                        (geom instanceof Geometry) ? (Geometry) geom : null);
+            }
         } catch (IOException | IllegalArgumentException e) {
             throw new FeatureStoreRuntimeException(e.getMessage(), e);
         }
@@ -125,8 +162,47 @@ class GeoJSONFileWriter extends GeoJSONReader implements FeatureWriter {
         } catch (IOException ex) {
             throw new FeatureStoreRuntimeException(ex);
         }
+        if (indexBuilder != null) {
+            //written positions are those of the new file, no need to scan it again
+            try {
+                indexBuilder.finish();
+            } catch (IOException ex) {
+                //index will be recreated on next use
+                LOGGER.log(Level.WARNING, "Failed to write GeoJSON index : " + ex.getMessage(), ex);
+            } finally {
+                try {
+                    indexBuilder.close();
+                } catch (IOException ex) {
+                    LOGGER.log(Level.FINE, ex.getMessage(), ex);
+                }
+            }
+        }
         rwlock.writeLock().unlock();
 
         tmpLock.writeLock().unlock();
     }
+
+    /**
+     * Keeps track of the number of bytes written.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
 }
@@ -0,0 +1,529 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.data.geojson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.vividsolutions.jts.geom.Geometry;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.sis.geometry.Envelopes;
+import org.apache.sis.geometry.GeneralEnvelope;
+import org.apache.sis.referencing.CRS;
+import org.apache.sis.referencing.CommonCRS;
+import org.apache.sis.util.Utilities;
+import org.geotoolkit.data.geojson.binding.GeoJSONFeature;
+import org.geotoolkit.data.geojson.binding.GeoJSONObject;
+import org.geotoolkit.data.geojson.utils.GeoJSONParser;
+import org.geotoolkit.data.geojson.utils.GeoJSONUtils;
+import org.geotoolkit.data.geojson.utils.GeometryUtils;
+import org.geotoolkit.index.tree.StoreIndexException;
+import org.geotoolkit.index.tree.Tree;
+import org.geotoolkit.index.tree.TreeElementMapper;
+import org.geotoolkit.index.tree.star.FileStarRTree;
+import org.opengis.geometry.Envelope;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.TransformException;
+
+import static org.geotoolkit.data.geojson.utils.GeoJSONMembres.FEATURES;
+
+/**
+ * Sidecar index of a GeoJSON feature collection file.
+ * <p>
+ * The index is made of two files next to the json file :
+ * <ul>
+ *   <li>{@code .gjx} : byte range and identifier of each feature of the collection,</li>
+ *   <li>{@code .gjt} : R-Tree of the feature envelopes.</li>
+ * </ul>
+ * It is valid as long as the json file size and modification date do not change.
+ * Features found in the index are parsed alone after seeking to their position.
+ * </p>
+ *
+ * @author agent
+ */
+final class GeoJSONIndex implements Closeable {
+
+    private static final int MAGIC = 0x474A5349; // "GJSI"
+    private static final int VERSION = 1;
+    private static final String TABLE_SUFFIX = ".gjx";
+    private static final String TREE_SUFFIX = ".gjt";
+    private static final int MAX_ELEMENTS = 5;
+
+    private final Path treeFile;
+    private final long fileSize;
+    private final long fileDate;
+    private final long[] offsets;
+    private final int[] lengths;
+    private final String[] ids;
+    /** Feature index for each tree identifier. */
+    private final int[] treeToFeature;
+    private Map<String,Integer> idToFeature;
+    private Tree<Integer> tree;
+
+    private GeoJSONIndex(Path treeFile, long fileSize, long fileDate, long[] offsets, int[] lengths,
+            String[] ids, int[] treeToFeature) {
+        this.treeFile = treeFile;
+        this.fileSize = fileSize;
+        this.fileDate = fileDate;
+        this.offsets = offsets;
+        this.lengths = lengths;
+        this.ids = ids;
+        this.treeToFeature = treeToFeature;
+    }
+
+    /**
+     * @return number of features in the collection
+     */
+    int getFeatureCount() {
+        return offsets.length;
+    }
+
+    /**
+     * @param feature feature index
+     * @return feature identifier
+     */
+    String getId(int feature) {
+        return ids[feature];
+    }
+
+    /**
+     * @param jsonFile indexed json file
+     * @return true if the index matches the current file state
+     */
+    boolean isValid(Path jsonFile) {
+        try {
+            return Files.size(jsonFile) == fileSize
+                && Files.getLastModifiedTime(jsonFile).toMillis() == fileDate;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Find features which envelope intersects given envelope.
+     *
+     * @param env searched area, envelope without crs is expected in the index crs
+     * @return feature indexes in file order
+     */
+    synchronized int[] search(Envelope env) throws IOException {
+        try {
+            if (tree == null) {
+                tree = new FileStarRTree<>(treeFile, new FeatureMapper());
+            }
+            final CoordinateReferenceSystem treeCrs = tree.getCrs();
+            final CoordinateReferenceSystem envCrs = env.getCoordinateReferenceSystem();
+            if (envCrs != null && !Utilities.equalsIgnoreMetadata(envCrs, treeCrs)) {
+                env = Envelopes.transform(env, treeCrs);
+            }
+            final GeneralEnvelope area = new GeneralEnvelope(treeCrs);
+            area.setRange(0, env.getMinimum(0), env.getMaximum(0));
+            area.setRange(1, env.getMinimum(1), env.getMaximum(1));
+
+            final int[] result = tree.searchID(area);
+            for (int i = 0; i < result.length; i++) {
+                result[i] = treeToFeature[result[i]];
+            }
+            Arrays.sort(result);
+            return result;
+        } catch (StoreIndexException | ClassNotFoundException | TransformException ex) {
+            throw new IOException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Find features with given identifiers.
+     *
+     * @param featureIds searched identifiers
+     * @return feature indexes in file order
+     */
+    synchronized int[] search(Collection<String> featureIds) {
+        if (idToFeature == null) {
+            idToFeature = new HashMap<>();
+            for (int i = 0; i < ids.length; i++) {
+                idToFeature.putIfAbsent(ids[i], i);
+            }
+        }
+        int[] result = new int[featureIds.size()];
+        int nb = 0;
+        for (String id : featureIds) {
+            final Integer feature = idToFeature.get(id);
+            if (feature != null) result[nb++] = feature;
+        }
+        result = Arrays.copyOf(result, nb);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Parse a single feature.
+     *
+     * @param channel json file channel
+     * @param feature feature index
+     * @return parsed feature
+     */
+    GeoJSONFeature readFeature(SeekableByteChannel channel, int feature) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(lengths[feature]);
+        channel.position(offsets[feature]);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Unexpected end of file, index is not valid");
+            }
+        }
+        //ranges recorded while writing may start with separators
+        final byte[] bytes = buffer.array();
+        int start = 0;
+        while (start < bytes.length && bytes[start] != '{') start++;
+
+        try (JsonParser p = GeoJSONParser.FACTORY.createParser(bytes, start, bytes.length - start)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("No feature at position "+offsets[feature]+", index is not valid");
+            }
+            final GeoJSONObject obj = GeoJSONParser.parseGeoJSONObject(p);
+            if (!(obj instanceof GeoJSONFeature)) {
+                throw new IOException("No feature at position "+offsets[feature]+", index is not valid");
+            }
+            return (GeoJSONFeature) obj;
+        }
+    }
+
+    /**
+     * Release the R-Tree file.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (tree != null) {
+            tree.close();
+            tree = null;
+        }
+    }
+
+    static Path getTableFile(Path jsonFile) {
+        return jsonFile.resolveSibling(GeoJSONUtils.getNameWithoutExt(jsonFile) + TABLE_SUFFIX);
+    }
+
+    static Path getTreeFile(Path jsonFile) {
+        return jsonFile.resolveSibling(GeoJSONUtils.getNameWithoutExt(jsonFile) + TREE_SUFFIX);
+    }
+
+    /**
+     * Delete index files.
+     *
+     * @param jsonFile indexed json file
+     */
+    static void delete(Path jsonFile) throws IOException {
+        Files.deleteIfExists(getTableFile(jsonFile));
+        Files.deleteIfExists(getTreeFile(jsonFile));
+    }
+
+    /**
+     * Read index files.
+     *
+     * @param jsonFile indexed json file
+     * @return index or null if files do not exist or are not an index
+     */
+    static GeoJSONIndex read(Path jsonFile) throws IOException {
+        final Path treeFile = getTreeFile(jsonFile);
+        if (!Files.exists(treeFile)) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(getTableFile(jsonFile))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            final long fileSize = in.readLong();
+            final long fileDate = in.readLong();
+            final int nbFeatures = in.readInt();
+            final int nbTree = in.readInt();
+            final long[] offsets = new long[nbFeatures];
+            final int[] lengths = new int[nbFeatures];
+            final String[] ids = new String[nbFeatures];
+            //tree identifiers start at 1
+            final int[] treeToFeature = new int[nbTree + 1];
+            for (int i = 0; i < nbFeatures; i++) {
+                offsets[i] = in.readLong();
+                lengths[i] = in.readInt();
+                ids[i] = in.readUTF();
+                final int treeId = in.readInt();
+                if (treeId > 0) treeToFeature[treeId] = i;
+            }
+            return new GeoJSONIndex(treeFile, fileSize, fileDate, offsets, lengths, ids, treeToFeature);
+        } catch (NoSuchFileException | EOFException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Scan the json file and create its index files.
+     *
+     * @param jsonFile json file
+     * @param crs features crs, may be null
+     * @return index, or null if the file is not a feature collection
+     */
+    static GeoJSONIndex create(Path jsonFile, CoordinateReferenceSystem crs) throws IOException {
+        try (InputStream in = Files.newInputStream(jsonFile);
+             JsonParser p = GeoJSONParser.FACTORY.createParser(in);
+             Builder builder = new Builder(jsonFile, crs)) {
+
+            if (p.nextToken() != JsonToken.START_OBJECT) return null;
+            boolean collection = false;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = p.getCurrentName();
+                final JsonToken token = p.nextToken();
+                if (FEATURES.equals(field) && token == JsonToken.START_ARRAY) {
+                    collection = true;
+                    int idx = 0;
+                    while (p.nextToken() == JsonToken.START_OBJECT) {
+                        final long start = p.getTokenLocation().getByteOffset();
+                        final GeoJSONObject obj = GeoJSONParser.parseGeoJSONObject(p);
+                        final long end = p.getCurrentLocation().getByteOffset();
+                        if (obj instanceof GeoJSONFeature) {
+                            final GeoJSONFeature feature = (GeoJSONFeature) obj;
+                            //same identifiers as GeoJSONReader
+                            final String id = feature.getId() != null ? feature.getId() : "id-"+idx;
+                            final Geometry geom = feature.getGeometry() == null ? null
+                                    : GeometryUtils.toJTS(feature.getGeometry(), crs);
+                            builder.add(start, end, id, geom);
+                            idx++;
+                        }
+                    }
+                } else {
+                    p.skipChildren();
+                }
+            }
+            return collection ? builder.finish() : null;
+        }
+    }
+
+    /**
+     * Create index files from features in file order.
+     * Files are written next to the json file when {@link #finish() } is called,
+     * closing the builder before discards them. The R-Tree is bulk loaded with
+     * all feature envelopes when finishing.
+     */
+    static final class Builder implements Closeable {
+
+        private final Path jsonFile;
+        private final Path tmpTreeFile;
+        private final CoordinateReferenceSystem crs;
+        private final FeatureMapper mapper = new FeatureMapper();
+        private final FileStarRTree<Integer> tree;
+        private long[] offsets = new long[64];
+        private int[] lengths = new int[64];
+        private String[] ids = new String[64];
+        private int[] treeIds = new int[64];
+        /** Envelope of each feature : xmin, xmax, ymin, ymax. */
+        private double[] bounds = new double[64 * 4];
+        /** Features with a geometry, which will be inserted in the tree. */
+        private final List<Integer> indexed = new ArrayList<>();
+        private int nbFeatures;
+        private boolean done;
+
+        /**
+         * @param jsonFile json file which will be indexed
+         * @param crs features crs, may be null
+         */
+        Builder(Path jsonFile, CoordinateReferenceSystem crs) throws IOException {
+            this.jsonFile = jsonFile;
+            this.tmpTreeFile = getTreeFile(jsonFile).resolveSibling(getTreeFile(jsonFile).getFileName().toString() + ".tmp");
+            //GeoJSON default crs
+            if (crs == null) crs = CommonCRS.defaultGeographic();
+            crs = CRS.getHorizontalComponent(crs);
+            if (crs == null) {
+                throw new IOException("Feature crs has no horizontal component");
+            }
+            this.crs = crs;
+            try {
+                tree = new FileStarRTree<>(tmpTreeFile, MAX_ELEMENTS, crs, mapper);
+            } catch (StoreIndexException ex) {
+                throw new IOException(ex.getMessage(), ex);
+            }
+        }
+
+        /**
+         * Add the next feature of the collection.
+         *
+         * @param start feature start position in the file
+         * @param end feature end position in the file, exclusive
+         * @param id feature identifier, null if the feature has no identifier
+         * @param geometry feature geometry, may be null
+         */
+        void add(long start, long end, String id, Geometry geometry) throws IOException {
+            if (nbFeatures == offsets.length) {
+                final int size = nbFeatures * 2;
+                offsets = Arrays.copyOf(offsets, size);
+                lengths = Arrays.copyOf(lengths, size);
+                ids = Arrays.copyOf(ids, size);
+                treeIds = Arrays.copyOf(treeIds, size);
+                bounds = Arrays.copyOf(bounds, size * 4);
+            }
+            offsets[nbFeatures] = start;
+            lengths[nbFeatures] = Math.toIntExact(end - start);
+            //same identifiers as GeoJSONReader
+            ids[nbFeatures] = (id != null) ? id : "id-"+nbFeatures;
+
+            if (geometry != null && !geometry.isEmpty()) {
+                final com.vividsolutions.jts.geom.Envelope env = geometry.getEnvelopeInternal();
+                bounds[nbFeatures*4  ] = env.getMinX();
+                bounds[nbFeatures*4+1] = env.getMaxX();
+                bounds[nbFeatures*4+2] = env.getMinY();
+                bounds[nbFeatures*4+3] = env.getMaxY();
+                indexed.add(nbFeatures);
+            }
+            nbFeatures++;
+        }
+
+        /**
+         * Write the index files, the json file must be at its final place.
+         *
+         * @return created index
+         */
+        GeoJSONIndex finish() throws IOException {
+            mapper.crs = crs;
+            mapper.bounds = bounds;
+            mapper.treeIds = treeIds;
+            try {
+                tree.insertAll(indexed);
+            } catch (StoreIndexException | IllegalArgumentException ex) {
+                throw new IOException(ex.getMessage(), ex);
+            }
+            done = true;
+            final int nbTree = tree.getElementsNumber();
+            tree.close();
+            final Path treeFile = getTreeFile(jsonFile);
+            Files.move(tmpTreeFile, treeFile, StandardCopyOption.REPLACE_EXISTING);
+
+            //table is written last, it records the json file state
+            final long fileSize = Files.size(jsonFile);
+            final long fileDate = Files.getLastModifiedTime(jsonFile).toMillis();
+            final Path tableFile = getTableFile(jsonFile);
+            final Path tmpTableFile = tableFile.resolveSibling(tableFile.getFileName().toString() + ".tmp");
+            final int[] treeToFeature = new int[nbTree + 1];
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpTableFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(fileSize);
+                out.writeLong(fileDate);
+                out.writeInt(nbFeatures);
+                out.writeInt(nbTree);
+                for (int i = 0; i < nbFeatures; i++) {
+                    out.writeLong(offsets[i]);
+                    out.writeInt(lengths[i]);
+                    out.writeUTF(ids[i]);
+                    out.writeInt(treeIds[i]);
+                    if (treeIds[i] > 0) treeToFeature[treeIds[i]] = i;
+                }
+            }
+            Files.move(tmpTableFile, tableFile, StandardCopyOption.REPLACE_EXISTING);
+
+            return new GeoJSONIndex(treeFile, fileSize, fileDate,
+                    Arrays.copyOf(offsets, nbFeatures), Arrays.copyOf(lengths, nbFeatures),
+                    Arrays.copyOf(ids, nbFeatures), treeToFeature);
+        }
+
+        /**
+         * Discard index files if {@link #finish() } has not been called.
+         */
+        @Override
+        public void close() throws IOException {
+            if (!done) {
+                done = true;
+                try {
+                    tree.close();
+                } finally {
+                    Files.deleteIfExists(tmpTreeFile);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tree elements are feature indexes, the tree only stores their envelopes.
+     * Tree identifiers are mapped back to features with the table file.
+     */
+    private static final class FeatureMapper implements TreeElementMapper<Integer> {
+
+        /** Envelopes and tree identifiers of the inserted features, by feature index. */
+        private CoordinateReferenceSystem crs;
+        private double[] bounds;
+        private int[] treeIds;
+        private boolean closed;
+
+        @Override
+        public int getTreeIdentifier(Integer object) throws IOException {
+            throw new IOException("Not supported");
+        }
+
+        @Override
+        public Envelope getEnvelope(Integer object) throws IOException {
+            final int i = object * 4;
+            final GeneralEnvelope env = new GeneralEnvelope(crs);
+            env.setRange(0, bounds[i  ], bounds[i+1]);
+            env.setRange(1, bounds[i+2], bounds[i+3]);
+            return env;
+        }
+
+        @Override
+        public void setTreeIdentifier(Integer object, int treeIdentifier) throws IOException {
+            treeIds[object] = treeIdentifier;
+        }
+
+        @Override
+        public Integer getObjectFromTreeIdentifier(int treeIdentifier) throws IOException {
+            throw new IOException("Not supported");
+        }
+
+        @Override
+        public Map<Integer, Integer> getFullMap() throws IOException {
+            throw new IOException("Not supported");
+        }
+
+        @Override
+        public void clear() throws IOException {
+        }
+
+        @Override
+        public void flush() throws IOException {
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+    }
+
+}
@@ -34,7 +34,10 @@ import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import java.io.Closeable;
 import java.io.IOException;
 import java.lang.reflect.Array;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -71,7 +74,24 @@ public class GeoJSONReader implements FeatureReader {
     protected Feature current = null;
     protected int currentFeatureIdx = 0;
 
+    /**
+     * Indexed mode, only selected features are parsed.
+     */
+    private final GeoJSONIndex index;
+    private final int[] selection;
+    private SeekableByteChannel channel;
+
     public GeoJSONReader(Path jsonFile, FeatureType featureType, ReadWriteLock rwLock) {
+        this(jsonFile, featureType, rwLock, null, null);
+    }
+
+    /**
+     * Read only features at given indexes.
+     *
+     * @param index index of the json file
+     * @param selection feature indexes, in file order
+     */
+    GeoJSONReader(Path jsonFile, FeatureType featureType, ReadWriteLock rwLock, GeoJSONIndex index, int[] selection) {
         try{
             featureType.getProperty(AttributeConvention.IDENTIFIER_PROPERTY.toString());
         }catch(PropertyNotFoundException ex){
@@ -80,6 +100,8 @@ public class GeoJSONReader implements FeatureReader {
         this.jsonFile = jsonFile;
         this.featureType = featureType;
         this.rwlock = rwLock;
+        this.index = index;
+        this.selection = selection;
         rwlock.readLock().lock();
     }
 
@@ -108,6 +130,21 @@ public class GeoJSONReader implements FeatureReader {
     private void read() throws FeatureStoreRuntimeException {
         if(current != null) return;
 
+        if (index != null) {
+            if (currentFeatureIdx < selection.length) {
+                final int feature = selection[currentFeatureIdx++];
+                try {
+                    if (channel == null) {
+                        channel = Files.newByteChannel(jsonFile, StandardOpenOption.READ);
+                    }
+                    current = toFeature(index.readFeature(channel, feature), index.getId(feature));
+                } catch (IOException e) {
+                    throw new FeatureStoreRuntimeException(e);
+                }
+            }
+            return;
+        }
+
         //first call
         if (toRead) {
             try {
@@ -330,6 +367,9 @@ public class GeoJSONReader implements FeatureReader {
             if (jsonObj instanceof Closeable) {
                 ((Closeable) jsonObj).close();
             }
+            if (channel != null) {
+                channel.close();
+            }
         } catch (IOException e) {
             e.printStackTrace();
         } finally {
@@ -164,7 +164,10 @@ class GeoJSONWriter implements Closeable, Flushable {
 
         writer.writeStartObject();
         writer.writeStringField(TYPE, FEATURE);
-        writer.writeStringField(ID, feature.getPropertyValue(AttributeConvention.IDENTIFIER_PROPERTY.toString()).toString());
+        final Object id = feature.getPropertyValue(AttributeConvention.IDENTIFIER_PROPERTY.toString());
+        if (id != null) {
+            writer.writeStringField(ID, id.toString());
+        }
 
         //write CRS
         if (single) {
@@ -8,6 +8,7 @@ import org.apache.sis.util.iso.SimpleInternationalString;
 import org.geotoolkit.data.*;
 import org.geotoolkit.data.query.QueryBuilder;
 import org.geotoolkit.data.session.Session;
+import org.geotoolkit.factory.FactoryFinder;
 import org.apache.sis.referencing.CommonCRS;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -16,6 +17,7 @@ import org.opengis.parameter.ParameterValueGroup;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.*;
 import org.apache.sis.feature.FeatureExt;
 import org.apache.sis.feature.builder.AttributeRole;
@@ -31,6 +33,7 @@ import org.opengis.feature.Feature;
 import org.opengis.feature.FeatureAssociationRole;
 import org.opengis.feature.FeatureType;
 import org.opengis.filter.Filter;
+import org.opengis.filter.FilterFactory;
 
 /**
  * @author Quentin Boileau (Geomatys)
@@ -38,6 +41,7 @@ import org.opengis.filter.Filter;
 public class GeoJSONWriteTest extends org.geotoolkit.test.TestBase {
 
     private static final GeometryFactory GF = new GeometryFactory();
+    private static final FilterFactory FF = FactoryFinder.getFilterFactory(null);
     private static final WKTReader WKT_READER = new WKTReader();
     private static final Properties PROPERTIES = new Properties();
 
@@ -101,6 +105,101 @@ public class GeoJSONWriteTest extends org.geotoolkit.test.TestBase {
         Files.deleteIfExists(pointFile);
     }
 
+    /**
+     * Features written with the index enabled must be found by bbox and identifier,
+     * with the written index and with an index rebuilt from the file.
+     */
+    @Test
+    public void writeIndexedTest() throws Exception {
+        final Path pointFile = Files.createTempFile("indexed", ".json");
+
+        final ParameterValueGroup param = PARAMETERS_DESCRIPTOR.createValue();
+        param.parameter(PATH.getName().getCode()).setValue(pointFile.toUri());
+        param.parameter(GeoJSONFeatureStoreFactory.INDEX.getName().getCode()).setValue(true);
+
+        final FeatureStore store = (FeatureStore) DataStores.open(param);
+        final String typeName = pointFile.getFileName().toString().replace(".json", "");
+        final FeatureType type = buildGeometryFeatureType(typeName, Point.class);
+        store.createFeatureType(type);
+
+        try (FeatureWriter fw = store.getFeatureWriter(QueryBuilder.filtered(typeName, Filter.EXCLUDE))) {
+            for (int y=0; y<10; y++) {
+                for (int x=0; x<10; x++) {
+                    final Feature feature = fw.next();
+                    feature.setPropertyValue(AttributeConvention.GEOMETRY_PROPERTY.toString(), GF.createPoint(new Coordinate(x, y)));
+                    feature.setPropertyValue("type", x+" "+y);
+                    fw.write();
+                }
+            }
+        }
+        final Path tableFile = GeoJSONIndex.getTableFile(pointFile);
+        final Path treeFile = GeoJSONIndex.getTreeFile(pointFile);
+        assertTrue(Files.exists(tableFile));
+        assertTrue(Files.exists(treeFile));
+
+        store.close();
+
+        //a full scan would fail on the last feature, only the index can answer
+        final byte[] content = Files.readAllBytes(pointFile);
+        final FileTime date = Files.getLastModifiedTime(pointFile);
+        final String text = new String(content, "UTF-8");
+        final int last = text.lastIndexOf("\"9 9\"");
+        assertTrue(last > 0);
+        final byte[] corrupted = content.clone();
+        corrupted[last] = '[';
+        corrupted[last + 4] = ']';
+        Files.write(pointFile, corrupted);
+        Files.setLastModifiedTime(pointFile, date);
+
+        FeatureStore reopened = (FeatureStore) DataStores.open(param);
+        assertIndexedQueries(reopened, typeName);
+        reopened.close();
+        Files.write(pointFile, content);
+        Files.setLastModifiedTime(pointFile, date);
+
+        //index must be rebuilt from the json file
+        Files.delete(tableFile);
+        Files.delete(treeFile);
+        reopened = (FeatureStore) DataStores.open(param);
+        assertIndexedQueries(reopened, typeName);
+        assertTrue(Files.exists(tableFile));
+        assertTrue(Files.exists(treeFile));
+        assertNotNull(GeoJSONIndex.read(pointFile));
+        reopened.close();
+
+        Files.deleteIfExists(pointFile);
+        Files.deleteIfExists(tableFile);
+        Files.deleteIfExists(treeFile);
+    }
+
+    private static void assertIndexedQueries(final FeatureStore store, final String typeName) throws Exception {
+        final Set<Object> values = new HashSet<>();
+        try (FeatureReader reader = store.getFeatureReader(QueryBuilder.filtered(typeName,
+                FF.bbox("geometry", 2.5, 3.5, 4.5, 5.5, "CRS:84")))) {
+            while (reader.hasNext()) {
+                values.add(reader.next().getPropertyValue("type"));
+            }
+        }
+        assertEquals(new HashSet<>(Arrays.asList("3 4","4 4","3 5","4 5")), values);
+
+        //bbox without srs, expressed in the layer crs
+        values.clear();
+        try (FeatureReader reader = store.getFeatureReader(QueryBuilder.filtered(typeName,
+                FF.bbox("geometry", 2.5, 3.5, 4.5, 5.5, null)))) {
+            while (reader.hasNext()) {
+                values.add(reader.next().getPropertyValue("type"));
+            }
+        }
+        assertEquals(new HashSet<>(Arrays.asList("3 4","4 4","3 5","4 5")), values);
+
+        try (FeatureReader reader = store.getFeatureReader(QueryBuilder.filtered(typeName,
+                FF.id(Collections.singleton(FF.featureId("id-42")))))) {
+            assertTrue(reader.hasNext());
+            assertEquals("2 4", reader.next().getPropertyValue("type"));
+            assertFalse(reader.hasNext());
+        }
+    }
+
     @Test
     public void writeAbstractGeometryTest() throws Exception {
 
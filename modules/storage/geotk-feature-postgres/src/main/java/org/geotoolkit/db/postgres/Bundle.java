@@ -38,15 +38,25 @@ public final class Bundle extends IndexedResourceBundle {
         private Keys() {
         }
 
+        /**
+         * Copy insert
+         */
+        public static final short copy_insert = 1;
+
+        /**
+         * Use COPY FROM STDIN for bulk insertions
+         */
+        public static final short copy_insert_remarks = 2;
+
         /**
          * Loose bbox
          */
-        public static final short lbbox = 1;
+        public static final short lbbox = 3;
 
         /**
          * Perform only primary filter on bbox
          */
-        public static final short lbbox_remarks = 2;
+        public static final short lbbox_remarks = 4;
     }
 
     /**
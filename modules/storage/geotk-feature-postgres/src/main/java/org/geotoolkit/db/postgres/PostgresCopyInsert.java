@@ -0,0 +1,206 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.db.postgres;
+
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.io.WKBWriter;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import org.apache.sis.storage.DataStoreException;
+import org.geotoolkit.db.dialect.SQLDialect;
+import org.geotoolkit.db.dialect.SQLQueryBuilder;
+import org.geotoolkit.db.reverse.ColumnMetaModel;
+import org.geotoolkit.db.reverse.PrimaryKey;
+import org.opengis.coverage.Coverage;
+import org.opengis.feature.AttributeType;
+import org.opengis.feature.Feature;
+import org.opengis.feature.FeatureType;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+/**
+ * Bulk insertion of features using postgres COPY FROM STDIN command.
+ * Records are encoded in postgres text format, geometries as hexadecimal EWKB.
+ *
+ * @author agent
+ */
+final class PostgresCopyInsert {
+
+    /**
+     * Number of characters buffered before sending them to the server.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final PostgresFeatureStore store;
+    private final FeatureType featureType;
+    private final List<AttributeType> attributes;
+    private final String[] names;
+    private final int[] keyIndexes;
+    private final boolean[] geometries;
+
+    PostgresCopyInsert(final PostgresFeatureStore store, final SQLQueryBuilder builder,
+            final FeatureType featureType) throws DataStoreException {
+        this.store = store;
+        this.featureType = featureType;
+        this.attributes = builder.getInsertAttributes(featureType);
+
+        final List<ColumnMetaModel> keyColumns = store.getDatabaseModel()
+                .getPrimaryKey(featureType.getName().toString()).getColumns();
+        final int nbAtt = attributes.size();
+        names = new String[nbAtt];
+        keyIndexes = new int[nbAtt];
+        geometries = new boolean[nbAtt];
+        for (int i=0; i<nbAtt; i++) {
+            final AttributeType att = attributes.get(i);
+            names[i] = att.getName().tip().toString();
+            geometries[i] = Geometry.class.isAssignableFrom(att.getValueClass());
+            keyIndexes[i] = -1;
+            for (int k=0,n=keyColumns.size(); k<n; k++) {
+                if (keyColumns.get(k).getName().equals(names[i])) {
+                    keyIndexes[i] = k;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Test if all attributes can be encoded in the COPY text format.
+     * Coverages and arrays are not supported.
+     */
+    boolean isSupported() {
+        for (AttributeType att : attributes) {
+            final Class binding = att.getValueClass();
+            if (Coverage.class.isAssignableFrom(binding)
+                    || (binding.isArray() && binding != byte[].class)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Insert the features.
+     *
+     * @param cx connection, must be a wrapper for a {@link PGConnection}
+     * @param features features to insert
+     */
+    void insert(final Connection cx, final Collection<? extends Feature> features)
+            throws SQLException, DataStoreException {
+        final SQLDialect dialect = store.getDialect();
+        final PrimaryKey key = store.getDatabaseModel().getPrimaryKey(featureType.getName().toString());
+
+        final StringBuilder sql = new StringBuilder("COPY ");
+        dialect.encodeSchemaAndTableName(sql, store.getDatabaseSchema(), featureType.getName().tip().toString());
+        sql.append(" (");
+        for (int i=0; i<names.length; i++) {
+            if (i > 0) sql.append(',');
+            dialect.encodeColumnName(sql, names[i]);
+        }
+        sql.append(") FROM STDIN");
+
+        final CopyIn copy = cx.unwrap(PGConnection.class).getCopyAPI().copyIn(sql.toString());
+        try {
+            final StringBuilder buffer = new StringBuilder(BUFFER_SIZE + 1024);
+            for (Feature feature : features) {
+                Object[] nextKeyValues = null;
+                for (int i=0; i<names.length; i++) {
+                    Object value = feature.getPropertyValue(names[i]);
+                    if (value == null && keyIndexes[i] >= 0) {
+                        //maybe it's an auto generated value from a sequence
+                        if (nextKeyValues == null) {
+                            nextKeyValues = key.nextPrimaryKeyValues(store, cx);
+                        }
+                        value = nextKeyValues[keyIndexes[i]];
+                    }
+                    if (i > 0) buffer.append('\t');
+                    if (geometries[i]) {
+                        encodeGeometry(buffer, (Geometry) value, SQLQueryBuilder.getGeometrySRID((Geometry) value, attributes.get(i)));
+                    } else {
+                        encodeValue(buffer, value);
+                    }
+                }
+                buffer.append('\n');
+
+                if (buffer.length() >= BUFFER_SIZE) {
+                    flush(copy, buffer);
+                }
+            }
+            flush(copy, buffer);
+            copy.endCopy();
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+    private static void flush(final CopyIn copy, final StringBuilder buffer) throws SQLException {
+        if (buffer.length() > 0) {
+            final byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copy.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+
+    private void encodeGeometry(final StringBuilder buffer, final Geometry value, final int srid) {
+        if (value == null || (value.isEmpty() && ((PostgresDialect) store.getDialect()).isPostgis1())) {
+            buffer.append("\\N");
+        } else {
+            buffer.append(WKBWriter.toHex(PostgresDialect.toEWKB(value, srid)));
+        }
+    }
+
+    /**
+     * Append a value in the COPY text format.
+     * Null is written as {@code \N}, backslash, line feed, carriage return and
+     * tabulation are escaped with a backslash.
+     */
+    static void encodeValue(final StringBuilder buffer, final Object value) {
+        if (value == null) {
+            buffer.append("\\N");
+        } else if (value instanceof Boolean) {
+            buffer.append(((Boolean) value) ? 't' : 'f');
+        } else if (value instanceof Number) {
+            buffer.append(value.toString());
+        } else if (value instanceof byte[]) {
+            //bytea hexadecimal format, backslash must be escaped
+            buffer.append("\\\\x").append(WKBWriter.toHex((byte[]) value));
+        } else if (value instanceof Date && !(value instanceof java.sql.Date
+                || value instanceof java.sql.Time || value instanceof Timestamp)) {
+            buffer.append(new Timestamp(((Date) value).getTime()).toString());
+        } else {
+            final String str = value.toString();
+            for (int i=0,n=str.length(); i<n; i++) {
+                final char c = str.charAt(i);
+                switch (c) {
+                    case '\\' : buffer.append("\\\\"); break;
+                    case '\n' : buffer.append("\\n"); break;
+                    case '\r' : buffer.append("\\r"); break;
+                    case '\t' : buffer.append("\\t"); break;
+                    default : buffer.append(c);
+                }
+            }
+        }
+    }
+
+}
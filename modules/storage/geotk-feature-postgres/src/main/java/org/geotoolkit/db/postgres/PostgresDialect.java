@@ -16,6 +16,7 @@
  */
 package org.geotoolkit.db.postgres;
 
+import com.vividsolutions.jts.geom.Coordinate;
 import com.vividsolutions.jts.geom.Geometry;
 import com.vividsolutions.jts.geom.GeometryCollection;
 import com.vividsolutions.jts.geom.LineString;
@@ -26,12 +27,16 @@ import com.vividsolutions.jts.geom.MultiPolygon;
 import com.vividsolutions.jts.geom.Point;
 import com.vividsolutions.jts.geom.Polygon;
 import com.vividsolutions.jts.io.ParseException;
+import com.vividsolutions.jts.io.ByteOrderValues;
 import com.vividsolutions.jts.io.WKBReader;
+import com.vividsolutions.jts.io.WKBWriter;
 import java.io.IOException;
 import java.lang.reflect.Array;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.sql.Connection;
 import java.sql.Date;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -675,6 +680,96 @@ final class PostgresDialect extends AbstractSQLDialect{
         }
     }
 
+    /**
+     * Geometries are send as EWKB, this way each geometry carries its own srid.
+     */
+    @Override
+    public void encodeGeometryParameter(StringBuilder sql, int srid) {
+        sql.append("st_geomfromewkb(?)");
+    }
+
+    @Override
+    public void setGeometryValue(PreparedStatement stmt, int index, Geometry value, int srid) throws SQLException {
+        if (value == null || (value.isEmpty() && isPostgis1())) {
+            //empty geometries are interpreted as Geometrycollection in postgis < 2
+            //this breaks the column geometry type constraint so we replace those by null
+            stmt.setNull(index, Types.BINARY);
+        } else {
+            stmt.setBytes(index, toEWKB(value, srid));
+        }
+    }
+
+    /**
+     * Java arrays can not be bound with setObject, they are converted to
+     * sql arrays of the component database type.
+     */
+    @Override
+    public void setValue(PreparedStatement stmt, int index, Object value, Class type) throws SQLException {
+        if (value != null && value.getClass().isArray() && !(value instanceof byte[])) {
+            Class base = value.getClass();
+            while (base.isArray()) base = base.getComponentType();
+            String typeName = getSQLType(base);
+            if (typeName.isEmpty()) {
+                //big decimal
+                typeName = "numeric";
+            }
+            stmt.setArray(index, stmt.getConnection().createArrayOf(typeName, toObjectArray(value)));
+        } else {
+            super.setValue(stmt, index, value, type);
+        }
+    }
+
+    /**
+     * Copy an array in an Object array, primitive values are boxed.
+     * Multi dimensional arrays are copied recursively.
+     */
+    static Object[] toObjectArray(final Object array) {
+        final int length = Array.getLength(array);
+        final Object[] copy = new Object[length];
+        final boolean nested = array.getClass().getComponentType().isArray();
+        for (int i=0; i<length; i++) {
+            final Object value = Array.get(array, i);
+            copy[i] = (nested && value != null) ? toObjectArray(value) : value;
+        }
+        return copy;
+    }
+
+    /**
+     * @return true if the database postgis major version is lower then 2
+     */
+    boolean isPostgis1() {
+        return ((Comparable)getVersion(null).getMajor()).compareTo((Comparable)Integer.valueOf(2)) < 0;
+    }
+
+    /**
+     * Encode geometry in postgis extended WKB, including the srid if defined.
+     *
+     * @param value geometry to encode, not null
+     * @param srid geometry srid, ignored if zero or negative
+     * @return EWKB bytes
+     */
+    static byte[] toEWKB(Geometry value, int srid) {
+        if (value instanceof LinearRing) {
+            //postgis does not handle linear rings, convert to just a line string
+            value = value.getFactory().createLineString(((LinearRing) value).getCoordinateSequence());
+        }
+        final Coordinate coord = value.getCoordinate();
+        final int dimension = (coord == null || Double.isNaN(coord.z)) ? 2 : 3;
+        final byte[] wkb = new WKBWriter(dimension, ByteOrderValues.BIG_ENDIAN).write(value);
+        if (srid <= 0) {
+            return wkb;
+        }
+
+        //insert the srid after the geometry type and set the srid flag
+        final byte[] ewkb = new byte[wkb.length + 4];
+        final ByteBuffer buffer = ByteBuffer.wrap(ewkb);
+        buffer.put(wkb[0]);
+        buffer.putInt(ByteBuffer.wrap(wkb, 1, 4).getInt() | 0x20000000);
+        buffer.putInt(srid);
+        buffer.put(wkb, 5, wkb.length - 5);
+        return ewkb;
+    }
+
     @Override
     public void encodeCoverageValue(StringBuilder sql, Coverage value) throws DataStoreException {
         try{
@@ -21,6 +21,7 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Collection;
 import org.geotoolkit.data.query.DefaultQueryCapabilities;
 import org.geotoolkit.data.query.Query;
 import org.geotoolkit.data.query.QueryCapabilities;
@@ -32,8 +33,10 @@ import org.apache.sis.storage.DataStoreException;
 import org.geotoolkit.parameter.Parameters;
 import org.geotoolkit.version.VersionControl;
 import org.geotoolkit.version.VersioningException;
+import org.opengis.feature.Feature;
 import org.opengis.feature.FeatureType;
 import org.opengis.parameter.ParameterValueGroup;
+import org.postgresql.PGConnection;
 
 /**
  * Extends default jdbc feature store with versioning and subsampling capabilities.
@@ -47,14 +50,18 @@ public class PostgresFeatureStore extends DefaultJDBCFeatureStore{
     //historisation informations
     private Boolean hasHSFunctions;
     private PostgresQueryBuilder querybuilder = null;
+    //use COPY FROM STDIN for batch insertions
+    private final boolean copyInsert;
     
     public PostgresFeatureStore(String host, int port, String database, String schema, String user, String password) throws DataStoreException {
-        super(toParameters(host,port,database,schema,user,password), PostgresFeatureStoreFactory.NAME);
+        this(toParameters(host,port,database,schema,user,password), PostgresFeatureStoreFactory.NAME);
         ((PostgresFeatureStoreFactory)getFactory()).prepareStore(this, parameters);
     }
     
     public PostgresFeatureStore(ParameterValueGroup params, String factoryId) {
         super(params, factoryId);
+        final Boolean copy = (Boolean) Parameters.getOrCreate(PostgresFeatureStoreFactory.COPYINSERT, params).getValue();
+        copyInsert = Boolean.TRUE.equals(copy);
     }
 
     private static ParameterValueGroup toParameters(String host, int port, 
@@ -82,6 +89,36 @@ public class PostgresFeatureStore extends DefaultJDBCFeatureStore{
         return querybuilder;
     }
     
+    /**
+     * Use COPY FROM STDIN command if enabled in the store parameters,
+     * fallback on default batch insertion otherwise.
+     */
+    @Override
+    protected void insert(Collection<? extends Feature> features, FeatureType featureType,
+            Connection cx) throws DataStoreException {
+        if (!copyInsert) {
+            super.insert(features, featureType, cx);
+            return;
+        }
+
+        final PostgresCopyInsert copy = new PostgresCopyInsert(this, getQueryBuilder(), featureType);
+        synchronized (this) {
+            try {
+                if (!copy.isSupported() || !cx.isWrapperFor(PGConnection.class)) {
+                    super.insert(features, featureType, cx);
+                    return;
+                }
+                copy.insert(cx, features);
+
+                if (cx.getAutoCommit()) {
+                    fireFeaturesAdded(featureType.getName(), null);
+                }
+            } catch (SQLException ex) {
+                throw new DataStoreException("Error inserting features : "+ex.getMessage(), ex);
+            }
+        }
+    }
+
     ////////////////////////////////////////////////////////////////////////////
     // Versioning control //////////////////////////////////////////////////////
     ////////////////////////////////////////////////////////////////////////////
@@ -66,6 +66,16 @@ public class PostgresFeatureStoreFactory extends AbstractJDBCFeatureStoreFactory
             .setRequired(false)
             .create(Boolean.class, Boolean.TRUE);
 
+    /**
+     * Parameter to use COPY FROM STDIN for batch insertions.
+     */
+    public static final ParameterDescriptor<Boolean> COPYINSERT = new ParameterBuilder()
+            .addName("Copy insert")
+            .addName(Bundle.formatInternational(Bundle.Keys.copy_insert))
+            .setRemarks(Bundle.formatInternational(Bundle.Keys.copy_insert_remarks))
+            .setRequired(false)
+            .create(Boolean.class, Boolean.FALSE);
+
     /**
      * Parameter for database port.
      */
@@ -75,7 +85,7 @@ public class PostgresFeatureStoreFactory extends AbstractJDBCFeatureStoreFactory
     public static final ParameterDescriptorGroup PARAMETERS_DESCRIPTOR =
             new ParameterBuilder().addName("PostgresParameters").createGroup(
                 IDENTIFIER,HOST,PORT,DATABASE,SCHEMA,TABLE,USER,PASSWORD,NAMESPACE,
-                DATASOURCE,MAXCONN,MINCONN,VALIDATECONN,FETCHSIZE,MAXWAIT,LOOSEBBOX,SIMPLETYPE);
+                DATASOURCE,MAXCONN,MINCONN,VALIDATECONN,FETCHSIZE,BATCHSIZE,MAXWAIT,LOOSEBBOX,COPYINSERT,SIMPLETYPE);
     
     
     @Override
@@ -0,0 +1,95 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.db.postgres;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.LinearRing;
+import com.vividsolutions.jts.geom.Point;
+import com.vividsolutions.jts.io.WKBWriter;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test postgres value encodings which do not require a database.
+ *
+ * @author agent
+ * @module
+ */
+public class PostgresEncodingTest extends org.geotoolkit.test.TestBase {
+
+    private static final GeometryFactory GF = new GeometryFactory();
+
+    /**
+     * The srid must be inserted after the geometry type, with the srid flag set.
+     */
+    @Test
+    public void ewkbTest() {
+        final Point point = GF.createPoint(new Coordinate(1, 2));
+
+        //no srid, plain WKB
+        assertEquals("00"+"00000001"+"3FF0000000000000"+"4000000000000000",
+                WKBWriter.toHex(PostgresDialect.toEWKB(point, 0)));
+
+        assertEquals("00"+"20000001"+"000010E6"+"3FF0000000000000"+"4000000000000000",
+                WKBWriter.toHex(PostgresDialect.toEWKB(point, 4326)));
+
+        //3D geometry, z flag preserved
+        final Point point3d = GF.createPoint(new Coordinate(1, 2, 3));
+        assertEquals("00"+"A0000001"+"000010E6"+"3FF0000000000000"+"4000000000000000"+"4008000000000000",
+                WKBWriter.toHex(PostgresDialect.toEWKB(point3d, 4326)));
+
+        //linear rings are encoded as line strings
+        final LinearRing ring = GF.createLinearRing(new Coordinate[]{
+            new Coordinate(0, 0), new Coordinate(1, 0), new Coordinate(1, 1), new Coordinate(0, 0)});
+        final String hex = WKBWriter.toHex(PostgresDialect.toEWKB(ring, 2154));
+        assertTrue(hex, hex.startsWith("00"+"20000002"+"0000086A"+"00000004"));
+    }
+
+    /**
+     * Special characters must be escaped in the COPY text format.
+     */
+    @Test
+    public void copyTextEscapeTest() {
+        assertEquals("\\N", encode(null));
+        assertEquals("t", encode(Boolean.TRUE));
+        assertEquals("12.5", encode(12.5));
+        assertEquals("a\\tb", encode("a\tb"));
+        assertEquals("line\\nbreak\\r", encode("line\nbreak\r"));
+        assertEquals("c:\\\\dir", encode("c:\\dir"));
+        //backslash of the bytea hexadecimal prefix is escaped
+        assertEquals("\\\\x01AB", encode(new byte[]{1, (byte) 0xAB}));
+    }
+
+    /**
+     * Arrays bound as sql arrays must be copied as object arrays.
+     */
+    @Test
+    public void objectArrayTest() {
+        final Object[] array = PostgresDialect.toObjectArray(new int[][]{{1, 2}, {3, 4}});
+        assertEquals(2, array.length);
+        assertArrayEquals(new Object[]{1, 2}, (Object[]) array[0]);
+        assertArrayEquals(new Object[]{3, 4}, (Object[]) array[1]);
+    }
+
+    private static String encode(final Object value) {
+        final StringBuilder sb = new StringBuilder();
+        PostgresCopyInsert.encodeValue(sb, value);
+        return sb.toString();
+    }
+
+}
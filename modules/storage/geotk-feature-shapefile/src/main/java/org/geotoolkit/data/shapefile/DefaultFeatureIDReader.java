@@ -47,8 +47,17 @@ public class DefaultFeatureIDReader implements FeatureIDReader {
      * @param base string use as start element of the generated ids
      */
     public DefaultFeatureIDReader(final String base) {
+        this(base, 0);
+    }
+
+    /**
+     * @param base string use as start element of the generated ids
+     * @param start number of ids before the first returned one
+     */
+    public DefaultFeatureIDReader(final String base, final long start) {
         ensureNonNull("base string", base);
         this.base = base + ".";
+        this.inc.set(start);
     }
 
     /**
@@ -0,0 +1,134 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.data.shapefile;
+
+import java.util.ArrayDeque;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import org.apache.sis.storage.DataStoreException;
+import org.geotoolkit.data.FeatureReader;
+import org.geotoolkit.data.FeatureStoreRuntimeException;
+import org.geotoolkit.data.query.Query;
+import org.opengis.feature.Feature;
+import org.opengis.filter.Filter;
+
+/**
+ * Spliterator over a range of shapefile records.
+ * Splits are made by record ranges. Records are read by batches, a reader is opened
+ * for each batch and closed once the batch is read, so a spliterator which is not
+ * fully consumed does not hold any file.
+ *
+ * @author agent
+ * @module
+ */
+final class ShapefileFeatureSpliterator implements Spliterator<Feature> {
+
+    /**
+     * Minimum number of records in a split.
+     */
+    static final int MIN_SPLIT_SIZE = 1024;
+
+    /**
+     * Number of records read with the same reader.
+     */
+    private static final int BATCH_SIZE = 256;
+
+    private final ShapefileFeatureStore store;
+    private final Query query;
+    private final int[] offsets;
+    private final boolean sized;
+    private final int minSplitSize;
+    private final int end;
+    /**
+     * Features of the last batch not yet consumed, they are before index.
+     */
+    private final ArrayDeque<Feature> batch = new ArrayDeque<>();
+    private int index;
+
+    /**
+     * @param store source store
+     * @param query features query, without sort, start index or max features
+     * @param offsets records offsets in bytes
+     * @param minSplitSize minimum number of records in a split
+     */
+    ShapefileFeatureSpliterator(final ShapefileFeatureStore store, final Query query, final int[] offsets,
+            final int minSplitSize) {
+        this(store, query, offsets, minSplitSize, 0, offsets.length);
+    }
+
+    private ShapefileFeatureSpliterator(final ShapefileFeatureStore store, final Query query, final int[] offsets,
+            final int minSplitSize, final int start, final int end) {
+        this.store = store;
+        this.query = query;
+        this.offsets = offsets;
+        this.sized = query.getFilter() == Filter.INCLUDE;
+        this.minSplitSize = minSplitSize;
+        this.index = start;
+        this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super Feature> action) {
+        //filtered batches may be empty
+        while (batch.isEmpty()) {
+            if (index >= end) {
+                return false;
+            }
+            readBatch();
+        }
+        action.accept(batch.poll());
+        return true;
+    }
+
+    /**
+     * Read the features of the next records batch.
+     */
+    private void readBatch() {
+        final int batchEnd = Math.min(end, index + BATCH_SIZE);
+        try (FeatureReader reader = store.getFeatureReader(query, offsets, index, batchEnd)) {
+            while (reader.hasNext()) {
+                batch.add(reader.next());
+            }
+        } catch (DataStoreException ex) {
+            throw new FeatureStoreRuntimeException(ex);
+        }
+        index = batchEnd;
+    }
+
+    @Override
+    public Spliterator<Feature> trySplit() {
+        //features of the current batch must stay before the prefix
+        if (!batch.isEmpty() || end - index < 2 * minSplitSize) {
+            return null;
+        }
+        final int mid = (index + end) >>> 1;
+        final Spliterator<Feature> prefix = new ShapefileFeatureSpliterator(store, query, offsets, minSplitSize, index, mid);
+        index = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return batch.size() + end - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return sized ? (ORDERED | NONNULL | SIZED | SUBSIZED) : (ORDERED | NONNULL);
+    }
+
+}
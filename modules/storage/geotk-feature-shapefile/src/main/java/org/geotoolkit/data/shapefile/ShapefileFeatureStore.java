@@ -38,11 +38,14 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
 import java.util.logging.Level;
+import java.util.stream.IntStream;
 import org.apache.sis.feature.FeatureExt;
 import org.apache.sis.feature.FeatureTypeExt;
 import org.apache.sis.feature.builder.AttributeRole;
@@ -70,6 +73,9 @@ import org.geotoolkit.data.shapefile.shp.ShapeType;
 import org.geotoolkit.data.shapefile.shp.ShapefileHeader;
 import org.geotoolkit.data.shapefile.shp.ShapefileReader;
 import org.geotoolkit.data.shapefile.shp.ShapefileWriter;
+import org.geotoolkit.data.shapefile.shx.ShxReader;
+import org.geotoolkit.data.shapefile.indexed.IndexDataReader.ShpData;
+import org.geotoolkit.data.shapefile.indexed.IndexedShapefileAttributeReader;
 import org.geotoolkit.factory.Hints;
 import org.geotoolkit.filter.visitor.FilterAttributeExtractor;
 import org.geotoolkit.geometry.jts.JTSEnvelope2D;
@@ -322,6 +328,21 @@ public class ShapefileFeatureStore extends AbstractFeatureStore implements DataF
      */
     @Override
     public FeatureReader getFeatureReader(final Query query) throws DataStoreException {
+        return getFeatureReader(query, null, 0, 0);
+    }
+
+    /**
+     * Create a reader for all records or a range of records.
+     *
+     * @param query features query
+     * @param offsets records offsets in bytes, from the shx file, null to read all records
+     * @param start first record index, inclusive
+     * @param end last record index, exclusive
+     * @return FeatureReader
+     * @throws DataStoreException
+     */
+    FeatureReader getFeatureReader(final Query query, final int[] offsets, final int start, final int end)
+            throws DataStoreException {
         final FeatureType type = getFeatureType(query.getTypeName());
 
         final Hints hints = query.getHints();
@@ -344,60 +365,104 @@ public class ShapefileFeatureStore extends AbstractFeatureStore implements DataF
 
         // check if the geometry is the one and only attribute needed
         // to return attribute _and_ to run the query filter
-        if (   propertyNames != null
+        final boolean readDbf = !(propertyNames != null
             && propertyNames.length == 1
             && NamesExt.valueOf(propertyNames[0]).tip().toString().equals(defaultGeomName.tip().toString())
             && (filterAttnames.length == 0 || (filterAttnames.length == 1 && filterAttnames[0].tip().toString()
-                        .equals(defaultGeomName.tip().toString())))) {
-            try {
-                final FeatureType newSchema = FeatureTypeExt.createSubType(schema, propertyNames);
-
-                final ShapefileAttributeReader attReader = getAttributesReader(false,read3D,resample);
-                final FeatureIDReader idReader = new DefaultFeatureIDReader(typeName);
-                FeatureReader reader = ShapefileFeatureReader.create(attReader, idReader, newSchema, hints);
-                final QueryBuilder remaining = new QueryBuilder(query.getTypeName());
-                remaining.setProperties(query.getPropertyNames());
-                remaining.setFilter(query.getFilter());
-                remaining.setHints(query.getHints());
-                remaining.setCRS(query.getCoordinateSystemReproject());
-                remaining.setSortBy(query.getSortBy());
-                remaining.setStartIndex(query.getStartIndex());
-                remaining.setMaxFeatures(query.getMaxFeatures());
-                reader = handleRemaining(reader, remaining.buildQuery());
-
-                return reader;
-            } catch (MismatchedFeatureException se) {
-                throw new DataStoreException("Error creating schema", se);
+                        .equals(defaultGeomName.tip().toString()))));
+
+        try {
+            final FeatureType newSchema;
+            if (propertyNames != null) {
+                newSchema = FeatureTypeExt.createSubType(schema, propertyNames);
+            } else {
+                newSchema = schema;
             }
-        }else{
-             try {
-                final FeatureType newSchema;
-                if (propertyNames != null) {
-                    newSchema = FeatureTypeExt.createSubType(schema, propertyNames);
-                } else {
-                    newSchema = schema;
-                }
 
-                final ShapefileAttributeReader attReader = getAttributesReader(true,read3D,resample);
-                final FeatureIDReader idReader = new DefaultFeatureIDReader(typeName);
-                FeatureReader reader = ShapefileFeatureReader.create(attReader,idReader, newSchema, hints);
-                QueryBuilder query2 = new QueryBuilder(query.getTypeName());
-                query2.setProperties(query.getPropertyNames());
-                query2.setFilter(query.getFilter());
-                query2.setHints(query.getHints());
-                query2.setCRS(query.getCoordinateSystemReproject());
-                query2.setSortBy(query.getSortBy());
-                query2.setStartIndex(query.getStartIndex());
-                query2.setMaxFeatures(query.getMaxFeatures());
-                reader = handleRemaining(reader, query2.buildQuery());
-
-                return reader;
-            } catch (MismatchedFeatureException se) {
-                throw new DataStoreException("Error creating schema", se);
+            final ShapefileAttributeReader attReader;
+            final FeatureIDReader idReader;
+            if (offsets == null) {
+                attReader = getAttributesReader(readDbf,read3D,resample);
+                idReader = new DefaultFeatureIDReader(typeName);
+            } else {
+                final IndexedShapefileAttributeReader rangeReader = getAttributesReader(readDbf,read3D,resample,offsets,start,end);
+                attReader = rangeReader;
+                idReader = getFeatureIDReader(typeName, rangeReader, start);
             }
+
+            FeatureReader reader = ShapefileFeatureReader.create(attReader,idReader, newSchema, hints);
+            final QueryBuilder remaining = new QueryBuilder(query.getTypeName());
+            remaining.setProperties(query.getPropertyNames());
+            remaining.setFilter(query.getFilter());
+            remaining.setHints(query.getHints());
+            remaining.setCRS(query.getCoordinateSystemReproject());
+            remaining.setSortBy(query.getSortBy());
+            remaining.setStartIndex(query.getStartIndex());
+            remaining.setMaxFeatures(query.getMaxFeatures());
+            reader = handleRemaining(reader, remaining.buildQuery());
+
+            return reader;
+        } catch (MismatchedFeatureException se) {
+            throw new DataStoreException("Error creating schema", se);
         }
+    }
 
+    /**
+     * Create a spliterator splitting the features by ranges of records, using the
+     * records offsets from the shx file. Each split opens its own readers, records
+     * of different splits can be decoded in parallel.
+     * <p>
+     * Queries with sort, start index or max features can not be split, null is
+     * returned in this case, or if the shx file is missing.
+     * Readers are opened for each batch of records and closed before returning
+     * the batch features, a stream which is not fully consumed keeps no file open.
+     * </p>
+     *
+     * @param query features query
+     * @return spliterator or null
+     * @throws DataStoreException
+     */
+    @Override
+    public Spliterator<Feature> getFeatureSpliterator(final Query query) throws DataStoreException {
+        return getFeatureSpliterator(query, ShapefileFeatureSpliterator.MIN_SPLIT_SIZE);
+    }
 
+    /**
+     * Create a spliterator splitting the features by ranges of records.
+     *
+     * @param query features query
+     * @param minSplitSize minimum number of records in a split
+     * @return spliterator or null
+     * @throws DataStoreException
+     */
+    Spliterator<Feature> getFeatureSpliterator(final Query query, final int minSplitSize) throws DataStoreException {
+        if ((query.getSortBy() != null && query.getSortBy().length > 0)
+                || query.getStartIndex() > 0 || query.getMaxFeatures() != null) {
+            return null;
+        }
+        //check the type name
+        getFeatureType(query.getTypeName());
+
+        if (!shpFiles.supportsRandomAccess(SHP)) {
+            return null;
+        }
+
+        final AccessManager locker = shpFiles.createLocker();
+        try {
+            final ShxReader shx = locker.getSHXReader(useMemoryMappedBuffer);
+            if (shx == null) {
+                return null;
+            }
+            final int[] offsets = new int[shx.getRecordCount()];
+            for (int i=0; i<offsets.length; i++) {
+                offsets[i] = shx.getOffsetInBytes(i);
+            }
+            return new ShapefileFeatureSpliterator(this, query, offsets, minSplitSize);
+        } catch (IOException ex) {
+            throw new DataStoreException(ex);
+        } finally {
+            locker.disposeReaderAndWriters();
+        }
     }
 
     /**
@@ -692,15 +757,7 @@ public class ShapefileFeatureStore extends AbstractFeatureStore implements DataF
             final boolean read3D, final double[] resample) throws DataStoreException {
 
         final AccessManager locker = shpFiles.createLocker();
-        final FeatureType schema = getFeatureType();
-
-        final AttributeType[] descs;
-        if(readDbf){
-            descs =  getAttributes(schema,false).toArray(new AttributeType[0]);
-        }else{
-            getLogger().fine("The DBF file won't be opened since no attributes will be read from it");
-            descs = new AttributeType[]{FeatureExt.getDefaultGeometryAttribute(schema)};
-        }
+        final AttributeType[] descs = getReadAttributes(readDbf);
         try {
             return new ShapefileAttributeReader(locker, descs, read3D,
                     useMemoryMappedBuffer,resample, readDbf, dbfCharset,null);
@@ -709,6 +766,58 @@ public class ShapefileFeatureStore extends AbstractFeatureStore implements DataF
         }
     }
 
+    /**
+     * Returns an attribute reader on a range of records.
+     *
+     * @param readDbf - if true, the dbf fill will be opened and read
+     * @param read3D - for shp reader, read 3d coordinate or not.
+     * @param resample - for shp reader, decimate coordinates while reading
+     * @param offsets - records offsets in bytes
+     * @param start - first record index, inclusive
+     * @param end - last record index, exclusive
+     * @return A reader for reading of data attributes.
+     * @throws DataStoreException If we fails reading underlyig data.
+     */
+    private IndexedShapefileAttributeReader getAttributesReader(final boolean readDbf,
+            final boolean read3D, final double[] resample, final int[] offsets,
+            final int start, final int end) throws DataStoreException {
+
+        final AccessManager locker = shpFiles.createLocker();
+        final AttributeType[] descs = getReadAttributes(readDbf);
+        //record numbers are 1 based
+        final Iterator<ShpData> records = IntStream.range(start, end)
+                .mapToObj(i -> new ShpData(i+1, offsets[i])).iterator();
+        try {
+            return new IndexedShapefileAttributeReader<>(locker, descs, read3D,
+                    useMemoryMappedBuffer, resample, readDbf, dbfCharset, null, null, records);
+        } catch (IOException ex) {
+            throw new DataStoreException(ex);
+        }
+    }
+
+    /**
+     * Returns the feature id reader used with a range attribute reader.
+     *
+     * @param typeName - feature type name, used as id prefix
+     * @param reader - range attribute reader
+     * @param start - first record index
+     * @return FeatureIDReader, ids must be the same as when reading all records
+     */
+    protected FeatureIDReader getFeatureIDReader(final String typeName,
+            final IndexedShapefileAttributeReader reader, final int start) {
+        return new DefaultFeatureIDReader(typeName, start);
+    }
+
+    private AttributeType[] getReadAttributes(final boolean readDbf) throws DataStoreException {
+        final FeatureType schema = getFeatureType();
+        if(readDbf){
+            return getAttributes(schema,false).toArray(new AttributeType[0]);
+        }else{
+            getLogger().fine("The DBF file won't be opened since no attributes will be read from it");
+            return new AttributeType[]{FeatureExt.getDefaultGeometryAttribute(schema)};
+        }
+    }
+
     @Override
     public Path[] getDataFiles() throws DataStoreException {
         final List<Path> files = new ArrayList<>();
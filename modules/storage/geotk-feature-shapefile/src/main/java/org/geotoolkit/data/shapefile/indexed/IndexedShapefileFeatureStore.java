@@ -67,6 +67,7 @@ import org.apache.sis.referencing.CRS;
 import org.apache.sis.storage.DataStoreException;
 import org.geotoolkit.util.NullProgressListener;
 import org.opengis.feature.AttributeType;
+import org.opengis.feature.Feature;
 import org.opengis.feature.FeatureType;
 import org.opengis.util.GenericName;
 import org.opengis.feature.MismatchedFeatureException;
@@ -301,6 +302,34 @@ public class IndexedShapefileFeatureStore extends ShapefileFeatureStore {
         return handleRemaining(reader, qb.buildQuery());
     }
 
+    /**
+     * {@inheritDoc }
+     *
+     * Queries which can use the spatial or fid index and stores with a fid index
+     * are not split.
+     */
+    @Override
+    public Spliterator<Feature> getFeatureSpliterator(final Query query) throws DataStoreException {
+        final Filter filter = query.getFilter();
+        try {
+            if (filter instanceof BBOX || filter instanceof Id || indexUseable(FIX)) {
+                return null;
+            }
+        } catch (IOException ex) {
+            throw new DataStoreException(ex);
+        }
+        return super.getFeatureSpliterator(query);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    protected FeatureIDReader getFeatureIDReader(final String typeName,
+            final IndexedShapefileAttributeReader reader, final int start) {
+        return new ShapeFIDReader(typeName, reader);
+    }
+
     protected FeatureReader createFeatureReader(
             final IndexedShapefileAttributeReader r, final FeatureType featureType, final Hints hints)
             throws MismatchedFeatureException, IOException,DataStoreException {
@@ -305,6 +305,26 @@ public final class ShpFiles {
         }
     }
 
+    /**
+     * Determine if the read channel of the given file will support random access,
+     * without opening it. Channels of the default file system are file channels.
+     *
+     * @param type the type of file to test.
+     * @return true if the read channel will be a file channel
+     */
+    public boolean supportsRandomAccess(final ShpFileType type) {
+        final URI uri = getURI(type);
+        if (uri == null) {
+            return false;
+        }
+        try {
+            return Paths.get(uri).getFileSystem() == FileSystems.getDefault();
+        } catch (Exception e) {
+            LOGGER.log(Level.FINE, "URI cannot be converted to NIO Path.", e);
+            return false;
+        }
+    }
+
     /**
      * Delete all the shapefile files.
      *
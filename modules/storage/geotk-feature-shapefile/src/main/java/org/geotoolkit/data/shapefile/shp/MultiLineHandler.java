@@ -117,11 +117,17 @@ public class MultiLineHandler extends AbstractShapeHandler {
             partOffsets[i] = buffer.getInt();
         }
 
-        // read the first two coordinates and start building the coordinate sequences
-        final double[][] lines = new double[numParts][0];
         //use a double buffer to increase bulk reading
         final DoubleBuffer dbuffer = buffer.asDoubleBuffer();
 
+        if (dimensions == 2 && buffer.isReadOnly()) {
+            //memory mapped file, sequences can read the coordinates directly from the buffer
+            return readMapped(dbuffer, partOffsets, numPoints);
+        }
+
+        // read the first two coordinates and start building the coordinate sequences
+        final double[][] lines = new double[numParts][0];
+
         for (int part = 0; part < numParts; part++) {
 
             final int finish;
@@ -184,6 +190,31 @@ public class MultiLineHandler extends AbstractShapeHandler {
         return GEOMETRY_FACTORY.createMultiLineString(lineCharSequences);
     }
 
+    /**
+     * Build the lines without copying the coordinates.
+     * Only single point lines are copied since they must be duplicated.
+     */
+    private static MultiLineString readMapped(final DoubleBuffer dbuffer, final int[] partOffsets, final int numPoints) {
+        final int numParts = partOffsets.length;
+        final LineString[] lineCharSequences = new LineString[numParts];
+        for (int part = 0; part < numParts; part++) {
+            final int finish = (part == (numParts - 1)) ? numPoints : partOffsets[part + 1];
+            final int length = finish - partOffsets[part];
+            final CoordinateSequence cs;
+            if (length == 1) {
+                //only one point for a line, JTS do not like that, so we make two points at same place.
+                final double[] coords = new double[4];
+                coords[0] = coords[2] = dbuffer.get(partOffsets[part]*2);
+                coords[1] = coords[3] = dbuffer.get(partOffsets[part]*2 + 1);
+                cs = new ShapeCoordinateSequence2D(coords);
+            } else {
+                cs = new ShapeCoordinateSequenceMapped2D(dbuffer, partOffsets[part]*2, length);
+            }
+            lineCharSequences[part] = GEOMETRY_FACTORY.createLineString(cs);
+        }
+        return GEOMETRY_FACTORY.createMultiLineString(lineCharSequences);
+    }
+
 
 
 //    @Override
@@ -163,10 +163,18 @@ public class PolygonHandler extends AbstractShapeHandler {
         final DoubleBuffer dbuffer = buffer.asDoubleBuffer();
         final int dimensions = (read3D && shapeType == ShapeType.POLYGONZ)? 3:2;
 
-        //read everything in one round : +2 for minZ/maxZ
-        final double[] coords = new double[numPoints*dimensions + ((dimensions==2)?0:2)];
+        //memory mapped file, rings can read the coordinates directly from the buffer
+        final boolean mapped = dimensions == 2 && buffer.isReadOnly();
+
+        final double[] coords;
         final int xySize = numPoints*2;
-        dbuffer.get(coords);
+        if (mapped) {
+            coords = null;
+        } else {
+            //read everything in one round : +2 for minZ/maxZ
+            coords = new double[numPoints*dimensions + ((dimensions==2)?0:2)];
+            dbuffer.get(coords);
+        }
 
         int coordIndex = 0;
         for (int part = 0; part < numParts; part++) {
@@ -186,16 +194,35 @@ public class PolygonHandler extends AbstractShapeHandler {
                 continue;
             }
 
-            final Coordinate[] points = new Coordinate[length];
-            for (int i = 0; i < length; i++) {
-                if(dimensions==2){
-                    points[i] = new Coordinate(coords[coordIndex*2],coords[coordIndex*2+1]);
-                }else{
-                    points[i] = new Coordinate(coords[coordIndex*2],coords[coordIndex*2+1],coords[xySize+coordIndex+2]);
+            final Coordinate[] points;
+            if (mapped) {
+                final ShapeCoordinateSequenceMapped2D cs = new ShapeCoordinateSequenceMapped2D(dbuffer, coordIndex*2, length);
+                coordIndex += length;
+                if (cs.isClosed()) {
+                    final LinearRing ring = GEOMETRY_FACTORY.createLinearRing(cs);
+                    if (cs.isCCW()) {
+                        // counter-clockwise
+                        holes.add(ring);
+                    } else {
+                        // clockwise
+                        shells.add(ring);
+                    }
+                    continue;
+                }
+                //ring must be closed, work on a copy
+                points = cs.toCoordinateArray();
+            } else {
+                points = new Coordinate[length];
+                for (int i = 0; i < length; i++) {
+                    if(dimensions==2){
+                        points[i] = new Coordinate(coords[coordIndex*2],coords[coordIndex*2+1]);
+                    }else{
+                        points[i] = new Coordinate(coords[coordIndex*2],coords[coordIndex*2+1],coords[xySize+coordIndex+2]);
+                    }
+                    coordIndex++;
                 }
-                coordIndex++;
             }
-            
+
             JTS.ensureClosed(points);
 
             final LinearRing ring = GEOMETRY_FACTORY.createLinearRing(points);
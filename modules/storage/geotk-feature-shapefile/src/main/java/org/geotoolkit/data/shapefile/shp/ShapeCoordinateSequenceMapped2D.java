@@ -0,0 +1,216 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+
+package org.geotoolkit.data.shapefile.shp;
+
+import com.vividsolutions.jts.algorithm.CGAlgorithms;
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.CoordinateSequence;
+import com.vividsolutions.jts.geom.Envelope;
+import java.nio.DoubleBuffer;
+
+/**
+ * Coordinates read directly from a memory mapped shapefile buffer, ordered like
+ * [x1,y1, ... xN, yN] starting at the given offset.
+ * <p>
+ * No coordinate is copied until the sequence is modified, the buffer must therefore
+ * be read only and never reused for an other record.
+ * </p>
+ *
+ * @author agent
+ * @module
+ */
+final class ShapeCoordinateSequenceMapped2D implements CoordinateSequence {
+
+    private final DoubleBuffer buffer;
+    private final int offset;
+    private final int size;
+
+    /**
+     * Coordinates copied from the buffer on first modification.
+     */
+    private double[] coordinates;
+
+    /**
+     * @param buffer read only buffer, in the shapefile little endian order
+     * @param offset index of the first x ordinate in the buffer
+     * @param size number of coordinates
+     */
+    ShapeCoordinateSequenceMapped2D(final DoubleBuffer buffer, final int offset, final int size){
+        this.buffer = buffer;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    @Override
+    public int getDimension() {
+        return 2;
+    }
+
+    @Override
+    public Coordinate getCoordinate(final int index) {
+        return new Coordinate(getX(index), getY(index), Coordinate.NULL_ORDINATE);
+    }
+
+    @Override
+    public Coordinate getCoordinateCopy(final int i) {
+        return getCoordinate(i);
+    }
+
+    @Override
+    public void getCoordinate(final int index, final Coordinate coord) {
+        coord.x = getX(index);
+        coord.y = getY(index);
+    }
+
+    @Override
+    public double getX(final int index) {
+        return getOrdinate(index, 0);
+    }
+
+    @Override
+    public double getY(final int index) {
+        return getOrdinate(index, 1);
+    }
+
+    @Override
+    public double getOrdinate(final int index, final int ordinate) {
+        if(coordinates != null){
+            return coordinates[index*2 + ordinate];
+        }
+        return buffer.get(offset + index*2 + ordinate);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void setOrdinate(final int index, final int ordinate, final double value) {
+        if(coordinates == null){
+            final double[] array = new double[size*2];
+            final DoubleBuffer view = buffer.duplicate();
+            view.position(offset);
+            view.get(array);
+            coordinates = array;
+        }
+        coordinates[index*2 + ordinate] = value;
+    }
+
+    @Override
+    public Coordinate[] toCoordinateArray() {
+        final Coordinate[] array = new Coordinate[size];
+        for(int i=0;i<size;i++){
+            array[i] = getCoordinate(i);
+        }
+        return array;
+    }
+
+    @Override
+    public Envelope expandEnvelope(final Envelope envlp) {
+        if(coordinates != null){
+            return new ShapeCoordinateSequence2D(coordinates, size).expandEnvelope(envlp);
+        }
+        if(size == 0){
+            return envlp;
+        }
+
+        double minX = buffer.get(offset);
+        double minY = buffer.get(offset+1);
+        double maxX = minX;
+        double maxY = minY;
+
+        for(int i=offset+2,n=offset+size*2; i<n; i+=2){
+            final double x = buffer.get(i);
+            final double y = buffer.get(i+1);
+            if(x < minX) minX = x;
+            else if(x > maxX) maxX = x;
+
+            if(y < minY) minY = y;
+            else if(y > maxY) maxY = y;
+        }
+        envlp.expandToInclude(minX, minY);
+        envlp.expandToInclude(maxX, maxY);
+        return envlp;
+    }
+
+    @Override
+    public CoordinateSequence clone(){
+        if(coordinates != null){
+            return new ShapeCoordinateSequence2D(coordinates.clone(), size);
+        }
+        return new ShapeCoordinateSequenceMapped2D(buffer, offset, size);
+    }
+
+    /**
+     * Test if the first and last coordinates are equal.
+     */
+    boolean isClosed() {
+        return size > 0 && getX(0) == getX(size-1) && getY(0) == getY(size-1);
+    }
+
+    /**
+     * Same algorithm as {@link CGAlgorithms#isCCW(Coordinate[])}
+     * without creating the coordinate array. The sequence must be closed.
+     */
+    boolean isCCW() {
+        final int nPts = size - 1;
+        // find highest point
+        int hiIndex = 0;
+        for (int i = 1; i <= nPts; i++) {
+            if (getY(i) > getY(hiIndex)) {
+                hiIndex = i;
+            }
+        }
+        final double hiX = getX(hiIndex);
+        final double hiY = getY(hiIndex);
+
+        // find distinct point before highest point
+        int iPrev = hiIndex;
+        do {
+            iPrev = iPrev - 1;
+            if (iPrev < 0) iPrev = nPts;
+        } while (getX(iPrev) == hiX && getY(iPrev) == hiY && iPrev != hiIndex);
+
+        // find distinct point after highest point
+        int iNext = hiIndex;
+        do {
+            iNext = (iNext + 1) % nPts;
+        } while (getX(iNext) == hiX && getY(iNext) == hiY && iNext != hiIndex);
+
+        final Coordinate prev = getCoordinate(iPrev);
+        final Coordinate hi = getCoordinate(hiIndex);
+        final Coordinate next = getCoordinate(iNext);
+
+        // this will catch all cases where there are not 3 distinct points,
+        // including the case where the input array has fewer than 4 elements
+        if (prev.equals2D(hi) || next.equals2D(hi) || prev.equals2D(next)) {
+            return false;
+        }
+
+        final int disc = CGAlgorithms.orientationIndex(prev, hi, next);
+        if (disc == 0) {
+            // poly is CCW if prev x is right of next x
+            return prev.x > next.x;
+        } else {
+            // if area is positive, points are ordered CCW
+            return disc > 0;
+        }
+    }
+
+}
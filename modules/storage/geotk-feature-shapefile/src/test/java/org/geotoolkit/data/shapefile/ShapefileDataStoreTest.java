@@ -56,6 +56,15 @@ import com.vividsolutions.jts.geom.Polygon;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.geotoolkit.data.shapefile.shx.ShxReader;
 import org.apache.sis.feature.FeatureExt;
 import org.apache.sis.feature.builder.FeatureTypeBuilder;
 import org.apache.sis.referencing.CommonCRS;
@@ -121,6 +130,119 @@ public class ShapefileDataStoreTest extends AbstractTestCaseSupport {
         loadFeatures(STATE_POP, QueryBuilder.all(NamesExt.create("statepop")));
     }
 
+    /**
+     * Parallel stream must return the same features as the iterator.
+     */
+    @Test
+    public void testParallelStream() throws Exception {
+        final FeatureCollection fc = loadFeatures(STATE_POP, QueryBuilder.all(NamesExt.create("statepop")));
+        final List<String> expected = new ArrayList<>();
+        try (FeatureIterator ite = fc.iterator()) {
+            while (ite.hasNext()) {
+                expected.add(FeatureExt.getId(ite.next()).getID());
+            }
+        }
+
+        final List<String> result;
+        try (Stream<Feature> stream = fc.parallelStream()) {
+            result = stream.map((Feature f) -> FeatureExt.getId(f).getID()).collect(Collectors.toList());
+        }
+        assertEquals(expected, result);
+
+        //split in small ranges, the test file is smaller than the default split size
+        final URL url = ShapeTestData.url(STATE_POP);
+        final ShapefileFeatureStore s = new ShapefileFeatureStore(url.toURI(),null,true,null);
+        final Query query = QueryBuilder.all(s.getName());
+        final Spliterator<Feature> split = s.getFeatureSpliterator(query, 4);
+        final Spliterator<Feature> prefix = split.trySplit();
+        assertNotNull(prefix);
+        assertEquals(expected.size(), prefix.estimateSize() + split.estimateSize());
+
+        final List<String> splitResult = StreamSupport.stream(s.getFeatureSpliterator(query, 4), true)
+                .map((Feature f) -> FeatureExt.getId(f).getID()).collect(Collectors.toList());
+        assertEquals(expected, splitResult);
+
+        //filtered ranges
+        final Query filtered = QueryBuilder.filtered(s.getName().toString(),
+                ff.like(ff.property("STATE_NAME"), "N*"));
+        final List<String> expectedFiltered = new ArrayList<>();
+        try (FeatureReader reader = s.getFeatureReader(filtered)) {
+            while (reader.hasNext()) {
+                expectedFiltered.add(FeatureExt.getId(reader.next()).getID());
+            }
+        }
+        assertFalse(expectedFiltered.isEmpty());
+        final List<String> filteredResult = StreamSupport.stream(s.getFeatureSpliterator(filtered, 4), true)
+                .map((Feature f) -> FeatureExt.getId(f).getID()).collect(Collectors.toList());
+        assertEquals(expectedFiltered, filteredResult);
+    }
+
+    /**
+     * A short-circuited stream which is not closed must not keep the files opened,
+     * the writer would wait for the readers to release the files.
+     */
+    @Test
+    public void testUnclosedStream() throws Throwable {
+        final ShapefileFeatureStore sds = createDataStore();
+        final int size = loadFeatures(sds).size();
+        assertTrue(loadFeatures(sds).stream().findFirst().isPresent());
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> {
+                try (FeatureWriter writer = sds.getFeatureWriter(QueryBuilder.all(sds.getName().toString()))) {
+                    writer.next();
+                    writer.remove();
+                }
+                return null;
+            }).get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(size-1, loadFeatures(sds).size());
+    }
+
+    /**
+     * Test reading a range of records using the shx offsets.
+     */
+    @Test
+    public void testReadRecordRange() throws Exception {
+        final URL url = ShapeTestData.url(STATE_POP);
+        final ShapefileFeatureStore s = new ShapefileFeatureStore(url.toURI(),null,true,null);
+        final Query query = QueryBuilder.all(s.getName());
+
+        final List<Feature> all = new ArrayList<>();
+        try (FeatureReader reader = s.getFeatureReader(query)) {
+            while (reader.hasNext()) {
+                all.add(reader.next());
+            }
+        }
+
+        final int[] offsets;
+        final ShxReader shx = s.shpFiles.createLocker().getSHXReader(true);
+        try {
+            offsets = new int[shx.getRecordCount()];
+            for (int i=0; i<offsets.length; i++) {
+                offsets[i] = shx.getOffsetInBytes(i);
+            }
+        } finally {
+            shx.close();
+        }
+        assertEquals(all.size(), offsets.length);
+
+        try (FeatureReader reader = s.getFeatureReader(query, offsets, 10, 20)) {
+            for (int i=10; i<20; i++) {
+                assertTrue(reader.hasNext());
+                final Feature feature = reader.next();
+                assertEquals(FeatureExt.getId(all.get(i)).getID(), FeatureExt.getId(feature).getID());
+                assertEquals(all.get(i).getPropertyValue("STATE_NAME"), feature.getPropertyValue("STATE_NAME"));
+                assertTrue(((Geometry) all.get(i).getPropertyValue("the_geom")).equalsExact(
+                        (Geometry) feature.getPropertyValue("the_geom")));
+            }
+            assertFalse(reader.hasNext());
+        }
+    }
+
     @Test
     public void testLoadDanishChars() throws Exception {
         FeatureCollection fc = loadFeatures(DANISH, QueryBuilder.all(NamesExt.create("danish_point")));
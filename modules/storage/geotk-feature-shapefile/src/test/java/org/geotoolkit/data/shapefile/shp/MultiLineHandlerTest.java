@@ -0,0 +1,98 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2017, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.data.shapefile.shp;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.CoordinateSequence;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.LineString;
+import com.vividsolutions.jts.geom.MultiLineString;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test lines read from memory mapped buffers against lines read from heap buffers.
+ *
+ * @author agent
+ */
+public class MultiLineHandlerTest extends org.geotoolkit.test.TestBase {
+
+    private static final GeometryFactory GF = new GeometryFactory();
+
+    /**
+     * Read only buffers are read without copying the coordinates,
+     * result must be the same as the heap decoder.
+     */
+    @Test
+    public void testReadMappedBuffer() {
+        final MultiLineString lines = GF.createMultiLineString(new LineString[]{
+            GF.createLineString(new Coordinate[]{
+                new Coordinate(0, 0), new Coordinate(5, 1), new Coordinate(10, -3)}),
+            GF.createLineString(new Coordinate[]{
+                new Coordinate(-20.5, 40.25), new Coordinate(-21, 41)}),
+            GF.createLineString(new Coordinate[]{
+                new Coordinate(1, 2), new Coordinate(3, 4), new Coordinate(5, 6),
+                new Coordinate(7, 8), new Coordinate(9, 10)})
+        });
+
+        final MultiLineHandler handler = new MultiLineHandler(false);
+        //record does not start at the beginning of the buffer, like in a mapped file
+        final int start = 12;
+        final ByteBuffer buffer = ByteBuffer.allocate(start + handler.getLength(lines));
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(start);
+        handler.write(buffer, lines);
+        buffer.position(start);
+
+        final MultiLineString heap = (MultiLineString) handler.read(
+                ((ByteBuffer) buffer.duplicate().position(start)).order(ByteOrder.LITTLE_ENDIAN), ShapeType.ARC);
+        final MultiLineString mapped = (MultiLineString) handler.read(
+                ((ByteBuffer) buffer.asReadOnlyBuffer().position(start)).order(ByteOrder.LITTLE_ENDIAN), ShapeType.ARC);
+
+        assertTrue(lines.equalsExact(heap));
+        assertTrue(heap.equalsExact(mapped));
+        assertEquals(heap.getEnvelopeInternal(), mapped.getEnvelopeInternal());
+        assertEquals(heap.getNumGeometries(), mapped.getNumGeometries());
+        for (int i = 0, n = heap.getNumGeometries(); i < n; i++) {
+            final CoordinateSequence hcs = ((LineString) heap.getGeometryN(i)).getCoordinateSequence();
+            final CoordinateSequence mcs = ((LineString) mapped.getGeometryN(i)).getCoordinateSequence();
+            assertFalse(hcs instanceof ShapeCoordinateSequenceMapped2D);
+            assertTrue(mcs instanceof ShapeCoordinateSequenceMapped2D);
+            assertEquals(hcs.size(), mcs.size());
+            assertEquals(hcs.expandEnvelope(new com.vividsolutions.jts.geom.Envelope()),
+                         mcs.expandEnvelope(new com.vividsolutions.jts.geom.Envelope()));
+            for (int k = 0, s = hcs.size(); k < s; k++) {
+                assertEquals(hcs.getCoordinate(k), mcs.getCoordinate(k));
+                assertEquals(hcs.getX(k), mcs.getX(k), 0.0);
+                assertEquals(hcs.getY(k), mcs.getY(k), 0.0);
+            }
+            assertArrayEquals(hcs.toCoordinateArray(), mcs.toCoordinateArray());
+        }
+
+        //modifications must not affect the buffer nor the other lines
+        final CoordinateSequence cs = ((LineString) mapped.getGeometryN(1)).getCoordinateSequence();
+        cs.setOrdinate(0, 0, 99);
+        assertEquals(99.0, cs.getX(0), 0.0);
+        assertEquals(40.25, cs.getY(0), 0.0);
+        final MultiLineString reread = (MultiLineString) handler.read(
+                ((ByteBuffer) buffer.asReadOnlyBuffer().position(start)).order(ByteOrder.LITTLE_ENDIAN), ShapeType.ARC);
+        assertTrue(heap.equalsExact(reread));
+    }
+
+}
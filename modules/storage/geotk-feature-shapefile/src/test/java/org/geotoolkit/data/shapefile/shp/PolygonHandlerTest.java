@@ -26,7 +26,10 @@ import com.vividsolutions.jts.geom.Coordinate;
 import com.vividsolutions.jts.geom.Geometry;
 import com.vividsolutions.jts.geom.GeometryFactory;
 import com.vividsolutions.jts.geom.LinearRing;
+import com.vividsolutions.jts.geom.Polygon;
 import com.vividsolutions.jts.geom.PrecisionModel;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.List;
 
 import static org.junit.Assert.*;
@@ -86,6 +89,40 @@ public class PolygonHandlerTest extends AbstractTestCaseSupport {
 
     }
 
+    /**
+     * Read only buffers are read without copying the coordinates,
+     * result must be the same as with a copy.
+     */
+    @Test
+    public void testReadMappedBuffer() {
+        final GeometryFactory gf = new GeometryFactory();
+        final LinearRing shell = gf.createLinearRing(new Coordinate[]{
+            new Coordinate(0, 0), new Coordinate(0, 10), new Coordinate(10, 10),
+            new Coordinate(10, 0), new Coordinate(0, 0)});
+        final LinearRing hole = gf.createLinearRing(new Coordinate[]{
+            new Coordinate(2, 2), new Coordinate(4, 2), new Coordinate(4, 4),
+            new Coordinate(2, 4), new Coordinate(2, 2)});
+        final Polygon polygon = gf.createPolygon(shell, new LinearRing[]{hole});
+
+        final PolygonHandler handler = new PolygonHandler(false);
+        final ByteBuffer buffer = ByteBuffer.allocate(handler.getLength(polygon));
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        handler.write(buffer, polygon);
+        buffer.flip();
+
+        final Geometry copied = (Geometry) handler.read(buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN), ShapeType.POLYGON);
+        final Geometry mapped = (Geometry) handler.read(buffer.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN), ShapeType.POLYGON);
+        assertTrue(copied.equalsExact(mapped));
+        assertEquals(1, mapped.getNumGeometries());
+        assertEquals(1, ((Polygon) mapped.getGeometryN(0)).getNumInteriorRing());
+        assertEquals(copied.getEnvelopeInternal(), mapped.getEnvelopeInternal());
+
+        //modifications must not affect the buffer
+        final Polygon poly = (Polygon) mapped.getGeometryN(0);
+        poly.getExteriorRing().getCoordinateSequence().setOrdinate(0, 0, -5);
+        assertEquals(0.0, buffer.getDouble(32 + 4 + 4 + 2*4), 0.0);
+    }
+
     public static Geometry rectangle(final PrecisionModel pm, final int SRID) {
         Coordinate[] coords = new Coordinate[5];
         for (int i = 0; i < coords.length; i++) {
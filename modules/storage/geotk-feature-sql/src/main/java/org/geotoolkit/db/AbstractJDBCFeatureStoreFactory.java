@@ -143,6 +143,14 @@ public abstract class AbstractJDBCFeatureStoreFactory extends AbstractFeatureSto
             .setRequired(false)
             .create(Integer.class, 1000);
     
+    /** Number of records inserted in a single batch */
+    public static final ParameterDescriptor<Integer> BATCHSIZE = new ParameterBuilder()
+            .addName("batch size")
+            .addName(Bundle.formatInternational(Bundle.Keys.batch_size))
+            .setRemarks(Bundle.formatInternational(Bundle.Keys.batch_size_remarks))
+            .setRequired(false)
+            .create(Integer.class, 1000);
+
     /** Maximum amount of time the pool will wait when trying to grab a new connection **/
     public static final ParameterDescriptor<Integer> MAXWAIT = new ParameterBuilder()
             .addName("Connection timeout")
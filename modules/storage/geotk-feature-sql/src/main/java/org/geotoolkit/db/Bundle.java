@@ -38,145 +38,155 @@ public final class Bundle extends IndexedResourceBundle {
         private Keys() {
         }
 
+        /**
+         * Batch size
+         */
+        public static final short batch_size = 1;
+
+        /**
+         * Number of records inserted with each call to the dbms
+         */
+        public static final short batch_size_remarks = 2;
+
         /**
          * Database
          */
-        public static final short database = 1;
+        public static final short database = 3;
 
         /**
          * Database name
          */
-        public static final short database_remarks = 2;
+        public static final short database_remarks = 4;
 
         /**
          * DataSource
          */
-        public static final short datasource = 3;
+        public static final short datasource = 5;
 
         /**
          * DataSource java object
          */
-        public static final short datasource_remarks = 4;
+        public static final short datasource_remarks = 6;
 
         /**
          * Fetch size
          */
-        public static final short fetch_size = 5;
+        public static final short fetch_size = 7;
 
         /**
          * Number of records read with each iteraction with the dbms
          */
-        public static final short fetch_size_remarks = 6;
+        public static final short fetch_size_remarks = 8;
 
         /**
          * Host
          */
-        public static final short host = 7;
+        public static final short host = 9;
 
         /**
          * Host database server
          */
-        public static final short host_remarks = 8;
+        public static final short host_remarks = 10;
 
         /**
          * Max connections
          */
-        public static final short max_connections = 9;
+        public static final short max_connections = 11;
 
         /**
          * maximum number of open connections
          */
-        public static final short max_connections_remarks = 10;
+        public static final short max_connections_remarks = 12;
 
         /**
          * Min connections
          */
-        public static final short min_connections = 11;
+        public static final short min_connections = 13;
 
         /**
          * minimum number of open connections o keep alive
          */
-        public static final short min_connections_remarks = 12;
+        public static final short min_connections_remarks = 14;
 
         /**
          * Password
          */
-        public static final short password = 13;
+        public static final short password = 15;
 
         /**
          * Password used to login
          */
-        public static final short password_remarks = 14;
+        public static final short password_remarks = 16;
 
         /**
          * Port
          */
-        public static final short port = 15;
+        public static final short port = 17;
 
         /**
          * Database connection port
          */
-        public static final short port_remarks = 16;
+        public static final short port_remarks = 18;
 
         /**
          * Schema
          */
-        public static final short schema = 17;
+        public static final short schema = 19;
 
         /**
          * Database schema
          */
-        public static final short schema_remarks = 18;
+        public static final short schema_remarks = 20;
 
         /**
          * Simple types
          */
-        public static final short simpletype = 19;
+        public static final short simpletype = 21;
 
         /**
          * Set to false if relation between tables must not appear in the feature type
          */
-        public static final short simpletype_remarks = 20;
+        public static final short simpletype_remarks = 22;
 
         /**
          * Table
          */
-        public static final short table = 21;
+        public static final short table = 23;
 
         /**
          * Restrict featurestore to only given tables.
          */
-        public static final short table_remarks = 22;
+        public static final short table_remarks = 24;
 
         /**
          * Timeout(s)
          */
-        public static final short timeout = 23;
+        public static final short timeout = 25;
 
         /**
          * number of seconds the connection pool wait for login
          */
-        public static final short timeout_remarks = 24;
+        public static final short timeout_remarks = 26;
 
         /**
          * User
          */
-        public static final short user = 25;
+        public static final short user = 27;
 
         /**
          * user name to login as
          */
-        public static final short user_remarks = 26;
+        public static final short user_remarks = 28;
 
         /**
          * Validate connection
          */
-        public static final short validate_connections = 27;
+        public static final short validate_connections = 29;
 
         /**
          * Check connection is alive before using it
          */
-        public static final short validate_connections_remarks = 28;
+        public static final short validate_connections_remarks = 30;
     }
 
     /**
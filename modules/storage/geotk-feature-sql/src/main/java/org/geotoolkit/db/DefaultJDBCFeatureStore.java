@@ -16,9 +16,11 @@
  */
 package org.geotoolkit.db;
 
+import com.vividsolutions.jts.geom.Geometry;
 import com.vividsolutions.jts.geom.GeometryFactory;
 import java.io.IOException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -77,6 +79,7 @@ import org.opengis.parameter.ParameterValueGroup;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import org.apache.sis.util.Utilities;
 import org.geotoolkit.data.memory.GenericDecoratedFeatureIterator;
+import org.opengis.coverage.Coverage;
 import org.opengis.feature.AttributeType;
 import org.opengis.feature.Feature;
 import org.opengis.feature.FeatureAssociationRole;
@@ -109,6 +112,8 @@ public class DefaultJDBCFeatureStore extends JDBCFeatureStore{
 
     //number of records to retrieve with each db call.
     private final int fetchSize;
+    //number of records to insert with each db call.
+    private int batchSize = 1000;
     private SQLQueryBuilder queryBuilder;
 
 
@@ -120,6 +125,15 @@ public class DefaultJDBCFeatureStore extends JDBCFeatureStore{
         final boolean simpleTypes = (Boolean)Parameters.getOrCreate(AbstractJDBCFeatureStoreFactory.SIMPLETYPE, params).getValue();
         dbmodel = new DataBaseModel(this, simpleTypes);
 
+        try{
+            final Integer batch = (Integer)Parameters.getOrCreate(AbstractJDBCFeatureStoreFactory.BATCHSIZE, params).getValue();
+            if (batch != null && batch > 0) {
+                batchSize = batch;
+            }
+        }catch(ParameterNotFoundException ex){
+            //parameter migth not exist on all database implementations
+        }
+
         try{
             baseSchema = (String)Parameters.getOrCreate(AbstractJDBCFeatureStoreFactory.SCHEMA, params).getValue();
             if (baseSchema != null && baseSchema.isEmpty()) {
@@ -162,6 +176,11 @@ public class DefaultJDBCFeatureStore extends JDBCFeatureStore{
         return fetchSize;
     }
 
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
     public void setDialect(SQLDialect dialect) {
         ArgumentChecks.ensureNonNull("dialect", dialect);
         this.dialect = dialect;
@@ -890,12 +909,96 @@ public class DefaultJDBCFeatureStore extends JDBCFeatureStore{
         handleRemoveWithFeatureWriter(groupName, filter, cnx);
     }
 
+    /**
+     * Insert features using a prepared statement, executed by batches of
+     * {@link #getBatchSize() } records.
+     * Generated identifiers are not set on the inserted features.
+     */
     protected void insert(final Collection<? extends Feature> features, final FeatureType featureType,
             final Connection cx) throws DataStoreException {
         final PrimaryKey key = dbmodel.getPrimaryKey(featureType.getName().toString());
+        final List<ColumnMetaModel> keyColumns = key.getColumns();
+        final List<AttributeType> attributes = getQueryBuilder().getInsertAttributes(featureType);
+        final int nbAtt = attributes.size();
+
+        final String[] names = new String[nbAtt];
+        final int[] keyIndexes = new int[nbAtt];
+        final boolean[] geometries = new boolean[nbAtt];
+        for (int i=0; i<nbAtt; i++) {
+            final AttributeType att = attributes.get(i);
+            names[i] = att.getName().tip().toString();
+            geometries[i] = Geometry.class.isAssignableFrom(att.getValueClass());
+            keyIndexes[i] = -1;
+            for (int k=0,n=keyColumns.size(); k<n; k++) {
+                if (keyColumns.get(k).getName().equals(names[i])) {
+                    keyIndexes[i] = k;
+                    break;
+                }
+            }
+            if (Coverage.class.isAssignableFrom(att.getValueClass())) {
+                //coverages can not be set as statement parameters
+                insertAsSQL(features, featureType, cx);
+                return;
+            }
+        }
 
         // we do this in a synchronized block because we need to do two queries,
         // first to figure out what the id will be, then the insert statement
+        synchronized (this) {
+            PreparedStatement stmt = null;
+            String sql = null;
+            try {
+                sql = getQueryBuilder().insertPreparedSQL(featureType, attributes);
+                stmt = cx.prepareStatement(sql);
+
+                int inBatch = 0;
+                for (Feature feature : features) {
+                    Object[] nextKeyValues = null;
+                    for (int i=0; i<nbAtt; i++) {
+                        Object value = feature.getPropertyValue(names[i]);
+                        if (value == null && keyIndexes[i] >= 0) {
+                            //maybe it's an auto generated value from a sequence
+                            if (nextKeyValues == null) {
+                                nextKeyValues = key.nextPrimaryKeyValues(this, cx);
+                            }
+                            value = nextKeyValues[keyIndexes[i]];
+                        }
+                        if (geometries[i]) {
+                            final Geometry geom = (Geometry) value;
+                            dialect.setGeometryValue(stmt, i+1, geom, SQLQueryBuilder.getGeometrySRID(geom, attributes.get(i)));
+                        } else {
+                            dialect.setValue(stmt, i+1, value, attributes.get(i).getValueClass());
+                        }
+                    }
+                    stmt.addBatch();
+
+                    if (++inBatch >= batchSize) {
+                        stmt.executeBatch();
+                        inBatch = 0;
+                    }
+                }
+                if (inBatch > 0) {
+                    stmt.executeBatch();
+                }
+
+                if (cx.getAutoCommit()) {
+                    fireFeaturesAdded(featureType.getName(), null);
+                }
+            } catch (SQLException e) {
+                throw new DataStoreException("Error inserting features : "+e.getMessage()+"\nSQL Query :"+sql, e);
+            } finally {
+                JDBCFeatureStoreUtilities.closeSafe(getLogger(),stmt);
+            }
+        }
+    }
+
+    /**
+     * Insert features with a single sql query, values are encoded in the query.
+     */
+    private void insertAsSQL(final Collection<? extends Feature> features, final FeatureType featureType,
+            final Connection cx) throws DataStoreException {
+        final PrimaryKey key = dbmodel.getPrimaryKey(featureType.getName().toString());
+
         synchronized (this) {
             Statement st = null;
             try {
@@ -110,5 +110,12 @@ public abstract class JDBCFeatureStore extends AbstractFeatureStore{
      * @return int sql fetch size
      */
     public abstract int getFetchSize();
+
+    /**
+     * Returns the number of records inserted with each batch.
+     * Using a high value will require more memory but reduce the number of calls to the database.
+     * @return int sql batch size
+     */
+    public abstract int getBatchSize();
     
 }
@@ -87,7 +87,7 @@ public class JDBCFeatureWriterInsert extends JDBCFeatureReader implements Featur
         if(batchInsert){
             toAdd.add(last);
             last = type.newInstance();
-            if(toAdd.size() > 1000){
+            if(toAdd.size() >= store.getBatchSize()){
                 try {
                     store.insert(toAdd, type, cx);
                 } catch (DataStoreException e) {
@@ -16,8 +16,13 @@
  */
 package org.geotoolkit.db.dialect;
 
+import com.vividsolutions.jts.geom.Geometry;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Date;
 import org.apache.sis.feature.SingleAttributeTypeBuilder;
 import org.geotoolkit.filter.capability.DefaultFilterCapabilities;
 import org.geotoolkit.filter.visitor.CapabilitiesFilterSplitter;
@@ -94,6 +99,35 @@ public abstract class AbstractSQLDialect implements SQLDialect {
     public void encodePostCreateTable(StringBuilder sql, String tableName) {
     }
     
+    /**
+     * Geometry parameters are not supported by default, dialects must
+     * override this method and {@link #setGeometryValue(PreparedStatement, int, Geometry, int) }.
+     */
+    @Override
+    public void encodeGeometryParameter(StringBuilder sql, int srid) {
+        throw new UnsupportedOperationException("Geometry parameters not supported by this dialect.");
+    }
+
+    @Override
+    public void setValue(PreparedStatement stmt, int index, Object value, Class type) throws SQLException {
+        if (value == null) {
+            stmt.setNull(index, Types.NULL);
+        } else if (value instanceof Date && !(value instanceof java.sql.Date
+                || value instanceof java.sql.Time || value instanceof Timestamp)) {
+            stmt.setTimestamp(index, new Timestamp(((Date) value).getTime()));
+        } else {
+            stmt.setObject(index, value);
+        }
+    }
+
+    /**
+     * Geometry parameters are not supported by default.
+     */
+    @Override
+    public void setGeometryValue(PreparedStatement stmt, int index, Geometry value, int srid) throws SQLException {
+        throw new UnsupportedOperationException("Geometry parameters not supported by this dialect.");
+    }
+
     @Override
     public void decodeColumnType(final SingleAttributeTypeBuilder atb, final Connection cx,
             final String typeName, final int datatype, final String schemaName,
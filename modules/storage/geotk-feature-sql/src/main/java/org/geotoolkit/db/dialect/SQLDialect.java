@@ -19,6 +19,7 @@ package org.geotoolkit.db.dialect;
 import com.vividsolutions.jts.geom.Geometry;
 import java.io.IOException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Map;
@@ -114,6 +115,26 @@ public interface SQLDialect {
     void encodeGeometryValue(StringBuilder sql, Geometry value, int srid) throws DataStoreException;
     
     void encodeCoverageValue(StringBuilder sql, Coverage value) throws DataStoreException;
+
+    /**
+     * Encode a geometry parameter of a prepared statement.
+     * The value will be set with {@link #setGeometryValue(PreparedStatement, int, Geometry, int) }.
+     *
+     * @param sql
+     * @param srid geometry column srid, may be zero or negative if undefined
+     */
+    void encodeGeometryParameter(StringBuilder sql, int srid);
+
+    /**
+     * Set a prepared statement parameter value.
+     */
+    void setValue(PreparedStatement stmt, int index, Object value, Class type) throws SQLException;
+
+    /**
+     * Set a prepared statement geometry parameter value.
+     * The parameter must have been encoded with {@link #encodeGeometryParameter(StringBuilder, int) }.
+     */
+    void setGeometryValue(PreparedStatement stmt, int index, Geometry value, int srid) throws SQLException;
     
     void encodePrimaryKey(StringBuilder sql, Class binding, String sqlType);
 
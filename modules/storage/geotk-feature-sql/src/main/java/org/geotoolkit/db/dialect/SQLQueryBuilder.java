@@ -324,6 +324,67 @@ public class SQLQueryBuilder {
         return sqlType.toString() + sqlValues.toString();
     }
 
+    /**
+     * List the attributes to write for batch insertions.
+     * Convention properties and auto generated primary key columns are excluded.
+     *
+     * @param featureType inserted feature type
+     * @return list of attributes, in column order
+     */
+    public List<AttributeType> getInsertAttributes(final FeatureType featureType) throws DataStoreException {
+        final PrimaryKey key = store.getDatabaseModel().getPrimaryKey(featureType.getName().toString());
+        final List<ColumnMetaModel> keyColumns = key.getColumns();
+
+        final List<AttributeType> attributes = new ArrayList<>();
+        fields :
+        for(PropertyType desc : featureType.getProperties(true)){
+            if (AttributeConvention.contains(desc.getName()) || !(desc instanceof AttributeType)) {
+                continue;
+            }
+            final String attName = desc.getName().tip().toString();
+            for (ColumnMetaModel col : keyColumns) {
+                if(col.getName().equals(attName) && col.getType() == ColumnMetaModel.Type.AUTO){
+                    continue fields;
+                }
+            }
+            attributes.add((AttributeType) desc);
+        }
+        return attributes;
+    }
+
+    /**
+     * Generates an 'INSERT INTO' prepared statement with a parameter for each given attribute.
+     *
+     * @param featureType inserted feature type
+     * @param attributes attributes to insert, see {@link #getInsertAttributes(org.opengis.feature.FeatureType) }
+     * @return sql prepared statement
+     */
+    public String insertPreparedSQL(final FeatureType featureType, final List<AttributeType> attributes){
+        final StringBuilder sqlType = new StringBuilder();
+        sqlType.append("INSERT INTO ");
+        dialect.encodeSchemaAndTableName(sqlType, databaseSchema, featureType.getName().tip().toString());
+        sqlType.append(" ( ");
+
+        final StringBuilder sqlValues = new StringBuilder();
+        sqlValues.append(" ) VALUES ( ");
+
+        for(AttributeType att : attributes){
+            dialect.encodeColumnName(sqlType, att.getName().tip().toString());
+            if (Geometry.class.isAssignableFrom(att.getValueClass())) {
+                dialect.encodeGeometryParameter(sqlValues, getDescriptorSRID(att));
+            } else {
+                sqlValues.append('?');
+            }
+            sqlType.append(',');
+            sqlValues.append(',');
+        }
+
+        sqlType.setLength(sqlType.length() - 1);
+        sqlValues.setLength(sqlValues.length() - 1);
+        sqlValues.append(")");
+
+        return sqlType.toString() + sqlValues.toString();
+    }
 
     /**
      * Generates an 'UPDATE' sql statement.
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.Spliterator;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.apache.sis.feature.FeatureTypeExt;
@@ -278,6 +279,23 @@ public abstract class AbstractFeatureStore extends DataStore implements FeatureS
         return FeatureStoreUtilities.calculateEnvelope(reader);
     }
 
+    /**
+     * Get a spliterator over the features matching the given query, which can
+     * be split to read the features in parallel.
+     *
+     * This implementation returns null, collections will then iterate on a
+     * feature reader. Subclasses should override this method if they can read
+     * parts of the features independently. Returned spliterators may implement
+     * {@link AutoCloseable} to release their resources when the stream is closed.
+     *
+     * @param query feature query
+     * @return Spliterator or null if not supported
+     * @throws DataStoreException
+     */
+    public Spliterator<Feature> getFeatureSpliterator(final Query query) throws DataStoreException {
+        return null;
+    }
+
     private static Query addSeparateFeatureHint(final Query query){
         //hints never null on a query
         Hints hints = query.getHints();
@@ -23,7 +23,10 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
 import java.util.logging.Level;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.apache.sis.feature.FeatureExt;
 import org.apache.sis.util.logging.Logging;
 import org.apache.sis.storage.DataStoreException;
@@ -31,6 +34,7 @@ import org.geotoolkit.data.query.Query;
 import org.geotoolkit.data.query.QueryBuilder;
 import org.geotoolkit.data.query.QueryUtilities;
 import org.geotoolkit.data.query.Selector;
+import org.geotoolkit.data.session.Session;
 import org.geotoolkit.factory.FactoryFinder;
 import org.geotoolkit.factory.Hints;
 import org.geotoolkit.util.collection.CloseableIterator;
@@ -117,6 +121,59 @@ public class DefaultSelectorFeatureCollection extends AbstractFeatureCollection{
         }
     }
 
+    /**
+     * {@inheritDoc }
+     *
+     * Use the feature store spliterator if available and there are no pending
+     * changes in the session.
+     */
+    @Override
+    public Spliterator<Feature> spliterator() {
+        final Session session = getSession();
+        if (!session.hasPendingChanges() && session.getFeatureStore() instanceof AbstractFeatureStore) {
+            try {
+                final Spliterator<Feature> split = ((AbstractFeatureStore) session.getFeatureStore()).getFeatureSpliterator(query);
+                if (split != null) {
+                    return split;
+                }
+            } catch (DataStoreException ex) {
+                throw new FeatureStoreRuntimeException(ex);
+            }
+        }
+        return super.spliterator();
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public Stream<Feature> stream() {
+        return stream(false);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public Stream<Feature> parallelStream() {
+        return stream(true);
+    }
+
+    private Stream<Feature> stream(final boolean parallel) {
+        final Spliterator<Feature> split = spliterator();
+        final Stream<Feature> stream = StreamSupport.stream(split, parallel);
+        if (split instanceof AutoCloseable) {
+            return stream.onClose(() -> {
+                try {
+                    ((AutoCloseable) split).close();
+                } catch (Exception ex) {
+                    throw new FeatureStoreRuntimeException(ex);
+                }
+            });
+        }
+        return stream;
+    }
+
     /**
      * {@inheritDoc }
      */